@@ -0,0 +1,25 @@
+package com.example.application.dto;
+
+/**
+ * DTO for the progress of a bulk session invalidation, reported after every page
+ *
+ * @param scanned     sessions examined so far
+ * @param invalidated sessions deleted so far
+ * @param done        whether the whole store has been examined
+ */
+public record InvalidationProgress(long scanned, long invalidated, boolean done) {
+
+  /** Progress before the first page */
+  public static final InvalidationProgress STARTED = new InvalidationProgress(0, 0, false);
+
+  /**
+   * @return the progress once one more page has been handled
+   */
+  public InvalidationProgress next(int pageScanned, int pageInvalidated) {
+    return new InvalidationProgress(scanned + pageScanned, invalidated + pageInvalidated, false);
+  }
+
+  public InvalidationProgress completed() {
+    return new InvalidationProgress(scanned, invalidated, true);
+  }
+}
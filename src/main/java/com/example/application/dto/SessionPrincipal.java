@@ -0,0 +1,58 @@
+package com.example.application.dto;
+
+import com.example.domain.model.User;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Authenticated user as stored in the session, once per session
+ * Both the current {@link User} and the Spring Security context are rebuilt from it on read; the
+ * password hash is never stored
+ *
+ * @param id       user id, may be null
+ * @param username user name, also the security principal
+ * @param email    e-mail address
+ * @param roles    role names without the {@code ROLE_} prefix, kept sorted and unmodifiable
+ * @param enabled  whether the account is enabled
+ */
+public record SessionPrincipal(Long id, String username, String email, Set<String> roles, boolean enabled) {
+
+  /** Session attribute holding the principal, the one that used to hold the full {@link User} */
+  public static final String SESSION_ATTRIBUTE = "currentUser";
+
+  public SessionPrincipal {
+    // Orden fijo: el mismo principal se codifica con los mismos bytes en cada nodo y tras reiniciar
+    roles = Collections.unmodifiableSortedSet(roles != null ? new TreeSet<>(roles) : new TreeSet<>());
+  }
+
+  public static SessionPrincipal of(User user) {
+    return new SessionPrincipal(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(), user.isEnabled());
+  }
+
+  /**
+   * Reads the value of {@link #SESSION_ATTRIBUTE}, including sessions written before this record
+   *
+   * @param value the attribute value: a principal, a legacy {@link User} or null
+   * @return the principal, null if the value is neither
+   */
+  public static SessionPrincipal from(Object value) {
+    if (value instanceof SessionPrincipal principal) {
+      return principal;
+    }
+    return value instanceof User user ? of(user) : null;
+  }
+
+  /**
+   * @return a new user with this principal's data and no password
+   */
+  public User toUser() {
+    User user = new User(username, null, email);
+    user.setId(id);
+    user.setRoles(new HashSet<>(roles));
+    user.setEnabled(enabled);
+    return user;
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.application.dto;
+
+/**
+ * DTO for the filter of the session administration endpoints
+ * A null criterion matches every session
+ *
+ * @param username only sessions of this user
+ * @param role     only sessions whose user has this role
+ */
+public record SessionQuery(String username, String role) {
+
+  /**
+   * @return true if no criterion is set, so every session matches
+   */
+  public boolean isEmpty() {
+    return username == null && role == null;
+  }
+
+  public boolean matches(SessionSummary session) {
+    return (username == null || username.equals(session.username()))
+        && (role == null || session.roles().contains(role));
+  }
+}
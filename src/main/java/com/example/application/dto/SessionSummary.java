@@ -0,0 +1,17 @@
+package com.example.application.dto;
+
+import java.util.Set;
+
+/**
+ * DTO for one stored session as listed by the session administration endpoints
+ *
+ * @param sessionId           id of the session
+ * @param username            user logged in with the session, null if anonymous
+ * @param roles               roles of that user, empty if anonymous
+ * @param creationTime        creation time in epoch millis
+ * @param lastAccessedTime    last access in epoch millis
+ * @param maxInactiveInterval inactivity timeout in seconds
+ */
+public record SessionSummary(String sessionId, String username, Set<String> roles, long creationTime,
+    long lastAccessedTime, int maxInactiveInterval) {
+}
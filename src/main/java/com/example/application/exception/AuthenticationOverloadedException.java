@@ -0,0 +1,27 @@
+package com.example.application.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login cannot be verified now because password verification is saturated
+ * The credentials were not checked; the client should retry after {@link #getRetryAfter()}
+ */
+public class AuthenticationOverloadedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Duration retryAfter;
+
+  /**
+   * @param message    reason of the rejection
+   * @param retryAfter how long the client should wait before retrying
+   */
+  public AuthenticationOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -2,6 +2,7 @@ package com.example.application.port.in;
 
 import com.example.application.dto.LoginRequest;
 import com.example.application.dto.LoginResponse;
+import com.example.application.exception.AuthenticationOverloadedException;
 
 /**
  * Port for authentication operations
@@ -14,6 +15,7 @@ public interface AuthenticationUseCase {
    * 
    * @param loginRequest the login credentials
    * @return authentication result with user information
+   * @throws AuthenticationOverloadedException if the password cannot be verified now
    */
   LoginResponse authenticateAndCreateSession(LoginRequest loginRequest);
 
@@ -22,6 +24,7 @@ public interface AuthenticationUseCase {
    * 
    * @param loginRequest the login credentials
    * @return authentication result
+   * @throws AuthenticationOverloadedException if the password cannot be verified now
    */
   LoginResponse authenticate(LoginRequest loginRequest);
 }
\ No newline at end of file
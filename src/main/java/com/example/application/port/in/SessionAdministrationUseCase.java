@@ -0,0 +1,35 @@
+package com.example.application.port.in;
+
+import com.example.application.dto.InvalidationProgress;
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Port for bulk session administration
+ * Results are handed over one bounded page at a time, and the next page is only read once the
+ * consumer returns, so memory use does not grow with the number of stored sessions
+ */
+public interface SessionAdministrationUseCase {
+
+  /**
+   * Lists the stored sessions matching a query
+   *
+   * @param query        the filter
+   * @param pageConsumer receives each non-empty page of matching sessions
+   */
+  void streamSessions(SessionQuery query, Consumer<List<SessionSummary>> pageConsumer);
+
+  /**
+   * Deletes the stored sessions matching a query, one batch per page
+   *
+   * @param query            the filter, with at least one criterion
+   * @param keepSessionId    session never deleted, usually the caller's own; null for none
+   * @param progressConsumer receives the progress after every page, and a last time once done
+   * @return the final progress
+   */
+  InvalidationProgress invalidateSessions(SessionQuery query, String keepSessionId,
+      Consumer<InvalidationProgress> progressConsumer);
+}
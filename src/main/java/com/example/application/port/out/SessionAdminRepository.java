@@ -0,0 +1,32 @@
+package com.example.application.port.out;
+
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Output port for bulk access to the stored sessions
+ * This interface defines the contract for the session store used by the administration endpoints
+ */
+public interface SessionAdminRepository {
+
+  /**
+   * Walks the stored sessions one bounded page at a time
+   * The query only lets the implementation narrow the walk, for instance through an index by
+   * user; pages may still contain sessions that do not match it
+   *
+   * @param query        the filter the caller will apply
+   * @param pageConsumer receives each page, the next one is read once it returns
+   */
+  void scan(SessionQuery query, Consumer<List<SessionSummary>> pageConsumer);
+
+  /**
+   * Deletes several sessions in as few round trips as possible
+   *
+   * @param sessionIds ids of the sessions, missing ones are ignored
+   */
+  void deleteAll(Collection<String> sessionIds);
+}
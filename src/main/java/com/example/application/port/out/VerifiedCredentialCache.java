@@ -0,0 +1,47 @@
+package com.example.application.port.out;
+
+import com.example.domain.model.User;
+
+/**
+ * Output port for the cache of recently verified credentials
+ * A hit lets a login skip the password hash; only successful verifications are remembered
+ */
+public interface VerifiedCredentialCache {
+
+  /**
+   * Cache that never remembers anything, used when the cache is disabled
+   */
+  VerifiedCredentialCache NONE = new VerifiedCredentialCache() {
+    @Override
+    public boolean isVerified(User user, CharSequence rawPassword) {
+      return false;
+    }
+
+    @Override
+    public void remember(User user, CharSequence rawPassword) {
+    }
+
+    @Override
+    public void userSaved(User user) {
+    }
+  };
+
+  /**
+   * @param user        the user as currently stored
+   * @param rawPassword the presented password
+   * @return true if this password was verified recently against the user's current hash
+   */
+  boolean isVerified(User user, CharSequence rawPassword);
+
+  /**
+   * Remembers a password that just matched the user's hash
+   */
+  void remember(User user, CharSequence rawPassword);
+
+  /**
+   * Forgets the user's verified password if the saved user has another hash or enabled flag
+   *
+   * @param user the user as just saved
+   */
+  void userSaved(User user);
+}
@@ -1,7 +1,9 @@
 package com.example.application.service;
 
+import com.example.application.exception.AuthenticationOverloadedException;
 import com.example.application.port.in.AuthenticationUseCase;
 import com.example.application.port.out.UserRepository;
+import com.example.application.port.out.VerifiedCredentialCache;
 import com.example.application.dto.LoginRequest;
 import com.example.application.dto.LoginResponse;
 import com.example.domain.model.User;
@@ -20,12 +22,14 @@ public class AuthenticationService implements AuthenticationUseCase {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final SessionService sessionService;
+  private final VerifiedCredentialCache credentialCache;
 
   public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-      SessionService sessionService) {
+      SessionService sessionService, VerifiedCredentialCache credentialCache) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.sessionService = sessionService;
+    this.credentialCache = credentialCache;
   }
 
   @Override
@@ -61,9 +65,13 @@ public class AuthenticationService implements AuthenticationUseCase {
 
     User user = userOpt.get();
 
-    // Verificar password
-    if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-      return new LoginResponse(false, "Invalid username or password");
+    // Verificar password: una verificación reciente de la misma contraseña evita el hash
+    if (!credentialCache.isVerified(user, loginRequest.getPassword())) {
+      if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        return new LoginResponse(false, "Invalid username or password");
+      }
+      rehashIfOutdated(user, loginRequest.getPassword());
+      credentialCache.remember(user, loginRequest.getPassword());
     }
 
     // Verificar que el usuario esté habilitado
@@ -81,6 +89,26 @@ public class AuthenticationService implements AuthenticationUseCase {
     return new LoginResponse(true, "Authentication successful", null, userInfo);
   }
 
+  /**
+   * Re-encodes the password of a user whose stored hash uses another algorithm or cost than the
+   * current one, while the raw password is at hand
+   *
+   * @param user        user whose password was just verified
+   * @param rawPassword the verified password
+   */
+  private void rehashIfOutdated(User user, String rawPassword) {
+    if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+      return;
+    }
+    try {
+      user.setPassword(passwordEncoder.encode(rawPassword));
+    } catch (AuthenticationOverloadedException e) {
+      // El login ya está verificado: con el pool saturado se rehace el hash en el siguiente login
+      return;
+    }
+    userRepository.save(user);
+  }
+
   /**
    * Helper method to extract User from LoginResponse
    * 
@@ -0,0 +1,165 @@
+package com.example.application.service;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.domain.model.User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.ReactiveSessionRepository;
+import org.springframework.session.Session;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Non-blocking service for managing user sessions
+ * Same session attributes and responses as {@link SessionService}, but the session is looked up by
+ * id through a reactive repository instead of the request's {@code HttpSession}
+ */
+public class ReactiveSessionService {
+
+  private static final String USER_SESSION_KEY = SessionPrincipal.SESSION_ATTRIBUTE;
+  private static final String SESSION_CREATED_TIME_KEY = "sessionCreatedTime";
+  private static final String LEGACY_SECURITY_CONTEXT_KEY =
+      HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+  private final ReactiveSessionRepository<Session> sessionRepository;
+
+  /**
+   * @param sessionRepository repository of the sessions, only sessions it created are passed back to it
+   */
+  @SuppressWarnings("unchecked")
+  public ReactiveSessionService(ReactiveSessionRepository<? extends Session> sessionRepository) {
+    this.sessionRepository = (ReactiveSessionRepository<Session>) sessionRepository;
+  }
+
+  /**
+   * Creates a new session for the authenticated user, dropping the session the client came with
+   *
+   * @param user the authenticated user, stored as a {@link SessionPrincipal} from which the security
+   *     context is rebuilt
+   * @param previousSessionId id of the client's current session, may be null
+   * @return session information, including the new session id
+   */
+  public Mono<Map<String, Object>> createSession(User user, String previousSessionId) {
+    Mono<Void> dropPrevious = previousSessionId != null ? sessionRepository.deleteById(previousSessionId) : Mono.empty();
+
+    return dropPrevious.then(sessionRepository.createSession()).flatMap(session -> {
+      // Guardar el usuario una sola vez: el contexto de seguridad se reconstruye a partir de él
+      session.setAttribute(USER_SESSION_KEY, SessionPrincipal.of(user));
+      session.setAttribute(SESSION_CREATED_TIME_KEY, System.currentTimeMillis());
+      // Índice por usuario: límite de sesiones y búsqueda por username, como en el modo servlet
+      session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, user.getUsername());
+      session.setMaxInactiveInterval(Duration.ofSeconds(1800));
+
+      Map<String, Object> sessionInfo = new HashMap<>();
+      sessionInfo.put("sessionId", session.getId());
+      sessionInfo.put("userId", user.getId());
+      sessionInfo.put("username", user.getUsername());
+      sessionInfo.put("createdTime", session.getAttribute(SESSION_CREATED_TIME_KEY));
+      sessionInfo.put("maxInactiveInterval", (int) session.getMaxInactiveInterval().getSeconds());
+
+      return sessionRepository.save(session).thenReturn(sessionInfo);
+    });
+  }
+
+  /**
+   * Gets the current user from the session
+   *
+   * @param sessionId the session id sent by the client, may be null
+   * @return the current user, or empty if not authenticated
+   */
+  public Mono<User> getCurrentUser(String sessionId) {
+    return access(sessionId, session -> {
+      SessionPrincipal principal = readPrincipal(session);
+      return principal != null ? principal.toUser() : null;
+    });
+  }
+
+  /**
+   * Gets current session information
+   *
+   * @param sessionId the session id sent by the client, may be null
+   * @return session information, or empty if not authenticated
+   */
+  public Mono<Map<String, Object>> getSessionInfo(String sessionId) {
+    return access(sessionId, session -> {
+      SessionPrincipal principal = readPrincipal(session);
+      if (principal == null) {
+        return null;
+      }
+
+      Map<String, Object> sessionInfo = new HashMap<>();
+      sessionInfo.put("sessionId", session.getId());
+      sessionInfo.put("userId", principal.id());
+      sessionInfo.put("username", principal.username());
+      sessionInfo.put("email", principal.email());
+      sessionInfo.put("roles", principal.roles());
+      sessionInfo.put("createdTime", session.getAttribute(SESSION_CREATED_TIME_KEY));
+      sessionInfo.put("lastAccessedTime", session.getLastAccessedTime().toEpochMilli());
+      sessionInfo.put("maxInactiveInterval", (int) session.getMaxInactiveInterval().getSeconds());
+      sessionInfo.put("isNew", false);
+      return sessionInfo;
+    });
+  }
+
+  /**
+   * Checks if the session holds an authenticated user
+   *
+   * @param sessionId the session id sent by the client, may be null
+   * @return true if session is valid, false otherwise
+   */
+  public Mono<Boolean> isSessionValid(String sessionId) {
+    return access(sessionId, session -> readPrincipal(session) != null ? Boolean.TRUE : null).defaultIfEmpty(false);
+  }
+
+  /**
+   * Checks if the session holds an authenticated principal
+   *
+   * @param sessionId the session id sent by the client, may be null
+   * @return true if the request is authenticated, false otherwise
+   */
+  public Mono<Boolean> isAuthenticated(String sessionId) {
+    return isSessionValid(sessionId);
+  }
+
+  /**
+   * Invalidates the session
+   *
+   * @param sessionId the session id sent by the client, may be null
+   */
+  public Mono<Void> invalidateSession(String sessionId) {
+    return sessionId != null ? sessionRepository.deleteById(sessionId) : Mono.empty();
+  }
+
+  /**
+   * Reads the principal, migrating sessions that still hold the full user and the security context
+   * The rewrite is saved with the access time
+   */
+  private static SessionPrincipal readPrincipal(Session session) {
+    Object value = session.getAttribute(USER_SESSION_KEY);
+    SessionPrincipal principal = SessionPrincipal.from(value);
+    if (value instanceof User) {
+      session.setAttribute(USER_SESSION_KEY, principal);
+      session.removeAttribute(LEGACY_SECURITY_CONTEXT_KEY);
+    }
+    return principal;
+  }
+
+  /**
+   * Loads the session, reads from it and records the access, like the servlet session filter does
+   */
+  private <T> Mono<T> access(String sessionId, Function<Session, T> reader) {
+    if (sessionId == null) {
+      return Mono.empty();
+    }
+    return sessionRepository.findById(sessionId).flatMap(session -> {
+      T result = reader.apply(session);
+      session.setLastAccessedTime(Instant.now());
+      return sessionRepository.save(session).then(Mono.justOrEmpty(result));
+    });
+  }
+}
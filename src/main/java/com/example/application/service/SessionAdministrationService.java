@@ -0,0 +1,68 @@
+package com.example.application.service;
+
+import com.example.application.dto.InvalidationProgress;
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+import com.example.application.port.in.SessionAdministrationUseCase;
+import com.example.application.port.out.SessionAdminRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service for bulk session administration
+ * This service implements the session administration use case
+ */
+@Service
+public class SessionAdministrationService implements SessionAdministrationUseCase {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionAdministrationService.class);
+
+  private final SessionAdminRepository sessionAdminRepository;
+
+  public SessionAdministrationService(SessionAdminRepository sessionAdminRepository) {
+    this.sessionAdminRepository = sessionAdminRepository;
+  }
+
+  @Override
+  public void streamSessions(SessionQuery query, Consumer<List<SessionSummary>> pageConsumer) {
+    sessionAdminRepository.scan(query, page -> {
+      List<SessionSummary> matches = page.stream().filter(query::matches).toList();
+      if (!matches.isEmpty()) {
+        pageConsumer.accept(matches);
+      }
+    });
+  }
+
+  @Override
+  public InvalidationProgress invalidateSessions(SessionQuery query, String keepSessionId,
+      Consumer<InvalidationProgress> progressConsumer) {
+    if (query.isEmpty()) {
+      throw new IllegalArgumentException("A username or a role is required to invalidate sessions");
+    }
+
+    InvalidationProgress[] progress = {InvalidationProgress.STARTED};
+    sessionAdminRepository.scan(query, page -> {
+      List<String> sessionIds = page.stream()
+          .filter(query::matches)
+          .map(SessionSummary::sessionId)
+          .filter(sessionId -> !sessionId.equals(keepSessionId))
+          .toList();
+      // Borrar durante el SCAN es seguro: no salta claves que siguen existiendo
+      if (!sessionIds.isEmpty()) {
+        sessionAdminRepository.deleteAll(sessionIds);
+      }
+      progress[0] = progress[0].next(page.size(), sessionIds.size());
+      progressConsumer.accept(progress[0]);
+    });
+
+    InvalidationProgress completed = progress[0].completed();
+    progressConsumer.accept(completed);
+    logger.info("Invalidated {} of {} scanned sessions matching {}", completed.invalidated(), completed.scanned(),
+        query);
+    return completed;
+  }
+}
@@ -1,7 +1,11 @@
 package com.example.application.service;
 
+import com.example.application.dto.SessionPrincipal;
 import com.example.domain.model.User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -16,8 +20,11 @@ import java.util.Map;
 @Service
 public class SessionService {
 
-  private static final String USER_SESSION_KEY = "currentUser";
+  private static final String USER_SESSION_KEY = SessionPrincipal.SESSION_ATTRIBUTE;
+  private static final String LEGACY_SECURITY_CONTEXT_KEY =
+      HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
   private static final String SESSION_CREATED_TIME_KEY = "sessionCreatedTime";
+  private static final String SNAPSHOT_REQUEST_ATTRIBUTE = SessionService.class.getName() + ".SNAPSHOT";
 
   /**
    * Creates a new session for the authenticated user
@@ -26,34 +33,27 @@ public class SessionService {
    * @return session information
    */
   public Map<String, Object> createSession(User user) {
-    try {
-      HttpSession session = getCurrentSession();
-
-      // Guardar información del usuario en la sesión
-      session.setAttribute(USER_SESSION_KEY, user);
-      session.setAttribute(SESSION_CREATED_TIME_KEY, System.currentTimeMillis());
-
-      // Configurar tiempo de inactividad (30 minutos)
-      session.setMaxInactiveInterval(1800);
-
-      Map<String, Object> sessionInfo = new HashMap<>();
-      sessionInfo.put("sessionId", session.getId());
-      sessionInfo.put("userId", user.getId());
-      sessionInfo.put("username", user.getUsername());
-      sessionInfo.put("createdTime", session.getAttribute(SESSION_CREATED_TIME_KEY));
-      sessionInfo.put("maxInactiveInterval", session.getMaxInactiveInterval());
-
-      return sessionInfo;
-    } catch (Exception e) {
-      // Fallback: crear información de sesión básica
-      Map<String, Object> sessionInfo = new HashMap<>();
-      sessionInfo.put("sessionId", "fallback-session");
-      sessionInfo.put("userId", user.getId());
-      sessionInfo.put("username", user.getUsername());
-      sessionInfo.put("createdTime", System.currentTimeMillis());
-      sessionInfo.put("maxInactiveInterval", 1800);
-      return sessionInfo;
-    }
+    // Sin Redis la sesión se guarda en el nodo (modo degradado del repositorio): aquí no hay fallback
+    HttpSession session = getCurrentSession(true);
+
+    // Guardar el usuario una sola vez: el contexto de seguridad se reconstruye a partir de él
+    session.setAttribute(USER_SESSION_KEY, SessionPrincipal.of(user));
+    session.setAttribute(SESSION_CREATED_TIME_KEY, System.currentTimeMillis());
+    // Índice por usuario: limita las sesiones concurrentes en todo el cluster
+    session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, user.getUsername());
+
+    // Configurar tiempo de inactividad (30 minutos)
+    session.setMaxInactiveInterval(1800);
+    clearSnapshot();
+
+    Map<String, Object> sessionInfo = new HashMap<>();
+    sessionInfo.put("sessionId", session.getId());
+    sessionInfo.put("userId", user.getId());
+    sessionInfo.put("username", user.getUsername());
+    sessionInfo.put("createdTime", session.getAttribute(SESSION_CREATED_TIME_KEY));
+    sessionInfo.put("maxInactiveInterval", session.getMaxInactiveInterval());
+
+    return sessionInfo;
   }
 
   /**
@@ -62,12 +62,16 @@ public class SessionService {
    * @return the current user or null if not authenticated
    */
   public User getCurrentUser() {
-    try {
-      HttpSession session = getCurrentSession();
-      return (User) session.getAttribute(USER_SESSION_KEY);
-    } catch (Exception e) {
-      return null;
-    }
+    return getSnapshot().user();
+  }
+
+  /**
+   * Gets the principal stored in the current session
+   *
+   * @return the principal or null if not authenticated
+   */
+  public SessionPrincipal getPrincipal() {
+    return getSnapshot().principal();
   }
 
   /**
@@ -76,29 +80,30 @@ public class SessionService {
    * @return session information
    */
   public Map<String, Object> getSessionInfo() {
-    try {
-      HttpSession session = getCurrentSession();
-      User currentUser = getCurrentUser();
+    SessionSnapshot snapshot = getSnapshot();
+    return snapshot.isAuthenticated() ? snapshot.toSessionInfo() : null;
+  }
 
-      if (currentUser == null) {
-        return null;
-      }
+  /**
+   * Gets the snapshot of the current session
+   * The session is read and its principal decoded on the first call of each request; later calls in
+   * the same request, Spring Security's included, reuse the result
+   *
+   * @return the snapshot, {@link SessionSnapshot#EMPTY} when there is no usable session
+   */
+  public SessionSnapshot getSnapshot() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return SessionSnapshot.EMPTY;
+    }
 
-      Map<String, Object> sessionInfo = new HashMap<>();
-      sessionInfo.put("sessionId", session.getId());
-      sessionInfo.put("userId", currentUser.getId());
-      sessionInfo.put("username", currentUser.getUsername());
-      sessionInfo.put("email", currentUser.getEmail());
-      sessionInfo.put("roles", currentUser.getRoles());
-      sessionInfo.put("createdTime", session.getAttribute(SESSION_CREATED_TIME_KEY));
-      sessionInfo.put("lastAccessedTime", session.getLastAccessedTime());
-      sessionInfo.put("maxInactiveInterval", session.getMaxInactiveInterval());
-      sessionInfo.put("isNew", session.isNew());
-
-      return sessionInfo;
-    } catch (Exception e) {
-      return null;
+    SessionSnapshot snapshot = (SessionSnapshot) attributes.getAttribute(SNAPSHOT_REQUEST_ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST);
+    if (snapshot == null) {
+      snapshot = loadSnapshot();
+      attributes.setAttribute(SNAPSHOT_REQUEST_ATTRIBUTE, snapshot, RequestAttributes.SCOPE_REQUEST);
     }
+    return snapshot;
   }
 
   /**
@@ -106,10 +111,14 @@ public class SessionService {
    */
   public void invalidateSession() {
     try {
-      HttpSession session = getCurrentSession();
-      session.invalidate();
+      HttpSession session = getCurrentSession(false);
+      if (session != null) {
+        session.invalidate();
+      }
     } catch (Exception e) {
       // Ignore errors during session invalidation
+    } finally {
+      clearSnapshot();
     }
   }
 
@@ -119,23 +128,55 @@ public class SessionService {
    * @return true if session is valid, false otherwise
    */
   public boolean isSessionValid() {
+    return getSnapshot().isAuthenticated();
+  }
+
+  private SessionSnapshot loadSnapshot() {
     try {
-      HttpSession session = getCurrentSession();
-      return session != null && getCurrentUser() != null;
+      // Las lecturas nunca crean sesión: una petición anónima no debe escribir en Redis
+      HttpSession session = getCurrentSession(false);
+      if (session == null) {
+        return SessionSnapshot.EMPTY;
+      }
+      return new SessionSnapshot(session.getId(), readPrincipal(session),
+          (Long) session.getAttribute(SESSION_CREATED_TIME_KEY), session.getLastAccessedTime(),
+          session.getMaxInactiveInterval(), session.isNew());
     } catch (Exception e) {
-      return false;
+      return SessionSnapshot.EMPTY;
+    }
+  }
+
+  /**
+   * Reads the principal, migrating sessions that still hold the full user and the security context
+   */
+  private static SessionPrincipal readPrincipal(HttpSession session) {
+    Object value = session.getAttribute(USER_SESSION_KEY);
+    SessionPrincipal principal = SessionPrincipal.from(value);
+    if (value instanceof User) {
+      // Formato anterior: se reescribe una vez y se guarda con el resto de cambios de la petición
+      session.setAttribute(USER_SESSION_KEY, principal);
+      session.removeAttribute(LEGACY_SECURITY_CONTEXT_KEY);
+    }
+    return principal;
+  }
+
+  private void clearSnapshot() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      attributes.removeAttribute(SNAPSHOT_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
     }
   }
 
   /**
    * Gets the current HTTP session
    * 
-   * @return the current session
+   * @param create whether to create the session if the request has none
+   * @return the current session, null if there is none and {@code create} is false
    */
-  private HttpSession getCurrentSession() {
+  private HttpSession getCurrentSession(boolean create) {
     ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
     if (attributes != null) {
-      return attributes.getRequest().getSession(true);
+      return attributes.getRequest().getSession(create);
     }
     throw new IllegalStateException("No request context available");
   }
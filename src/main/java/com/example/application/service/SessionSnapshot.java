@@ -0,0 +1,66 @@
+package com.example.application.service;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.domain.model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the current session, read once per request
+ * Holds the session metadata and the already decoded principal, so controllers and Spring Security
+ * can check authentication and build responses without going back to the session
+ *
+ * @param sessionId           id of the session, null if the request has none
+ * @param principal           the authenticated principal, null if anonymous
+ * @param createdTime         login time stored in the session
+ * @param lastAccessedTime    last access in epoch millis
+ * @param maxInactiveInterval inactivity timeout in seconds
+ * @param isNew               whether the session was created by this request
+ */
+public record SessionSnapshot(String sessionId, SessionPrincipal principal, Long createdTime, long lastAccessedTime,
+    int maxInactiveInterval, boolean isNew) {
+
+  /** Snapshot of a request without a usable session */
+  public static final SessionSnapshot EMPTY = new SessionSnapshot(null, null, null, 0, 0, false);
+
+  public boolean isAuthenticated() {
+    return principal != null;
+  }
+
+  /**
+   * @return a user rebuilt from the principal, without password, or null if anonymous
+   */
+  public User user() {
+    return principal != null ? principal.toUser() : null;
+  }
+
+  /**
+   * @return session details as returned by {@code GET /api/session}
+   */
+  public Map<String, Object> toSessionInfo() {
+    Map<String, Object> sessionInfo = new HashMap<>();
+    sessionInfo.put("sessionId", sessionId);
+    sessionInfo.put("userId", principal.id());
+    sessionInfo.put("username", principal.username());
+    sessionInfo.put("email", principal.email());
+    sessionInfo.put("roles", principal.roles());
+    sessionInfo.put("createdTime", createdTime);
+    sessionInfo.put("lastAccessedTime", lastAccessedTime);
+    sessionInfo.put("maxInactiveInterval", maxInactiveInterval);
+    sessionInfo.put("isNew", isNew);
+    return sessionInfo;
+  }
+
+  /**
+   * @return user details as returned by {@code GET /api/session/user}
+   */
+  public Map<String, Object> toUserInfo() {
+    return Map.of(
+        "id", principal.id(),
+        "username", principal.username(),
+        "email", principal.email(),
+        "roles", principal.roles(),
+        "enabled", principal.enabled());
+  }
+}
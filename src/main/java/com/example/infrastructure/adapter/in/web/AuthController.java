@@ -3,8 +3,10 @@ package com.example.infrastructure.adapter.in.web;
 import com.example.application.port.in.AuthenticationUseCase;
 import com.example.application.dto.LoginRequest;
 import com.example.application.dto.LoginResponse;
+import com.example.application.exception.AuthenticationOverloadedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
  */
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
 public class AuthController {
 
   private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
@@ -74,6 +77,10 @@ public class AuthController {
         errorResponse.put("message", response.getMessage());
         return ResponseEntity.status(401).body(errorResponse);
       }
+    } catch (AuthenticationOverloadedException e) {
+      // Sin hilo libre para BCrypt a tiempo: el cliente reintenta en vez de ocupar un hilo de Tomcat
+      logger.debug("Login refused, password verification saturated");
+      return OverloadedLogins.response(e);
     } catch (Exception e) {
       logger.error("Error during login: ", e);
       Map<String, Object> errorResponse = new HashMap<>();
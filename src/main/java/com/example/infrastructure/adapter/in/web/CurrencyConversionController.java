@@ -1,6 +1,7 @@
 package com.example.infrastructure.adapter.in.web;
 
 import com.example.application.port.in.CurrencyConversionUseCase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +14,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/currency")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
 public class CurrencyConversionController {
 
   private final CurrencyConversionUseCase currencyConversionUseCase;
@@ -0,0 +1,34 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.exception.AuthenticationOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response of a login refused because password verification is saturated, shared by the servlet
+ * and reactive controllers
+ */
+final class OverloadedLogins {
+
+  private OverloadedLogins() {
+  }
+
+  /**
+   * @return 503 with {@code Retry-After} in whole seconds, at least one
+   */
+  static ResponseEntity<Map<String, Object>> response(AuthenticationOverloadedException e) {
+    long retryAfterMillis = e.getRetryAfter().toMillis();
+    long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+
+    Map<String, Object> errorResponse = new HashMap<>();
+    errorResponse.put("success", false);
+    errorResponse.put("message", e.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+        .body(errorResponse);
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.infrastructure.adapter.in.web;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Principal carried by the signed principal cookie
+ *
+ * @param sessionId   session the token was issued for
+ * @param username    authenticated user
+ * @param authorities granted authorities, as stored in the security context
+ * @param expiresAt   end of validity, truncated to seconds
+ */
+public record PrincipalToken(String sessionId, String username, List<String> authorities, Instant expiresAt) {
+
+  public PrincipalToken {
+    authorities = List.copyOf(authorities);
+  }
+
+  public boolean isExpired(Instant now) {
+    return !expiresAt.isAfter(now);
+  }
+}
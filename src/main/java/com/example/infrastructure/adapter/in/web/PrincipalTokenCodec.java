@@ -0,0 +1,105 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.infrastructure.adapter.out.security.HmacSha256;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes a {@link PrincipalToken} as {@code <payload>.<mac>}, both base64url without padding
+ * The payload is binary (version, expiry in epoch seconds, session id, username, authorities) and
+ * the MAC is HMAC-SHA256 truncated to 128 bits, so a token stays around 120 characters
+ */
+public final class PrincipalTokenCodec {
+
+  private static final int VERSION = 1;
+  private static final int MAC_LENGTH = 16;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final HmacSha256 hmac;
+
+  /**
+   * @param key HMAC key, at least 32 bytes
+   */
+  public PrincipalTokenCodec(byte[] key) {
+    if (key.length < 32) {
+      throw new IllegalArgumentException("Principal token key must be at least 32 bytes");
+    }
+    this.hmac = new HmacSha256(key);
+  }
+
+  public String encode(PrincipalToken token) {
+    if (token.authorities().size() > 255) {
+      throw new IllegalArgumentException("A principal token holds at most 255 authorities");
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeLong(token.expiresAt().getEpochSecond());
+      out.writeUTF(token.sessionId());
+      out.writeUTF(token.username());
+      out.writeByte(token.authorities().size());
+      for (String authority : token.authorities()) {
+        out.writeUTF(authority);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] payload = bytes.toByteArray();
+    return ENCODER.encodeToString(payload) + '.' + ENCODER.encodeToString(sign(payload));
+  }
+
+  /**
+   * @param value cookie value
+   * @param now   current time
+   * @return the token, or null if the value is malformed, forged or expired
+   */
+  public PrincipalToken decode(String value, Instant now) {
+    int separator = value == null ? -1 : value.indexOf('.');
+    if (separator < 0) {
+      return null;
+    }
+    try {
+      byte[] payload = DECODER.decode(value.substring(0, separator));
+      byte[] mac = DECODER.decode(value.substring(separator + 1));
+      if (!MessageDigest.isEqual(mac, sign(payload))) {
+        return null;
+      }
+      PrincipalToken token = read(payload);
+      return token == null || token.isExpired(now) ? null : token;
+    } catch (IllegalArgumentException | IOException e) {
+      return null;
+    }
+  }
+
+  private static PrincipalToken read(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    if (in.readUnsignedByte() != VERSION) {
+      return null;
+    }
+    Instant expiresAt = Instant.ofEpochSecond(in.readLong());
+    String sessionId = in.readUTF();
+    String username = in.readUTF();
+    int count = in.readUnsignedByte();
+    List<String> authorities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      authorities.add(in.readUTF());
+    }
+    return new PrincipalToken(sessionId, username, authorities, expiresAt);
+  }
+
+  private byte[] sign(byte[] payload) {
+    return Arrays.copyOf(hmac.sign(payload), MAC_LENGTH);
+  }
+}
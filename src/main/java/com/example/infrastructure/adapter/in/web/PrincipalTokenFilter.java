@@ -0,0 +1,128 @@
+package com.example.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.server.PathContainer;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Filter authorizing the read-only endpoints from the principal cookie alone
+ * Runs right after the session repository filter. On the fast-path paths a request whose token is
+ * valid, bound to the session cookie it came with and not revoked goes on without a session: the
+ * token is exposed as {@link #TOKEN_ATTRIBUTE} and {@code getSession} returns null, so neither
+ * Spring Security nor the controllers read the session from Redis. Any other request, including
+ * one whose token expired, takes the normal path and gets a fresh token there.
+ *
+ * Metric: {@code session.principal.token.requests} tagged with the outcome on the fast-path paths
+ */
+public class PrincipalTokenFilter extends OncePerRequestFilter {
+
+  /**
+   * Request attribute holding the {@link PrincipalToken} that authorized the request
+   */
+  public static final String TOKEN_ATTRIBUTE = PrincipalTokenFilter.class.getName() + ".TOKEN";
+
+  private final PrincipalTokens tokens;
+  private final CookieSerializer cookieSerializer;
+  private final Predicate<String> revoked;
+  private final List<PathPattern> paths;
+  private final Counter accepted;
+  private final Counter missing;
+  private final Counter rejected;
+
+  /**
+   * @param tokens           reads the principal cookie
+   * @param cookieSerializer reads the session cookie the token must be bound to
+   * @param revoked          tells whether a session id was revoked
+   * @param paths            path patterns authorized by the token alone
+   * @param meterRegistry    registry for the outcome counters
+   */
+  public PrincipalTokenFilter(PrincipalTokens tokens, CookieSerializer cookieSerializer, Predicate<String> revoked,
+      List<String> paths, MeterRegistry meterRegistry) {
+    this.tokens = tokens;
+    this.cookieSerializer = cookieSerializer;
+    this.revoked = revoked;
+    this.paths = paths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    this.accepted = counter(meterRegistry, "accepted");
+    this.missing = counter(meterRegistry, "missing");
+    this.rejected = counter(meterRegistry, "rejected");
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    for (PathPattern pattern : paths) {
+      if (pattern.matches(path)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    PrincipalToken token = tokens.read(request);
+    if (token == null) {
+      (tokens.isPresent(request) ? rejected : missing).increment();
+      filterChain.doFilter(request, response);
+      return;
+    }
+    // Tras un logout la cookie de sesión cambia, así que el token deja de valer aunque la revocación no haya llegado
+    if (!token.sessionId().equals(SessionCookies.sessionId(cookieSerializer, request))
+        || revoked.test(token.sessionId())) {
+      rejected.increment();
+      filterChain.doFilter(request, response);
+      return;
+    }
+    accepted.increment();
+    request.setAttribute(TOKEN_ATTRIBUTE, token);
+    filterChain.doFilter(new SessionlessRequest(request), response);
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("session.principal.token.requests")
+        .tag("outcome", outcome)
+        .description("Fast-path requests by principal token outcome")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Request authorized by its token: it neither loads nor creates a session
+   */
+  private static final class SessionlessRequest extends HttpServletRequestWrapper {
+
+    SessionlessRequest(HttpServletRequest request) {
+      super(request);
+    }
+
+    @Override
+    public HttpSession getSession() {
+      return null;
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+      return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+      // El token ya garantiza que la sesión seguía viva cuando se emitió
+      return true;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.infrastructure.adapter.in.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+
+/**
+ * Security context repository combining the principal cookie with the session
+ * A request authorized by {@link PrincipalTokenFilter} gets its context from the token and saves
+ * nothing. Any other request uses the session as before and, when it ends authenticated, gets a
+ * fresh token for its session unless it already sent a valid one; a request whose session is gone
+ * gets its principal cookie cleared. The token is set as the response is committed, so it also
+ * covers the login request, whose context only becomes authenticated in the controller.
+ */
+public class PrincipalTokenSecurityContextRepository implements SecurityContextRepository {
+
+  private static final String HANDLED_ATTRIBUTE = PrincipalTokenSecurityContextRepository.class.getName()
+      + ".HANDLED";
+
+  private final SecurityContextRepository delegate;
+  private final PrincipalTokens tokens;
+  private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+  /**
+   * @param delegate session-backed repository used outside the fast path
+   * @param tokens   issues and clears the principal cookie
+   */
+  public PrincipalTokenSecurityContextRepository(SecurityContextRepository delegate, PrincipalTokens tokens) {
+    this.delegate = delegate;
+    this.tokens = tokens;
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+    HttpServletRequest request = requestResponseHolder.getRequest();
+    PrincipalToken token = (PrincipalToken) request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE);
+    if (token != null) {
+      return contextOf(token);
+    }
+    SecurityContext context = delegate.loadContext(requestResponseHolder);
+    HttpServletResponse response = requestResponseHolder.getResponse();
+    if (response != null) {
+      requestResponseHolder.setResponse(new TokenIssuingResponse(request, response));
+    }
+    return context;
+  }
+
+  @Override
+  public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+    if (request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE) != null) {
+      return;
+    }
+    delegate.saveContext(context, request, response);
+    // Respuestas sin cuerpo: no llegan a confirmarse antes de que termine la cadena de filtros
+    if (!response.isCommitted()) {
+      updateToken(request, response, context.getAuthentication());
+    }
+  }
+
+  @Override
+  public boolean containsContext(HttpServletRequest request) {
+    return request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE) != null || delegate.containsContext(request);
+  }
+
+  private void updateToken(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+    if (request.getAttribute(HANDLED_ATTRIBUTE) != null) {
+      return;
+    }
+    request.setAttribute(HANDLED_ATTRIBUTE, Boolean.TRUE);
+
+    HttpSession session = request.getSession(false);
+    if (session == null) {
+      if (tokens.isPresent(request)) {
+        tokens.clear(request, response);
+      }
+      return;
+    }
+    if (!trustResolver.isAuthenticated(authentication)) {
+      return;
+    }
+    PrincipalToken current = tokens.read(request);
+    if (current == null || !current.sessionId().equals(session.getId())) {
+      tokens.issue(request, response, session.getId(), authentication);
+    }
+  }
+
+  private static SecurityContext contextOf(PrincipalToken token) {
+    return new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(token.username(), null,
+        AuthorityUtils.createAuthorityList(token.authorities())));
+  }
+
+  /**
+   * Sets or clears the principal cookie right before the response is committed
+   */
+  private final class TokenIssuingResponse extends OnCommittedResponseWrapper {
+
+    private final HttpServletRequest request;
+
+    TokenIssuingResponse(HttpServletRequest request, HttpServletResponse response) {
+      super(response);
+      this.request = request;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      updateToken(request, (HttpServletResponse) getResponse(), SecurityContextHolder.getContext().getAuthentication());
+    }
+  }
+}
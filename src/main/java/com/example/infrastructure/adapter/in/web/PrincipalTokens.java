@@ -0,0 +1,100 @@
+package com.example.infrastructure.adapter.in.web;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reads, issues and clears the principal cookie
+ * The cookie is HttpOnly, lives as long as the token and is sent next to the session cookie
+ */
+public class PrincipalTokens {
+
+  private final PrincipalTokenCodec codec;
+  private final String cookieName;
+  private final Duration ttl;
+  private final Clock clock;
+
+  /**
+   * @param codec      signs and verifies the tokens
+   * @param cookieName name of the principal cookie
+   * @param ttl        lifetime of an issued token
+   * @param clock      source of the current time
+   */
+  public PrincipalTokens(PrincipalTokenCodec codec, String cookieName, Duration ttl, Clock clock) {
+    if (ttl.getSeconds() < 1) {
+      throw new IllegalArgumentException("Principal token ttl must be at least one second");
+    }
+    this.codec = codec;
+    this.cookieName = cookieName;
+    this.ttl = ttl;
+    this.clock = clock;
+  }
+
+  /**
+   * @return the valid token sent by the client, or null if there is none or it is forged or expired
+   */
+  public PrincipalToken read(HttpServletRequest request) {
+    String value = cookieValue(request);
+    return value == null ? null : codec.decode(value, clock.instant());
+  }
+
+  public boolean isPresent(HttpServletRequest request) {
+    return cookieValue(request) != null;
+  }
+
+  /**
+   * Sets a fresh token for the session on the response
+   *
+   * @param sessionId      session the token is bound to
+   * @param authentication authenticated principal of that session
+   */
+  public void issue(HttpServletRequest request, HttpServletResponse response, String sessionId,
+      Authentication authentication) {
+    Instant expiresAt = clock.instant().truncatedTo(ChronoUnit.SECONDS).plus(ttl);
+    PrincipalToken token = new PrincipalToken(sessionId, authentication.getName(),
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(), expiresAt);
+    response.addCookie(cookie(request, codec.encode(token), (int) ttl.getSeconds()));
+  }
+
+  /**
+   * Tells the client to drop its principal cookie
+   */
+  public void clear(HttpServletRequest request, HttpServletResponse response) {
+    response.addCookie(cookie(request, "", 0));
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  private String cookieValue(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return null;
+    }
+    for (Cookie cookie : cookies) {
+      if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+        return cookie.getValue();
+      }
+    }
+    return null;
+  }
+
+  private Cookie cookie(HttpServletRequest request, String value, int maxAge) {
+    Cookie cookie = new Cookie(cookieName, value);
+    cookie.setPath("/");
+    cookie.setHttpOnly(true);
+    cookie.setSecure(request.isSecure());
+    cookie.setMaxAge(maxAge);
+    cookie.setAttribute("SameSite", "Lax");
+    return cookie;
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.dto.LoginRequest;
+import com.example.application.dto.LoginResponse;
+import com.example.application.exception.AuthenticationOverloadedException;
+import com.example.application.port.in.AuthenticationUseCase;
+import com.example.application.service.ReactiveSessionService;
+import com.example.domain.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.CookieSerializer.CookieValue;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking controller for authentication endpoints
+ * Same contract as {@link AuthController}, active when {@code app.web.mode=reactive}
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "reactive")
+public class ReactiveAuthController {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthController.class);
+
+  private final AuthenticationUseCase authenticationUseCase;
+  private final ReactiveSessionService sessionService;
+  private final CookieSerializer cookieSerializer;
+  private final Scheduler authenticationScheduler;
+
+  public ReactiveAuthController(AuthenticationUseCase authenticationUseCase, ReactiveSessionService sessionService,
+      CookieSerializer cookieSerializer, Scheduler authenticationScheduler) {
+    this.authenticationUseCase = authenticationUseCase;
+    this.sessionService = sessionService;
+    this.cookieSerializer = cookieSerializer;
+    this.authenticationScheduler = authenticationScheduler;
+  }
+
+  /**
+   * Login endpoint
+   *
+   * @param loginRequest login credentials
+   * @return authentication result with user information
+   */
+  @PostMapping("/login")
+  public Mono<ResponseEntity<Map<String, Object>>> login(@RequestBody LoginRequest loginRequest,
+      HttpServletRequest request, HttpServletResponse response) {
+    String previousSessionId = SessionCookies.sessionId(cookieSerializer, request);
+
+    // BCrypt bloquea la CPU, no debe correr en el hilo de eventos de Redis
+    return Mono.fromCallable(() -> authenticationUseCase.authenticate(loginRequest))
+        .subscribeOn(authenticationScheduler)
+        .flatMap(result -> {
+          if (!result.isSuccess()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", result.getMessage());
+            return Mono.just(ResponseEntity.status(401).body(errorResponse));
+          }
+
+          LoginResponse.UserInfo userInfo = result.getUser();
+          return sessionService.createSession(toUser(userInfo), previousSessionId)
+              .map(sessionInfo -> {
+                cookieSerializer.writeCookieValue(
+                    new CookieValue(request, response, (String) sessionInfo.get("sessionId")));
+                return ResponseEntity.ok(successResponse(userInfo));
+              });
+        })
+        .onErrorResume(AuthenticationOverloadedException.class,
+            e -> Mono.just(OverloadedLogins.response(e)))
+        .onErrorResume(e -> {
+          logger.error("Error during login: ", e);
+          Map<String, Object> errorResponse = new HashMap<>();
+          errorResponse.put("success", false);
+          errorResponse.put("message", "Internal server error: " + e.getMessage());
+          return Mono.just(ResponseEntity.status(500).body(errorResponse));
+        });
+  }
+
+  /**
+   * Health check endpoint for authentication service
+   *
+   * @return service status
+   */
+  @GetMapping("/health")
+  public ResponseEntity<String> health() {
+    return ResponseEntity.ok("Authentication service is running");
+  }
+
+  private Map<String, Object> successResponse(LoginResponse.UserInfo userInfo) {
+    Map<String, Object> fullResponse = new HashMap<>();
+    fullResponse.put("success", true);
+    fullResponse.put("message", "Authentication successful");
+
+    Map<String, Object> user = new HashMap<>();
+    user.put("username", userInfo.getUsername());
+    user.put("email", userInfo.getEmail());
+    user.put("roles", userInfo.getRoles());
+    fullResponse.put("user", user);
+    return fullResponse;
+  }
+
+  private User toUser(LoginResponse.UserInfo userInfo) {
+    User user = new User();
+    user.setId(userInfo.getId());
+    user.setUsername(userInfo.getUsername());
+    user.setEmail(userInfo.getEmail());
+    user.setRoles(userInfo.getRoles());
+    user.setEnabled(true);
+    return user;
+  }
+}
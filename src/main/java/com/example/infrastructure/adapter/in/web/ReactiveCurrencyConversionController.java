@@ -0,0 +1,74 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.port.in.CurrencyConversionUseCase;
+import com.example.application.service.ReactiveSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking controller for currency conversion endpoints
+ * Same contract as {@link CurrencyConversionController}, active when {@code app.web.mode=reactive}.
+ * Authentication is checked against the session here, the security filter chain does not load it
+ */
+@RestController
+@RequestMapping("/api/currency")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "reactive")
+public class ReactiveCurrencyConversionController {
+
+  private final CurrencyConversionUseCase currencyConversionUseCase;
+  private final ReactiveSessionService sessionService;
+  private final CookieSerializer cookieSerializer;
+
+  public ReactiveCurrencyConversionController(CurrencyConversionUseCase currencyConversionUseCase,
+      ReactiveSessionService sessionService, CookieSerializer cookieSerializer) {
+    this.currencyConversionUseCase = currencyConversionUseCase;
+    this.sessionService = sessionService;
+    this.cookieSerializer = cookieSerializer;
+  }
+
+  /**
+   * Currency conversion endpoint from PEN to USD
+   *
+   * @param solesAmount amount in Peruvian Soles to convert
+   * @return conversion result with details, or 401 if not authenticated
+   */
+  @GetMapping("/convert")
+  public Mono<ResponseEntity<Map<String, Object>>> convertSolesToDollars(
+      @RequestParam("amount") double solesAmount, HttpServletRequest request) {
+
+    return sessionService.isAuthenticated(SessionCookies.sessionId(cookieSerializer, request))
+        .map(authenticated -> authenticated
+            ? convert(solesAmount)
+            : ResponseEntity.status(401).<Map<String, Object>>build());
+  }
+
+  private ResponseEntity<Map<String, Object>> convert(double solesAmount) {
+    try {
+      double dollarsAmount = currencyConversionUseCase.convertSolesToDollars(solesAmount);
+
+      Map<String, Object> response = new HashMap<>();
+      response.put("originalAmount", solesAmount);
+      response.put("originalCurrency", "PEN");
+      response.put("convertedAmount", Math.round(dollarsAmount * 100.0) / 100.0);
+      response.put("targetCurrency", "USD");
+      response.put("exchangeRate", 3.8);
+      response.put("message", "Conversion successful");
+
+      return ResponseEntity.ok(response);
+
+    } catch (IllegalArgumentException e) {
+      Map<String, Object> errorResponse = new HashMap<>();
+      errorResponse.put("error", e.getMessage());
+      errorResponse.put("message", "Invalid input provided");
+
+      return ResponseEntity.badRequest().body(errorResponse);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.service.ReactiveSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.CookieSerializer.CookieValue;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking controller for session management endpoints
+ * Same contract as {@link SessionController}, active when {@code app.web.mode=reactive}
+ */
+@RestController
+@RequestMapping("/api/session")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "reactive")
+public class ReactiveSessionController {
+
+  private final ReactiveSessionService sessionService;
+  private final CookieSerializer cookieSerializer;
+
+  public ReactiveSessionController(ReactiveSessionService sessionService, CookieSerializer cookieSerializer) {
+    this.sessionService = sessionService;
+    this.cookieSerializer = cookieSerializer;
+  }
+
+  /**
+   * Get current session information
+   *
+   * @return session details or 401 if not authenticated
+   */
+  @GetMapping
+  public Mono<ResponseEntity<Map<String, Object>>> getSessionInfo(HttpServletRequest request) {
+    return sessionService.getSessionInfo(SessionCookies.sessionId(cookieSerializer, request))
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.status(401).build());
+  }
+
+  /**
+   * Validate if current session is valid
+   * A valid principal token answers without loading the session
+   *
+   * @return 200 OK if session is valid, 401 if not
+   */
+  @GetMapping("/validate")
+  public Mono<ResponseEntity<String>> validateSession(HttpServletRequest request) {
+    if (request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE) != null) {
+      return Mono.just(ResponseEntity.ok("Session is valid"));
+    }
+    return sessionService.isSessionValid(SessionCookies.sessionId(cookieSerializer, request))
+        .map(valid -> valid
+            ? ResponseEntity.ok("Session is valid")
+            : ResponseEntity.status(401).body("Session is invalid or expired"));
+  }
+
+  /**
+   * Logout and invalidate current session
+   *
+   * @return success message
+   */
+  @PostMapping("/logout")
+  public Mono<ResponseEntity<Map<String, String>>> logout(HttpServletRequest request, HttpServletResponse response) {
+    return sessionService.invalidateSession(SessionCookies.sessionId(cookieSerializer, request))
+        .then(Mono.fromSupplier(() -> {
+          // Borrar la cookie de sesión en el cliente
+          cookieSerializer.writeCookieValue(new CookieValue(request, response, ""));
+          Map<String, String> body = Map.of(
+              "message", "Logout successful",
+              "status", "success");
+          return ResponseEntity.ok(body);
+        }));
+  }
+
+  /**
+   * Get current user information from session
+   *
+   * @return user details or 401 if not authenticated
+   */
+  @GetMapping("/user")
+  public Mono<ResponseEntity<Map<String, Object>>> getCurrentUser(HttpServletRequest request) {
+    return sessionService.getCurrentUser(SessionCookies.sessionId(cookieSerializer, request))
+        .map(currentUser -> {
+          Map<String, Object> userInfo = Map.of(
+              "id", currentUser.getId(),
+              "username", currentUser.getUsername(),
+              "email", currentUser.getEmail(),
+              "roles", currentUser.getRoles(),
+              "enabled", currentUser.isEnabled());
+          return ResponseEntity.ok(userInfo);
+        })
+        .defaultIfEmpty(ResponseEntity.status(401).build());
+  }
+}
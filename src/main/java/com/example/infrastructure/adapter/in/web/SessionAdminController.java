@@ -0,0 +1,92 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.dto.SessionQuery;
+import com.example.application.port.in.SessionAdministrationUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Controller for bulk session administration, restricted to administrators
+ * Responses are streamed as NDJSON, one page at a time and flushed after each page. Writes block
+ * while the client is not reading, which pauses the Redis scan behind them, and a client that
+ * disconnects stops it
+ */
+@RestController
+@RequestMapping("/api/admin/sessions")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
+public class SessionAdminController {
+
+  private final SessionAdministrationUseCase sessionAdministrationUseCase;
+  private final ObjectMapper objectMapper;
+
+  public SessionAdminController(SessionAdministrationUseCase sessionAdministrationUseCase,
+      ObjectMapper objectMapper) {
+    this.sessionAdministrationUseCase = sessionAdministrationUseCase;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * List stored sessions, optionally filtered by user and role
+   *
+   * @param username only sessions of this user
+   * @param role     only sessions whose user has this role
+   * @return one JSON line per session
+   */
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> listSessions(@RequestParam(required = false) String username,
+      @RequestParam(required = false) String role) {
+    SessionQuery query = new SessionQuery(username, role);
+    return ndjson(out -> sessionAdministrationUseCase.streamSessions(query, page -> writeLines(out, page)));
+  }
+
+  /**
+   * Invalidate every session of a user or role, except the caller's own
+   *
+   * @param username only sessions of this user
+   * @param role     only sessions whose user has this role
+   * @return one JSON progress line per page and a last one with {@code "done": true}, or 400
+   *     without any filter
+   */
+  @DeleteMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> invalidateSessions(@RequestParam(required = false) String username,
+      @RequestParam(required = false) String role, HttpServletRequest request) {
+    SessionQuery query = new SessionQuery(username, role);
+    if (query.isEmpty()) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // El id se lee ahora: el cuerpo se escribe en otro hilo, fuera de la petición
+    HttpSession session = request.getSession(false);
+    String currentSessionId = session != null ? session.getId() : null;
+    return ndjson(out -> sessionAdministrationUseCase.invalidateSessions(query, currentSessionId,
+        progress -> writeLines(out, List.of(progress))));
+  }
+
+  private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  private void writeLines(OutputStream out, List<?> items) {
+    try {
+      for (Object item : items) {
+        out.write(objectMapper.writeValueAsBytes(item));
+        out.write('\n');
+      }
+      out.flush();
+    } catch (IOException e) {
+      // Cliente desconectado: se corta el recorrido
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.example.infrastructure.adapter.in.web;
 
 import com.example.application.service.SessionService;
+import com.example.application.service.SessionSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +15,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/session")
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
 public class SessionController {
 
   private final SessionService sessionService;
@@ -27,22 +31,24 @@ public class SessionController {
    */
   @GetMapping
   public ResponseEntity<Map<String, Object>> getSessionInfo() {
-    if (!sessionService.isSessionValid()) {
+    SessionSnapshot snapshot = sessionService.getSnapshot();
+    if (!snapshot.isAuthenticated()) {
       return ResponseEntity.status(401).build();
     }
 
-    Map<String, Object> sessionInfo = sessionService.getSessionInfo();
-    return ResponseEntity.ok(sessionInfo);
+    return ResponseEntity.ok(snapshot.toSessionInfo());
   }
 
   /**
    * Validate if current session is valid
+   * A valid principal token answers without loading the session
    * 
    * @return 200 OK if session is valid, 401 if not
    */
   @GetMapping("/validate")
-  public ResponseEntity<String> validateSession() {
-    if (sessionService.isSessionValid()) {
+  public ResponseEntity<String> validateSession(HttpServletRequest request) {
+    if (request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE) != null
+        || sessionService.getSnapshot().isAuthenticated()) {
       return ResponseEntity.ok("Session is valid");
     } else {
       return ResponseEntity.status(401).body("Session is invalid or expired");
@@ -72,18 +78,11 @@ public class SessionController {
    */
   @GetMapping("/user")
   public ResponseEntity<Map<String, Object>> getCurrentUser() {
-    if (!sessionService.isSessionValid()) {
+    SessionSnapshot snapshot = sessionService.getSnapshot();
+    if (!snapshot.isAuthenticated()) {
       return ResponseEntity.status(401).build();
     }
 
-    var currentUser = sessionService.getCurrentUser();
-    Map<String, Object> userInfo = Map.of(
-        "id", currentUser.getId(),
-        "username", currentUser.getUsername(),
-        "email", currentUser.getEmail(),
-        "roles", currentUser.getRoles(),
-        "enabled", currentUser.isEnabled());
-
-    return ResponseEntity.ok(userInfo);
+    return ResponseEntity.ok(snapshot.toUserInfo());
   }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.infrastructure.adapter.in.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.session.web.http.CookieSerializer;
+
+import java.util.function.Supplier;
+
+/**
+ * Authorization of the reactive endpoints without loading the session on the servlet thread
+ * A request is let through when {@link PrincipalTokenFilter} accepted its token or when it carries
+ * a session cookie; the controller then checks that session once, through the reactive store, and
+ * answers 401 if it is not authenticated. A request with neither is denied before any Redis read
+ */
+public class SessionCookieAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+  private final CookieSerializer cookieSerializer;
+
+  public SessionCookieAuthorizationManager(CookieSerializer cookieSerializer) {
+    this.cookieSerializer = cookieSerializer;
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+    HttpServletRequest request = context.getRequest();
+    return new AuthorizationDecision(request.getAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE) != null
+        || SessionCookies.sessionId(cookieSerializer, request) != null);
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.infrastructure.adapter.in.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.session.web.http.CookieSerializer;
+
+import java.util.List;
+
+/**
+ * Reads the session id from the session cookie for the reactive controllers, which bypass
+ * the servlet {@code HttpSession}
+ */
+final class SessionCookies {
+
+  private SessionCookies() {
+  }
+
+  /**
+   * @return the session id sent by the client, or null if there is none
+   */
+  static String sessionId(CookieSerializer cookieSerializer, HttpServletRequest request) {
+    List<String> values = cookieSerializer.readCookieValues(request);
+    return values.isEmpty() ? null : values.get(0);
+  }
+}
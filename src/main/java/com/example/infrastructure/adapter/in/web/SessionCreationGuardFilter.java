@@ -0,0 +1,119 @@
+package com.example.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Filter keeping anonymous traffic from creating sessions
+ * Runs right after the session repository filter. On the guarded paths a request without a
+ * session gets null from {@code getSession(true)} instead of a new session, so probes, health
+ * checks and bots never write to Redis. Sessions are only ever authenticated through an existing
+ * session here, so "no session yet" is what makes a request anonymous.
+ *
+ * Metrics: {@code session.created} and {@code session.creation.blocked}, both tagged with the
+ * endpoint pattern that handled the request
+ */
+public class SessionCreationGuardFilter extends OncePerRequestFilter {
+
+  static final String UNMAPPED_ENDPOINT = "unmapped";
+
+  private final List<PathPattern> guardedPaths;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * @param guardedPaths  path patterns on which anonymous requests may not create a session
+   * @param meterRegistry registry for the per-endpoint counters
+   */
+  public SessionCreationGuardFilter(List<String> guardedPaths, MeterRegistry meterRegistry) {
+    this.guardedPaths = guardedPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    GuardedRequest guardedRequest = new GuardedRequest(request, guardedPattern(request));
+    try {
+      filterChain.doFilter(guardedRequest, response);
+    } finally {
+      if (guardedRequest.created || guardedRequest.blocked) {
+        String endpoint = endpoint(request, guardedRequest.pattern);
+        Counter.builder(guardedRequest.created ? "session.created" : "session.creation.blocked")
+            .tag("endpoint", endpoint)
+            .description(guardedRequest.created ? "Sessions created, by endpoint"
+                : "Session creations refused to anonymous requests, by endpoint")
+            .register(meterRegistry)
+            .increment();
+      }
+    }
+  }
+
+  private PathPattern guardedPattern(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    PathContainer container = PathContainer.parsePath(path);
+    for (PathPattern pattern : guardedPaths) {
+      if (pattern.matches(container)) {
+        return pattern;
+      }
+    }
+    return null;
+  }
+
+  private static String endpoint(HttpServletRequest request, PathPattern guardedPattern) {
+    Object handlerPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (handlerPattern != null) {
+      return handlerPattern.toString();
+    }
+    // Rechazada antes de llegar a un controlador (p. ej. 401 de Spring Security)
+    return guardedPattern != null ? guardedPattern.getPatternString() : UNMAPPED_ENDPOINT;
+  }
+
+  /**
+   * Request refusing to create a session on a guarded path and noting whether it created one
+   */
+  private static final class GuardedRequest extends HttpServletRequestWrapper {
+
+    private final PathPattern pattern;
+    private boolean created;
+    private boolean blocked;
+
+    GuardedRequest(HttpServletRequest request, PathPattern pattern) {
+      super(request);
+      this.pattern = pattern;
+    }
+
+    @Override
+    public HttpSession getSession() {
+      return getSession(true);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+      HttpSession existing = super.getSession(false);
+      if (existing != null || !create) {
+        return existing;
+      }
+      if (pattern != null) {
+        blocked = true;
+        return null;
+      }
+      HttpSession session = super.getSession(true);
+      created = session != null;
+      return session;
+    }
+  }
+}
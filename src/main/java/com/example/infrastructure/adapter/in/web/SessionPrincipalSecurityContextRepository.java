@@ -0,0 +1,49 @@
+package com.example.infrastructure.adapter.in.web;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.application.service.SessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+/**
+ * Security context repository rebuilding the context from the session principal
+ * Nothing is stored for the context itself: the login stores the {@link SessionPrincipal} once and
+ * every request derives the authentication from the snapshot {@link SessionService} reads anyway,
+ * so the session is read and its principal decoded once per request
+ */
+public class SessionPrincipalSecurityContextRepository implements SecurityContextRepository {
+
+  private final SessionService sessionService;
+
+  public SessionPrincipalSecurityContextRepository(SessionService sessionService) {
+    this.sessionService = sessionService;
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+    SessionPrincipal principal = sessionService.getPrincipal();
+    if (principal == null) {
+      return new SecurityContextImpl();
+    }
+    var authorities = principal.roles().stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList();
+    return new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(principal.username(), null,
+        authorities));
+  }
+
+  @Override
+  public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+    // El principal ya lo guardó SessionService en el login; el contexto nunca se persiste aparte
+  }
+
+  @Override
+  public boolean containsContext(HttpServletRequest request) {
+    return sessionService.getPrincipal() != null;
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.infrastructure.adapter.out.persistence;
+
+import com.example.domain.model.User;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent user store keeping each user as one encoded byte array
+ * Records live in chunks of slots and are replaced whole on save, so a reader sees either the old
+ * or the new user. Usernames and emails are indexed by {@link KeyIndex} tables that hold only hashes
+ * and slots. Lookups take no lock and return a copy of the user; saves lock one of several stripes
+ * chosen by username. A user is identified by its username, ids are generated atomically
+ */
+public class CompactUserStore {
+
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int MAX_CHUNKS = 1 << (Integer.SIZE - 1 - CHUNK_BITS);
+  private static final int SAVE_STRIPES = 64;
+
+  private final UserRecordCodec codec = new UserRecordCodec();
+  private final AtomicReferenceArray<AtomicReferenceArray<byte[]>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+  private final AtomicInteger nextSlot = new AtomicInteger();
+  private final AtomicLong lastId = new AtomicLong();
+  private final ReentrantLock[] saveLocks = new ReentrantLock[SAVE_STRIPES];
+  private final KeyIndex usernames;
+  private final KeyIndex emails;
+
+  /**
+   * @param expectedUsers users the indexes are sized for before they have to grow
+   */
+  public CompactUserStore(int expectedUsers) {
+    for (int i = 0; i < SAVE_STRIPES; i++) {
+      saveLocks[i] = new ReentrantLock();
+    }
+    this.usernames = new KeyIndex(expectedUsers, (slot, key) -> UserRecordCodec.usernameEquals(record(slot), key));
+    this.emails = new KeyIndex(expectedUsers, (slot, key) -> UserRecordCodec.emailEquals(record(slot), key));
+  }
+
+  public Optional<User> findByUsername(String username) {
+    return find(usernames, username);
+  }
+
+  public Optional<User> findByEmail(String email) {
+    return find(emails, email);
+  }
+
+  /**
+   * Stores the user, replacing the one with the same username
+   * A user without id keeps the id of the one it replaces or gets the next free one. The email
+   * points at the last user saved with it
+   *
+   * @return the same user, with its id set
+   */
+  public User save(User user) {
+    byte[] username = UserRecordCodec.bytes(user.getUsername());
+    if (username == null) {
+      throw new IllegalArgumentException("username is required");
+    }
+    byte[] email = UserRecordCodec.bytes(user.getEmail());
+    int usernameHash = KeyIndex.hash(username);
+
+    ReentrantLock lock = saveLocks[usernameHash & (SAVE_STRIPES - 1)];
+    lock.lock();
+    try {
+      int slot = usernames.find(usernameHash, username);
+      byte[] previous = slot >= 0 ? record(slot) : null;
+      if (user.getId() != null) {
+        // Un id explícito nunca se vuelve a generar
+        lastId.accumulateAndGet(user.getId(), Math::max);
+      } else {
+        user.setId(previous != null ? UserRecordCodec.id(previous) : lastId.incrementAndGet());
+      }
+
+      byte[] record = codec.encode(user);
+      if (slot < 0) {
+        slot = allocateSlot();
+        chunk(slot).set(slot & (CHUNK_SIZE - 1), record);
+        usernames.put(usernameHash, username, slot);
+      } else {
+        chunk(slot).set(slot & (CHUNK_SIZE - 1), record);
+      }
+
+      byte[] previousEmail = previous != null ? UserRecordCodec.email(previous) : null;
+      if (previousEmail != null && (email == null || !UserRecordCodec.emailEquals(record, previousEmail))) {
+        emails.remove(KeyIndex.hash(previousEmail), slot);
+      }
+      if (email != null) {
+        emails.put(KeyIndex.hash(email), email, slot);
+      }
+      return user;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of users stored
+   */
+  public int size() {
+    return nextSlot.get();
+  }
+
+  /**
+   * @return bytes held by the username and email indexes, without the records
+   */
+  public long indexBytes() {
+    return usernames.tableBytes() + emails.tableBytes();
+  }
+
+  private Optional<User> find(KeyIndex index, String key) {
+    if (key == null) {
+      return Optional.empty();
+    }
+    byte[] bytes = UserRecordCodec.bytes(key);
+    int slot = index.find(KeyIndex.hash(bytes), bytes);
+    if (slot < 0) {
+      return Optional.empty();
+    }
+    byte[] record = record(slot);
+    // El registro pudo cambiar de email entre el índice y la lectura
+    if (index == emails && !UserRecordCodec.emailEquals(record, bytes)) {
+      return Optional.empty();
+    }
+    return Optional.of(codec.decode(record));
+  }
+
+  private int allocateSlot() {
+    int slot = nextSlot.getAndIncrement();
+    if (slot < 0 || slot >>> CHUNK_BITS >= MAX_CHUNKS) {
+      throw new IllegalStateException("User store is full");
+    }
+    int chunk = slot >>> CHUNK_BITS;
+    if (chunks.get(chunk) == null) {
+      chunks.compareAndSet(chunk, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+    }
+    return slot;
+  }
+
+  private AtomicReferenceArray<byte[]> chunk(int slot) {
+    return chunks.get(slot >>> CHUNK_BITS);
+  }
+
+  private byte[] record(int slot) {
+    return chunk(slot).get(slot & (CHUNK_SIZE - 1));
+  }
+}
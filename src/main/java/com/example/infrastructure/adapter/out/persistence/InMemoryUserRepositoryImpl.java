@@ -1,28 +1,30 @@
 package com.example.infrastructure.adapter.out.persistence;
 
 import com.example.application.port.out.UserRepository;
+import com.example.application.port.out.VerifiedCredentialCache;
 import com.example.domain.model.User;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 /**
  * In-memory implementation of user repository
- * This is a temporary implementation for development purposes
+ * This is a temporary implementation for development purposes. Users are kept in a
+ * {@link CompactUserStore}: lookups take no lock and return a copy, so a change is only visible once
+ * the user is saved
  */
 @Repository
 public class InMemoryUserRepositoryImpl implements UserRepository {
 
-  private final Map<String, User> usersByUsername = new HashMap<>();
-  private final Map<String, User> usersByEmail = new HashMap<>();
+  private final CompactUserStore users = new CompactUserStore(1024);
   private final PasswordEncoder passwordEncoder;
+  private final VerifiedCredentialCache credentialCache;
 
-  public InMemoryUserRepositoryImpl(PasswordEncoder passwordEncoder) {
+  public InMemoryUserRepositoryImpl(PasswordEncoder passwordEncoder, VerifiedCredentialCache credentialCache) {
     this.passwordEncoder = passwordEncoder;
+    this.credentialCache = credentialCache;
   }
 
   @PostConstruct
@@ -52,24 +54,20 @@ public class InMemoryUserRepositoryImpl implements UserRepository {
 
   @Override
   public Optional<User> findByUsername(String username) {
-    return Optional.ofNullable(usersByUsername.get(username));
+    return users.findByUsername(username);
   }
 
   @Override
   public Optional<User> findByEmail(String email) {
-    return Optional.ofNullable(usersByEmail.get(email));
+    return users.findByEmail(email);
   }
 
   @Override
   public User save(User user) {
-    if (user.getId() == null) {
-      // Generar ID si no existe
-      user.setId((long) (usersByUsername.size() + 1));
-    }
-
-    // Guardar en ambos maps
-    usersByUsername.put(user.getUsername(), user);
-    usersByEmail.put(user.getEmail(), user);
+    // El store genera el ID si no existe e indexa username y email
+    users.save(user);
+    // Un hash o un estado nuevo invalida la contraseña verificada en caché
+    credentialCache.userSaved(user);
 
     return user;
   }
@@ -0,0 +1,205 @@
+package com.example.infrastructure.adapter.out.persistence;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open-addressing index from a user key (username or email) to the slot of its record
+ * Each entry packs the 32-bit hash of the key and the slot in one long, the key itself is compared
+ * against the record, so the index holds no strings: 8 bytes per entry at most 75% full. The table
+ * is split in stripes by hash; readers probe without locking and writers lock only their stripe.
+ * Entries change with single volatile writes, and a grown table is published once complete
+ */
+final class KeyIndex {
+
+  /**
+   * Tells whether the record in a slot has the given key
+   */
+  @FunctionalInterface
+  interface KeyMatcher {
+    boolean matches(int slot, byte[] key);
+  }
+
+  private static final long EMPTY = 0L;
+  private static final long REMOVED = -1L;
+  private static final int STRIPE_BITS = 6;
+  private static final int MIN_CAPACITY = 16;
+
+  private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+  private final KeyMatcher matcher;
+
+  private static final class Stripe {
+    final ReentrantLock lock = new ReentrantLock();
+    volatile AtomicLongArray entries;
+    // Entradas vivas y ocupadas (vivas más borradas), solo con el lock
+    int size;
+    int used;
+
+    Stripe(int capacity) {
+      this.entries = new AtomicLongArray(capacity);
+    }
+  }
+
+  /**
+   * @param expectedKeys keys the index is sized for before it has to grow
+   * @param matcher      compares a key with the record of a slot
+   */
+  KeyIndex(int expectedKeys, KeyMatcher matcher) {
+    this.matcher = matcher;
+    int perStripe = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedKeys >> STRIPE_BITS) * 2 - 1) * 2);
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe(perStripe);
+    }
+  }
+
+  /**
+   * Hash of a key, FNV-1a finished with the MurmurHash3 mix so both the stripe and the position bits
+   * depend on every byte
+   */
+  static int hash(byte[] key) {
+    int hash = 0x811C9DC5;
+    for (byte b : key) {
+      hash = (hash ^ b) * 0x01000193;
+    }
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * @return the slot of the key, -1 if it is not indexed
+   */
+  int find(int hash, byte[] key) {
+    AtomicLongArray entries = stripe(hash).entries;
+    int mask = entries.length() - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      long entry = entries.get(i);
+      if (entry == EMPTY) {
+        return -1;
+      }
+      if (entry != REMOVED && hashOf(entry) == hash && matcher.matches(slotOf(entry), key)) {
+        return slotOf(entry);
+      }
+    }
+  }
+
+  /**
+   * Points the key at a slot, replacing the slot it pointed at before
+   */
+  void put(int hash, byte[] key, int slot) {
+    Stripe stripe = stripe(hash);
+    stripe.lock.lock();
+    try {
+      AtomicLongArray entries = stripe.entries;
+      int mask = entries.length() - 1;
+      int free = -1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        long entry = entries.get(i);
+        if (entry == EMPTY) {
+          if (free < 0) {
+            free = i;
+            stripe.used++;
+          }
+          break;
+        }
+        if (entry == REMOVED) {
+          if (free < 0) {
+            free = i;
+          }
+        } else if (hashOf(entry) == hash && matcher.matches(slotOf(entry), key)) {
+          entries.set(i, entry(hash, slot));
+          return;
+        }
+      }
+      entries.set(free, entry(hash, slot));
+      stripe.size++;
+      if (stripe.used * 4L > entries.length() * 3L) {
+        grow(stripe);
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the entry of the key if it still points at the slot
+   */
+  void remove(int hash, int slot) {
+    Stripe stripe = stripe(hash);
+    stripe.lock.lock();
+    try {
+      AtomicLongArray entries = stripe.entries;
+      int mask = entries.length() - 1;
+      long target = entry(hash, slot);
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        long entry = entries.get(i);
+        if (entry == EMPTY) {
+          return;
+        }
+        if (entry == target) {
+          entries.set(i, REMOVED);
+          stripe.size--;
+          return;
+        }
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * @return bytes held by the tables of every stripe
+   */
+  long tableBytes() {
+    long bytes = 0;
+    for (Stripe stripe : stripes) {
+      bytes += stripe.entries.length() * 8L;
+    }
+    return bytes;
+  }
+
+  /**
+   * Rebuilds the stripe without removed entries, at most half full
+   */
+  private static void grow(Stripe stripe) {
+    AtomicLongArray old = stripe.entries;
+    int capacity = old.length();
+    while (stripe.size * 2L > capacity) {
+      capacity <<= 1;
+    }
+    AtomicLongArray grown = new AtomicLongArray(capacity);
+    int mask = capacity - 1;
+    for (int i = 0; i < old.length(); i++) {
+      long entry = old.get(i);
+      if (entry == EMPTY || entry == REMOVED) {
+        continue;
+      }
+      int position = hashOf(entry) & mask;
+      while (grown.get(position) != EMPTY) {
+        position = (position + 1) & mask;
+      }
+      grown.set(position, entry);
+    }
+    // Los lectores siguen con la tabla anterior, que ya no cambia, hasta leer la nueva
+    stripe.entries = grown;
+    stripe.used = stripe.size;
+  }
+
+  private Stripe stripe(int hash) {
+    return stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+  }
+
+  private static long entry(int hash, int slot) {
+    return ((long) hash << 32) | (slot + 1L);
+  }
+
+  private static int hashOf(long entry) {
+    return (int) (entry >>> 32);
+  }
+
+  private static int slotOf(long entry) {
+    return (int) entry - 1;
+  }
+}
@@ -0,0 +1,174 @@
+package com.example.infrastructure.adapter.out.persistence;
+
+import com.example.domain.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Encodes a user as one byte array: id, flags, then username, email and password as UTF-8 with a
+ * two-byte length, then the roles as two-byte ids of a shared role dictionary
+ * Username and email are compared in place, so the indexes need no copy of the keys
+ */
+final class UserRecordCodec {
+
+  private static final int ID_OFFSET = 0;
+  private static final int FLAGS_OFFSET = 8;
+  private static final int USERNAME_OFFSET = 9;
+  private static final int NULL_LENGTH = 0xFFFF;
+  private static final int MAX_LENGTH = NULL_LENGTH - 1;
+  private static final byte ENABLED = 1;
+
+  private final Map<String, Integer> roleIds = new ConcurrentHashMap<>();
+  private volatile String[] roleNames = new String[0];
+  private final ReentrantLock roleLock = new ReentrantLock();
+
+  byte[] encode(User user) {
+    byte[] username = bytes(user.getUsername());
+    byte[] email = bytes(user.getEmail());
+    byte[] password = bytes(user.getPassword());
+    Set<String> roles = user.getRoles() != null ? user.getRoles() : Set.of();
+    if (roles.size() > 255) {
+      throw new IllegalArgumentException("A user can have at most 255 roles");
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(USERNAME_OFFSET + 6 + username.length + length(email) + length(password)
+        + 1 + roles.size() * 2);
+    buffer.putLong(user.getId());
+    buffer.put(user.isEnabled() ? ENABLED : 0);
+    putField(buffer, username);
+    putField(buffer, email);
+    putField(buffer, password);
+    buffer.put((byte) roles.size());
+    for (String role : roles) {
+      buffer.putShort((short) roleId(role));
+    }
+    return buffer.array();
+  }
+
+  User decode(byte[] record) {
+    ByteBuffer buffer = ByteBuffer.wrap(record);
+    User user = new User();
+    user.setId(buffer.getLong(ID_OFFSET));
+    user.setEnabled((buffer.get(FLAGS_OFFSET) & ENABLED) != 0);
+    buffer.position(USERNAME_OFFSET);
+    user.setUsername(getField(buffer));
+    user.setEmail(getField(buffer));
+    user.setPassword(getField(buffer));
+
+    int roleCount = buffer.get() & 0xFF;
+    String[] names = roleNames;
+    Set<String> roles = new HashSet<>(roleCount * 2);
+    for (int i = 0; i < roleCount; i++) {
+      roles.add(names[buffer.getShort() & 0xFFFF]);
+    }
+    user.setRoles(roles);
+    return user;
+  }
+
+  static long id(byte[] record) {
+    return ByteBuffer.wrap(record).getLong(ID_OFFSET);
+  }
+
+  static boolean usernameEquals(byte[] record, byte[] username) {
+    return fieldEquals(record, USERNAME_OFFSET, username);
+  }
+
+  static boolean emailEquals(byte[] record, byte[] email) {
+    return fieldEquals(record, emailOffset(record), email);
+  }
+
+  /**
+   * @return the UTF-8 email of the record, null if the user has none
+   */
+  static byte[] email(byte[] record) {
+    int offset = emailOffset(record);
+    int length = lengthAt(record, offset);
+    return length == NULL_LENGTH ? null : Arrays.copyOfRange(record, offset + 2, offset + 2 + length);
+  }
+
+  /**
+   * @return the UTF-8 bytes of a key, null for a null key
+   */
+  static byte[] bytes(String value) {
+    if (value == null) {
+      return null;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_LENGTH) {
+      throw new IllegalArgumentException("User field longer than " + MAX_LENGTH + " bytes");
+    }
+    return bytes;
+  }
+
+  private static int emailOffset(byte[] record) {
+    return USERNAME_OFFSET + 2 + lengthAt(record, USERNAME_OFFSET);
+  }
+
+  private static boolean fieldEquals(byte[] record, int offset, byte[] value) {
+    int length = lengthAt(record, offset);
+    if (length == NULL_LENGTH || length != value.length) {
+      return false;
+    }
+    return Arrays.equals(record, offset + 2, offset + 2 + length, value, 0, length);
+  }
+
+  private static int lengthAt(byte[] record, int offset) {
+    return ((record[offset] & 0xFF) << 8) | (record[offset + 1] & 0xFF);
+  }
+
+  private static int length(byte[] field) {
+    return field == null ? 0 : field.length;
+  }
+
+  private static void putField(ByteBuffer buffer, byte[] field) {
+    if (field == null) {
+      buffer.putShort((short) NULL_LENGTH);
+      return;
+    }
+    buffer.putShort((short) field.length);
+    buffer.put(field);
+  }
+
+  private static String getField(ByteBuffer buffer) {
+    int length = buffer.getShort() & 0xFFFF;
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+
+  private int roleId(String role) {
+    Integer id = roleIds.get(role);
+    if (id != null) {
+      return id;
+    }
+    roleLock.lock();
+    try {
+      id = roleIds.get(role);
+      if (id == null) {
+        String[] names = roleNames;
+        if (names.length == NULL_LENGTH) {
+          throw new IllegalStateException("Too many distinct roles");
+        }
+        // El nombre se publica antes que cualquier registro que use su id
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = role;
+        roleNames = grown;
+        id = names.length;
+        roleIds.put(role, id);
+      }
+      return id;
+    } finally {
+      roleLock.unlock();
+    }
+  }
+}
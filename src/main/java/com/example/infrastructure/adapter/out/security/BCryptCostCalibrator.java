@@ -0,0 +1,107 @@
+package com.example.infrastructure.adapter.out.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt cost whose verification time on this machine is closest to a target without
+ * exceeding it
+ * One verification is timed at the minimum cost (median of a few runs, after a warm-up) and the
+ * time of higher costs is extrapolated, each step doubling it. The extrapolated cost is then timed
+ * too, and lowered one step at a time while its measured verification exceeds the target
+ */
+public class BCryptCostCalibrator {
+
+  private static final int WARMUP_COST = 4;
+  private static final int WARMUP_RUNS = 20;
+  private static final int MEASURED_RUNS = 3;
+
+  private final int minCost;
+  private final int maxCost;
+  private final IntToLongFunction verificationNanos;
+
+  /**
+   * Chosen cost and the verification time expected with it
+   *
+   * @param cost             BCrypt log rounds
+   * @param verificationTime expected time of one verification on this machine
+   */
+  public record Calibration(int cost, Duration verificationTime) {
+
+    /**
+     * @return verifications one core can do per second with this cost
+     */
+    public double verificationsPerSecondPerCore() {
+      return 1e9 / Math.max(1, verificationTime.toNanos());
+    }
+  }
+
+  /**
+   * @param minCost lowest cost accepted even if it is slower than the target
+   * @param maxCost highest cost considered
+   */
+  public BCryptCostCalibrator(int minCost, int maxCost) {
+    this(minCost, maxCost, BCryptCostCalibrator::measure);
+  }
+
+  /**
+   * @param verificationNanos time of one verification at the given cost
+   */
+  BCryptCostCalibrator(int minCost, int maxCost, IntToLongFunction verificationNanos) {
+    if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+      throw new IllegalArgumentException("BCrypt cost must satisfy 4 <= minCost <= maxCost <= 31");
+    }
+    this.minCost = minCost;
+    this.maxCost = maxCost;
+    this.verificationNanos = verificationNanos;
+  }
+
+  /**
+   * @param target longest acceptable verification time
+   * @return the highest cost within the target, or the minimum cost if even that is slower
+   */
+  public Calibration calibrate(Duration target) {
+    long minCostNanos = verificationNanos.applyAsLong(minCost);
+
+    int cost = minCost;
+    long nanos = minCostNanos;
+    // Cada punto de coste dobla el número de rondas
+    while (cost < maxCost && nanos * 2 <= target.toNanos()) {
+      cost++;
+      nanos *= 2;
+    }
+
+    // La extrapolación desde min-cost puede quedarse corta: se comprueba con el coste elegido
+    if (cost > minCost) {
+      nanos = verificationNanos.applyAsLong(cost);
+      while (nanos > target.toNanos() && cost > minCost) {
+        cost--;
+        nanos = cost == minCost ? minCostNanos : verificationNanos.applyAsLong(cost);
+      }
+    }
+    return new Calibration(cost, Duration.ofNanos(nanos));
+  }
+
+  /**
+   * Median time of a few verifications at the given cost, after warming up BCrypt
+   */
+  private static long measure(int cost) {
+    String warmupHash = BCrypt.hashpw("calibration", BCrypt.gensalt(WARMUP_COST));
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      BCrypt.checkpw("calibration", warmupHash);
+    }
+
+    String hash = BCrypt.hashpw("calibration", BCrypt.gensalt(cost));
+    long[] runs = new long[MEASURED_RUNS];
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      long start = System.nanoTime();
+      BCrypt.checkpw("calibration", hash);
+      runs[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(runs);
+    return runs[MEASURED_RUNS / 2];
+  }
+}
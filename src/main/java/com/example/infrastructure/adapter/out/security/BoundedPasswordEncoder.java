@@ -0,0 +1,186 @@
+package com.example.infrastructure.adapter.out.security;
+
+import com.example.application.exception.AuthenticationOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Password encoder running verifications on a dedicated, bounded pool
+ * A login waits for its hash on the pool instead of computing it on the request thread, so a login
+ * burst takes at most {@code threads} cores. A verification is refused up front with an
+ * {@link AuthenticationOverloadedException} when the queue is full or when the expected wait, from
+ * the queued verifications and the average hash time, exceeds {@code maxQueueWait}; one that still
+ * waited longer is refused when it leaves the queue. Encoding, as when a stored hash is upgraded
+ * after a login, goes through the same pool and admission
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final int threads;
+  private final int capacity;
+  private final long maxQueueWaitNanos;
+  private final AtomicLong averageHashNanos = new AtomicLong();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final Timer hashLatency;
+  private final Timer queueWait;
+  private final Counter rejectedQueueFull;
+  private final Counter rejectedWaitBudget;
+
+  /**
+   * @param delegate      encoder doing the actual hashing
+   * @param threads       verifications running at once
+   * @param queueCapacity verifications waiting at most
+   * @param maxQueueWait  longest a verification may wait for a thread
+   * @param meterRegistry registry for the pool meters
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxQueueWait,
+      MeterRegistry meterRegistry) {
+    if (threads < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException("threads and queueCapacity must be at least 1");
+    }
+    this.delegate = delegate;
+    this.threads = threads;
+    this.capacity = threads + queueCapacity;
+    this.maxQueueWaitNanos = maxQueueWait.toNanos();
+
+    AtomicInteger counter = new AtomicInteger();
+    // La cola del pool no tiene límite propio: la capacidad se controla con inFlight antes de encolar
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+
+    Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+        .description("Password verifications waiting for a thread").register(meterRegistry);
+    this.hashLatency = Timer.builder("auth.password.hash").publishPercentileHistogram()
+        .description("Time to hash or verify one password").register(meterRegistry);
+    this.queueWait = Timer.builder("auth.password.queue.wait")
+        .description("Time a password verification waited for a thread").register(meterRegistry);
+    this.rejectedQueueFull = Counter.builder("auth.password.rejected").tag("reason", "queue-full")
+        .description("Logins refused because password verification was saturated").register(meterRegistry);
+    this.rejectedWaitBudget = Counter.builder("auth.password.rejected").tag("reason", "wait-budget")
+        .description("Logins refused because password verification was saturated").register(meterRegistry);
+  }
+
+  /**
+   * @throws AuthenticationOverloadedException if the hash would wait longer than allowed
+   */
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return hash(() -> delegate.encode(rawPassword));
+  }
+
+  /**
+   * @throws AuthenticationOverloadedException if the verification would wait longer than allowed
+   */
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return hash(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  /**
+   * @return average time of one hash, zero until the first one finished
+   */
+  public Duration getAverageHashTime() {
+    return Duration.ofNanos(averageHashNanos.get());
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private <T> T hash(Supplier<T> work) {
+    // Se cuenta desde quien espera, no con el estado del pool: un hilo que acaba de terminar un hash
+    // aún figura activo y todavía no ha sacado la siguiente tarea de la cola
+    int ahead = inFlight.getAndIncrement();
+    try {
+      long expectedWait = expectedWaitNanos(ahead);
+      if (ahead >= capacity) {
+        rejectedQueueFull.increment();
+        throw overloaded(expectedWait);
+      }
+      if (expectedWait > maxQueueWaitNanos) {
+        rejectedWaitBudget.increment();
+        throw overloaded(expectedWait);
+      }
+
+      long enqueuedAt = System.nanoTime();
+      return await(executor.submit(() -> run(work, enqueuedAt)));
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private <T> T run(Supplier<T> work, long enqueuedAt) {
+    long start = System.nanoTime();
+    long waited = start - enqueuedAt;
+    queueWait.record(waited, TimeUnit.NANOSECONDS);
+    if (waited > maxQueueWaitNanos) {
+      // La estimación se quedó corta: no se gasta CPU en un login que ya superó su presupuesto
+      rejectedWaitBudget.increment();
+      throw overloaded(waited);
+    }
+
+    T result = work.get();
+    long took = System.nanoTime() - start;
+    hashLatency.record(took, TimeUnit.NANOSECONDS);
+    averageHashNanos.updateAndGet(average -> average == 0 ? took : average + (took - average) / 8);
+    return result;
+  }
+
+  /**
+   * Wait of a hash submitted now: none while a thread is free, otherwise the hashes queued ahead of
+   * it shared among the threads
+   *
+   * @param ahead hashes submitted and not finished yet
+   */
+  private long expectedWaitNanos(int ahead) {
+    if (ahead < threads) {
+      return 0;
+    }
+    return (ahead - threads + 1) * averageHashNanos.get() / threads;
+  }
+
+  private <T> T await(Future<T> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.cancel(false);
+      throw overloaded(maxQueueWaitNanos);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private AuthenticationOverloadedException overloaded(long waitNanos) {
+    return new AuthenticationOverloadedException("Too many logins in progress, retry later",
+        Duration.ofNanos(Math.max(waitNanos, maxQueueWaitNanos)));
+  }
+}
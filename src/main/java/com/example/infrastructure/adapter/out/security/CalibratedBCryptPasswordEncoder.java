@@ -0,0 +1,36 @@
+package com.example.infrastructure.adapter.out.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder asking to re-encode every hash whose cost differs from its own, lower or higher
+ * {@link BCryptPasswordEncoder} only upgrades weaker hashes; after a calibration picks a lower cost
+ * on slower hardware, stronger hashes must be brought down too to keep login latency predictable
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  private static final Pattern COST = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$");
+
+  private final int cost;
+
+  public CalibratedBCryptPasswordEncoder(int cost) {
+    super(cost);
+    this.cost = cost;
+  }
+
+  public int getCost() {
+    return cost;
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = COST.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+  }
+}
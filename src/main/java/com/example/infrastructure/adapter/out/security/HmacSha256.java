@@ -0,0 +1,47 @@
+package com.example.infrastructure.adapter.out.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * HMAC-SHA256 with a fixed key, safe to share between threads
+ * The key is set up once; every {@link #newMac()} returns a copy of that initialized instance
+ */
+public final class HmacSha256 {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final Mac prototype;
+
+  /**
+   * @param key HMAC key, the caller checks its minimum length
+   */
+  public HmacSha256(byte[] key) {
+    try {
+      this.prototype = Mac.getInstance(ALGORITHM);
+      this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC-SHA256 is not available", e);
+    }
+  }
+
+  /**
+   * @return a Mac ready for {@code update}/{@code doFinal}, owned by the caller
+   */
+  public Mac newMac() {
+    try {
+      // Mac no es thread-safe: se clona el ya inicializado en vez de crear e inicializar uno por uso
+      return (Mac) prototype.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("HMAC-SHA256 provider does not support cloning", e);
+    }
+  }
+
+  /**
+   * @return the HMAC of the given bytes
+   */
+  public byte[] sign(byte[] data) {
+    return newMac().doFinal(data);
+  }
+}
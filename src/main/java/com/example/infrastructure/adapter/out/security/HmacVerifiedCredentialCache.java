@@ -0,0 +1,148 @@
+package com.example.infrastructure.adapter.out.security;
+
+import com.example.application.port.out.VerifiedCredentialCache;
+import com.example.domain.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.crypto.Mac;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-node cache of verified credentials, bounded by size and entry age
+ * Keeps, per username, an HMAC of the last password that matched together with the hash and the
+ * enabled flag it matched against; the password itself is never stored. A hit requires the same
+ * HMAC and an unchanged user, so a new hash or a disabled account misses even before
+ * {@link #userSaved} evicts the entry. The HMAC key is random per instance
+ */
+public class HmacVerifiedCredentialCache implements VerifiedCredentialCache {
+
+  private final Map<String, Entry> entries;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final HmacSha256 hmac;
+  private final long ttlMillis;
+  private final Clock clock;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter invalidations;
+
+  private record Entry(byte[] mac, String encodedPassword, boolean enabled, long cachedAt) {
+  }
+
+  /**
+   * @param key           HMAC key, at least 32 bytes
+   * @param maxEntries    users remembered at most, the least recently used are evicted
+   * @param ttl           how long a verification is trusted
+   * @param clock         time source of the entry age
+   * @param meterRegistry registry for the cache meters
+   */
+  public HmacVerifiedCredentialCache(byte[] key, int maxEntries, Duration ttl, Clock clock,
+      MeterRegistry meterRegistry) {
+    if (key.length < 32) {
+      throw new IllegalArgumentException("Credential cache key must be at least 32 bytes");
+    }
+    this.hmac = new HmacSha256(key);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    this.ttlMillis = ttl.toMillis();
+    this.clock = clock;
+
+    this.hits = Counter.builder("auth.credential.cache.gets").tag("result", "hit")
+        .description("Logins verified without hashing the password").register(meterRegistry);
+    this.misses = Counter.builder("auth.credential.cache.gets").tag("result", "miss")
+        .description("Logins that had to hash the password").register(meterRegistry);
+    this.invalidations = Counter.builder("auth.credential.cache.invalidations")
+        .description("Verified credentials forgotten because the user changed").register(meterRegistry);
+    Gauge.builder("auth.credential.cache.size", this, HmacVerifiedCredentialCache::size)
+        .description("Users with a verified credential in the cache").register(meterRegistry);
+  }
+
+  @Override
+  public boolean isVerified(User user, CharSequence rawPassword) {
+    Entry entry = get(user.getUsername());
+    boolean verified = entry != null
+        && clock.millis() - entry.cachedAt() < ttlMillis
+        && entry.enabled() == user.isEnabled()
+        && entry.encodedPassword().equals(user.getPassword())
+        // Comparación en tiempo constante: el tiempo de respuesta no revela el HMAC guardado
+        && MessageDigest.isEqual(entry.mac(), mac(user.getUsername(), rawPassword));
+    (verified ? hits : misses).increment();
+    return verified;
+  }
+
+  @Override
+  public void remember(User user, CharSequence rawPassword) {
+    Entry entry = new Entry(mac(user.getUsername(), rawPassword), user.getPassword(), user.isEnabled(),
+        clock.millis());
+    lock.lock();
+    try {
+      entries.put(user.getUsername(), entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void userSaved(User user) {
+    lock.lock();
+    try {
+      Entry entry = entries.get(user.getUsername());
+      if (entry != null && (entry.enabled() != user.isEnabled()
+          || !entry.encodedPassword().equals(user.getPassword()))) {
+        entries.remove(user.getUsername());
+        invalidations.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Entry get(String username) {
+    lock.lock();
+    try {
+      return entries.get(username);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * HMAC of the username and the password, so the same password of two users gives two values
+   */
+  private byte[] mac(String username, CharSequence rawPassword) {
+    Mac mac = hmac.newMac();
+    mac.update(username.getBytes(StandardCharsets.UTF_8));
+    mac.update((byte) 0);
+    ByteBuffer password = StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPassword));
+    mac.update(password);
+    byte[] result = mac.doFinal();
+    if (password.hasArray()) {
+      Arrays.fill(password.array(), (byte) 0);
+    }
+    return result;
+  }
+}
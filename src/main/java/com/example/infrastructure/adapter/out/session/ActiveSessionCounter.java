@@ -0,0 +1,78 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gauge {@code session.store.active}: sessions not yet expired over every Redis node
+ * Counted from the expiry index with a few ZCOUNTs, and at most once per refresh interval however
+ * often the gauge is scraped; a scrape in between reads the last count. Counts the sessions of the
+ * whole cluster, so every application node reports the same value
+ */
+public class ActiveSessionCounter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ActiveSessionCounter.class);
+
+  private final List<RedisSessionStore> stores;
+  private final long refreshMillis;
+  private final Clock clock;
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile long nextRefreshAt;
+  private volatile double count = Double.NaN;
+
+  /**
+   * @param stores          stores of every Redis node, each keeping an expiry index
+   * @param refreshInterval how long a count is reused
+   * @param clock           clock giving the current time
+   * @param meterRegistry   registry for the gauge
+   */
+  public ActiveSessionCounter(List<RedisSessionStore> stores, Duration refreshInterval, Clock clock,
+      MeterRegistry meterRegistry) {
+    this.stores = List.copyOf(stores);
+    this.refreshMillis = refreshInterval.toMillis();
+    this.clock = clock;
+    Gauge.builder("session.store.active", this, ActiveSessionCounter::count).baseUnit("sessions")
+        .description("Sessions not yet expired, over every Redis node").register(meterRegistry);
+  }
+
+  /**
+   * @return the active sessions, NaN until a first count succeeded
+   */
+  double count() {
+    long now = clock.millis();
+    // Si otro hilo ya está contando se devuelve el último valor
+    if (now >= nextRefreshAt && refreshLock.tryLock()) {
+      try {
+        if (now >= nextRefreshAt) {
+          count = countNow(now);
+          nextRefreshAt = now + refreshMillis;
+        }
+      } catch (DataAccessException e) {
+        logger.warn("Could not count active sessions: {}", e.getMessage());
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+    return count;
+  }
+
+  private double countNow(long now) {
+    long total = 0;
+    for (RedisSessionStore store : stores) {
+      long active = store.countActiveSessions(now);
+      if (active < 0) {
+        return Double.NaN;
+      }
+      total += active;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,149 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.session.FindByIndexNameSessionRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Session repository decorator limiting how many sessions a principal keeps across all nodes
+ * A session is indexed under the {@link FindByIndexNameSessionRepository#PRINCIPAL_NAME_INDEX_NAME}
+ * attribute once the save that sets it has been written, so an expired session can never be
+ * written back by a login still in flight. The principal's oldest sessions beyond the maximum are
+ * then deleted in one batch per Redis node. Saves made by another path, as the reactive store,
+ * are indexed with {@link #loginOf} before the write and {@link #register} after it
+ */
+public class ConcurrentSessionControlRepository implements StoredSessionRepository {
+
+  private static final String PRINCIPAL_NAME_FIELD = StoredSession.ATTRIBUTE_PREFIX
+      + FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+  private final StoredSessionRepository delegate;
+  private final RedisSessionRegistry registry;
+  private final Counter prunedSessions;
+
+  /**
+   * @param delegate      repository holding the sessions
+   * @param registry      principal index shared by every node
+   * @param meterRegistry registry for the pruned sessions counter
+   */
+  public ConcurrentSessionControlRepository(StoredSessionRepository delegate, RedisSessionRegistry registry,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.registry = registry;
+    this.prunedSessions = Counter.builder("session.registry.pruned")
+        .description("Index entries beyond a principal's maximum dropped on login, with their sessions if still "
+            + "alive; includes sessions that had already expired or been logged out")
+        .register(meterRegistry);
+  }
+
+  /**
+   * A save that indexes a session under its principal
+   *
+   * @param principal  principal name
+   * @param sessionId  id the session is saved under
+   * @param previousId id the session had before this save, null unless it changed
+   */
+  public record Login(String principal, String sessionId, String previousId) {
+  }
+
+  @Override
+  public StoredSession createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    Login login = loginOf(session);
+    delegate.save(session);
+    if (login != null) {
+      register(login);
+    }
+  }
+
+  /**
+   * Must be called before the session is written, while its changes are still pending
+   *
+   * @return the login the save makes, null if it changes nothing in the principal's index
+   */
+  public Login loginOf(StoredSession session) {
+    String principal = session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+    if (principal == null) {
+      return null;
+    }
+    boolean login = session.isAttributeDirty(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+    String previousId = !session.isNew() && session.isIdChanged() ? session.getPersistedId() : null;
+    return login || previousId != null ? new Login(principal, session.getId(), previousId) : null;
+  }
+
+  /**
+   * Indexes a session once written and deletes the principal's sessions beyond the maximum
+   */
+  public void register(Login login) {
+    if (login.previousId() != null) {
+      registry.remove(login.principal(), List.of(login.previousId()));
+    }
+    expire(login.principal(), registry.register(login.principal(), login.sessionId()));
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    return delegate.findById(id);
+  }
+
+  @Override
+  public StoredSession findCached(String id) {
+    return delegate.findCached(id);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    // La entrada del índice se descarta en el siguiente login del usuario
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    delegate.deleteAll(ids);
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    return delegate.load(hash);
+  }
+
+  /**
+   * Sessions created while Redis was unavailable are indexed once they are written back, so the
+   * limit also covers logins made during the outage
+   */
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    delegate.restore(hashes);
+    for (SessionHash hash : hashes) {
+      if (!hash.fields().containsKey(PRINCIPAL_NAME_FIELD)) {
+        continue;
+      }
+      String principal = delegate.load(hash).getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+      if (principal != null) {
+        expire(principal, registry.register(principal, hash.id()));
+      }
+    }
+  }
+
+  private void expire(String principal, List<String> sessionIds) {
+    if (sessionIds.isEmpty()) {
+      return;
+    }
+    delegate.deleteAll(sessionIds);
+    registry.remove(principal, sessionIds);
+    prunedSessions.increment(sessionIds.size());
+  }
+
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    delegate.scan(pageSize, fields, pageConsumer);
+  }
+}
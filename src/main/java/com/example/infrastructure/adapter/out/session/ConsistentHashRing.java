@@ -0,0 +1,96 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes
+ * Every node is placed {@code virtualNodes} times on a 64-bit ring and a key belongs to the first
+ * point clockwise from its hash. Adding a node to N existing ones moves about 1/(N+1) of the keys,
+ * all of them to the new node
+ *
+ * @param <T> type of the nodes
+ */
+public final class ConsistentHashRing<T> {
+
+  private final Map<String, T> nodes;
+  private final long[] points;
+  private final Object[] owners;
+
+  /**
+   * @param nodes nodes by name, the name decides the position on the ring
+   * @param virtualNodes points per node, more points give a more even spread
+   */
+  public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+    if (nodes.isEmpty()) {
+      throw new IllegalArgumentException("A hash ring needs at least one node");
+    }
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("At least one virtual node per node is required");
+    }
+    this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+
+    List<Map.Entry<String, T>> entries = new ArrayList<>(nodes.entrySet());
+    long[][] placed = new long[entries.size() * virtualNodes][];
+    int index = 0;
+    for (int node = 0; node < entries.size(); node++) {
+      for (int replica = 0; replica < virtualNodes; replica++) {
+        placed[index++] = new long[] {hash(entries.get(node).getKey() + "#" + replica), node};
+      }
+    }
+    // Empates entre puntos: el orden por nombre de nodo es determinista en todos los nodos de la app
+    Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+        : entries.get((int) a[1]).getKey().compareTo(entries.get((int) b[1]).getKey()));
+
+    this.points = new long[placed.length];
+    this.owners = new Object[placed.length];
+    for (int i = 0; i < placed.length; i++) {
+      points[i] = placed[i][0];
+      owners[i] = entries.get((int) placed[i][1]).getValue();
+    }
+  }
+
+  /**
+   * @return the node owning the key
+   */
+  @SuppressWarnings("unchecked")
+  public T nodeFor(String key) {
+    int position = Arrays.binarySearch(points, hash(key));
+    if (position < 0) {
+      position = -position - 1;
+      if (position == points.length) {
+        position = 0;
+      }
+    }
+    return (T) owners[position];
+  }
+
+  /**
+   * @return the nodes by name, in the order they were given
+   */
+  public Map<String, T> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * 64-bit FNV-1a followed by the Murmur3 finalizer, so similar keys land far apart on the ring
+   */
+  static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sessions kept on this node while Redis is unavailable, waiting to be written back
+ * Holds complete session hashes and the ids of deleted sessions in the order they last changed,
+ * bounded by size: once full the entry changed longest ago is evicted and its changes are lost
+ */
+public class LocalSessionStore {
+
+  private final Map<String, Change> changes;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Counter evictions;
+
+  /**
+   * One change still to be written to Redis
+   *
+   * @param id   the session id
+   * @param hash the complete hash to write, null when the session was deleted
+   */
+  public record Change(String id, SessionHash hash) {
+
+    public boolean isDelete() {
+      return hash == null;
+    }
+  }
+
+  /**
+   * @param maxEntries    sessions and deletes kept at most
+   * @param meterRegistry registry for the size gauge and the eviction counter
+   */
+  public LocalSessionStore(int maxEntries, MeterRegistry meterRegistry) {
+    // Orden de inserción: las lecturas no reordenan, solo un cambio nuevo lleva la sesión al final
+    this.changes = new LinkedHashMap<>(16, 0.75f, false) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Change> eldest) {
+        if (size() > maxEntries) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+    this.evictions = Counter.builder("session.store.local.evictions")
+        .description("Sessions kept locally during an outage and evicted before reaching Redis")
+        .register(meterRegistry);
+    Gauge.builder("session.store.local.size", this, LocalSessionStore::size)
+        .description("Sessions and deletes waiting on this node to be written to Redis").register(meterRegistry);
+  }
+
+  /**
+   * @param sessionId the session id
+   * @return the pending change of the session, or null if Redis is up to date for it
+   */
+  public Change get(String sessionId) {
+    lock.lock();
+    try {
+      return changes.get(sessionId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void put(SessionHash hash) {
+    record(new Change(hash.id(), hash));
+  }
+
+  public void markDeleted(String sessionId) {
+    record(new Change(sessionId, null));
+  }
+
+  /**
+   * @param max most changes returned
+   * @return the pending changes made longest ago
+   */
+  public List<Change> oldest(int max) {
+    lock.lock();
+    try {
+      List<Change> oldest = new ArrayList<>(Math.min(max, changes.size()));
+      Iterator<Change> iterator = changes.values().iterator();
+      while (oldest.size() < max && iterator.hasNext()) {
+        oldest.add(iterator.next());
+      }
+      return oldest;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forgets changes written to Redis, unless the session changed again meanwhile
+   *
+   * @param written the changes as they were written
+   */
+  public void removeWritten(List<Change> written) {
+    lock.lock();
+    try {
+      for (Change change : written) {
+        if (changes.get(change.id()) == change) {
+          changes.remove(change.id());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return changes.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void record(Change change) {
+    lock.lock();
+    try {
+      changes.remove(change.id());
+      changes.put(change.id(), change);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Session repository decorator serving loads from a per-node {@link SessionNearCache}
+ * Every local save refreshes the local entry; saves that change content, id changes and deletes
+ * are broadcast so the other nodes drop their copy
+ */
+public class NearCacheSessionRepository implements StoredSessionRepository {
+
+  private final StoredSessionRepository delegate;
+  private final SessionNearCache nearCache;
+  private final SessionInvalidationChannel invalidationChannel;
+
+  public NearCacheSessionRepository(StoredSessionRepository delegate, SessionNearCache nearCache,
+      SessionInvalidationChannel invalidationChannel) {
+    this.delegate = delegate;
+    this.nearCache = nearCache;
+    this.invalidationChannel = invalidationChannel;
+  }
+
+  @Override
+  public StoredSession createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    String previousId = session.isNew() ? null : session.getPersistedId();
+    boolean idChanged = session.isIdChanged();
+
+    try {
+      delegate.save(session);
+    } catch (RuntimeException e) {
+      nearCache.invalidate(session.getId());
+      if (previousId != null) {
+        nearCache.invalidate(previousId);
+      }
+      throw e;
+    }
+
+    if (previousId != null && !previousId.equals(session.getId())) {
+      nearCache.invalidate(previousId);
+      invalidationChannel.publish(previousId);
+    }
+    nearCache.put(new SessionHash(session.getId(), session.getPersistedFields()));
+    // Un guardado que solo refresca lastAccessedTime no invalida las copias de otros nodos
+    if (idChanged || session.isContentChangedOnLastSave()) {
+      invalidationChannel.publish(session.getId());
+    }
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    StoredSession cached = findCached(id);
+    if (cached != null) {
+      return cached;
+    }
+
+    StoredSession session = delegate.findById(id);
+    if (session != null) {
+      nearCache.put(new SessionHash(id, session.getPersistedFields()));
+    }
+    return session;
+  }
+
+  @Override
+  public StoredSession findCached(String id) {
+    SessionHash cached = nearCache.get(id);
+    if (cached == null) {
+      return null;
+    }
+    StoredSession session = delegate.load(cached);
+    if (session.isExpired()) {
+      nearCache.invalidate(id);
+      return null;
+    }
+    return session;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+    nearCache.invalidate(id);
+    invalidationChannel.publish(id);
+  }
+
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    delegate.deleteAll(ids);
+    for (String id : ids) {
+      nearCache.invalidate(id);
+      invalidationChannel.publish(id);
+    }
+  }
+
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    delegate.restore(hashes);
+    for (SessionHash hash : hashes) {
+      nearCache.put(hash);
+      invalidationChannel.publish(hash.id());
+    }
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    return delegate.load(hash);
+  }
+
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    delegate.scan(pageSize, fields, pageConsumer);
+  }
+}
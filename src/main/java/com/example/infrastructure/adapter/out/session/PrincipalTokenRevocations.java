@@ -0,0 +1,148 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions whose principal tokens may no longer be accepted
+ * Tokens outlive nothing longer than their ttl, so a revocation is only kept that long. Each node
+ * checks a local map; revocations are published on {@code <namespace>:principal-token:revocations}
+ * to the other nodes and kept in the sorted set {@code <namespace>:principal-token:revoked}, scored
+ * by expiry, so a node starting up learns the ones still in force
+ */
+public class PrincipalTokenRevocations implements MessageListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(PrincipalTokenRevocations.class);
+  private static final char SEPARATOR = '\n';
+
+  private final StringRedisTemplate redisTemplate;
+  private final String key;
+  private final String channel;
+  private final long ttlMillis;
+  private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+  private volatile long nextPruneAt;
+
+  /**
+   * @param redisTemplate connection holding the revocation set, the same for every node
+   * @param namespace     prefix of the key and channel
+   * @param tokenTtl      lifetime of a principal token
+   * @param meterRegistry registry for the size gauge
+   */
+  public PrincipalTokenRevocations(StringRedisTemplate redisTemplate, String namespace, Duration tokenTtl,
+      MeterRegistry meterRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.key = namespace + ":principal-token:revoked";
+    this.channel = namespace + ":principal-token:revocations";
+    this.ttlMillis = tokenTtl.toMillis();
+    Gauge.builder("session.principal.token.revocations", revoked, Map::size)
+        .description("Revoked sessions whose tokens could still be unexpired").register(meterRegistry);
+  }
+
+  /**
+   * Revokes the tokens of the given sessions on every node
+   *
+   * @param sessionIds ids of sessions deleted or renamed
+   */
+  public void revoke(Collection<String> sessionIds) {
+    if (sessionIds.isEmpty()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long until = now + ttlMillis;
+    for (String sessionId : sessionIds) {
+      revoked.put(sessionId, until);
+    }
+    prune(now);
+
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    byte[] message = String.join(String.valueOf(SEPARATOR), sessionIds).getBytes(StandardCharsets.UTF_8);
+    try {
+      redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+        for (String sessionId : sessionIds) {
+          connection.zSetCommands().zAdd(keyBytes, until, sessionId.getBytes(StandardCharsets.UTF_8));
+        }
+        connection.zSetCommands().zRemRangeByScore(keyBytes, Double.NEGATIVE_INFINITY, now);
+        connection.keyCommands().pExpire(keyBytes, ttlMillis);
+        connection.publish(channel.getBytes(StandardCharsets.UTF_8), message);
+        return null;
+      });
+    } catch (RuntimeException e) {
+      // Los demás nodos siguen rechazando el token porque la cookie de sesión ya no coincide
+      logger.warn("Could not publish principal token revocation for {} sessions: {}", sessionIds.size(),
+          e.getMessage());
+    }
+  }
+
+  /**
+   * @param sessionId id the token was issued for
+   * @return whether tokens of that session must be refused
+   */
+  public boolean isRevoked(String sessionId) {
+    Long until = revoked.get(sessionId);
+    if (until == null) {
+      return false;
+    }
+    if (until > System.currentTimeMillis()) {
+      return true;
+    }
+    revoked.remove(sessionId, until);
+    return false;
+  }
+
+  /**
+   * Loads the revocations still in force, for a node that just started
+   */
+  public void load() {
+    long now = System.currentTimeMillis();
+    try {
+      Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+          .rangeByScoreWithScores(key, now, Double.POSITIVE_INFINITY);
+      if (entries != null) {
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+          if (entry.getValue() != null && entry.getScore() != null) {
+            revoked.merge(entry.getValue(), entry.getScore().longValue(), Math::max);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Could not load principal token revocations: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    long until = System.currentTimeMillis() + ttlMillis;
+    for (String sessionId : new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR))) {
+      if (!sessionId.isEmpty()) {
+        revoked.merge(sessionId, until, Math::max);
+      }
+    }
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  private void prune(long now) {
+    // Como mucho una pasada por segundo: el mapa solo guarda lo revocado en el último ttl
+    if (now < nextPruneAt) {
+      return;
+    }
+    nextPruneAt = now + 1000;
+    revoked.values().removeIf(until -> until <= now);
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Session repository decorator revoking the principal tokens of every session it deletes or renames
+ * Placed right around the store, so logouts, per-user limits and administrative deletes all go
+ * through it
+ */
+public class PrincipalTokenRevokingRepository implements StoredSessionRepository {
+
+  private final StoredSessionRepository delegate;
+  private final PrincipalTokenRevocations revocations;
+
+  public PrincipalTokenRevokingRepository(StoredSessionRepository delegate, PrincipalTokenRevocations revocations) {
+    this.delegate = delegate;
+    this.revocations = revocations;
+  }
+
+  @Override
+  public StoredSession createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    String previousId = !session.isNew() && session.isIdChanged() ? session.getPersistedId() : null;
+    delegate.save(session);
+    if (previousId != null) {
+      revocations.revoke(List.of(previousId));
+    }
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    return delegate.findById(id);
+  }
+
+  @Override
+  public StoredSession findCached(String id) {
+    return delegate.findCached(id);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    // Se revoca aunque el borrado falle: la sesión ya no debe autorizar nada
+    revocations.revoke(List.of(id));
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    revocations.revoke(ids);
+    delegate.deleteAll(ids);
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    return delegate.load(hash);
+  }
+
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    delegate.scan(pageSize, fields, pageConsumer);
+  }
+
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    delegate.restore(hashes);
+  }
+}
@@ -0,0 +1,154 @@
+package com.example.infrastructure.adapter.out.session;
+
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.session.ReactiveSessionRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link RedisSessionStore}
+ * Reads and writes the same hashes, and shares the blocking store's decoding, value comparison,
+ * touch policy and metrics, so both can serve the same sessions side by side. With a session
+ * control set, logins are indexed under their principal and sessions beyond the per-user maximum are
+ * deleted, as on the servlet path; the index calls block, so they run on the bounded elastic scheduler
+ */
+public class ReactiveRedisSessionStore implements ReactiveSessionRepository<StoredSession> {
+
+  private final ReactiveRedisOperations<String, byte[]> redisOperations;
+  private final RedisSessionStore sessionStore;
+  private ConcurrentSessionControlRepository sessionControl;
+
+  public ReactiveRedisSessionStore(ReactiveRedisOperations<String, byte[]> redisOperations,
+      RedisSessionStore sessionStore) {
+    this.redisOperations = redisOperations;
+    this.sessionStore = sessionStore;
+  }
+
+  /**
+   * @param sessionControl per-user session limit applied to the saves of this store, null for none
+   */
+  public void setSessionControl(ConcurrentSessionControlRepository sessionControl) {
+    this.sessionControl = sessionControl;
+  }
+
+  @Override
+  public Mono<StoredSession> createSession() {
+    return Mono.fromSupplier(sessionStore::createSession);
+  }
+
+  /**
+   * Same batch as the blocking store: HSET/HDEL, PEXPIREAT, the expiry index and a final HEXISTS on creationTime,
+   * subscribed together so Lettuce pipelines them on the shared connection. A login is then indexed under its
+   * principal when a session control is set
+   */
+  @Override
+  public Mono<Void> save(StoredSession session) {
+    return Mono.defer(() -> {
+      // Antes de preparar la escritura, que da por guardados los cambios
+      ConcurrentSessionControlRepository.Login login = sessionControl != null ? sessionControl.loginOf(session) : null;
+      Mono<Void> saved = write(session);
+      if (login == null) {
+        return saved;
+      }
+      return saved.then(Mono.fromRunnable(() -> sessionControl.register(login))
+          .subscribeOn(Schedulers.boundedElastic())).then();
+    });
+  }
+
+  private Mono<Void> write(StoredSession session) {
+    return Mono.defer(() -> {
+      SessionWrite write = sessionStore.prepareWrite(session);
+      if (write == null) {
+        session.markSaved(Map.of());
+        return Mono.empty();
+      }
+
+      String key = sessionStore.sessionKeyName(write.sessionId());
+      Mono<Boolean> rename = write.renameFrom() == null ? Mono.just(true)
+          : redisOperations.rename(sessionStore.sessionKeyName(write.renameFrom()), key)
+              // RENAME falla si la sesión ya no existe
+              .onErrorReturn(false);
+
+      return rename.flatMap(renamed -> renamed ? Flux.mergeSequential(commands(key, write)).collectList()
+              .map(results -> !write.mustExist() || Boolean.TRUE.equals(results.get(results.size() - 1)))
+              : Mono.just(false))
+          .flatMap(exists -> {
+            if (!exists) {
+              return deleteById(write.sessionId())
+                  .then(Mono.error(new IllegalStateException("Session was invalidated")));
+            }
+            session.markSaved(write.fields());
+            return Mono.empty();
+          });
+    });
+  }
+
+  @Override
+  public Mono<StoredSession> findById(String id) {
+    return redisOperations.<String, byte[]>opsForHash().entries(sessionStore.sessionKeyName(id))
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+        .filter(fields -> !fields.isEmpty())
+        .map(fields -> sessionStore.load(new SessionHash(id, fields)))
+        .flatMap(session -> session.isExpired() ? deleteById(id).then(Mono.empty()) : Mono.just(session));
+  }
+
+  @Override
+  public Mono<Void> deleteById(String id) {
+    SessionExpiryIndex expiryIndex = sessionStore.getExpiryIndex();
+    Mono<Long> delete = redisOperations.delete(sessionStore.sessionKeyName(id));
+    if (expiryIndex == null) {
+      return delete.then();
+    }
+    return Flux.mergeSequential(delete, redisOperations.opsForZSet().remove(expiryIndex.shardKeyOf(id), member(id))).then();
+  }
+
+  private List<Mono<?>> commands(String key, SessionWrite write) {
+    Map<String, byte[]> puts = new HashMap<>();
+    List<Object> removals = new ArrayList<>();
+    write.fields().forEach((field, value) -> {
+      if (value == null) {
+        removals.add(field);
+      } else {
+        puts.put(field, value);
+      }
+    });
+
+    List<Mono<?>> commands = new ArrayList<>(6);
+    if (!puts.isEmpty()) {
+      commands.add(redisOperations.<String, byte[]>opsForHash().putAll(key, puts));
+    }
+    if (!removals.isEmpty()) {
+      commands.add(redisOperations.<String, byte[]>opsForHash().remove(key, removals.toArray()));
+    }
+    commands.add(write.expiresAt() == SessionWrite.NO_EXPIRY
+        ? redisOperations.persist(key)
+        : redisOperations.expireAt(key, Instant.ofEpochMilli(write.expiresAt())));
+    SessionExpiryIndex expiryIndex = sessionStore.getExpiryIndex();
+    if (expiryIndex != null) {
+      String id = write.sessionId();
+      commands.add(write.expiresAt() == SessionWrite.NO_EXPIRY
+          ? redisOperations.opsForZSet().remove(expiryIndex.shardKeyOf(id), member(id))
+          : redisOperations.opsForZSet().add(expiryIndex.shardKeyOf(id), member(id), write.expiresAt()));
+      if (write.renameFrom() != null) {
+        commands.add(redisOperations.opsForZSet().remove(expiryIndex.shardKeyOf(write.renameFrom()),
+            member(write.renameFrom())));
+      }
+    }
+    if (write.mustExist()) {
+      commands.add(redisOperations.<String, byte[]>opsForHash().hasKey(key, StoredSession.CREATION_TIME));
+    }
+    return commands;
+  }
+
+  private static byte[] member(String sessionId) {
+    return sessionId.getBytes(StandardCharsets.UTF_8);
+  }
+}
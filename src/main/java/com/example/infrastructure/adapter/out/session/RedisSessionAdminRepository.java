@@ -0,0 +1,107 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+import com.example.application.port.out.SessionAdminRepository;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Session administration backed by the session repository
+ * Sessions are walked with cursor scans of {@code pageSize} keys per node, reading only the
+ * metadata and the user of each session in one pipelined round trip per page. A lookup by user
+ * goes through the {@link RedisSessionRegistry} index instead, when there is one
+ */
+public class RedisSessionAdminRepository implements SessionAdminRepository {
+
+  /** Attribute holding the logged in {@link SessionPrincipal}, written by {@code SessionService} */
+  static final String USER_ATTRIBUTE = SessionPrincipal.SESSION_ATTRIBUTE;
+
+  private static final List<String> SUMMARY_FIELDS = List.of(StoredSession.CREATION_TIME,
+      StoredSession.LAST_ACCESSED_TIME, StoredSession.MAX_INACTIVE_INTERVAL,
+      StoredSession.ATTRIBUTE_PREFIX + USER_ATTRIBUTE);
+
+  private final StoredSessionRepository sessionRepository;
+  private final RedisSerializer<Object> serializer;
+  private final RedisSessionRegistry sessionRegistry;
+  private final int pageSize;
+
+  /**
+   * @param sessionRepository repository used by the session filter, so deletes also reach the
+   *                          near caches of the other nodes
+   * @param serializer        serializer of the session hash values
+   * @param sessionRegistry   index of sessions by user, null if disabled
+   * @param pageSize          keys per SCAN call and sessions per page
+   */
+  public RedisSessionAdminRepository(StoredSessionRepository sessionRepository, RedisSerializer<Object> serializer,
+      RedisSessionRegistry sessionRegistry, int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be at least 1");
+    }
+    this.sessionRepository = sessionRepository;
+    this.serializer = serializer;
+    this.sessionRegistry = sessionRegistry;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public void scan(SessionQuery query, Consumer<List<SessionSummary>> pageConsumer) {
+    if (query.username() != null && sessionRegistry != null) {
+      // El índice está acotado por maximumSessions: una sola página, sin SCAN
+      List<SessionSummary> page = new ArrayList<>();
+      for (String sessionId : sessionRegistry.findSessionIds(query.username())) {
+        StoredSession session = sessionRepository.findById(sessionId);
+        if (session != null) {
+          page.add(toSummary(session));
+        }
+      }
+      pageConsumer.accept(page);
+      return;
+    }
+
+    sessionRepository.scan(pageSize, SUMMARY_FIELDS,
+        hashes -> pageConsumer.accept(hashes.stream().map(this::toSummary).toList()));
+  }
+
+  @Override
+  public void deleteAll(Collection<String> sessionIds) {
+    // Las entradas del índice por usuario se descartan en su siguiente login
+    sessionRepository.deleteAll(sessionIds);
+  }
+
+  private SessionSummary toSummary(StoredSession session) {
+    return summary(session.getId(), session.getAttribute(USER_ATTRIBUTE), session.getCreationTime().toEpochMilli(),
+        session.getLastAccessedTime().toEpochMilli(), (int) session.getMaxInactiveInterval().toSeconds());
+  }
+
+  private SessionSummary toSummary(SessionHash hash) {
+    Long creationTime = (Long) decode(hash, StoredSession.CREATION_TIME);
+    Long lastAccessedTime = (Long) decode(hash, StoredSession.LAST_ACCESSED_TIME);
+    Integer maxInactiveInterval = (Integer) decode(hash, StoredSession.MAX_INACTIVE_INTERVAL);
+    return summary(hash.id(), decode(hash, StoredSession.ATTRIBUTE_PREFIX + USER_ATTRIBUTE),
+        creationTime != null ? creationTime : 0, lastAccessedTime != null ? lastAccessedTime : 0,
+        maxInactiveInterval != null ? maxInactiveInterval : 0);
+  }
+
+  private Object decode(SessionHash hash, String field) {
+    byte[] value = hash.fields().get(field);
+    return value != null ? serializer.deserialize(value) : null;
+  }
+
+  private static SessionSummary summary(String sessionId, Object user, long creationTime, long lastAccessedTime,
+      int maxInactiveInterval) {
+    // Acepta también el User completo de las sesiones aún no migradas
+    SessionPrincipal principal = SessionPrincipal.from(user);
+    if (principal != null) {
+      return new SessionSummary(sessionId, principal.username(), principal.roles(), creationTime, lastAccessedTime,
+          maxInactiveInterval);
+    }
+    return new SessionSummary(sessionId, null, Set.of(), creationTime, lastAccessedTime, maxInactiveInterval);
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.infrastructure.adapter.out.session;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cluster-wide registry of the sessions of each principal
+ * Every principal has a sorted set {@code <namespace>:index:principal:<name>} of session ids scored
+ * by login time, shared by all nodes, so there is no per-node map and a lookup touches only the
+ * principal's own sessions. Registering a login returns the sessions beyond the allowed maximum;
+ * every node orders the set the same way (score, then id), so concurrent logins on different nodes
+ * agree on which sessions survive. Each login refreshes the TTL of the set to the max inactive
+ * interval, so the set of a principal who stops logging in leaves Redis with the sessions it indexes
+ */
+public class RedisSessionRegistry {
+
+  private final StringRedisTemplate redisTemplate;
+  private final String keyPrefix;
+  private final int maximumSessions;
+  private final long indexTtlMillis;
+
+  /**
+   * @param redisTemplate   connection holding the index, the same for every node
+   * @param namespace       prefix of the index keys
+   * @param maximumSessions sessions a principal may keep
+   * @param indexTtl        lifetime of a principal's index after its last login, the max inactive
+   *                        interval of the sessions
+   */
+  public RedisSessionRegistry(StringRedisTemplate redisTemplate, String namespace, int maximumSessions,
+      Duration indexTtl) {
+    if (maximumSessions < 1) {
+      throw new IllegalArgumentException("maximumSessions must be at least 1");
+    }
+    this.redisTemplate = redisTemplate;
+    this.keyPrefix = namespace + ":index:principal:";
+    this.maximumSessions = maximumSessions;
+    this.indexTtlMillis = indexTtl.toMillis();
+  }
+
+  /**
+   * Adds a freshly persisted session to its principal's index
+   * ZADD, ZRANGE and PEXPIRE travel in one pipeline, so the ranking already includes this session
+   *
+   * @param principal principal name
+   * @param sessionId id of the session, already saved
+   * @return ids of the principal's older sessions beyond the maximum, to be expired by the caller
+   */
+  public List<String> register(String principal, String sessionId) {
+    byte[] key = key(principal);
+    List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      connection.zSetCommands().zAdd(key, Instant.now().toEpochMilli(), sessionId.getBytes(StandardCharsets.UTF_8));
+      connection.zSetCommands().zRange(key, 0, -1);
+      connection.keyCommands().pExpire(key, indexTtlMillis);
+      return null;
+    });
+
+    List<String> ranked = toIds(results.get(1));
+    if (ranked.size() <= maximumSessions) {
+      return List.of();
+    }
+    // Orden ascendente: las más recientes quedan al final
+    return List.copyOf(ranked.subList(0, ranked.size() - maximumSessions));
+  }
+
+  /**
+   * Drops sessions from a principal's index
+   *
+   * @param principal  principal name
+   * @param sessionIds ids to remove
+   */
+  public void remove(String principal, Collection<String> sessionIds) {
+    if (sessionIds.isEmpty()) {
+      return;
+    }
+    redisTemplate.opsForZSet().remove(keyName(principal), sessionIds.toArray());
+  }
+
+  /**
+   * @param principal principal name
+   * @return the principal's indexed session ids, newest first. An id may belong to a session that
+   *     expired or was deleted since; it is pruned once later logins push it beyond the maximum
+   */
+  public List<String> findSessionIds(String principal) {
+    Set<String> ids = redisTemplate.opsForZSet().range(keyName(principal), 0, -1);
+    if (ids == null) {
+      return List.of();
+    }
+    List<String> newestFirst = new ArrayList<>(ids);
+    Collections.reverse(newestFirst);
+    return newestFirst;
+  }
+
+  public int getMaximumSessions() {
+    return maximumSessions;
+  }
+
+  private static List<String> toIds(Object reply) {
+    List<String> ids = new ArrayList<>();
+    if (reply instanceof Collection<?> members) {
+      for (Object member : members) {
+        ids.add(member instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : member.toString());
+      }
+    }
+    return ids;
+  }
+
+  private String keyName(String principal) {
+    return keyPrefix + principal;
+  }
+
+  private byte[] key(String principal) {
+    return keyName(principal).getBytes(StandardCharsets.UTF_8);
+  }
+}
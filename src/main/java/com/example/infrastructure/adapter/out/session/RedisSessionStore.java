@@ -0,0 +1,810 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.SessionIdGenerator;
+import org.springframework.session.UuidSessionIdGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Redis session repository keeping one hash per session
+ * Uses the same key layout as Spring Session's {@code RedisSessionRepository}
+ * ({@code <namespace>:sessions:<id>}) so sessions written by either one can be read by the other.
+ * Only fields whose serialized value changed are written, and a last access time alone is written
+ * according to the configured {@link SessionTouchPolicy}. Each save is one pipelined round trip,
+ * concurrent saves of the same session are merged by a {@link SessionSaveCoalescer}. With a
+ * {@link SessionExpiryIndex} the same round trip records the session's expiry time for the sweeper.
+ * Loading a session decodes only its timestamps, attributes are decoded when first read.
+ * With write-behind enabled, saves of existing sessions that do not log anyone in are queued and
+ * written in the background; new sessions, logins, id changes and deletes stay synchronous
+ */
+public class RedisSessionStore implements StoredSessionRepository, AutoCloseable {
+
+  private static final byte[] CREATION_TIME_FIELD = StoredSession.CREATION_TIME.getBytes(StandardCharsets.UTF_8);
+  private static final String PRINCIPAL_NAME_FIELD = StoredSession.ATTRIBUTE_PREFIX
+      + FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+  private final RedisOperations<String, ?> redisOperations;
+  private final RedisSerializer<Object> serializer;
+  private final String keyPrefix;
+  private final Duration defaultMaxInactiveInterval;
+  private final SessionIdGenerator idGenerator = UuidSessionIdGenerator.getInstance();
+
+  private final DistributionSummary attributeFieldsWritten;
+  private final DistributionSummary metadataFieldsWritten;
+  private final Counter unchangedAttributes;
+  private final Counter performedTouches;
+  private final Counter suppressedTouches;
+  private final Counter loadedAttributes;
+  private final Counter decodedAttributes;
+  private final SessionSaveCoalescer saveCoalescer;
+  private final SessionStoreMetrics metrics;
+  private final MeterRegistry meterRegistry;
+  private SessionTouchPolicy touchPolicy = SessionTouchPolicy.EVERY_TOUCH;
+  private Duration commandTimeout = Duration.ofSeconds(60);
+  private SessionExpiryIndex expiryIndex;
+  private SessionWriteBehindQueue writeBehind;
+
+  public RedisSessionStore(RedisOperations<String, ?> redisOperations, RedisSerializer<Object> serializer,
+      String namespace, Duration defaultMaxInactiveInterval, MeterRegistry meterRegistry) {
+    this.redisOperations = redisOperations;
+    this.serializer = serializer;
+    this.keyPrefix = namespace + ":sessions:";
+    this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+
+    this.attributeFieldsWritten = DistributionSummary.builder("session.store.fields.written")
+        .tag("kind", "attribute").baseUnit("fields")
+        .description("Attribute hash fields written or deleted per session save").register(meterRegistry);
+    this.metadataFieldsWritten = DistributionSummary.builder("session.store.fields.written")
+        .tag("kind", "metadata").baseUnit("fields")
+        .description("Timestamp and timeout hash fields written per session save").register(meterRegistry);
+    this.unchangedAttributes = Counter.builder("session.store.attributes.unchanged")
+        .description("Attributes touched during a request whose value did not change")
+        .register(meterRegistry);
+    this.performedTouches = Counter.builder("session.store.touches").tag("result", "performed")
+        .description("Last access times written to Redis").register(meterRegistry);
+    this.suppressedTouches = Counter.builder("session.store.touches").tag("result", "suppressed")
+        .description("Last access times skipped because they moved less than the touch granularity")
+        .register(meterRegistry);
+    this.loadedAttributes = Counter.builder("session.store.attributes.loaded")
+        .description("Attributes read from Redis as part of a session hash").register(meterRegistry);
+    this.decodedAttributes = Counter.builder("session.store.attributes.decoded")
+        .description("Loaded attributes that a request read and therefore had to decode").register(meterRegistry);
+    this.saveCoalescer = new SessionSaveCoalescer(this::flush, meterRegistry);
+    this.metrics = new SessionStoreMetrics(meterRegistry);
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * @param touchPolicy decides when a new last access time alone is worth a write
+   */
+  public void setTouchPolicy(SessionTouchPolicy touchPolicy) {
+    this.touchPolicy = touchPolicy;
+  }
+
+  /**
+   * @param commandTimeout how long a save waits for its batch to be acknowledged
+   */
+  public void setCommandTimeout(Duration commandTimeout) {
+    this.commandTimeout = commandTimeout;
+  }
+
+  /**
+   * @param expiryIndex index to keep up to date on every save and delete, null to keep none
+   */
+  public void setExpiryIndex(SessionExpiryIndex expiryIndex) {
+    this.expiryIndex = expiryIndex;
+  }
+
+  SessionExpiryIndex getExpiryIndex() {
+    return expiryIndex;
+  }
+
+  /**
+   * Queues the saves that can be deferred and writes them in the background
+   *
+   * @param name         name of this store in the queue meters
+   * @param capacity     sessions that may wait to be written before saves block
+   * @param batchSize    sessions written per round trip
+   * @param offerTimeout how long a save waits for room in a full queue before failing
+   */
+  public void enableWriteBehind(String name, int capacity, int batchSize, Duration offerTimeout) {
+    this.writeBehind = new SessionWriteBehindQueue(this::flushAll, capacity, batchSize, offerTimeout, name,
+        meterRegistry);
+  }
+
+  /**
+   * Writes the saves still queued and stops the write-behind flusher
+   */
+  @Override
+  public void close() {
+    if (writeBehind != null) {
+      writeBehind.close();
+    }
+  }
+
+  @Override
+  public StoredSession createSession() {
+    return new StoredSession(idGenerator, defaultMaxInactiveInterval);
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    SessionWrite write = prepareWrite(session);
+    if (write == null) {
+      session.markSaved(Map.of());
+      return;
+    }
+
+    if (writeBehind != null && isDeferrable(session, write)) {
+      writeBehind.submit(write);
+    } else if (write.renameFrom() != null) {
+      awaitQueued(write.renameFrom());
+      // Un cambio de id no se combina con otros guardados: la clave todavía no existe con el id nuevo
+      flush(write);
+    } else {
+      awaitQueued(write.sessionId());
+      saveCoalescer.submit(write);
+    }
+    boolean created = session.isNew();
+    session.markSaved(write.fields());
+    metrics.recordSave(session, created);
+  }
+
+  /**
+   * A save can be left to the write-behind queue unless others must see it right away: a new
+   * session, a login (the principal index is set) or an id change
+   */
+  private static boolean isDeferrable(StoredSession session, SessionWrite write) {
+    return !session.isNew() && write.renameFrom() == null && !write.fields().containsKey(PRINCIPAL_NAME_FIELD);
+  }
+
+  private void awaitQueued(String sessionId) {
+    if (writeBehind != null) {
+      writeBehind.awaitFlushed(sessionId);
+    }
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    // Antes de leer: un guardado que termine mientras Redis responde ya no estaría en la cola
+    List<SessionWrite> queued = writeBehind != null ? writeBehind.queued(id) : List.of();
+    SessionHash hash = findHash(id);
+    if (hash == null) {
+      return null;
+    }
+    if (writeBehind != null) {
+      hash = writeBehind.overlay(hash, queued);
+    }
+
+    StoredSession session = load(hash);
+    if (session.isExpired()) {
+      delete(id);
+      metrics.recordExpired(1);
+      return null;
+    }
+    return session;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delete(id);
+    metrics.recordDeleted(1);
+  }
+
+  /**
+   * Deletes a session without counting it as deleted, for copies left behind or moved elsewhere
+   *
+   * @param id the session id
+   */
+  void delete(String id) {
+    if (writeBehind != null) {
+      writeBehind.discard(id);
+    }
+    deleteKeys(id);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deleteKeys(String id) {
+    if (expiryIndex == null) {
+      execute(connection -> connection.keyCommands().del(sessionKey(id)));
+      return;
+    }
+
+    byte[] member = id.getBytes(StandardCharsets.UTF_8);
+    execute(connection -> {
+      if (connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>) {
+        RedisClusterAsyncCommands<byte[], byte[]> commands =
+            (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+        await(commands.del(sessionKey(id)), commands.zrem(expiryIndex.shardKeyBytesOf(id), member));
+      } else {
+        connection.keyCommands().del(sessionKey(id));
+        connection.zSetCommands().zRem(expiryIndex.shardKeyBytesOf(id), member);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Deletes several sessions and their expiry index entries in one round trip
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    metrics.recordDeleted(ids.size());
+    if (writeBehind != null) {
+      ids.forEach(writeBehind::discard);
+    }
+
+    Boolean sent = execute(connection -> {
+      if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>)) {
+        return false;
+      }
+      RedisClusterAsyncCommands<byte[], byte[]> commands =
+          (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+      List<RedisFuture<?>> futures = new ArrayList<>(ids.size() * 2);
+      for (String id : ids) {
+        futures.add(commands.del(sessionKey(id)));
+        if (expiryIndex != null) {
+          futures.add(commands.zrem(expiryIndex.shardKeyBytesOf(id), id.getBytes(StandardCharsets.UTF_8)));
+        }
+      }
+      await(futures.toArray(new RedisFuture<?>[0]));
+      return true;
+    });
+    if (Boolean.TRUE.equals(sent)) {
+      return;
+    }
+
+    redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+      for (String id : ids) {
+        connection.keyCommands().del(sessionKey(id));
+        if (expiryIndex != null) {
+          connection.zSetCommands().zRem(expiryIndex.shardKeyBytesOf(id), id.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + "*").count(pageSize).build();
+    List<String> ids = new ArrayList<>(pageSize);
+    try (Cursor<String> cursor = redisOperations.scan(options)) {
+      while (cursor.hasNext()) {
+        ids.add(cursor.next().substring(keyPrefix.length()));
+        if (ids.size() == pageSize) {
+          pageConsumer.accept(findHashes(ids, fields));
+          ids.clear();
+        }
+      }
+    }
+    if (!ids.isEmpty()) {
+      pageConsumer.accept(findHashes(ids, fields));
+    }
+  }
+
+  /**
+   * Reads some fields of several sessions in one round trip
+   *
+   * @param ids    the session ids
+   * @param fields hash fields to read
+   * @return the partial hashes, without the sessions that no longer exist
+   */
+  @SuppressWarnings("unchecked")
+  List<SessionHash> findHashes(List<String> ids, Collection<String> fields) {
+    byte[][] fieldNames = fields.stream().map(field -> field.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+    List<List<byte[]>> values = execute(connection -> {
+      if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>)) {
+        return null;
+      }
+      RedisClusterAsyncCommands<byte[], byte[]> commands =
+          (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+      List<RedisFuture<List<KeyValue<byte[], byte[]>>>> futures = new ArrayList<>(ids.size());
+      for (String id : ids) {
+        futures.add(commands.hmget(sessionKey(id), fieldNames));
+      }
+      await(futures.toArray(new RedisFuture<?>[0]));
+      List<List<byte[]>> replies = new ArrayList<>(ids.size());
+      for (RedisFuture<List<KeyValue<byte[], byte[]>>> future : futures) {
+        replies.add(getNow(future).stream().map(entry -> entry.getValueOrElse(null)).toList());
+      }
+      return replies;
+    });
+    if (values == null) {
+      values = new ArrayList<>(ids.size());
+      for (Object reply : redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+        ids.forEach(id -> connection.hashCommands().hMGet(sessionKey(id), fieldNames));
+        return null;
+      }, RedisSerializer.byteArray())) {
+        values.add((List<byte[]>) reply);
+      }
+    }
+
+    List<String> names = List.copyOf(fields);
+    List<SessionHash> hashes = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      Map<String, byte[]> hash = new HashMap<>(names.size() * 2);
+      List<byte[]> sessionValues = values.get(i);
+      for (int field = 0; field < names.size(); field++) {
+        if (sessionValues.get(field) != null) {
+          hash.put(names.get(field), sessionValues.get(field));
+        }
+      }
+      // Borrada o expirada entre el SCAN y la lectura
+      if (!hash.isEmpty()) {
+        hashes.add(new SessionHash(ids.get(i), hash));
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * Counts the sessions that have not expired yet, from the expiry index
+   * One ZCOUNT per index shard, all in one round trip, so the cost does not depend on the number
+   * of sessions
+   *
+   * @param now current time in epoch millis
+   * @return the count, or -1 if the store keeps no expiry index
+   */
+  long countActiveSessions(long now) {
+    if (expiryIndex == null) {
+      return -1;
+    }
+    List<Object> counts = redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+      for (int shard = 0; shard < expiryIndex.getShards(); shard++) {
+        connection.zSetCommands().zCount(expiryIndex.shardKey(shard).getBytes(StandardCharsets.UTF_8), now,
+            Double.POSITIVE_INFINITY);
+      }
+      return null;
+    });
+    return counts.stream().mapToLong(count -> ((Number) count).longValue()).sum();
+  }
+
+  /**
+   * Reads the raw hash of a session, without decoding it
+   *
+   * @param id the session id
+   * @return the raw hash, or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  SessionHash findHash(String id) {
+    Map<byte[], byte[]> entries = execute(connection -> {
+      if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>)) {
+        return connection.hashCommands().hGetAll(sessionKey(id));
+      }
+      // Con Lettuce la lectura espera commandTimeout, no el timeout general de la conexión
+      RedisFuture<Map<byte[], byte[]>> reply =
+          ((RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection()).hgetall(sessionKey(id));
+      await(reply);
+      return getNow(reply);
+    });
+    if (entries == null || entries.isEmpty()) {
+      return null;
+    }
+
+    Map<String, byte[]> fields = new HashMap<>(entries.size() * 2);
+    entries.forEach((field, value) -> fields.put(new String(field, StandardCharsets.UTF_8), value));
+    return new SessionHash(id, fields);
+  }
+
+  /**
+   * Writes every field of the session under its current id, for a session that moves to this
+   * store from another one. Pending changes are included
+   *
+   * @param session the session, loaded from or saved to another store
+   */
+  void saveFull(StoredSession session) {
+    Map<String, byte[]> fields = new HashMap<>(session.getPersistedFields());
+    Map<String, byte[]> changes = session.hasPendingChanges() ? session.collectChanges(serializer) : Map.of();
+    changes.forEach((field, value) -> {
+      if (value == null) {
+        fields.remove(field);
+      } else {
+        fields.put(field, value);
+      }
+    });
+
+    long expiresAt = session.getMaxInactiveInterval().isNegative()
+        ? SessionWrite.NO_EXPIRY : session.getExpiryTime().toEpochMilli();
+    flush(new SessionWrite(session.getId(), null, fields, expiresAt, false));
+    session.markSaved(changes);
+  }
+
+  /**
+   * Replaces each session hash in one pipelined round trip: DEL, HSET of every field, PEXPIREAT
+   * and the expiry index entry
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    if (hashes.isEmpty()) {
+      return;
+    }
+    List<SessionWrite> writes = new ArrayList<>(hashes.size());
+    for (SessionHash hash : hashes) {
+      if (writeBehind != null) {
+        writeBehind.discard(hash.id());
+      }
+      StoredSession session = load(hash);
+      long expiresAt = session.getMaxInactiveInterval().isNegative()
+          ? SessionWrite.NO_EXPIRY : session.getExpiryTime().toEpochMilli();
+      writes.add(new SessionWrite(hash.id(), null, hash.fields(), expiresAt, false));
+    }
+
+    Boolean sent = execute(connection -> {
+      if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>)) {
+        return false;
+      }
+      RedisClusterAsyncCommands<byte[], byte[]> commands =
+          (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+      List<RedisFuture<?>> futures = new ArrayList<>(writes.size() * 5);
+      for (SessionWrite write : writes) {
+        byte[] key = sessionKey(write.sessionId());
+        futures.add(commands.del(key));
+        queueWrite(commands, write, key, futures);
+      }
+      try {
+        await(futures.toArray(new RedisFuture<?>[0]));
+      } catch (RedisException e) {
+        throw new RedisSystemException("Session restore failed", e);
+      }
+      return true;
+    });
+    if (Boolean.TRUE.equals(sent)) {
+      return;
+    }
+
+    redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+      for (SessionWrite write : writes) {
+        byte[] key = sessionKey(write.sessionId());
+        connection.keyCommands().del(key);
+        writeFields(connection, key, write.fields());
+        if (write.expiresAt() == SessionWrite.NO_EXPIRY) {
+          connection.keyCommands().persist(key);
+        } else {
+          connection.keyCommands().pExpireAt(key, write.expiresAt());
+        }
+        if (expiryIndex != null) {
+          indexExpiry(connection, write);
+        }
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    Map<String, byte[]> fields = hash.fields();
+    Long creationTime = (Long) decodeMetadata(fields, StoredSession.CREATION_TIME);
+    Long lastAccessedTime = (Long) decodeMetadata(fields, StoredSession.LAST_ACCESSED_TIME);
+    Integer maxInactiveInterval = (Integer) decodeMetadata(fields, StoredSession.MAX_INACTIVE_INTERVAL);
+
+    if (creationTime == null || lastAccessedTime == null || maxInactiveInterval == null) {
+      throw new IllegalStateException("Session " + hash.id() + " is missing required metadata");
+    }
+
+    StoredSession session = new StoredSession(idGenerator, hash.id(), Instant.ofEpochMilli(creationTime),
+        Instant.ofEpochMilli(lastAccessedTime), Duration.ofSeconds(maxInactiveInterval),
+        new HashMap<>(fields), this::decodeAttribute);
+    loadedAttributes.increment(session.getUndecodedAttributeCount());
+    return session;
+  }
+
+  private Object decodeMetadata(Map<String, byte[]> fields, String name) {
+    byte[] value = fields.get(name);
+    return value != null ? serializer.deserialize(value) : null;
+  }
+
+  private Object decodeAttribute(byte[] value) {
+    decodedAttributes.increment();
+    return serializer.deserialize(value);
+  }
+
+  /**
+   * Works out what a save has to send to Redis, applying the value comparison and the touch policy
+   *
+   * @param session the session being saved
+   * @return the write to send, or null if Redis is already up to date
+   */
+  SessionWrite prepareWrite(StoredSession session) {
+    Map<String, byte[]> written = session.hasPendingChanges() ? session.collectChanges(serializer) : Map.of();
+    written = throttleTouch(session, written);
+    recordWrites(session, written);
+    if (written.isEmpty() && !session.isIdChanged()) {
+      return null;
+    }
+
+    long expiresAt = session.getMaxInactiveInterval().isNegative()
+        ? SessionWrite.NO_EXPIRY : session.getExpiryTime().toEpochMilli();
+    String renameFrom = session.isIdChanged() ? session.getPersistedId() : null;
+    return new SessionWrite(session.getId(), renameFrom, written, expiresAt, !session.isNew());
+  }
+
+  /**
+   * Drops a last access write that moved less than the touch granularity, unless other fields are
+   * written anyway and the touch rides along for free
+   */
+  private Map<String, byte[]> throttleTouch(StoredSession session, Map<String, byte[]> written) {
+    if (!written.containsKey(StoredSession.LAST_ACCESSED_TIME)) {
+      return written;
+    }
+    boolean touchOnly = written.size() == 1 && !session.isIdChanged();
+    if (touchOnly && !touchPolicy.isDue(session.getPersistedLastAccessedTime(), session.getLastAccessedTime(),
+        session.getMaxInactiveInterval())) {
+      suppressedTouches.increment();
+      return Map.of();
+    }
+    performedTouches.increment();
+    return written;
+  }
+
+  private void recordWrites(StoredSession session, Map<String, byte[]> written) {
+    int attributes = 0;
+    for (String field : written.keySet()) {
+      if (field.startsWith(StoredSession.ATTRIBUTE_PREFIX)) {
+        attributes++;
+      }
+    }
+    attributeFieldsWritten.record(attributes);
+    metadataFieldsWritten.record(written.size() - attributes);
+    unchangedAttributes.increment(session.getDirtyAttributeCount() - attributes);
+  }
+
+  /**
+   * Sends one save as a single pipelined batch: optional RENAME, HSET/HDEL, PEXPIREAT and, for an
+   * existing session, a final HEXISTS on creationTime. A hash without creationTime means the session
+   * was deleted meanwhile and the batch only recreated a fragment of it, which is removed again
+   */
+  @SuppressWarnings("unchecked")
+  private void flush(SessionWrite write) {
+    byte[] key = sessionKey(write.sessionId());
+    byte[] renameFrom = write.renameFrom() != null ? sessionKey(write.renameFrom()) : null;
+
+    Boolean exists = execute(connection -> connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>
+        ? flushAsync((RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection(), write, key,
+            renameFrom)
+        : flushPipelined(write, key, renameFrom));
+
+    if (!Boolean.TRUE.equals(exists)) {
+      deleteKeys(write.sessionId());
+      throw new IllegalStateException("Session was invalidated");
+    }
+  }
+
+  /**
+   * Sends saves of several sessions, none of them renamed, in one pipelined round trip
+   * Sessions found deleted meanwhile lose the fragment the batch recreated, as in {@link #flush}
+   */
+  @SuppressWarnings("unchecked")
+  private void flushAll(List<SessionWrite> writes) {
+    List<String> invalidated = execute(connection -> {
+      if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?>)) {
+        return null;
+      }
+      List<String> missing = new ArrayList<>();
+      RedisClusterAsyncCommands<byte[], byte[]> commands =
+          (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+      List<RedisFuture<?>> futures = new ArrayList<>(writes.size() * 5);
+      List<RedisFuture<Boolean>> exists = new ArrayList<>(writes.size());
+      for (SessionWrite write : writes) {
+        exists.add(queueWrite(commands, write, sessionKey(write.sessionId()), futures));
+      }
+      try {
+        await(futures.toArray(new RedisFuture<?>[0]));
+      } catch (RedisException e) {
+        throw new RedisSystemException("Session save failed", e);
+      }
+      for (int i = 0; i < writes.size(); i++) {
+        if (exists.get(i) != null && !Boolean.TRUE.equals(getNow(exists.get(i)))) {
+          missing.add(writes.get(i).sessionId());
+        }
+      }
+      return missing;
+    });
+    if (invalidated == null) {
+      invalidated = new ArrayList<>();
+      for (SessionWrite write : writes) {
+        if (!flushPipelined(write, sessionKey(write.sessionId()), null)) {
+          invalidated.add(write.sessionId());
+        }
+      }
+    }
+    invalidated.forEach(this::deleteKeys);
+  }
+
+  /**
+   * Lettuce: the commands are queued on the shared connection without waiting for each reply,
+   * a Spring pipeline would open a dedicated connection per save when no pool is configured
+   *
+   * @return false if the session no longer exists
+   */
+  private boolean flushAsync(RedisClusterAsyncCommands<byte[], byte[]> commands, SessionWrite write, byte[] key,
+      byte[] renameFrom) {
+    List<RedisFuture<?>> futures = new ArrayList<>(5);
+    RedisFuture<String> rename = null;
+    if (renameFrom != null) {
+      rename = commands.rename(renameFrom, key);
+      futures.add(rename);
+    }
+    RedisFuture<Boolean> exists = queueWrite(commands, write, key, futures);
+
+    try {
+      await(futures.toArray(new RedisFuture<?>[0]));
+    } catch (RedisException e) {
+      // RENAME falla si la sesión ya no existe
+      if (rename != null && rename.isDone() && rename.getError() != null) {
+        return false;
+      }
+      throw new RedisSystemException("Session save failed", e);
+    }
+    return exists == null || Boolean.TRUE.equals(getNow(exists));
+  }
+
+  /**
+   * Queues the HSET/HDEL, expiry and index commands of one save on the shared connection
+   *
+   * @return the HEXISTS reply telling whether the session still exists, null if the save does not check
+   */
+  private RedisFuture<Boolean> queueWrite(RedisClusterAsyncCommands<byte[], byte[]> commands, SessionWrite write,
+      byte[] key, List<RedisFuture<?>> futures) {
+    Map<byte[], byte[]> puts = new HashMap<>();
+    List<byte[]> removals = new ArrayList<>();
+    splitFields(write.fields(), puts, removals);
+    if (!puts.isEmpty()) {
+      futures.add(commands.hset(key, puts));
+    }
+    if (!removals.isEmpty()) {
+      futures.add(commands.hdel(key, removals.toArray(new byte[0][])));
+    }
+    futures.add(write.expiresAt() == SessionWrite.NO_EXPIRY
+        ? commands.persist(key) : commands.pexpireat(key, write.expiresAt()));
+    if (expiryIndex != null) {
+      byte[] member = write.sessionId().getBytes(StandardCharsets.UTF_8);
+      futures.add(write.expiresAt() == SessionWrite.NO_EXPIRY
+          ? commands.zrem(expiryIndex.shardKeyBytesOf(write.sessionId()), member)
+          : commands.zadd(expiryIndex.shardKeyBytesOf(write.sessionId()), (double) write.expiresAt(), member));
+      if (write.renameFrom() != null) {
+        futures.add(commands.zrem(expiryIndex.shardKeyBytesOf(write.renameFrom()),
+            write.renameFrom().getBytes(StandardCharsets.UTF_8)));
+      }
+    }
+    if (!write.mustExist()) {
+      return null;
+    }
+    RedisFuture<Boolean> exists = commands.hexists(key, CREATION_TIME_FIELD);
+    futures.add(exists);
+    return exists;
+  }
+
+  /**
+   * Other drivers: a regular Spring pipeline
+   *
+   * @return false if the session no longer exists
+   */
+  private boolean flushPipelined(SessionWrite write, byte[] key, byte[] renameFrom) {
+    List<Object> results;
+    try {
+      results = redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+        if (renameFrom != null) {
+          connection.keyCommands().rename(renameFrom, key);
+        }
+        writeFields(connection, key, write.fields());
+        if (write.expiresAt() == SessionWrite.NO_EXPIRY) {
+          connection.keyCommands().persist(key);
+        } else {
+          connection.keyCommands().pExpireAt(key, write.expiresAt());
+        }
+        if (expiryIndex != null) {
+          indexExpiry(connection, write);
+        }
+        if (write.mustExist()) {
+          connection.hashCommands().hExists(key, CREATION_TIME_FIELD);
+        }
+        return null;
+      });
+    } catch (RedisPipelineException e) {
+      if (renameFrom == null) {
+        throw e;
+      }
+      return false;
+    }
+    return !write.mustExist() || Boolean.TRUE.equals(results.get(results.size() - 1));
+  }
+
+  private void indexExpiry(RedisConnection connection, SessionWrite write) {
+    byte[] member = write.sessionId().getBytes(StandardCharsets.UTF_8);
+    if (write.expiresAt() == SessionWrite.NO_EXPIRY) {
+      connection.zSetCommands().zRem(expiryIndex.shardKeyBytesOf(write.sessionId()), member);
+    } else {
+      connection.zSetCommands().zAdd(expiryIndex.shardKeyBytesOf(write.sessionId()), write.expiresAt(), member);
+    }
+    if (write.renameFrom() != null) {
+      connection.zSetCommands().zRem(expiryIndex.shardKeyBytesOf(write.renameFrom()),
+          write.renameFrom().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void await(RedisFuture<?>... futures) {
+    // awaitAll devuelve false al agotar el tiempo, no lanza
+    if (!LettuceFutures.awaitAll(commandTimeout, futures)) {
+      throw new RedisCommandTimeoutException("Redis did not answer within " + commandTimeout.toMillis() + " ms");
+    }
+  }
+
+  private static <T> T getNow(RedisFuture<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RedisSystemException("Interrupted while saving session", e);
+    } catch (ExecutionException e) {
+      throw new RedisSystemException("Session save failed", e.getCause());
+    }
+  }
+
+  private void writeFields(RedisConnection connection, byte[] key, Map<String, byte[]> fields) {
+    Map<byte[], byte[]> puts = new HashMap<>(fields.size() * 2);
+    List<byte[]> removals = new ArrayList<>();
+    splitFields(fields, puts, removals);
+
+    if (!puts.isEmpty()) {
+      connection.hashCommands().hMSet(key, puts);
+    }
+    if (!removals.isEmpty()) {
+      connection.hashCommands().hDel(key, removals.toArray(new byte[0][]));
+    }
+  }
+
+  private static void splitFields(Map<String, byte[]> fields, Map<byte[], byte[]> puts, List<byte[]> removals) {
+    fields.forEach((field, value) -> {
+      if (value == null) {
+        removals.add(field.getBytes(StandardCharsets.UTF_8));
+      } else {
+        puts.put(field.getBytes(StandardCharsets.UTF_8), value);
+      }
+    });
+  }
+
+  String sessionKeyName(String id) {
+    return keyPrefix + id;
+  }
+
+  byte[] sessionKey(String id) {
+    return sessionKeyName(id).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private <T> T execute(RedisCallback<T> callback) {
+    return redisOperations.execute(callback);
+  }
+}
@@ -0,0 +1,327 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.lettuce.core.RedisException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Session repository decorator keeping sessions on this node while Redis is unavailable
+ * Calls go through a {@link SessionCircuitBreaker}. A call that fails because Redis is down or too
+ * slow, and every call while the breaker is open, is served by a {@link LocalSessionStore}: saves
+ * keep the complete hash, deletes are remembered, loads read the local copy or, for a session not
+ * changed during the outage, the copy the delegates hold on this node, such as the near cache.
+ * Once the breaker closes, the local changes are written back in pipelined batches, least recently
+ * changed first. A session with a local change is always served locally until that change has
+ * reached Redis
+ */
+public class ResilientSessionRepository implements StoredSessionRepository, AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResilientSessionRepository.class);
+
+  private final StoredSessionRepository delegate;
+  private final SessionCircuitBreaker breaker;
+  private final LocalSessionStore localStore;
+  private final RedisSerializer<Object> serializer;
+  private final int reconcileBatchSize;
+  private final ScheduledExecutorService reconciler;
+
+  private final Counter restored;
+  private final Counter deleted;
+  private final Timer reconcileBatches;
+
+  /**
+   * @param delegate           repository backed by Redis
+   * @param breaker            breaker in front of the delegate
+   * @param localStore         sessions kept while Redis is unavailable
+   * @param serializer         serializer of hash values, to build complete hashes locally
+   * @param reconcileBatchSize local changes written back per round trip
+   * @param reconcileInterval  how often local changes are looked for while the breaker is closed
+   * @param meterRegistry      registry for the reconciliation meters
+   */
+  public ResilientSessionRepository(StoredSessionRepository delegate, SessionCircuitBreaker breaker,
+      LocalSessionStore localStore, RedisSerializer<Object> serializer, int reconcileBatchSize,
+      Duration reconcileInterval, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.breaker = breaker;
+    this.localStore = localStore;
+    this.serializer = serializer;
+    this.reconcileBatchSize = reconcileBatchSize;
+
+    this.restored = Counter.builder("session.store.reconciled").tag("operation", "restore").baseUnit("sessions")
+        .description("Sessions kept locally during an outage and written back to Redis").register(meterRegistry);
+    this.deleted = Counter.builder("session.store.reconciled").tag("operation", "delete").baseUnit("sessions")
+        .description("Deletes made during an outage and applied to Redis").register(meterRegistry);
+    this.reconcileBatches = Timer.builder("session.store.reconcile.batch")
+        .description("Time to write one batch of local changes back to Redis").register(meterRegistry);
+
+    this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "session-reconciler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Los fallos sueltos con el breaker cerrado también dejan cambios locales
+    reconciler.scheduleWithFixedDelay(this::reconcile, reconcileInterval.toMillis(), reconcileInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+    breaker.setOnClose(() -> reconciler.execute(this::reconcile));
+  }
+
+  @Override
+  public StoredSession createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    if (localStore.get(session.getPersistedId()) != null || !breaker.tryAcquire()) {
+      saveLocally(session);
+      return;
+    }
+    try {
+      delegate.save(session);
+      breaker.recordSuccess();
+    } catch (RuntimeException e) {
+      if (!isUnavailable(e)) {
+        // Redis respondió: el fallo es de la sesión, no de la conexión
+        breaker.recordSuccess();
+        throw e;
+      }
+      breaker.recordFailure(e);
+      saveLocally(session);
+    }
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    LocalSessionStore.Change change = localStore.get(id);
+    if (change != null) {
+      return change.isDelete() ? null : loadLocally(change.hash());
+    }
+    if (!breaker.tryAcquire()) {
+      // Sin Redis, la copia del nodo (near cache) evita cerrar la sesión del usuario
+      return delegate.findCached(id);
+    }
+    try {
+      StoredSession session = delegate.findById(id);
+      breaker.recordSuccess();
+      return session;
+    } catch (RuntimeException e) {
+      if (!isUnavailable(e)) {
+        breaker.recordSuccess();
+        throw e;
+      }
+      breaker.recordFailure(e);
+      return delegate.findCached(id);
+    }
+  }
+
+  @Override
+  public void deleteById(String id) {
+    deleteAll(List.of(id));
+  }
+
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    List<String> remote = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      if (localStore.get(id) != null) {
+        // La copia local puede llegar a Redis en cualquier momento: el borrado se reconcilia con ella
+        localStore.markDeleted(id);
+      } else {
+        remote.add(id);
+      }
+    }
+    if (remote.isEmpty()) {
+      return;
+    }
+    if (!breaker.tryAcquire()) {
+      remote.forEach(localStore::markDeleted);
+      return;
+    }
+    try {
+      delegate.deleteAll(remote);
+      breaker.recordSuccess();
+    } catch (RuntimeException e) {
+      if (!isUnavailable(e)) {
+        breaker.recordSuccess();
+        throw e;
+      }
+      breaker.recordFailure(e);
+      remote.forEach(localStore::markDeleted);
+    }
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    return delegate.load(hash);
+  }
+
+  /**
+   * While the breaker is open, only the sessions held on this node are reported
+   */
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    if (!breaker.tryAcquire()) {
+      scanLocally(pageSize, fields, pageConsumer);
+      return;
+    }
+    try {
+      delegate.scan(pageSize, fields, pageConsumer);
+      breaker.recordSuccess();
+    } catch (RuntimeException e) {
+      if (isUnavailable(e)) {
+        breaker.recordFailure(e);
+      } else {
+        breaker.recordSuccess();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    delegate.restore(hashes);
+  }
+
+  /**
+   * @return number of sessions and deletes still waiting to be written back
+   */
+  public int getPendingChanges() {
+    return localStore.size();
+  }
+
+  /**
+   * Writes local changes back in batches while the breaker stays closed
+   */
+  void reconcile() {
+    try {
+      while (breaker.isClosed()) {
+        List<LocalSessionStore.Change> batch = localStore.oldest(reconcileBatchSize);
+        if (batch.isEmpty() || !writeBack(batch)) {
+          return;
+        }
+      }
+    } catch (RuntimeException e) {
+      // Un error inesperado no debe parar las siguientes ejecuciones programadas
+      logger.warn("Session reconciliation failed: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void close() {
+    reconciler.shutdownNow();
+  }
+
+  private boolean writeBack(List<LocalSessionStore.Change> batch) {
+    List<SessionHash> hashes = new ArrayList<>(batch.size());
+    List<String> deletes = new ArrayList<>();
+    for (LocalSessionStore.Change change : batch) {
+      if (change.isDelete()) {
+        deletes.add(change.id());
+      } else {
+        hashes.add(change.hash());
+      }
+    }
+
+    long start = System.nanoTime();
+    try {
+      delegate.restore(hashes);
+      if (!deletes.isEmpty()) {
+        delegate.deleteAll(deletes);
+      }
+      breaker.recordSuccess();
+    } catch (RuntimeException e) {
+      if (isUnavailable(e)) {
+        breaker.recordFailure(e);
+        return false;
+      }
+      // Un cambio que Redis rechaza no se reintenta para siempre
+      logger.warn("Dropping {} local session changes that could not be written back: {}", batch.size(),
+          e.getMessage());
+      localStore.removeWritten(batch);
+      return true;
+    }
+    reconcileBatches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    localStore.removeWritten(batch);
+    restored.increment(hashes.size());
+    deleted.increment(deletes.size());
+    return true;
+  }
+
+  /**
+   * Keeps the complete hash of the session: the persisted fields with this save's changes applied
+   */
+  private void saveLocally(StoredSession session) {
+    Map<String, byte[]> fields = new HashMap<>(session.getPersistedFields());
+    Map<String, byte[]> changes = session.hasPendingChanges() ? session.collectChanges(serializer) : Map.of();
+    changes.forEach((field, value) -> {
+      if (value == null) {
+        fields.remove(field);
+      } else {
+        fields.put(field, value);
+      }
+    });
+    String previousId = !session.isNew() && session.isIdChanged() ? session.getPersistedId() : null;
+
+    session.markSaved(changes);
+    localStore.put(new SessionHash(session.getId(), fields));
+    if (previousId != null) {
+      localStore.markDeleted(previousId);
+    }
+  }
+
+  private StoredSession loadLocally(SessionHash hash) {
+    StoredSession session = delegate.load(hash);
+    if (session.isExpired()) {
+      localStore.markDeleted(hash.id());
+      return null;
+    }
+    return session;
+  }
+
+  private void scanLocally(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    List<SessionHash> page = new ArrayList<>(pageSize);
+    for (LocalSessionStore.Change change : localStore.oldest(Integer.MAX_VALUE)) {
+      if (change.isDelete()) {
+        continue;
+      }
+      Map<String, byte[]> selected = new HashMap<>(fields.size() * 2);
+      fields.forEach(field -> {
+        byte[] value = change.hash().fields().get(field);
+        if (value != null) {
+          selected.put(field, value);
+        }
+      });
+      page.add(new SessionHash(change.id(), selected));
+      if (page.size() == pageSize) {
+        pageConsumer.accept(List.copyOf(page));
+        page.clear();
+      }
+    }
+    if (!page.isEmpty()) {
+      pageConsumer.accept(page);
+    }
+  }
+
+  /**
+   * @return true if the failure means Redis could not be reached or did not answer in time
+   */
+  private static boolean isUnavailable(RuntimeException e) {
+    return e instanceof DataAccessException || e instanceof RedisException;
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker in front of the Redis session repository
+ * After {@code failureThreshold} consecutive failures it opens: calls are refused without trying
+ * Redis for {@code openDuration}. Then a single call is let through as a probe; its success closes
+ * the breaker, its failure opens it again. State changes are lock-free
+ */
+public class SessionCircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionCircuitBreaker.class);
+
+  /**
+   * Breaker states, the ordinal is the value of the state gauge
+   */
+  public enum State {
+    CLOSED, HALF_OPEN, OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openMillis;
+  private final Clock clock;
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final AtomicLong openedAt = new AtomicLong();
+  private volatile Runnable onClose = () -> { };
+
+  private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+  private final Counter rejected;
+
+  /**
+   * @param failureThreshold consecutive failures that open the breaker
+   * @param openDuration     how long calls are refused before a probe is let through
+   * @param clock            time source of the open period
+   * @param meterRegistry    registry for the breaker meters
+   */
+  public SessionCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock, MeterRegistry meterRegistry) {
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be at least 1");
+    }
+    this.failureThreshold = failureThreshold;
+    this.openMillis = openDuration.toMillis();
+    this.clock = clock;
+
+    Gauge.builder("session.store.breaker.state", state, current -> current.get().ordinal())
+        .description("Breaker in front of Redis: 0 closed, 1 half-open (probing), 2 open").register(meterRegistry);
+    for (State target : State.values()) {
+      transitions.put(target, Counter.builder("session.store.breaker.transitions")
+          .tag("state", target.name().toLowerCase().replace('_', '-'))
+          .description("Times the breaker entered this state").register(meterRegistry));
+    }
+    this.rejected = Counter.builder("session.store.breaker.rejected")
+        .description("Session operations served locally without trying Redis").register(meterRegistry);
+  }
+
+  /**
+   * @param onClose run by the thread whose call closed the breaker again
+   */
+  public void setOnClose(Runnable onClose) {
+    this.onClose = onClose;
+  }
+
+  /**
+   * @return true if the caller may try Redis; when the open period is over, only the caller that
+   *     gets the probe receives true
+   */
+  public boolean tryAcquire() {
+    State current = state.get();
+    if (current == State.CLOSED) {
+      return true;
+    }
+    if (current == State.OPEN && clock.millis() - openedAt.get() >= openMillis
+        && transition(State.OPEN, State.HALF_OPEN)) {
+      return true;
+    }
+    rejected.increment();
+    return false;
+  }
+
+  /**
+   * Records a call that reached Redis and succeeded
+   */
+  public void recordSuccess() {
+    consecutiveFailures.set(0);
+    if (transition(State.HALF_OPEN, State.CLOSED)) {
+      logger.info("Redis session store reachable again, leaving degraded mode");
+      onClose.run();
+    }
+  }
+
+  /**
+   * Records a call that failed because Redis was unreachable or too slow
+   */
+  public void recordFailure(RuntimeException cause) {
+    if (transition(State.HALF_OPEN, State.OPEN)) {
+      return;
+    }
+    if (consecutiveFailures.incrementAndGet() >= failureThreshold && transition(State.CLOSED, State.OPEN)) {
+      logger.warn("Redis session store unavailable, keeping sessions on this node: {}", cause.getMessage());
+    }
+  }
+
+  public State getState() {
+    return state.get();
+  }
+
+  public boolean isClosed() {
+    return state.get() == State.CLOSED;
+  }
+
+  private boolean transition(State from, State to) {
+    if (state.get() != from) {
+      return false;
+    }
+    if (to == State.OPEN) {
+      // Antes del cambio de estado, así nadie ve OPEN con el instante de apertura anterior
+      openedAt.set(clock.millis());
+    }
+    if (!state.compareAndSet(from, to)) {
+      return false;
+    }
+    transitions.get(to).increment();
+    return true;
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Index of session expiry times, split in shards
+ * Each shard is a sorted set {@code <namespace>:expirations:{<shard>}} of session ids scored by
+ * their expiry time in epoch millis. The hash tag keeps a shard and its lease on one cluster slot
+ */
+public class SessionExpiryIndex {
+
+  private final String keyPrefix;
+  private final int shards;
+
+  public SessionExpiryIndex(String namespace, int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one expiry shard is required");
+    }
+    this.keyPrefix = namespace + ":expirations:{";
+    this.shards = shards;
+  }
+
+  public int getShards() {
+    return shards;
+  }
+
+  public int shardOf(String sessionId) {
+    return Math.floorMod(sessionId.hashCode(), shards);
+  }
+
+  public String shardKey(int shard) {
+    return keyPrefix + shard + "}";
+  }
+
+  public String shardKeyOf(String sessionId) {
+    return shardKey(shardOf(sessionId));
+  }
+
+  /**
+   * Key of the lease a node holds while sweeping the shard
+   */
+  public String leaseKey(int shard) {
+    return shardKey(shard) + ":lease";
+  }
+
+  byte[] shardKeyBytesOf(String sessionId) {
+    return shardKeyOf(sessionId).getBytes(StandardCharsets.UTF_8);
+  }
+}
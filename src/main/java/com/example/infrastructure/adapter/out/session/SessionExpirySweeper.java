@@ -0,0 +1,142 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes expired sessions in small batches, driven by the {@link SessionExpiryIndex}
+ * Each run walks the shards starting at a random one and sweeps only the shards whose lease it
+ * wins ({@code SET NX PX}), so with several nodes every shard is swept by a single node per lease
+ * period. A shard is read from its oldest entry in batches of {@code batchSize} ids, up to
+ * {@code maxBatchesPerShard} batches per run, so a backlog is worked off over several runs
+ * instead of in one long burst
+ */
+public class SessionExpirySweeper {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionExpirySweeper.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final SessionExpiryIndex expiryIndex;
+  private final String sessionKeyPrefix;
+  private final int batchSize;
+  private final int maxBatchesPerShard;
+  private final Duration leaseTime;
+  private final Clock clock;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final DistributionSummary batchSizes;
+  private final Timer lag;
+  private final Counter reaped;
+  private final Counter sweptShards;
+  private final Counter skippedShards;
+  private final SessionStoreMetrics storeMetrics;
+
+  public SessionExpirySweeper(StringRedisTemplate redisTemplate, SessionExpiryIndex expiryIndex, String namespace,
+      int batchSize, int maxBatchesPerShard, Duration leaseTime, Clock clock, MeterRegistry meterRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.expiryIndex = expiryIndex;
+    this.sessionKeyPrefix = namespace + ":sessions:";
+    this.batchSize = batchSize;
+    this.maxBatchesPerShard = maxBatchesPerShard;
+    this.leaseTime = leaseTime;
+    this.clock = clock;
+
+    this.batchSizes = DistributionSummary.builder("session.sweeper.batch.size").baseUnit("sessions")
+        .description("Expired sessions removed per sweeper batch").register(meterRegistry);
+    this.lag = Timer.builder("session.sweeper.lag")
+        .description("How long the oldest expired session of a batch had been waiting to be removed")
+        .register(meterRegistry);
+    this.reaped = Counter.builder("session.sweeper.reaped").baseUnit("sessions")
+        .description("Expired sessions removed by the sweeper, its rate gives sessions reaped per second")
+        .register(meterRegistry);
+    this.sweptShards = Counter.builder("session.sweeper.shards").tag("result", "swept")
+        .description("Shards swept by this node").register(meterRegistry);
+    this.skippedShards = Counter.builder("session.sweeper.shards").tag("result", "leased-elsewhere")
+        .description("Shards skipped because another node holds their lease").register(meterRegistry);
+    this.storeMetrics = new SessionStoreMetrics(meterRegistry);
+  }
+
+  /**
+   * Runs one sweep over the shards this node can lease
+   *
+   * @return number of sessions removed
+   */
+  public int sweep() {
+    int shards = expiryIndex.getShards();
+    int start = ThreadLocalRandom.current().nextInt(shards);
+    int removed = 0;
+    try {
+      for (int i = 0; i < shards; i++) {
+        int shard = (start + i) % shards;
+        if (!acquireLease(shard)) {
+          skippedShards.increment();
+          continue;
+        }
+        sweptShards.increment();
+        removed += sweepShard(shard);
+      }
+    } catch (DataAccessException e) {
+      // Redis no disponible: se reintenta en la siguiente ejecución
+      logger.warn("Session expiry sweep interrupted: {}", e.getMessage());
+    }
+    return removed;
+  }
+
+  private boolean acquireLease(int shard) {
+    // Sin renovación: el lease caduca solo y en la siguiente ejecución cualquier nodo puede tomarlo
+    return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(expiryIndex.leaseKey(shard), nodeId,
+        leaseTime));
+  }
+
+  private int sweepShard(int shard) {
+    String shardKey = expiryIndex.shardKey(shard);
+    int removed = 0;
+    for (int batch = 0; batch < maxBatchesPerShard; batch++) {
+      long now = clock.millis();
+      Set<TypedTuple<String>> expired = redisTemplate.opsForZSet().rangeByScoreWithScores(shardKey,
+          Double.NEGATIVE_INFINITY, now, 0, batchSize);
+      if (expired == null || expired.isEmpty()) {
+        break;
+      }
+
+      List<String> ids = new ArrayList<>(expired.size());
+      List<String> sessionKeys = new ArrayList<>(expired.size());
+      double oldest = Double.MAX_VALUE;
+      for (TypedTuple<String> entry : expired) {
+        ids.add(entry.getValue());
+        sessionKeys.add(sessionKeyPrefix + entry.getValue());
+        oldest = Math.min(oldest, entry.getScore());
+      }
+
+      // Redis ya expira las claves por su TTL: aquí se borran las que aún no recogió y se limpia el índice
+      redisTemplate.delete(sessionKeys);
+      redisTemplate.opsForZSet().remove(shardKey, ids.toArray());
+
+      lag.record(Math.max(0, now - (long) oldest), TimeUnit.MILLISECONDS);
+      batchSizes.record(ids.size());
+      reaped.increment(ids.size());
+      storeMetrics.recordExpired(ids.size());
+      removed += ids.size();
+      if (ids.size() < batchSize) {
+        break;
+      }
+    }
+    return removed;
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of the raw Redis hash of one session
+ * Cached instead of live {@link StoredSession} objects so concurrent requests never share
+ * mutable attribute instances
+ *
+ * @param id     the session id
+ * @param fields raw hash fields as stored in Redis
+ */
+public record SessionHash(String id, Map<String, byte[]> fields) {
+
+  public SessionHash {
+    fields = Map.copyOf(fields);
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Redis pub/sub channel telling the other nodes that a session changed
+ * Messages have the form {@code <nodeId>|<sessionId>}; a node ignores its own messages
+ */
+public class SessionInvalidationChannel implements MessageListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionInvalidationChannel.class);
+  private static final char SEPARATOR = '|';
+
+  private final StringRedisTemplate redisTemplate;
+  private final String channel;
+  private final SessionNearCache nearCache;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Counter received;
+
+  public SessionInvalidationChannel(StringRedisTemplate redisTemplate, String channel, SessionNearCache nearCache,
+      MeterRegistry meterRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.channel = channel;
+    this.nearCache = nearCache;
+    this.received = Counter.builder("session.nearcache.remote.invalidations")
+        .description("Invalidation messages received from other nodes").register(meterRegistry);
+  }
+
+  /**
+   * Announces that a session was saved, renamed or deleted on this node
+   *
+   * @param sessionId the id whose cached copies are now stale
+   */
+  public void publish(String sessionId) {
+    try {
+      redisTemplate.convertAndSend(channel, nodeId + SEPARATOR + sessionId);
+    } catch (RuntimeException e) {
+      // Las entradas remotas caducan por TTL aunque el mensaje se pierda
+      logger.warn("Could not publish session invalidation for {}: {}", sessionId, e.getMessage());
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    int separator = body.indexOf(SEPARATOR);
+    if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+      return;
+    }
+    received.increment();
+    nearCache.invalidate(body.substring(separator + 1));
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+}
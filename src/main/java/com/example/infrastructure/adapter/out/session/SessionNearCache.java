@@ -0,0 +1,140 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-node cache of session hashes, bounded by size and entry age
+ * Entries are spread over independently locked LRU segments to keep lock contention low
+ */
+public class SessionNearCache {
+
+  private static final int SEGMENT_COUNT = 16;
+
+  private final Segment[] segments = new Segment[SEGMENT_COUNT];
+  private final long ttlNanos;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter sizeEvictions;
+  private final Counter expiredEvictions;
+  private final Counter invalidations;
+
+  public SessionNearCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+    int segmentCapacity = Math.max(1, maxEntries / SEGMENT_COUNT);
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.ttlNanos = ttl.toNanos();
+
+    this.hits = Counter.builder("session.nearcache.gets").tag("result", "hit")
+        .description("Session loads served from the near cache").register(meterRegistry);
+    this.misses = Counter.builder("session.nearcache.gets").tag("result", "miss")
+        .description("Session loads that had to go to Redis").register(meterRegistry);
+    this.sizeEvictions = Counter.builder("session.nearcache.evictions").tag("cause", "size")
+        .register(meterRegistry);
+    this.expiredEvictions = Counter.builder("session.nearcache.evictions").tag("cause", "expired")
+        .register(meterRegistry);
+    this.invalidations = Counter.builder("session.nearcache.evictions").tag("cause", "invalidated")
+        .register(meterRegistry);
+    Gauge.builder("session.nearcache.size", this, SessionNearCache::size)
+        .description("Sessions currently held in the near cache").register(meterRegistry);
+  }
+
+  /**
+   * @param sessionId the session id
+   * @return the cached hash or null on a miss
+   */
+  public SessionHash get(String sessionId) {
+    Segment segment = segmentFor(sessionId);
+    segment.lock.lock();
+    try {
+      Entry entry = segment.entries.get(sessionId);
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+      if (System.nanoTime() - entry.cachedAt >= ttlNanos) {
+        segment.entries.remove(sessionId);
+        expiredEvictions.increment();
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.hash;
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  public void put(SessionHash hash) {
+    Segment segment = segmentFor(hash.id());
+    segment.lock.lock();
+    try {
+      segment.entries.put(hash.id(), new Entry(hash, System.nanoTime()));
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  public void invalidate(String sessionId) {
+    Segment segment = segmentFor(sessionId);
+    segment.lock.lock();
+    try {
+      if (segment.entries.remove(sessionId) != null) {
+        invalidations.increment();
+      }
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      segment.lock.lock();
+      try {
+        size += segment.entries.size();
+      } finally {
+        segment.lock.unlock();
+      }
+    }
+    return size;
+  }
+
+  private Segment segmentFor(String sessionId) {
+    int hash = sessionId.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+  }
+
+  private record Entry(SessionHash hash, long cachedAt) {
+  }
+
+  /**
+   * Access-ordered map evicting the least recently used entry once full, guarded by its own lock
+   */
+  private final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+
+    Segment(int capacity) {
+      this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          if (size() > capacity) {
+            sizeEvictions.increment();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Group commit for session saves
+ * While a save of a session is in flight, further saves of the same session queue up and are
+ * merged into the next batch, so parallel requests sharing a session cost one round trip per
+ * batch instead of one each. Every caller returns once the batch holding its save completed
+ */
+final class SessionSaveCoalescer {
+
+  private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+  private final Consumer<SessionWrite> flusher;
+  private final DistributionSummary batchSize;
+
+  SessionSaveCoalescer(Consumer<SessionWrite> flusher, MeterRegistry meterRegistry) {
+    this.flusher = flusher;
+    this.batchSize = DistributionSummary.builder("session.store.save.batch.size")
+        .description("Saves of the same session merged into one Redis batch").register(meterRegistry);
+  }
+
+  /**
+   * Writes the given save, possibly merged with concurrent saves of the same session
+   *
+   * @throws RuntimeException the failure of the batch the save was part of; an {@link Error} of the
+   *     batch is rethrown as is
+   */
+  void submit(SessionWrite write) {
+    Pending pending = new Pending(write);
+    Lane lane;
+    boolean leader;
+    while (true) {
+      lane = lanes.computeIfAbsent(write.sessionId(), id -> new Lane());
+      lane.lock.lock();
+      try {
+        // Un carril retirado ya salió del mapa: encolar en él daría un segundo líder para la sesión
+        if (lane.retired) {
+          continue;
+        }
+        lane.queue.add(pending);
+        leader = !lane.flushing;
+        lane.flushing = true;
+        break;
+      } finally {
+        lane.lock.unlock();
+      }
+    }
+
+    // Si otro hilo ya está escribiendo esta sesión, llevará este guardado en su siguiente lote
+    if (leader) {
+      drain(write.sessionId(), lane);
+    }
+    await(pending);
+  }
+
+  private void drain(String sessionId, Lane lane) {
+    try {
+      while (true) {
+        List<Pending> batch;
+        lane.lock.lock();
+        try {
+          if (lane.queue.isEmpty()) {
+            retire(sessionId, lane);
+            return;
+          }
+          batch = new ArrayList<>(lane.queue);
+          lane.queue.clear();
+        } finally {
+          lane.lock.unlock();
+        }
+        flush(batch);
+      }
+    } catch (Throwable e) {
+      abandon(sessionId, lane, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes one batch; a failure completes every save of the batch with it, and an {@link Error}
+   * also stops the leader
+   */
+  private void flush(List<Pending> batch) {
+    try {
+      SessionWrite merged = batch.get(0).write;
+      for (int i = 1; i < batch.size(); i++) {
+        merged = merged.mergeWith(batch.get(i).write);
+      }
+      batchSize.record(batch.size());
+      flusher.accept(merged);
+      batch.forEach(pending -> pending.done.complete(null));
+    } catch (Throwable e) {
+      batch.forEach(pending -> pending.done.completeExceptionally(e));
+      if (e instanceof Error error) {
+        throw error;
+      }
+    }
+  }
+
+  /**
+   * Fails the saves still queued when the leader stops, so none of them waits for a leader that is gone
+   */
+  private void abandon(String sessionId, Lane lane, Throwable failure) {
+    lane.lock.lock();
+    try {
+      lane.queue.forEach(pending -> pending.done.completeExceptionally(failure));
+      lane.queue.clear();
+      retire(sessionId, lane);
+    } finally {
+      lane.lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the lane out of the map, called with its lock held; the next save of the session opens a new one
+   */
+  private void retire(String sessionId, Lane lane) {
+    lane.flushing = false;
+    lane.retired = true;
+    lanes.remove(sessionId, lane);
+  }
+
+  private static void await(Pending pending) {
+    try {
+      pending.done.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static final class Pending {
+
+    private final SessionWrite write;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    Pending(SessionWrite write) {
+      this.write = write;
+    }
+  }
+
+  private static final class Lane {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Pending> queue = new ArrayList<>();
+    private boolean flushing;
+    private boolean retired;
+  }
+}
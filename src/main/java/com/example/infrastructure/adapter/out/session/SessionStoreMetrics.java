@@ -0,0 +1,72 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+
+/**
+ * Meters describing what the session store holds and how often it is used
+ * Sizes are those of the hash as stored in Redis, field names included, recorded on every save
+ * that reaches Redis. {@code session.store.operations} counts sessions per operation, so its rate
+ * gives sessions created, saved, deleted and expired per second. Every store registers the same
+ * meters, so with sharding they add up over all nodes
+ */
+public class SessionStoreMetrics {
+
+  private final DistributionSummary sessionSize;
+  private final DistributionSummary attributes;
+  private final Counter created;
+  private final Counter saved;
+  private final Counter deleted;
+  private final Counter expired;
+
+  public SessionStoreMetrics(MeterRegistry meterRegistry) {
+    this.sessionSize = DistributionSummary.builder("session.store.size").baseUnit("bytes")
+        .description("Serialized size of a session hash, field names included, when it is saved")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.attributes = DistributionSummary.builder("session.store.attributes").baseUnit("attributes")
+        .description("Attributes held by a session when it is saved")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.created = operation(meterRegistry, "create", "Sessions written to Redis for the first time");
+    this.saved = operation(meterRegistry, "save", "Session saves that wrote to Redis");
+    this.deleted = operation(meterRegistry, "delete", "Sessions deleted on request, on logout or by administration");
+    this.expired = operation(meterRegistry, "expire", "Expired sessions removed when loaded or by the sweeper");
+  }
+
+  /**
+   * @param session the session, after its changes were marked as saved
+   * @param isNew   whether this save created the session in Redis
+   */
+  void recordSave(StoredSession session, boolean isNew) {
+    long bytes = 0;
+    int attributeCount = 0;
+    for (Map.Entry<String, byte[]> field : session.getPersistedFields().entrySet()) {
+      // Los nombres de campo son ASCII: su longitud es su tamaño en bytes
+      bytes += field.getKey().length() + field.getValue().length;
+      if (field.getKey().startsWith(StoredSession.ATTRIBUTE_PREFIX)) {
+        attributeCount++;
+      }
+    }
+    sessionSize.record(bytes);
+    attributes.record(attributeCount);
+    saved.increment();
+    if (isNew) {
+      created.increment();
+    }
+  }
+
+  void recordDeleted(int sessions) {
+    deleted.increment(sessions);
+  }
+
+  void recordExpired(int sessions) {
+    expired.increment(sessions);
+  }
+
+  private static Counter operation(MeterRegistry meterRegistry, String operation, String description) {
+    return Counter.builder("session.store.operations").tag("operation", operation).baseUnit("sessions")
+        .description(description).register(meterRegistry);
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides whether a new last access time is worth writing to Redis
+ * A touch is persisted once it moved at least the larger of a fixed interval and a fraction of the
+ * session's inactivity timeout, so a session may expire at most that granularity before its real
+ * last access plus timeout
+ */
+public class SessionTouchPolicy {
+
+  /**
+   * Policy persisting every touch
+   */
+  public static final SessionTouchPolicy EVERY_TOUCH = new SessionTouchPolicy(Duration.ZERO, 0);
+
+  private final Duration minInterval;
+  private final double minFraction;
+
+  /**
+   * @param minInterval minimum time the last access must move before it is written
+   * @param minFraction minimum move as a fraction of maxInactiveInterval, between 0 and 1
+   */
+  public SessionTouchPolicy(Duration minInterval, double minFraction) {
+    if (minInterval.isNegative()) {
+      throw new IllegalArgumentException("minInterval must not be negative");
+    }
+    if (minFraction < 0 || minFraction >= 1) {
+      throw new IllegalArgumentException("minFraction must be in [0, 1)");
+    }
+    this.minInterval = minInterval;
+    this.minFraction = minFraction;
+  }
+
+  /**
+   * @param persisted last access time currently stored in Redis
+   * @param current last access time of the request being saved
+   * @param maxInactiveInterval inactivity timeout of the session
+   * @return true if the touch must be written
+   */
+  public boolean isDue(Instant persisted, Instant current, Duration maxInactiveInterval) {
+    if (persisted == null) {
+      return true;
+    }
+    return !current.isBefore(persisted.plus(granularity(maxInactiveInterval)));
+  }
+
+  /**
+   * @return how far the stored last access may lag behind the real one
+   */
+  public Duration granularity(Duration maxInactiveInterval) {
+    if (maxInactiveInterval.isNegative() || minFraction == 0) {
+      return minInterval;
+    }
+    Duration fraction = Duration.ofMillis((long) (maxInactiveInterval.toMillis() * minFraction));
+    return fraction.compareTo(minInterval) > 0 ? fraction : minInterval;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.infrastructure.adapter.out.session;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis commands of one session save, sent to Redis as a single pipelined batch
+ *
+ * @param sessionId id the session is saved under
+ * @param renameFrom previous id when the session id changed, otherwise null
+ * @param fields hash fields to write, a null value deletes the field
+ * @param expiresAt epoch millis at which Redis drops the hash, or -1 for a session that never expires
+ * @param mustExist true if the session must already exist, so a concurrent invalidation is not undone
+ */
+record SessionWrite(String sessionId, String renameFrom, Map<String, byte[]> fields, long expiresAt,
+    boolean mustExist) {
+
+  static final long NO_EXPIRY = -1;
+
+  /**
+   * Combines this write with a later write of the same session, the later values win
+   */
+  SessionWrite mergeWith(SessionWrite later) {
+    Map<String, byte[]> merged = new HashMap<>(fields);
+    merged.putAll(later.fields);
+    return new SessionWrite(sessionId, renameFrom, merged, later.expiresAt, mustExist || later.mustExist);
+  }
+}
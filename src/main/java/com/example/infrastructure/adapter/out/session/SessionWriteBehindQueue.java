@@ -0,0 +1,330 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind buffer for session saves
+ * A save returns as soon as its write is queued; a background thread sends the queued writes in
+ * pipelined batches of up to {@code batchSize} sessions. The queue holds at most one write per
+ * session: a save of a session that is still waiting is merged into it, the later values win.
+ * At most {@code capacity} sessions wait at a time, beyond that a save blocks until the flusher
+ * makes room. The flusher writes one batch at a time, so the writes of a session reach Redis in
+ * the order they were saved
+ */
+final class SessionWriteBehindQueue implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionWriteBehindQueue.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final ConcurrentHashMap<String, Entry> pending = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Entry> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+  private final Semaphore permits;
+  private final int batchSize;
+  private final Duration offerTimeout;
+  private final Consumer<List<SessionWrite>> flusher;
+  private final Thread flusherThread;
+  private volatile boolean running = true;
+
+  private final Timer flushLatency;
+  private final Timer lag;
+  private final DistributionSummary batchSizes;
+  private final Counter coalesced;
+  private final Counter blocked;
+  private final Counter failed;
+
+  /**
+   * @param flusher       writes one batch of saves of different sessions
+   * @param capacity      sessions that may wait to be written
+   * @param batchSize     sessions written per round trip
+   * @param offerTimeout  how long a save waits for room in a full queue before failing
+   * @param store         name of the store, tags the meters
+   * @param meterRegistry registry for the queue meters
+   */
+  SessionWriteBehindQueue(Consumer<List<SessionWrite>> flusher, int capacity, int batchSize,
+      Duration offerTimeout, String store, MeterRegistry meterRegistry) {
+    if (capacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("capacity and batchSize must be at least 1");
+    }
+    this.flusher = flusher;
+    this.permits = new Semaphore(capacity);
+    this.batchSize = batchSize;
+    this.offerTimeout = offerTimeout;
+
+    Gauge.builder("session.store.writebehind.depth", pending, Map::size).tag("store", store).baseUnit("sessions")
+        .description("Sessions whose save is waiting to be written").register(meterRegistry);
+    this.flushLatency = Timer.builder("session.store.writebehind.flush").tag("store", store)
+        .description("Time to write one batch of queued saves").register(meterRegistry);
+    this.lag = Timer.builder("session.store.writebehind.lag").tag("store", store)
+        .description("Time from the first queued save of a session until it was written")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.batchSizes = DistributionSummary.builder("session.store.writebehind.batch.size").tag("store", store)
+        .baseUnit("sessions").description("Sessions written per write-behind batch").register(meterRegistry);
+    this.coalesced = Counter.builder("session.store.writebehind.coalesced").tag("store", store)
+        .description("Saves merged into a save of the same session still waiting").register(meterRegistry);
+    this.blocked = Counter.builder("session.store.writebehind.blocked").tag("store", store)
+        .description("Saves that had to wait because the queue was full").register(meterRegistry);
+    this.failed = Counter.builder("session.store.writebehind.failed").tag("store", store).baseUnit("sessions")
+        .description("Queued saves lost because their batch failed").register(meterRegistry);
+
+    this.flusherThread = new Thread(this::run, "session-write-behind-" + store);
+    flusherThread.setDaemon(true);
+    flusherThread.start();
+  }
+
+  /**
+   * Queues a save, merging it into the one already waiting for the same session
+   *
+   * @throws IllegalStateException if the queue stayed full for the whole offer timeout
+   */
+  void submit(SessionWrite write) {
+    String id = write.sessionId();
+    if (pending.computeIfPresent(id, (key, queued) -> queued.mergeWith(write)) != null) {
+      coalesced.increment();
+      return;
+    }
+
+    acquirePermit();
+    boolean[] inserted = new boolean[1];
+    pending.compute(id, (key, queued) -> {
+      if (queued != null) {
+        return queued.mergeWith(write);
+      }
+      inserted[0] = true;
+      return new Entry(write, System.nanoTime(), new CompletableFuture<>());
+    });
+    if (!inserted[0]) {
+      // Otro hilo encoló la misma sesión entre las dos comprobaciones
+      permits.release();
+      coalesced.increment();
+      return;
+    }
+    order.add(id);
+    LockSupport.unpark(flusherThread);
+  }
+
+  /**
+   * Sync point: waits until every save of the session queued so far has been written
+   * A failed write does not make this fail, the caller writes its own changes anyway
+   *
+   * @param sessionId the session id
+   */
+  void awaitFlushed(String sessionId) {
+    Entry queued = pending.get(sessionId);
+    if (queued == null) {
+      // El flusher marca la escritura como en curso antes de sacarla de la cola
+      queued = inFlight.get(sessionId);
+    }
+    if (queued == null) {
+      return;
+    }
+    LockSupport.unpark(flusherThread);
+    try {
+      queued.flushed.get(offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      logger.debug("Queued save of a session not confirmed before a synchronous write: {}", e.toString());
+    }
+  }
+
+  /**
+   * Drops the queued save of a session that is being deleted, and waits for one being written
+   *
+   * @param sessionId the session id
+   */
+  void discard(String sessionId) {
+    Entry queued = pending.remove(sessionId);
+    if (queued != null) {
+      permits.release();
+      queued.flushed.complete(null);
+    }
+    awaitFlushed(sessionId);
+  }
+
+  /**
+   * @param sessionId the session id
+   * @return the saves of the session being written or waiting, oldest first
+   */
+  List<SessionWrite> queued(String sessionId) {
+    Entry writing = inFlight.get(sessionId);
+    Entry queued = pending.get(sessionId);
+    if (writing == null && queued == null) {
+      return List.of();
+    }
+    List<SessionWrite> writes = new ArrayList<>(2);
+    for (Entry entry : new Entry[] {writing, queued}) {
+      if (entry != null) {
+        writes.add(entry.write);
+      }
+    }
+    return writes;
+  }
+
+  /**
+   * Applies the saves still waiting for a session to its hash as read from Redis, so a node reads
+   * its own writes before they are flushed
+   *
+   * @param hash             the hash read from Redis
+   * @param queuedBeforeRead the saves {@link #queued} returned before the read, in case they were
+   *                         written after Redis answered but before this call
+   * @return the hash with the queued fields written and deleted
+   */
+  SessionHash overlay(SessionHash hash, List<SessionWrite> queuedBeforeRead) {
+    List<SessionWrite> queuedNow = queued(hash.id());
+    if (queuedBeforeRead.isEmpty() && queuedNow.isEmpty()) {
+      return hash;
+    }
+    Map<String, byte[]> fields = new HashMap<>(hash.fields());
+    for (List<SessionWrite> writes : List.of(queuedBeforeRead, queuedNow)) {
+      for (SessionWrite write : writes) {
+        write.fields().forEach((field, value) -> {
+          if (value == null) {
+            fields.remove(field);
+          } else {
+            fields.put(field, value);
+          }
+        });
+      }
+    }
+    return new SessionHash(hash.id(), fields);
+  }
+
+  /**
+   * @return number of sessions waiting to be written
+   */
+  int depth() {
+    return pending.size();
+  }
+
+  /**
+   * Stops the flusher once every queued save has been written
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(flusherThread);
+    try {
+      flusherThread.join(offerTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void acquirePermit() {
+    if (permits.tryAcquire()) {
+      return;
+    }
+    blocked.increment();
+    LockSupport.unpark(flusherThread);
+    try {
+      if (permits.tryAcquire(offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    throw new IllegalStateException("Session write-behind queue is full");
+  }
+
+  private void run() {
+    while (running || !order.isEmpty()) {
+      if (order.isEmpty()) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        continue;
+      }
+      try {
+        flushBatch();
+      } catch (Throwable e) {
+        // Es el único hilo que vacía la cola: si muere, los guardados se bloquean hasta el timeout
+        logger.error("Write-behind flusher failed, it keeps running", e);
+      }
+    }
+  }
+
+  private void flushBatch() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    List<String> ids = new ArrayList<>(batchSize);
+    String id;
+    while (batch.size() < batchSize && (id = order.poll()) != null) {
+      Entry queued = pending.get(id);
+      if (queued == null) {
+        // Descartada por un borrado
+        continue;
+      }
+      inFlight.put(id, queued);
+      // Desde aquí un guardado nuevo de la sesión abre otra entrada que irá en un lote posterior
+      Entry taken = pending.remove(id);
+      if (taken == null) {
+        inFlight.remove(id, queued);
+        continue;
+      }
+      if (taken != queued) {
+        inFlight.put(id, taken);
+      }
+      permits.release();
+      batch.add(taken);
+      ids.add(id);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      flusher.accept(batch.stream().map(entry -> entry.write).toList());
+      long end = System.nanoTime();
+      flushLatency.record(end - start, TimeUnit.NANOSECONDS);
+      batch.forEach(entry -> lag.record(end - entry.enqueuedAt, TimeUnit.NANOSECONDS));
+      batch.forEach(entry -> entry.flushed.complete(null));
+    } catch (Throwable e) {
+      // Se pierde igual que un guardado síncrono fallido; la siguiente petición lee lo que haya en Redis
+      failed.increment(batch.size());
+      logger.warn("Write-behind batch of {} sessions failed: {}", batch.size(), e.getMessage());
+      batch.forEach(entry -> entry.flushed.completeExceptionally(e));
+    } finally {
+      batchSizes.record(batch.size());
+      for (int i = 0; i < ids.size(); i++) {
+        inFlight.remove(ids.get(i), batch.get(i));
+      }
+    }
+  }
+
+  private static final class Entry {
+
+    private final SessionWrite write;
+    private final long enqueuedAt;
+    private final CompletableFuture<Void> flushed;
+
+    Entry(SessionWrite write, long enqueuedAt, CompletableFuture<Void> flushed) {
+      this.write = write;
+      this.enqueuedAt = enqueuedAt;
+      this.flushed = flushed;
+    }
+
+    Entry mergeWith(SessionWrite later) {
+      return new Entry(write.mergeWith(later), enqueuedAt, flushed);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Session repository spreading sessions over several independent Redis nodes
+ * Each session id is routed by a {@link ConsistentHashRing} of {@link RedisSessionStore}s. While
+ * shards are being added, the ring the nodes used before is kept as {@code previousRing}: a
+ * session not found on its new node is looked up on its previous one and moved on first access;
+ * a request that loses the race for the move finds it on the new node.
+ * An id change that lands on another node copies the session there and drops the old copy
+ */
+public class ShardedSessionRepository implements StoredSessionRepository {
+
+  private final ConsistentHashRing<RedisSessionStore> ring;
+  private final ConsistentHashRing<RedisSessionStore> previousRing;
+  private final Counter migratedSessions;
+  private final Counter movedOnIdChange;
+
+  /**
+   * @param ring current placement of sessions
+   * @param previousRing placement before the last shard change, null once every session has moved
+   * @param meterRegistry registry for the migration counters
+   */
+  public ShardedSessionRepository(ConsistentHashRing<RedisSessionStore> ring,
+      ConsistentHashRing<RedisSessionStore> previousRing, MeterRegistry meterRegistry) {
+    this.ring = ring;
+    this.previousRing = previousRing;
+    this.migratedSessions = Counter.builder("session.shard.migrations").tag("cause", "remapped")
+        .description("Sessions moved to their new shard on first access").register(meterRegistry);
+    this.movedOnIdChange = Counter.builder("session.shard.migrations").tag("cause", "id-change")
+        .description("Sessions moved because their new id belongs to another shard").register(meterRegistry);
+  }
+
+  @Override
+  public StoredSession createSession() {
+    // Todas las tiendas crean la sesión igual, el shard se decide al guardar por su id
+    return ring.getNodes().values().iterator().next().createSession();
+  }
+
+  @Override
+  public void save(StoredSession session) {
+    RedisSessionStore target = ring.nodeFor(session.getId());
+    if (session.isNew() || !session.isIdChanged()) {
+      target.save(session);
+      return;
+    }
+
+    String previousId = session.getPersistedId();
+    RedisSessionStore source = ring.nodeFor(previousId);
+    if (source == target) {
+      target.save(session);
+      return;
+    }
+
+    // RENAME no cruza nodos: se copia la sesión completa y luego se borra la original
+    target.saveFull(session);
+    source.delete(previousId);
+    movedOnIdChange.increment();
+  }
+
+  @Override
+  public StoredSession findById(String id) {
+    RedisSessionStore owner = ring.nodeFor(id);
+    StoredSession session = owner.findById(id);
+    if (session != null || previousRing == null) {
+      return session;
+    }
+
+    RedisSessionStore previousOwner = previousRing.nodeFor(id);
+    if (previousOwner == owner) {
+      return null;
+    }
+    session = previousOwner.findById(id);
+    if (session == null) {
+      // Otra petición pudo moverla entre las dos lecturas: ya está en el nodo nuevo
+      return owner.findById(id);
+    }
+
+    owner.saveFull(session);
+    previousOwner.delete(id);
+    migratedSessions.increment();
+    return session;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    ring.nodeFor(id).deleteById(id);
+    if (previousRing != null && previousRing.nodeFor(id) != ring.nodeFor(id)) {
+      previousRing.nodeFor(id).delete(id);
+    }
+  }
+
+  @Override
+  public void deleteAll(Collection<String> ids) {
+    // Un lote por nodo; durante una migración también se borra la copia del nodo anterior
+    Map<RedisSessionStore, List<String>> byNode = new IdentityHashMap<>();
+    for (String id : ids) {
+      RedisSessionStore owner = ring.nodeFor(id);
+      byNode.computeIfAbsent(owner, node -> new ArrayList<>()).add(id);
+      if (previousRing != null && previousRing.nodeFor(id) != owner) {
+        byNode.computeIfAbsent(previousRing.nodeFor(id), node -> new ArrayList<>()).add(id);
+      }
+    }
+    byNode.forEach(RedisSessionStore::deleteAll);
+  }
+
+  @Override
+  public StoredSession load(SessionHash hash) {
+    return ring.nodeFor(hash.id()).load(hash);
+  }
+
+  @Override
+  public void restore(List<SessionHash> hashes) {
+    Map<RedisSessionStore, List<SessionHash>> byNode = new IdentityHashMap<>();
+    hashes.forEach(hash -> byNode.computeIfAbsent(ring.nodeFor(hash.id()), node -> new ArrayList<>()).add(hash));
+    byNode.forEach(RedisSessionStore::restore);
+  }
+
+  @Override
+  public void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer) {
+    // Un nodo detrás de otro; durante una migración también los que solo están en el anillo anterior
+    Set<RedisSessionStore> nodes = new LinkedHashSet<>(ring.getNodes().values());
+    if (previousRing != null) {
+      nodes.addAll(previousRing.getNodes().values());
+    }
+    nodes.forEach(node -> node.scan(pageSize, fields, pageConsumer));
+  }
+}
@@ -0,0 +1,329 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.application.dto.SessionPrincipal;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.Session;
+import org.springframework.session.SessionIdGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Session held in Redis as one hash per session
+ * Tracks the hash fields changed since the last save so the store only writes the delta.
+ * Attributes are compared by serialized value: setting an equal value, or reading a value
+ * without modifying it, writes nothing. A loaded session keeps its attributes as raw bytes and
+ * decodes each one on its first read, so an attribute the request never reads is neither decoded
+ * nor re-encoded, and stays in Redis exactly as it was
+ */
+public final class StoredSession implements Session {
+
+  static final String CREATION_TIME = "creationTime";
+  static final String LAST_ACCESSED_TIME = "lastAccessedTime";
+  static final String MAX_INACTIVE_INTERVAL = "maxInactiveInterval";
+  static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+
+  private final SessionIdGenerator idGenerator;
+  private final Map<String, Object> attributes;
+  private final Map<String, Object> metadataDelta = new HashMap<>();
+  private final Set<String> dirtyAttributes = new HashSet<>();
+  private final Map<String, byte[]> persistedFields;
+  private final Set<String> undecodedAttributes;
+  private final Function<byte[], Object> attributeDecoder;
+
+  private String id;
+  private String persistedId;
+  private boolean isNew;
+  private boolean contentChangedOnLastSave;
+  private final Instant creationTime;
+  private Instant lastAccessedTime;
+  private Instant persistedLastAccessedTime;
+  private Duration maxInactiveInterval;
+
+  /**
+   * Creates a brand-new session, every field is part of the first save
+   */
+  StoredSession(SessionIdGenerator idGenerator, Duration maxInactiveInterval) {
+    this.idGenerator = idGenerator;
+    this.id = idGenerator.generate();
+    this.persistedId = this.id;
+    this.isNew = true;
+    this.creationTime = Instant.now();
+    this.lastAccessedTime = this.creationTime;
+    this.maxInactiveInterval = maxInactiveInterval;
+    this.attributes = new HashMap<>();
+    this.persistedFields = new HashMap<>();
+    this.undecodedAttributes = new HashSet<>();
+    this.attributeDecoder = null;
+
+    metadataDelta.put(CREATION_TIME, creationTime.toEpochMilli());
+    metadataDelta.put(LAST_ACCESSED_TIME, lastAccessedTime.toEpochMilli());
+    metadataDelta.put(MAX_INACTIVE_INTERVAL, (int) maxInactiveInterval.getSeconds());
+  }
+
+  /**
+   * Rebuilds a session loaded from Redis, its attributes are decoded from persistedFields on first read
+   *
+   * @param attributeDecoder turns the raw value of an attribute field into the attribute
+   */
+  StoredSession(SessionIdGenerator idGenerator, String id, Instant creationTime, Instant lastAccessedTime,
+      Duration maxInactiveInterval, Map<String, byte[]> persistedFields, Function<byte[], Object> attributeDecoder) {
+    this.idGenerator = idGenerator;
+    this.id = id;
+    this.persistedId = id;
+    this.isNew = false;
+    this.creationTime = creationTime;
+    this.lastAccessedTime = lastAccessedTime;
+    this.persistedLastAccessedTime = lastAccessedTime;
+    this.maxInactiveInterval = maxInactiveInterval;
+    this.attributes = new HashMap<>();
+    this.persistedFields = persistedFields;
+    this.undecodedAttributes = new HashSet<>();
+    this.attributeDecoder = attributeDecoder;
+    for (String field : persistedFields.keySet()) {
+      if (field.startsWith(ATTRIBUTE_PREFIX)) {
+        undecodedAttributes.add(field.substring(ATTRIBUTE_PREFIX.length()));
+      }
+    }
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public String changeSessionId() {
+    this.id = idGenerator.generate();
+    return id;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T getAttribute(String attributeName) {
+    if (undecodedAttributes.remove(attributeName)) {
+      decode(attributeName);
+    }
+    Object value = attributes.get(attributeName);
+    if (value != null && !isImmutable(value)) {
+      // El llamador puede modificar el objeto sin volver a llamar a setAttribute
+      dirtyAttributes.add(attributeName);
+    }
+    return (T) value;
+  }
+
+  @Override
+  public Set<String> getAttributeNames() {
+    if (undecodedAttributes.isEmpty()) {
+      return Set.copyOf(attributes.keySet());
+    }
+    Set<String> names = new HashSet<>(attributes.keySet());
+    names.addAll(undecodedAttributes);
+    return Set.copyOf(names);
+  }
+
+  @Override
+  public void setAttribute(String attributeName, Object attributeValue) {
+    if (attributeValue == null) {
+      removeAttribute(attributeName);
+      return;
+    }
+    undecodedAttributes.remove(attributeName);
+    attributes.put(attributeName, attributeValue);
+    dirtyAttributes.add(attributeName);
+  }
+
+  @Override
+  public void removeAttribute(String attributeName) {
+    undecodedAttributes.remove(attributeName);
+    attributes.remove(attributeName);
+    dirtyAttributes.add(attributeName);
+  }
+
+  @Override
+  public Instant getCreationTime() {
+    return creationTime;
+  }
+
+  @Override
+  public void setLastAccessedTime(Instant lastAccessedTime) {
+    this.lastAccessedTime = lastAccessedTime;
+    metadataDelta.put(LAST_ACCESSED_TIME, lastAccessedTime.toEpochMilli());
+  }
+
+  @Override
+  public Instant getLastAccessedTime() {
+    return lastAccessedTime;
+  }
+
+  @Override
+  public void setMaxInactiveInterval(Duration interval) {
+    if (interval.equals(maxInactiveInterval)) {
+      return;
+    }
+    this.maxInactiveInterval = interval;
+    metadataDelta.put(MAX_INACTIVE_INTERVAL, (int) interval.getSeconds());
+  }
+
+  @Override
+  public Duration getMaxInactiveInterval() {
+    return maxInactiveInterval;
+  }
+
+  @Override
+  public boolean isExpired() {
+    return isExpired(Instant.now());
+  }
+
+  boolean isExpired(Instant now) {
+    if (maxInactiveInterval.isNegative()) {
+      return false;
+    }
+    return !now.isBefore(lastAccessedTime.plus(maxInactiveInterval));
+  }
+
+  /**
+   * @return the instant at which Redis must drop the session hash
+   */
+  Instant getExpiryTime() {
+    return lastAccessedTime.plus(maxInactiveInterval);
+  }
+
+  /**
+   * @return the last access time stored in Redis, null for a session never saved
+   */
+  Instant getPersistedLastAccessedTime() {
+    return persistedLastAccessedTime;
+  }
+
+  boolean isNew() {
+    return isNew;
+  }
+
+  /**
+   * @return the id under which the session currently lives in Redis
+   */
+  String getPersistedId() {
+    return persistedId;
+  }
+
+  boolean isIdChanged() {
+    return !id.equals(persistedId);
+  }
+
+  /**
+   * @return true if something may have to be written on the next save
+   */
+  boolean hasPendingChanges() {
+    return isNew || isIdChanged() || !metadataDelta.isEmpty() || !dirtyAttributes.isEmpty();
+  }
+
+  /**
+   * @param name attribute name
+   * @return true if the attribute was set, removed or read as a mutable object since the last save
+   */
+  boolean isAttributeDirty(String name) {
+    return dirtyAttributes.contains(name);
+  }
+
+  /**
+   * @return number of attributes set, removed or read as mutable objects since the last save
+   */
+  int getDirtyAttributeCount() {
+    return dirtyAttributes.size();
+  }
+
+  /**
+   * @return number of attributes still held only as raw bytes
+   */
+  int getUndecodedAttributeCount() {
+    return undecodedAttributes.size();
+  }
+
+  /**
+   * Serializes the fields that really differ from the persisted hash
+   *
+   * @param serializer serializer of hash values
+   * @return changed hash fields, a null value means the field must be deleted
+   */
+  Map<String, byte[]> collectChanges(RedisSerializer<Object> serializer) {
+    Map<String, byte[]> changes = new HashMap<>((metadataDelta.size() + dirtyAttributes.size()) * 2);
+    metadataDelta.forEach((field, value) -> changes.put(field, serializer.serialize(value)));
+
+    for (String name : dirtyAttributes) {
+      String field = ATTRIBUTE_PREFIX + name;
+      byte[] persisted = persistedFields.get(field);
+      Object value = attributes.get(name);
+      if (value == null) {
+        if (persisted != null) {
+          changes.put(field, null);
+        }
+        continue;
+      }
+      byte[] serialized = serializer.serialize(value);
+      if (!Arrays.equals(serialized, persisted)) {
+        changes.put(field, serialized);
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * @return true if the last save wrote attributes or the inactivity timeout, not just the access time
+   */
+  boolean isContentChangedOnLastSave() {
+    return contentChangedOnLastSave;
+  }
+
+  /**
+   * @return the raw hash fields as last read from or written to Redis
+   */
+  Map<String, byte[]> getPersistedFields() {
+    return persistedFields;
+  }
+
+  /**
+   * Records a completed save: the written fields become the persisted state
+   *
+   * @param written serialized fields that were written, null values were deleted
+   */
+  void markSaved(Map<String, byte[]> written) {
+    contentChangedOnLastSave = written.keySet().stream().anyMatch(field -> !LAST_ACCESSED_TIME.equals(field));
+    if (written.containsKey(LAST_ACCESSED_TIME)) {
+      persistedLastAccessedTime = lastAccessedTime;
+    }
+    written.forEach((field, value) -> {
+      if (value == null) {
+        persistedFields.remove(field);
+      } else {
+        persistedFields.put(field, value);
+      }
+    });
+    metadataDelta.clear();
+    dirtyAttributes.clear();
+    persistedId = id;
+    isNew = false;
+  }
+
+  private void decode(String name) {
+    Object value = attributeDecoder.apply(persistedFields.get(ATTRIBUTE_PREFIX + name));
+    // Un valor que se decodifica a null cuenta como atributo ausente
+    if (value != null) {
+      attributes.put(name, value);
+    }
+  }
+
+  private static boolean isImmutable(Object value) {
+    // AtomicLong y similares también son Number, por eso se listan los tipos concretos;
+    // SessionPrincipal es un record con roles inmodificables
+    return value instanceof String || value instanceof Long || value instanceof Integer
+        || value instanceof Boolean || value instanceof Double || value instanceof Enum<?>
+        || value instanceof SessionPrincipal;
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.infrastructure.adapter.out.session;
+
+import org.springframework.session.SessionRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository of {@link StoredSession}s that can also rebuild a session from a raw hash
+ * Implemented by the single-node store and by the sharded repository, so decorators such as
+ * the near cache work on either
+ */
+public interface StoredSessionRepository extends SessionRepository<StoredSession> {
+
+  /**
+   * Rebuilds a session from its raw hash without touching Redis
+   *
+   * @param hash the raw session hash
+   * @return the decoded session
+   */
+  StoredSession load(SessionHash hash);
+
+  /**
+   * Finds a session held on this node, without touching Redis
+   *
+   * @param id the session id
+   * @return the session, or null if this node holds no live copy of it
+   */
+  default StoredSession findCached(String id) {
+    return null;
+  }
+
+  /**
+   * Deletes several sessions, in as few round trips as the implementation allows
+   *
+   * @param ids ids of the sessions to delete, missing ones are ignored
+   */
+  default void deleteAll(Collection<String> ids) {
+    ids.forEach(this::deleteById);
+  }
+
+  /**
+   * Walks every stored session with cursor scans, one bounded page at a time
+   * The next page is only fetched once {@code pageConsumer} returns, so a slow consumer slows the
+   * scan down instead of piling sessions up in memory. As with any Redis SCAN, a session may be
+   * reported twice and sessions created during the scan may be missed
+   *
+   * @param pageSize     keys requested per SCAN call, and the most sessions handed over per page
+   * @param fields       hash fields to read for each session
+   * @param pageConsumer receives the partial hashes of each page; sessions deleted between the scan
+   *                     and the read are left out
+   */
+  void scan(int pageSize, Collection<String> fields, Consumer<List<SessionHash>> pageConsumer);
+
+  /**
+   * Writes complete session hashes, replacing what Redis holds under their ids
+   * Used to hand back sessions kept on a node while Redis was unavailable
+   *
+   * @param hashes the hashes to write, in as few round trips as the implementation allows
+   */
+  void restore(List<SessionHash> hashes);
+}
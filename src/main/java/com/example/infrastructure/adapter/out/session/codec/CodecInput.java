@@ -0,0 +1,72 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over an encoded session value, the read side of {@link CodecOutput}
+ */
+public final class CodecInput {
+
+  private final byte[] buffer;
+  private int position;
+
+  public CodecInput(byte[] buffer, int offset) {
+    this.buffer = buffer;
+    this.position = offset;
+  }
+
+  public int readByte() {
+    require(1);
+    return buffer[position++] & 0xFF;
+  }
+
+  public boolean readBoolean() {
+    return readByte() != 0;
+  }
+
+  public long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalStateException("Malformed varint in session value");
+  }
+
+  public long readLong() {
+    long raw = readVarLong();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  public String readString() {
+    long length = readVarLong();
+    if (length == 0) {
+      return null;
+    }
+    int byteCount = (int) (length - 1);
+    require(byteCount);
+    String value = new String(buffer, position, byteCount, StandardCharsets.UTF_8);
+    position += byteCount;
+    return value;
+  }
+
+  public byte[] readRemaining() {
+    byte[] rest = new byte[buffer.length - position];
+    System.arraycopy(buffer, position, rest, 0, rest.length);
+    position = buffer.length;
+    return rest;
+  }
+
+  public boolean hasRemaining() {
+    return position < buffer.length;
+  }
+
+  private void require(int count) {
+    if (count < 0 || position + count > buffer.length) {
+      throw new IllegalStateException("Truncated session value");
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer used by the compact session codec
+ * Integers are written as varints and strings as length-prefixed UTF-8
+ */
+public final class CodecOutput {
+
+  private byte[] buffer;
+  private int size;
+
+  public CodecOutput() {
+    this(64);
+  }
+
+  public CodecOutput(int initialCapacity) {
+    this.buffer = new byte[Math.max(16, initialCapacity)];
+  }
+
+  public void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) value;
+  }
+
+  public void writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  public void writeBoolean(boolean value) {
+    writeByte(value ? 1 : 0);
+  }
+
+  /**
+   * Writes an unsigned variable-length integer (7 bits per byte)
+   */
+  public void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  /**
+   * Writes a signed long using zig-zag encoding so small negatives stay short
+   */
+  public void writeLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Writes a nullable string: length + 1 as varint (0 means null), then UTF-8
+   */
+  public void writeString(String value) {
+    if (value == null) {
+      writeVarLong(0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(bytes.length + 1L);
+    writeBytes(bytes);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + extra));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary serializer for session attributes and session metadata
+ *
+ * Layout of a compact value: {@code [MAGIC][FORMAT_VERSION][typeId][payload]}.
+ * Values whose type has no registered codec are written with JDK serialization, and
+ * anything that does not start with {@link #MAGIC} is decoded by the fallback path:
+ * JDK streams ({@code 0xACED}) or JSON written by the previous Jackson serializer
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+  /** 0xC5 can never start a JSON document nor a JDK serialization stream */
+  public static final int MAGIC = 0xC5;
+  public static final int FORMAT_VERSION = 1;
+  public static final int FIRST_CUSTOM_TYPE_ID = 16;
+
+  private static final int TYPE_STRING = 1;
+  private static final int TYPE_LONG = 2;
+  private static final int TYPE_INTEGER = 3;
+  private static final int TYPE_BOOLEAN = 4;
+
+  private static final int HEADER_LENGTH = 3;
+
+  private final Map<Class<?>, SessionTypeCodec<?>> codecsByType = new HashMap<>();
+  private final SessionTypeCodec<?>[] codecsById = new SessionTypeCodec<?>[256];
+  private final RedisSerializer<Object> jdkSerializer;
+  private final RedisSerializer<Object> jsonFallback;
+
+  /**
+   * @param codecs       codecs for custom attribute types
+   * @param jsonFallback serializer able to read entries written before the compact format existed
+   */
+  public CompactSessionSerializer(List<? extends SessionTypeCodec<?>> codecs, RedisSerializer<Object> jsonFallback) {
+    this.jdkSerializer = new JdkSerializationRedisSerializer();
+    this.jsonFallback = jsonFallback;
+    for (SessionTypeCodec<?> codec : codecs) {
+      register(codec);
+    }
+  }
+
+  private void register(SessionTypeCodec<?> codec) {
+    int id = codec.typeId();
+    if (id < FIRST_CUSTOM_TYPE_ID || id > 255) {
+      throw new IllegalArgumentException("Type id out of range for " + codec.type().getName() + ": " + id);
+    }
+    if (codecsById[id] != null) {
+      throw new IllegalArgumentException("Duplicate session type id " + id + " for "
+          + codec.type().getName() + " and " + codecsById[id].type().getName());
+    }
+    codecsById[id] = codec;
+    codecsByType.put(codec.type(), codec);
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    if (value == null) {
+      return new byte[0];
+    }
+
+    CodecOutput out = new CodecOutput();
+    out.writeByte(MAGIC);
+    out.writeByte(FORMAT_VERSION);
+
+    // Escalares frecuentes: metadata de la sesión y atributos simples
+    if (value instanceof String s) {
+      out.writeByte(TYPE_STRING);
+      out.writeString(s);
+    } else if (value instanceof Long l) {
+      out.writeByte(TYPE_LONG);
+      out.writeLong(l);
+    } else if (value instanceof Integer i) {
+      out.writeByte(TYPE_INTEGER);
+      out.writeLong(i);
+    } else if (value instanceof Boolean b) {
+      out.writeByte(TYPE_BOOLEAN);
+      out.writeBoolean(b);
+    } else if (!writeRegistered(value, out)) {
+      return jdkSerializer.serialize(value);
+    }
+
+    return out.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> boolean writeRegistered(Object value, CodecOutput out) {
+    SessionTypeCodec<T> codec = (SessionTypeCodec<T>) codecsByType.get(value.getClass());
+    if (codec == null || !codec.supports((T) value)) {
+      return false;
+    }
+    out.writeByte(codec.typeId());
+    codec.write((T) value, out);
+    return true;
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+
+    if ((bytes[0] & 0xFF) != MAGIC) {
+      return deserializeLegacy(bytes);
+    }
+
+    if (bytes.length < HEADER_LENGTH) {
+      throw new SerializationException("Truncated compact session value");
+    }
+    int version = bytes[1] & 0xFF;
+    if (version != FORMAT_VERSION) {
+      throw new SerializationException("Unsupported compact session format version " + version);
+    }
+
+    int typeId = bytes[2] & 0xFF;
+    CodecInput in = new CodecInput(bytes, HEADER_LENGTH);
+    try {
+      return switch (typeId) {
+        case TYPE_STRING -> in.readString();
+        case TYPE_LONG -> in.readLong();
+        case TYPE_INTEGER -> (int) in.readLong();
+        case TYPE_BOOLEAN -> in.readBoolean();
+        default -> readRegistered(typeId, in);
+      };
+    } catch (IllegalStateException e) {
+      throw new SerializationException("Cannot decode session value of type id " + typeId, e);
+    }
+  }
+
+  private Object readRegistered(int typeId, CodecInput in) {
+    SessionTypeCodec<?> codec = codecsById[typeId];
+    if (codec == null) {
+      throw new SerializationException("Unknown session type id " + typeId);
+    }
+    return codec.read(in);
+  }
+
+  private Object deserializeLegacy(byte[] bytes) {
+    // Entradas escritas antes del formato compacto: JDK (0xACED) o JSON con tipos
+    if (bytes.length > 1 && (bytes[0] & 0xFF) == 0xAC && (bytes[1] & 0xFF) == 0xED) {
+      return jdkSerializer.deserialize(bytes);
+    }
+    return jsonFallback.deserialize(bytes);
+  }
+
+  /**
+   * Checks whether a stored value uses the compact format
+   *
+   * @param bytes the raw value
+   * @return true if the value starts with the compact header
+   */
+  public static boolean isCompact(byte[] bytes) {
+    return bytes != null && bytes.length >= HEADER_LENGTH && (bytes[0] & 0xFF) == MAGIC;
+  }
+}
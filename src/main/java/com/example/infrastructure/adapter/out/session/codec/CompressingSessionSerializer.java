@@ -0,0 +1,210 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Serializer decorator compressing large session values
+ *
+ * Values whose serialized form reaches {@code threshold} bytes are deflated (fastest level) and
+ * stored as {@code [MAGIC][ALGORITHM_DEFLATE][rawLength varint][deflate data]}; anything else is
+ * stored as the delegate wrote it. The header makes every value self-describing, so compressed
+ * and plain values coexist and the threshold can change at any time. A value that does not
+ * shrink is kept plain
+ */
+public class CompressingSessionSerializer implements RedisSerializer<Object> {
+
+  /** 0xC6 can never start a compact value, a JSON document nor a JDK serialization stream */
+  public static final int MAGIC = 0xC6;
+  public static final int ALGORITHM_DEFLATE = 1;
+
+  private static final int POOL_SIZE = 16;
+
+  private final RedisSerializer<Object> delegate;
+  private final int threshold;
+  private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+  private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+  private final DistributionSummary rawSize;
+  private final DistributionSummary storedSize;
+  private final Timer compressionTime;
+  private final Timer decompressionTime;
+  private final Counter incompressible;
+
+  /**
+   * @param delegate  serializer producing the plain form
+   * @param threshold size in bytes from which values are compressed
+   */
+  public CompressingSessionSerializer(RedisSerializer<Object> delegate, int threshold, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.threshold = threshold;
+
+    this.rawSize = DistributionSummary.builder("session.codec.value.size").tag("form", "raw").baseUnit("bytes")
+        .description("Serialized size of session values before compression")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.storedSize = DistributionSummary.builder("session.codec.value.size").tag("form", "stored")
+        .baseUnit("bytes").description("Size of session values as written to Redis")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.compressionTime = Timer.builder("session.codec.compression.time").tag("operation", "compress")
+        .description("Time to deflate a session value above the threshold")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.decompressionTime = Timer.builder("session.codec.compression.time").tag("operation", "decompress")
+        .description("Time to inflate a compressed session value")
+        .publishPercentileHistogram().register(meterRegistry);
+    this.incompressible = Counter.builder("session.codec.incompressible")
+        .description("Values above the threshold kept plain because deflate did not shrink them")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    byte[] raw = delegate.serialize(value);
+    if (raw == null || raw.length == 0) {
+      return raw;
+    }
+    rawSize.record(raw.length);
+    if (raw.length < threshold) {
+      storedSize.record(raw.length);
+      return raw;
+    }
+
+    long start = System.nanoTime();
+    byte[] compressed = compress(raw);
+    compressionTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    if (compressed.length >= raw.length) {
+      incompressible.increment();
+      storedSize.record(raw.length);
+      return raw;
+    }
+    storedSize.record(compressed.length);
+    return compressed;
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (!isCompressed(bytes)) {
+      return delegate.deserialize(bytes);
+    }
+    long start = System.nanoTime();
+    byte[] raw = decompress(bytes);
+    decompressionTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return delegate.deserialize(raw);
+  }
+
+  /**
+   * Checks whether a stored value was written compressed
+   *
+   * @param bytes the raw value
+   * @return true if the value starts with the compression header
+   */
+  public static boolean isCompressed(byte[] bytes) {
+    return bytes != null && bytes.length > 2 && (bytes[0] & 0xFF) == MAGIC;
+  }
+
+  private byte[] compress(byte[] raw) {
+    Deflater deflater = deflaters.poll();
+    if (deflater == null) {
+      deflater = new Deflater(Deflater.BEST_SPEED);
+    }
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+      out.write(MAGIC);
+      out.write(ALGORITHM_DEFLATE);
+      writeVarInt(out, raw.length);
+
+      deflater.setInput(raw);
+      deflater.finish();
+      byte[] buffer = new byte[Math.min(raw.length, 8192)];
+      while (!deflater.finished()) {
+        int written = deflater.deflate(buffer);
+        out.write(buffer, 0, written);
+        // Sin ganancia: no vale la pena terminar de comprimir
+        if (out.size() >= raw.length) {
+          break;
+        }
+      }
+      return out.toByteArray();
+    } finally {
+      release(deflater);
+    }
+  }
+
+  private byte[] decompress(byte[] bytes) {
+    int algorithm = bytes[1] & 0xFF;
+    if (algorithm != ALGORITHM_DEFLATE) {
+      throw new SerializationException("Unsupported session compression algorithm " + algorithm);
+    }
+
+    int position = 2;
+    int rawLength = 0;
+    for (int shift = 0; ; shift += 7) {
+      if (position >= bytes.length || shift > 28) {
+        throw new SerializationException("Truncated compressed session value");
+      }
+      int b = bytes[position++] & 0xFF;
+      rawLength |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+    }
+
+    Inflater inflater = inflaters.poll();
+    if (inflater == null) {
+      inflater = new Inflater();
+    }
+    try {
+      inflater.setInput(bytes, position, bytes.length - position);
+      byte[] raw = new byte[rawLength];
+      int read = 0;
+      while (read < rawLength && !inflater.finished()) {
+        int inflated = inflater.inflate(raw, read, rawLength - read);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += inflated;
+      }
+      if (read != rawLength) {
+        throw new SerializationException("Compressed session value is shorter than its header says");
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw new SerializationException("Corrupt compressed session value", e);
+    } finally {
+      inflater.reset();
+      if (inflaters.size() < POOL_SIZE) {
+        inflaters.offer(inflater);
+      } else {
+        inflater.end();
+      }
+    }
+  }
+
+  private void release(Deflater deflater) {
+    deflater.reset();
+    if (deflaters.size() < POOL_SIZE) {
+      deflaters.offer(deflater);
+    } else {
+      deflater.end();
+    }
+  }
+
+  private static void writeVarInt(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+}
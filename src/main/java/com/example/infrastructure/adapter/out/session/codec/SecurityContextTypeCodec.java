@@ -0,0 +1,94 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact codec for the Spring Security context stored in the session
+ * Only the shape produced by the login endpoint is handled: a username principal,
+ * no credentials, no details and simple role authorities. Any other context falls back
+ * to the legacy serializer so no information is lost
+ */
+public class SecurityContextTypeCodec implements SessionTypeCodec<SecurityContextImpl> {
+
+  public static final int TYPE_ID = 17;
+
+  private static final int HAS_AUTHENTICATION = 1;
+  private static final int AUTHENTICATED = 1 << 1;
+
+  @Override
+  public int typeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public Class<SecurityContextImpl> type() {
+    return SecurityContextImpl.class;
+  }
+
+  @Override
+  public boolean supports(SecurityContextImpl context) {
+    Authentication authentication = context.getAuthentication();
+    if (authentication == null) {
+      return true;
+    }
+    if (authentication.getClass() != UsernamePasswordAuthenticationToken.class
+        || !(authentication.getPrincipal() instanceof String)
+        || authentication.getCredentials() != null
+        || authentication.getDetails() != null
+        || (!authentication.isAuthenticated() && !authentication.getAuthorities().isEmpty())) {
+      return false;
+    }
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      if (authority.getClass() != SimpleGrantedAuthority.class) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void write(SecurityContextImpl context, CodecOutput out) {
+    Authentication authentication = context.getAuthentication();
+    if (authentication == null) {
+      out.writeByte(0);
+      return;
+    }
+
+    out.writeByte(HAS_AUTHENTICATION | (authentication.isAuthenticated() ? AUTHENTICATED : 0));
+    out.writeString((String) authentication.getPrincipal());
+
+    Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+    out.writeVarLong(authorities.size());
+    for (GrantedAuthority authority : authorities) {
+      out.writeString(authority.getAuthority());
+    }
+  }
+
+  @Override
+  public SecurityContextImpl read(CodecInput in) {
+    int flags = in.readByte();
+    if ((flags & HAS_AUTHENTICATION) == 0) {
+      return new SecurityContextImpl();
+    }
+
+    String principal = in.readString();
+    int count = (int) in.readVarLong();
+    List<GrantedAuthority> authorities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      authorities.add(new SimpleGrantedAuthority(in.readString()));
+    }
+
+    Authentication authentication = (flags & AUTHENTICATED) != 0
+        ? UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities)
+        : UsernamePasswordAuthenticationToken.unauthenticated(principal, null);
+    return new SecurityContextImpl(authentication);
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import com.example.application.dto.SessionPrincipal;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact codec for the {@link SessionPrincipal} stored under the current user session key
+ * Same layout as {@link UserTypeCodec} without the password
+ */
+public class SessionPrincipalTypeCodec implements SessionTypeCodec<SessionPrincipal> {
+
+  public static final int TYPE_ID = 18;
+
+  private static final int HAS_ID = 1;
+  private static final int ENABLED = 1 << 1;
+
+  @Override
+  public int typeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public Class<SessionPrincipal> type() {
+    return SessionPrincipal.class;
+  }
+
+  @Override
+  public void write(SessionPrincipal principal, CodecOutput out) {
+    out.writeByte((principal.id() != null ? HAS_ID : 0) | (principal.enabled() ? ENABLED : 0));
+    if (principal.id() != null) {
+      out.writeLong(principal.id());
+    }
+    out.writeString(principal.username());
+    out.writeString(principal.email());
+    out.writeVarLong(principal.roles().size());
+    // El record guarda los roles ordenados, así los bytes no cambian entre nodos
+    for (String role : principal.roles()) {
+      out.writeString(role);
+    }
+  }
+
+  @Override
+  public SessionPrincipal read(CodecInput in) {
+    int flags = in.readByte();
+    Long id = (flags & HAS_ID) != 0 ? in.readLong() : null;
+    String username = in.readString();
+    String email = in.readString();
+    int roleCount = (int) in.readVarLong();
+    Set<String> roles = new HashSet<>(Math.max(4, roleCount * 2));
+    for (int i = 0; i < roleCount; i++) {
+      roles.add(in.readString());
+    }
+    return new SessionPrincipal(id, username, email, roles, (flags & ENABLED) != 0);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+/**
+ * Schema-aware codec for one session attribute type
+ * Implementations are registered in {@link CompactSessionSerializer} under a stable type id,
+ * so the stored payload never carries class or field names
+ *
+ * @param <T> the attribute type handled by this codec
+ */
+public interface SessionTypeCodec<T> {
+
+  /**
+   * Stable identifier written in front of every value, must be unique and never reused
+   * Ids below {@link CompactSessionSerializer#FIRST_CUSTOM_TYPE_ID} are reserved for built-in scalars
+   *
+   * @return the type id
+   */
+  int typeId();
+
+  /**
+   * @return the attribute type handled by this codec
+   */
+  Class<T> type();
+
+  /**
+   * Checks whether this codec can encode the given value without losing information
+   * Values it rejects fall back to the legacy serializer
+   *
+   * @param value a non-null value of {@link #type()}
+   * @return true if the value can be encoded
+   */
+  default boolean supports(T value) {
+    return true;
+  }
+
+  void write(T value, CodecOutput out);
+
+  T read(CodecInput in);
+}
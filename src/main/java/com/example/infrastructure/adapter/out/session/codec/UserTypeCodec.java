@@ -0,0 +1,66 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import com.example.domain.model.User;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact codec for the {@link User} stored under the current user session key
+ */
+public class UserTypeCodec implements SessionTypeCodec<User> {
+
+  public static final int TYPE_ID = 16;
+
+  private static final int HAS_ID = 1;
+  private static final int ENABLED = 1 << 1;
+
+  @Override
+  public int typeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public Class<User> type() {
+    return User.class;
+  }
+
+  @Override
+  public void write(User user, CodecOutput out) {
+    int flags = (user.getId() != null ? HAS_ID : 0) | (user.isEnabled() ? ENABLED : 0);
+    out.writeByte(flags);
+    if (user.getId() != null) {
+      out.writeLong(user.getId());
+    }
+    out.writeString(user.getUsername());
+    out.writeString(user.getPassword());
+    out.writeString(user.getEmail());
+
+    Set<String> roles = user.getRoles() != null ? user.getRoles() : Set.of();
+    out.writeVarLong(roles.size());
+    for (String role : roles) {
+      out.writeString(role);
+    }
+  }
+
+  @Override
+  public User read(CodecInput in) {
+    int flags = in.readByte();
+    User user = new User();
+    if ((flags & HAS_ID) != 0) {
+      user.setId(in.readLong());
+    }
+    user.setUsername(in.readString());
+    user.setPassword(in.readString());
+    user.setEmail(in.readString());
+    user.setEnabled((flags & ENABLED) != 0);
+
+    int roleCount = (int) in.readVarLong();
+    Set<String> roles = new HashSet<>(Math.max(4, roleCount * 2));
+    for (int i = 0; i < roleCount; i++) {
+      roles.add(in.readString());
+    }
+    user.setRoles(roles);
+    return user;
+  }
+}
@@ -0,0 +1,191 @@
+package com.example.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the login password checks, bound from {@code app.auth.*}
+ */
+@ConfigurationProperties(prefix = "app.auth")
+public class AuthenticationProperties {
+
+  private final Hashing hashing = new Hashing();
+
+  private final CredentialCache credentialCache = new CredentialCache();
+
+  public Hashing getHashing() {
+    return hashing;
+  }
+
+  public CredentialCache getCredentialCache() {
+    return credentialCache;
+  }
+
+  /**
+   * Password hashing: algorithm, BCrypt cost and the dedicated pool verifying off the request threads
+   */
+  public static class Hashing {
+
+    /**
+     * Verifications running at once, 0 for one per available core
+     */
+    private int threads = 0;
+
+    /**
+     * Verifications waiting for a thread at most, beyond that a login is refused with 503
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Longest a login may wait for a thread before it is refused with 503
+     */
+    private Duration maxQueueWait = Duration.ofMillis(500);
+
+    /**
+     * Algorithm of new hashes, {@code bcrypt} or {@code pbkdf2}; stored hashes of the other one still
+     * match and are rehashed on the next login
+     */
+    private String algorithm = "bcrypt";
+
+    /**
+     * Measure at startup the highest BCrypt cost whose verification fits {@code targetVerificationTime}
+     */
+    private boolean calibrate = true;
+
+    private Duration targetVerificationTime = Duration.ofMillis(100);
+
+    /**
+     * Bounds of the calibrated cost, each point doubles the verification time
+     */
+    private int minCost = 10;
+
+    private int maxCost = 16;
+
+    /**
+     * BCrypt cost used when calibration is disabled
+     */
+    private int cost = 10;
+
+    public int getThreads() {
+      return threads;
+    }
+
+    public void setThreads(int threads) {
+      this.threads = threads;
+    }
+
+    /**
+     * @return the configured threads, or the available cores when none are configured
+     */
+    public int resolveThreads() {
+      return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getMaxQueueWait() {
+      return maxQueueWait;
+    }
+
+    public void setMaxQueueWait(Duration maxQueueWait) {
+      this.maxQueueWait = maxQueueWait;
+    }
+
+    public String getAlgorithm() {
+      return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+      this.algorithm = algorithm;
+    }
+
+    public boolean isCalibrate() {
+      return calibrate;
+    }
+
+    public void setCalibrate(boolean calibrate) {
+      this.calibrate = calibrate;
+    }
+
+    public Duration getTargetVerificationTime() {
+      return targetVerificationTime;
+    }
+
+    public void setTargetVerificationTime(Duration targetVerificationTime) {
+      this.targetVerificationTime = targetVerificationTime;
+    }
+
+    public int getMinCost() {
+      return minCost;
+    }
+
+    public void setMinCost(int minCost) {
+      this.minCost = minCost;
+    }
+
+    public int getMaxCost() {
+      return maxCost;
+    }
+
+    public void setMaxCost(int maxCost) {
+      this.maxCost = maxCost;
+    }
+
+    public int getCost() {
+      return cost;
+    }
+
+    public void setCost(int cost) {
+      this.cost = cost;
+    }
+  }
+
+  /**
+   * Per-node cache of recently verified credentials, a hit skips the password hash
+   */
+  public static class CredentialCache {
+
+    private boolean enabled = false;
+
+    /**
+     * How long a successful verification is trusted for the same username and password
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Users remembered at most, the least recently used are evicted
+     */
+    private int maxEntries = 10_000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+      return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+    }
+  }
+}
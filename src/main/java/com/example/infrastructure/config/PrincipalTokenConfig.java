@@ -0,0 +1,95 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.in.web.PrincipalTokenCodec;
+import com.example.infrastructure.adapter.in.web.PrincipalTokenFilter;
+import com.example.infrastructure.adapter.in.web.PrincipalTokenSecurityContextRepository;
+import com.example.infrastructure.adapter.in.web.PrincipalTokens;
+import com.example.infrastructure.adapter.in.web.SessionPrincipalSecurityContextRepository;
+import com.example.infrastructure.adapter.out.session.PrincipalTokenRevocations;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.util.StringUtils;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Signed principal cookie authorizing read-only endpoints without loading the session
+ * Enabled with {@code app.session.principal-token.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.session.principal-token", name = "enabled", havingValue = "true")
+public class PrincipalTokenConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(PrincipalTokenConfig.class);
+
+  @Bean
+  public PrincipalTokens principalTokens(SessionStoreProperties properties) {
+    SessionStoreProperties.PrincipalToken principalToken = properties.getPrincipalToken();
+    return new PrincipalTokens(new PrincipalTokenCodec(key(principalToken.getSecret())),
+        principalToken.getCookieName(), principalToken.getTtl(), Clock.systemUTC());
+  }
+
+  @Bean
+  public PrincipalTokenRevocations principalTokenRevocations(StringRedisTemplate stringRedisTemplate,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    PrincipalTokenRevocations revocations = new PrincipalTokenRevocations(stringRedisTemplate,
+        properties.getNamespace(), properties.getPrincipalToken().getTtl(), meterRegistry);
+    revocations.load();
+    return revocations;
+  }
+
+  @Bean
+  public RedisMessageListenerContainer principalTokenRevocationListenerContainer(
+      RedisConnectionFactory connectionFactory, PrincipalTokenRevocations principalTokenRevocations) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(principalTokenRevocations, new ChannelTopic(principalTokenRevocations.getChannel()));
+    return container;
+  }
+
+  /**
+   * Placed after the session creation guard, so a request it lets through without a session is
+   * still covered by the guard on the normal path
+   */
+  @Bean
+  public FilterRegistrationBean<PrincipalTokenFilter> principalTokenFilter(PrincipalTokens principalTokens,
+      CookieSerializer cookieSerializer, PrincipalTokenRevocations principalTokenRevocations,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    FilterRegistrationBean<PrincipalTokenFilter> registration = new FilterRegistrationBean<>(
+        new PrincipalTokenFilter(principalTokens, cookieSerializer, principalTokenRevocations::isRevoked,
+            properties.getPrincipalToken().getPaths(), meterRegistry));
+    registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER + 2);
+    return registration;
+  }
+
+  @Bean
+  public PrincipalTokenSecurityContextRepository principalTokenSecurityContextRepository(
+      PrincipalTokens principalTokens, SessionPrincipalSecurityContextRepository securityContextRepository) {
+    return new PrincipalTokenSecurityContextRepository(securityContextRepository, principalTokens);
+  }
+
+  private static byte[] key(String secret) {
+    if (StringUtils.hasText(secret)) {
+      return Base64.getDecoder().decode(secret.trim());
+    }
+    // Sin secreto compartido cada nodo solo acepta sus propios tokens; el resto recarga la sesión
+    logger.warn("app.session.principal-token.secret is not set: using a random key, tokens are only valid "
+        + "on the node that issued them");
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return key;
+  }
+}
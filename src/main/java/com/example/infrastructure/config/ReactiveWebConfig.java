@@ -0,0 +1,169 @@
+package com.example.infrastructure.config;
+
+import com.example.application.service.ReactiveSessionService;
+import com.example.infrastructure.adapter.in.web.SessionCookieAuthorizationManager;
+import com.example.infrastructure.adapter.out.session.ConcurrentSessionControlRepository;
+import com.example.infrastructure.adapter.out.session.ReactiveRedisSessionStore;
+import com.example.infrastructure.adapter.out.session.RedisSessionRegistry;
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import com.example.infrastructure.adapter.out.session.StoredSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.session.web.http.CookieHttpSessionIdResolver;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.HttpSessionIdResolver;
+import org.springframework.web.cors.CorsConfigurationSource;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reactive runtime mode, enabled with {@code app.web.mode=reactive}
+ * The session, login and currency endpoints are served by controllers returning {@code Mono}: the
+ * servlet thread is released while the session is read or written through the reactive Redis store
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.web", name = "mode", havingValue = "reactive")
+public class ReactiveWebConfig {
+
+  private static final String[] REACTIVE_PATHS = {"/api/session/**", "/api/auth/**", "/api/currency/**"};
+
+  @Bean
+  public ReactiveRedisTemplate<String, byte[]> sessionReactiveRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory) {
+    RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+        .<String, byte[]>newSerializationContext(RedisSerializer.string())
+        .value(RedisSerializer.byteArray())
+        .hashKey(RedisSerializer.string())
+        .hashValue(RedisSerializer.byteArray())
+        .build();
+    return new ReactiveRedisTemplate<>(connectionFactory, context);
+  }
+
+  /**
+   * Reactive store on the default Redis connection, with the per-user session limit of
+   * {@code app.session.registry} when enabled; the sessions it expires are deleted through the
+   * servlet repository, so other nodes drop them from their near cache too
+   */
+  @Bean
+  public ReactiveRedisSessionStore reactiveRedisSessionStore(
+      ReactiveRedisTemplate<String, byte[]> sessionReactiveRedisTemplate, RedisSessionStore redisSessionStore,
+      StoredSessionRepository sessionRepository, ObjectProvider<RedisSessionRegistry> sessionRegistry,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    if (properties.getSharding().isEnabled()) {
+      throw new IllegalStateException("app.web.mode=reactive does not support app.session.sharding");
+    }
+    ReactiveRedisSessionStore store = new ReactiveRedisSessionStore(sessionReactiveRedisTemplate, redisSessionStore);
+    RedisSessionRegistry registry = sessionRegistry.getIfAvailable();
+    if (registry != null) {
+      store.setSessionControl(new ConcurrentSessionControlRepository(sessionRepository, registry, meterRegistry));
+    }
+    return store;
+  }
+
+  @Bean
+  public ReactiveSessionService reactiveSessionService(ReactiveRedisSessionStore reactiveRedisSessionStore) {
+    return new ReactiveSessionService(reactiveRedisSessionStore);
+  }
+
+  /**
+   * Scheduler for the blocking password check of the reactive login
+   */
+  @Bean
+  @ConditionalOnThreading(Threading.PLATFORM)
+  public Scheduler authenticationScheduler() {
+    return Schedulers.boundedElastic();
+  }
+
+  /**
+   * Scheduler for the password check when {@code spring.threads.virtual.enabled=true}: one virtual
+   * thread per login waits for the bounded hashing pool instead of a bounded elastic thread
+   */
+  @Bean(name = "authenticationScheduler")
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public Scheduler virtualThreadAuthenticationScheduler() {
+    return Schedulers.fromExecutor(new VirtualThreadTaskExecutor("auth-"));
+  }
+
+  /**
+   * Chain for the reactive endpoints: they check the session themselves, so the chain must not
+   * load the {@code HttpSession} on the servlet thread. Only login and health are public, any other
+   * request needs a principal token or a session cookie and is answered 401 without one
+   */
+  @Bean
+  @Order(1)
+  public SecurityFilterChain reactiveEndpointsFilterChain(HttpSecurity http,
+      CorsConfigurationSource corsConfigurationSource, CookieSerializer cookieSerializer) throws Exception {
+    http
+        .securityMatcher(REACTIVE_PATHS)
+        .cors(cors -> cors.configurationSource(corsConfigurationSource))
+        .csrf(csrf -> csrf.disable())
+        // Sin gestión de sesiones: su chequeo de sesión inválida cargaría la sesión de forma bloqueante
+        .sessionManagement(AbstractHttpConfigurer::disable)
+        .requestCache(AbstractHttpConfigurer::disable)
+        .securityContext(securityContext -> securityContext
+            .securityContextRepository(new RequestAttributeSecurityContextRepository()))
+        .exceptionHandling(exceptions -> exceptions
+            .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+        .authorizeHttpRequests(auth -> auth
+            .requestMatchers("/api/auth/login", "/api/auth/health").permitAll()
+            // La sesión la comprueba una sola vez el controlador, con el store reactivo
+            .anyRequest().access(new SessionCookieAuthorizationManager(cookieSerializer)));
+
+    return http.build();
+  }
+
+  /**
+   * Session id resolver of the servlet session filter: on the reactive endpoints it resolves no id,
+   * so the filter never loads the {@code HttpSession} with a blocking call when the response is committed
+   */
+  @Bean
+  public HttpSessionIdResolver httpSessionIdResolver(CookieSerializer cookieSerializer) {
+    CookieHttpSessionIdResolver delegate = new CookieHttpSessionIdResolver();
+    delegate.setCookieSerializer(cookieSerializer);
+    RequestMatcher reactivePaths = new OrRequestMatcher(
+        Arrays.stream(REACTIVE_PATHS).<RequestMatcher>map(AntPathRequestMatcher::new).toList());
+
+    return new HttpSessionIdResolver() {
+      @Override
+      public List<String> resolveSessionIds(HttpServletRequest request) {
+        // Los endpoints reactivos leen la cookie ellos mismos
+        return reactivePaths.matches(request) ? List.of() : delegate.resolveSessionIds(request);
+      }
+
+      @Override
+      public void setSessionId(HttpServletRequest request, HttpServletResponse response, String sessionId) {
+        delegate.setSessionId(request, response, sessionId);
+      }
+
+      @Override
+      public void expireSession(HttpServletRequest request, HttpServletResponse response) {
+        delegate.expireSession(request, response);
+      }
+    };
+  }
+}
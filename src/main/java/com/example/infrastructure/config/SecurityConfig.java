@@ -1,35 +1,64 @@
 package com.example.infrastructure.config;
 
+import com.example.application.port.out.VerifiedCredentialCache;
+import com.example.application.service.SessionService;
+import com.example.infrastructure.adapter.in.web.PrincipalTokenSecurityContextRepository;
+import com.example.infrastructure.adapter.in.web.SessionPrincipalSecurityContextRepository;
+import com.example.infrastructure.adapter.out.security.BCryptCostCalibrator;
+import com.example.infrastructure.adapter.out.security.BoundedPasswordEncoder;
+import com.example.infrastructure.adapter.out.security.CalibratedBCryptPasswordEncoder;
+import com.example.infrastructure.adapter.out.security.HmacVerifiedCredentialCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.security.web.context.SecurityContextRepository;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Map;
+
 /**
  * Spring Security configuration
  * This class configures security settings for the application
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(AuthenticationProperties.class)
 public class SecurityConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
   private final CorsConfigurationSource corsConfigurationSource;
+  private final ObjectProvider<PrincipalTokenSecurityContextRepository> principalTokenRepository;
 
-  public SecurityConfig(CorsConfigurationSource corsConfigurationSource) {
+  public SecurityConfig(CorsConfigurationSource corsConfigurationSource,
+      ObjectProvider<PrincipalTokenSecurityContextRepository> principalTokenRepository) {
     this.corsConfigurationSource = corsConfigurationSource;
+    this.principalTokenRepository = principalTokenRepository;
   }
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http,
+      SessionPrincipalSecurityContextRepository sessionPrincipalRepository) throws Exception {
+    SecurityContextRepository principalTokens = principalTokenRepository.getIfAvailable();
+    SecurityContextRepository securityContextRepository = principalTokens != null
+        ? principalTokens : sessionPrincipalRepository;
     http
         // Habilitar CORS
         .cors(cors -> cors.configurationSource(corsConfigurationSource))
@@ -38,15 +67,20 @@ public class SecurityConfig {
         .csrf(csrf -> csrf.disable())
 
         // Configurar gestión de sesiones
+        // Una sola sesión activa por usuario en todo el cluster: lo aplica RedisSessionRegistry
+        // (app.session.registry.maximum-sessions) al guardar la sesión del login
         .sessionManagement(session -> session
-            .sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.IF_REQUIRED)
-            .maximumSessions(1) // Solo una sesión activa por usuario
-            .expiredUrl("/api/auth/login"))
+            .sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.IF_REQUIRED))
+
+        // API REST: no se guarda la petición rechazada, así un 401 anónimo no crea una sesión
+        .requestCache(requestCache -> requestCache.requestCache(new NullRequestCache()))
 
         // Configurar autorización de requests
         .authorizeHttpRequests(auth -> auth
             // Endpoints públicos
             .requestMatchers("/api/auth/**", "/api/health", "/actuator/**").permitAll()
+            // Administración de sesiones (solo administradores)
+            .requestMatchers("/api/admin/**").hasRole("ADMIN")
             // Endpoints de conversión de moneda (requieren autenticación)
             .requestMatchers("/api/currency/**").authenticated()
             // Endpoint de sesión (requiere autenticación)
@@ -54,20 +88,75 @@ public class SecurityConfig {
             // Cualquier otro request requiere autenticación
             .anyRequest().authenticated())
 
-        // Configurar el repositorio de contexto de seguridad para usar sesiones
-        .securityContext(securityContext -> securityContext.requireExplicitSave(false));
+        // El contexto de seguridad se reconstruye del principal guardado en la sesión
+        // (con app.session.principal-token.enabled, las rutas rápidas lo toman de la cookie firmada)
+        .securityContext(securityContext -> securityContext
+            .requireExplicitSave(false)
+            .securityContextRepository(securityContextRepository));
 
     return http.build();
   }
 
+  /**
+   * Passwords hashed with {@code app.auth.hashing.algorithm} and checked on a pool of
+   * {@code app.auth.hashing.threads}: a login burst cannot take every request thread, and a login
+   * that would wait too long for the pool is refused with 503
+   * The BCrypt cost is calibrated at startup to {@code target-verification-time} unless disabled.
+   * Hashes of the other algorithm, of another cost or without an {@code {id}} prefix still match
+   * and are re-encoded on the next successful login
+   */
+  @Bean
+  public PasswordEncoder passwordEncoder(AuthenticationProperties properties, MeterRegistry meterRegistry) {
+    AuthenticationProperties.Hashing hashing = properties.getHashing();
+    int cost = hashing.getCost();
+    if (hashing.isCalibrate()) {
+      BCryptCostCalibrator.Calibration calibration = new BCryptCostCalibrator(hashing.getMinCost(),
+          hashing.getMaxCost()).calibrate(hashing.getTargetVerificationTime());
+      cost = calibration.cost();
+      logger.info("BCrypt cost {} calibrated: {} ms per verification, {} logins/s per core, {} with {} threads",
+          cost, calibration.verificationTime().toMillis(),
+          Math.round(calibration.verificationsPerSecondPerCore()),
+          Math.round(calibration.verificationsPerSecondPerCore() * hashing.resolveThreads()),
+          hashing.resolveThreads());
+    }
+
+    CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(cost);
+    Map<String, PasswordEncoder> encoders = Map.of(
+        "bcrypt", bcrypt,
+        "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+    if (!encoders.containsKey(hashing.getAlgorithm())) {
+      throw new IllegalStateException("Unsupported app.auth.hashing.algorithm: " + hashing.getAlgorithm());
+    }
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(hashing.getAlgorithm(), encoders);
+    // Los hashes antiguos sin prefijo {id} son BCrypt
+    delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+    Gauge.builder("auth.password.bcrypt.cost", bcrypt, CalibratedBCryptPasswordEncoder::getCost)
+        .description("BCrypt log rounds of new hashes").register(meterRegistry);
+    return new BoundedPasswordEncoder(delegating, hashing.resolveThreads(), hashing.getQueueCapacity(),
+        hashing.getMaxQueueWait(), meterRegistry);
+  }
+
+  /**
+   * Verified credentials kept for {@code app.auth.credential-cache.ttl} when the cache is enabled,
+   * under an HMAC with a key drawn at startup: the cache is per node, so the key need not be shared
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public VerifiedCredentialCache verifiedCredentialCache(AuthenticationProperties properties,
+      MeterRegistry meterRegistry) {
+    AuthenticationProperties.CredentialCache credentialCache = properties.getCredentialCache();
+    if (!credentialCache.isEnabled()) {
+      return VerifiedCredentialCache.NONE;
+    }
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return new HmacVerifiedCredentialCache(key, credentialCache.getMaxEntries(), credentialCache.getTtl(),
+        Clock.systemUTC(), meterRegistry);
   }
 
   @Bean
-  public SecurityContextRepository securityContextRepository() {
-    return new HttpSessionSecurityContextRepository();
+  public SessionPrincipalSecurityContextRepository securityContextRepository(SessionService sessionService) {
+    return new SessionPrincipalSecurityContextRepository(sessionService);
   }
 
   @Bean
@@ -1,29 +1,186 @@
 package com.example.infrastructure.config;
 
+import com.example.infrastructure.adapter.in.web.SessionCreationGuardFilter;
+import com.example.infrastructure.adapter.out.session.ConcurrentSessionControlRepository;
+import com.example.infrastructure.adapter.out.session.LocalSessionStore;
+import com.example.infrastructure.adapter.out.session.NearCacheSessionRepository;
+import com.example.infrastructure.adapter.out.session.PrincipalTokenRevocations;
+import com.example.infrastructure.adapter.out.session.PrincipalTokenRevokingRepository;
+import com.example.infrastructure.adapter.out.session.RedisSessionAdminRepository;
+import com.example.infrastructure.adapter.out.session.RedisSessionRegistry;
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import com.example.infrastructure.adapter.out.session.ResilientSessionRepository;
+import com.example.infrastructure.adapter.out.session.SessionCircuitBreaker;
+import com.example.infrastructure.adapter.out.session.SessionExpiryIndex;
+import com.example.infrastructure.adapter.out.session.SessionInvalidationChannel;
+import com.example.infrastructure.adapter.out.session.SessionNearCache;
+import com.example.infrastructure.adapter.out.session.SessionTouchPolicy;
+import com.example.infrastructure.adapter.out.session.ShardedSessionRepository;
+import com.example.infrastructure.adapter.out.session.StoredSessionRepository;
+import com.example.infrastructure.adapter.out.session.codec.CompactSessionSerializer;
+import com.example.infrastructure.adapter.out.session.codec.CompressingSessionSerializer;
+import com.example.infrastructure.adapter.out.session.codec.SecurityContextTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.SessionPrincipalTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.SessionTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.UserTypeCodec;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
-import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
 import org.springframework.session.web.http.CookieSerializer;
 import org.springframework.session.web.http.DefaultCookieSerializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+import java.time.Clock;
+import java.util.List;
 
 /**
  * Spring Session configuration with Redis
  * This class configures session management using Redis as the session store
  */
 @Configuration
-@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 1800, // 30 minutes
-    redisNamespace = "spring:session")
+@EnableSpringHttpSession
+@EnableConfigurationProperties(SessionStoreProperties.class)
 public class SessionConfig {
 
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+  public RedisSessionStore redisSessionStore(StringRedisTemplate stringRedisTemplate,
+      RedisSerializer<Object> springSessionDefaultRedisSerializer, SessionStoreProperties properties,
+      MeterRegistry meterRegistry, RedisProperties redisProperties, ObjectProvider<SessionExpiryIndex> expiryIndex) {
+    return createStore("default", stringRedisTemplate, springSessionDefaultRedisSerializer, properties,
+        meterRegistry, redisProperties, expiryIndex.getIfAvailable());
+  }
+
+  /**
+   * Builds a session store on one Redis connection with the {@code app.session.*} settings
+   *
+   * @param name name of the store in its meters
+   */
+  static RedisSessionStore createStore(String name, StringRedisTemplate redisTemplate, RedisSerializer<Object> serializer,
+      SessionStoreProperties properties, MeterRegistry meterRegistry, RedisProperties redisProperties,
+      SessionExpiryIndex expiryIndex) {
+    RedisSessionStore store = new RedisSessionStore(redisTemplate, serializer, properties.getNamespace(),
+        properties.getMaxInactiveInterval(), meterRegistry);
+    store.setTouchPolicy(new SessionTouchPolicy(properties.getTouch().getMinInterval(),
+        properties.getTouch().getMinFraction()));
+    if (properties.getResilience().isEnabled()) {
+      // Con modo degradado una sesión no espera el timeout completo de la conexión
+      store.setCommandTimeout(properties.getResilience().getCommandTimeout());
+    } else if (redisProperties.getTimeout() != null) {
+      store.setCommandTimeout(redisProperties.getTimeout());
+    }
+    store.setExpiryIndex(expiryIndex);
+    SessionStoreProperties.WriteBehind writeBehind = properties.getWriteBehind();
+    if (writeBehind.isEnabled()) {
+      store.enableWriteBehind(name, writeBehind.getCapacity(), writeBehind.getBatchSize(),
+          writeBehind.getOfferTimeout());
+    }
+    return store;
+  }
+
+  /**
+   * Repository used by the session filter: the Redis store, or the sharded repository when
+   * {@code app.session.sharding.enabled=true}, revoking principal tokens on deletes when they are
+   * enabled, optionally behind the near cache, with the per-user session limit on top. The degraded
+   * mode wraps all of them, so no Redis call of any layer is made while its breaker is open
+   */
+  @Bean
+  @Primary
+  public StoredSessionRepository sessionRepository(RedisSessionStore redisSessionStore,
+      ObjectProvider<ShardedSessionRepository> shardedRepository, ObjectProvider<SessionNearCache> nearCache,
+      ObjectProvider<SessionInvalidationChannel> invalidationChannel,
+      ObjectProvider<RedisSessionRegistry> sessionRegistry, ObjectProvider<PrincipalTokenRevocations> revocations,
+      ObjectProvider<SessionCircuitBreaker> circuitBreaker, RedisSerializer<Object> springSessionDefaultRedisSerializer,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    StoredSessionRepository sharded = shardedRepository.getIfAvailable();
+    StoredSessionRepository repository = sharded != null ? sharded : redisSessionStore;
+    PrincipalTokenRevocations tokenRevocations = revocations.getIfAvailable();
+    if (tokenRevocations != null) {
+      repository = new PrincipalTokenRevokingRepository(repository, tokenRevocations);
+    }
+    SessionNearCache cache = nearCache.getIfAvailable();
+    if (cache != null) {
+      repository = new NearCacheSessionRepository(repository, cache, invalidationChannel.getObject());
+    }
+    RedisSessionRegistry registry = sessionRegistry.getIfAvailable();
+    if (registry != null) {
+      // Por fuera de la near cache, así las sesiones expiradas también se invalidan en los demás nodos
+      repository = new ConcurrentSessionControlRepository(repository, registry, meterRegistry);
+    }
+    SessionCircuitBreaker breaker = circuitBreaker.getIfAvailable();
+    if (breaker != null) {
+      SessionStoreProperties.Resilience resilience = properties.getResilience();
+      repository = new ResilientSessionRepository(repository, breaker,
+          new LocalSessionStore(resilience.getMaxLocalSessions(), meterRegistry), springSessionDefaultRedisSerializer,
+          resilience.getReconcileBatchSize(), resilience.getReconcileInterval(), meterRegistry);
+    }
+    return repository;
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "app.session.resilience", name = "enabled", matchIfMissing = true)
+  public SessionCircuitBreaker sessionCircuitBreaker(SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    SessionStoreProperties.Resilience resilience = properties.getResilience();
+    return new SessionCircuitBreaker(resilience.getFailureThreshold(), resilience.getOpenDuration(),
+        Clock.systemUTC(), meterRegistry);
+  }
+
+  /**
+   * Principal index on the default Redis connection, shared by every node even when sessions are
+   * sharded
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "app.session.registry", name = "enabled", matchIfMissing = true)
+  public RedisSessionRegistry redisSessionRegistry(StringRedisTemplate stringRedisTemplate,
+      SessionStoreProperties properties) {
+    return new RedisSessionRegistry(stringRedisTemplate, properties.getNamespace(),
+        properties.getRegistry().getMaximumSessions(), properties.getMaxInactiveInterval());
+  }
+
+  /**
+   * Store access of the session administration endpoints, going through the same repository as the
+   * session filter
+   */
+  @Bean
+  public RedisSessionAdminRepository sessionAdminRepository(StoredSessionRepository sessionRepository,
+      RedisSerializer<Object> springSessionDefaultRedisSerializer, ObjectProvider<RedisSessionRegistry> sessionRegistry,
+      SessionStoreProperties properties) {
+    return new RedisSessionAdminRepository(sessionRepository, springSessionDefaultRedisSerializer,
+        sessionRegistry.getIfAvailable(), properties.getAdmin().getPageSize());
+  }
+
+  /**
+   * Guard placed right after the session repository filter, so it also covers the sessions Spring
+   * Security would create
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "app.session.creation-guard", name = "enabled", matchIfMissing = true)
+  public FilterRegistrationBean<SessionCreationGuardFilter> sessionCreationGuardFilter(
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    FilterRegistrationBean<SessionCreationGuardFilter> registration = new FilterRegistrationBean<>(
+        new SessionCreationGuardFilter(properties.getCreationGuard().getPaths(), meterRegistry));
+    registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER + 1);
+    return registration;
+  }
+
+  @Bean
+  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+      RedisSerializer<Object> springSessionDefaultRedisSerializer) {
     RedisTemplate<String, Object> template = new RedisTemplate<>();
     template.setConnectionFactory(connectionFactory);
 
@@ -31,22 +188,51 @@ public class SessionConfig {
     template.setKeySerializer(new StringRedisSerializer());
     template.setHashKeySerializer(new StringRedisSerializer());
 
-    // Serializer para values (JSON con información de tipo)
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.activateDefaultTyping(
-        LaissezFaireSubTypeValidator.instance,
-        ObjectMapper.DefaultTyping.NON_FINAL,
-        JsonTypeInfo.As.PROPERTY);
-
-    GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-
-    template.setValueSerializer(jsonSerializer);
-    template.setHashValueSerializer(jsonSerializer);
+    // Serializer para values (binario compacto, lee también el JSON anterior)
+    template.setValueSerializer(springSessionDefaultRedisSerializer);
+    template.setHashValueSerializer(springSessionDefaultRedisSerializer);
 
     template.afterPropertiesSet();
     return template;
   }
 
+  /**
+   * Serializer used for every session hash value
+   * Keeps the bean name Spring Session's Redis support looks up
+   */
+  @Bean
+  public RedisSerializer<Object> springSessionDefaultRedisSerializer(List<SessionTypeCodec<?>> sessionTypeCodecs,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    RedisSerializer<Object> serializer = new CompactSessionSerializer(sessionTypeCodecs, legacyJsonSerializer());
+    SessionStoreProperties.Compression compression = properties.getCompression();
+    if (!compression.isEnabled()) {
+      return serializer;
+    }
+    // Los valores comprimidos llevan cabecera propia, así que conviven con los que no lo están
+    return new CompressingSessionSerializer(serializer, (int) compression.getThreshold().toBytes(), meterRegistry);
+  }
+
+  /**
+   * Decodes the full users stored by sessions older than the compact principal
+   */
+  @Bean
+  public UserTypeCodec userTypeCodec() {
+    return new UserTypeCodec();
+  }
+
+  /**
+   * Still registered to read the security context of sessions written before {@link SessionPrincipalTypeCodec}
+   */
+  @Bean
+  public SecurityContextTypeCodec securityContextTypeCodec() {
+    return new SecurityContextTypeCodec();
+  }
+
+  @Bean
+  public SessionPrincipalTypeCodec sessionPrincipalTypeCodec() {
+    return new SessionPrincipalTypeCodec();
+  }
+
   @Bean
   public CookieSerializer cookieSerializer() {
     DefaultCookieSerializer serializer = new DefaultCookieSerializer();
@@ -62,4 +248,17 @@ public class SessionConfig {
 
     return serializer;
   }
+
+  /**
+   * JSON serializer with type information, the format used before the compact codec
+   * Kept only to decode entries that are still stored in that format
+   */
+  static GenericJackson2JsonRedisSerializer legacyJsonSerializer() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.activateDefaultTyping(
+        LaissezFaireSubTypeValidator.instance,
+        ObjectMapper.DefaultTyping.NON_FINAL,
+        JsonTypeInfo.As.PROPERTY);
+    return new GenericJackson2JsonRedisSerializer(objectMapper);
+  }
 }
\ No newline at end of file
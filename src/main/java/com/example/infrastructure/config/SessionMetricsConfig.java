@@ -0,0 +1,54 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.out.session.ActiveSessionCounter;
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Session meters that are not registered by the store itself
+ * Spring Boot already records every Lettuce command as {@code lettuce.command.completion} and
+ * {@code lettuce.command.firstresponse}, tagged with the command type; these options add the
+ * histogram buckets. All nodes share one {@code ClientResources}, so shard connections are
+ * recorded too
+ */
+@Configuration
+public class SessionMetricsConfig {
+
+  /**
+   * Replaces the default options of Spring Boot's Lettuce metrics
+   */
+  @Bean
+  public MicrometerOptions micrometerOptions(SessionStoreProperties properties) {
+    return MicrometerOptions.builder()
+        .histogram(properties.getMetrics().isCommandLatencyHistogram())
+        // Los comandos de sesión tardan menos de 1 ms (mínimo por defecto de Lettuce)
+        .minLatency(Duration.ofNanos(100_000))
+        // Percentiles a partir de los buckets en el backend, sin un HdrHistogram por comando y nodo
+        .targetPercentiles(new double[0])
+        .build();
+  }
+
+  /**
+   * Active session gauge, counted from the expiry index kept while the sweeper is enabled
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "app.session.sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+  public ActiveSessionCounter activeSessionCounter(RedisSessionStore redisSessionStore,
+      ObjectProvider<SessionShards> sessionShards, SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    SessionShards shards = sessionShards.getIfAvailable();
+    List<RedisSessionStore> stores = shards == null
+        ? List.of(redisSessionStore)
+        : shards.all().stream().map(SessionShards.Shard::store).toList();
+    return new ActiveSessionCounter(stores, properties.getMetrics().getActiveRefreshInterval(), Clock.systemUTC(),
+        meterRegistry);
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.out.session.SessionInvalidationChannel;
+import com.example.infrastructure.adapter.out.session.SessionNearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Near cache of sessions in front of Redis
+ * Enabled with {@code app.session.near-cache.enabled=true}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.session.near-cache", name = "enabled", havingValue = "true")
+public class SessionNearCacheConfig {
+
+  @Bean
+  public SessionNearCache sessionNearCache(SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    SessionStoreProperties.NearCache nearCache = properties.getNearCache();
+    return new SessionNearCache(nearCache.getMaxEntries(), nearCache.getTtl(), meterRegistry);
+  }
+
+  @Bean
+  public SessionInvalidationChannel sessionInvalidationChannel(StringRedisTemplate stringRedisTemplate,
+      SessionNearCache sessionNearCache, SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    return new SessionInvalidationChannel(stringRedisTemplate, properties.getNamespace() + ":invalidations",
+        sessionNearCache, meterRegistry);
+  }
+
+  @Bean
+  public RedisMessageListenerContainer sessionInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+      SessionInvalidationChannel sessionInvalidationChannel) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(sessionInvalidationChannel, new ChannelTopic(sessionInvalidationChannel.getChannel()));
+    return container;
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.out.session.ConsistentHashRing;
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import com.example.infrastructure.adapter.out.session.SessionExpiryIndex;
+import com.example.infrastructure.adapter.out.session.ShardedSessionRepository;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Session sharding over several Redis nodes, enabled with {@code app.session.sharding.enabled=true}
+ * The nodes are listed in {@code app.session.sharding.nodes}; the default {@code spring.data.redis}
+ * connection keeps serving everything else
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.session.sharding", name = "enabled", havingValue = "true")
+public class SessionShardingConfig {
+
+  @Bean
+  public SessionShards sessionShards(SessionStoreProperties properties, RedisProperties redisProperties,
+      RedisSerializer<Object> springSessionDefaultRedisSerializer, ClientResources clientResources,
+      MeterRegistry meterRegistry, ObjectProvider<SessionExpiryIndex> expiryIndex) {
+    SessionStoreProperties.Sharding sharding = properties.getSharding();
+    if (sharding.getNodes().isEmpty()) {
+      throw new IllegalStateException("app.session.sharding.enabled requires at least one node");
+    }
+
+    // Un solo ClientResources para todos los nodos: comparten los hilos de I/O de Lettuce
+    LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration = LettuceClientConfiguration
+        .builder().clientResources(clientResources);
+    if (redisProperties.getTimeout() != null) {
+      clientConfiguration.commandTimeout(redisProperties.getTimeout());
+    }
+
+    SessionShards shards = new SessionShards();
+    for (SessionStoreProperties.Sharding.Node node : sharding.getNodes()) {
+      RedisStandaloneConfiguration server = new RedisStandaloneConfiguration(node.getHost(), node.getPort());
+      if (node.getPassword() != null) {
+        server.setPassword(node.getPassword());
+      }
+      LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(server, clientConfiguration.build());
+      connectionFactory.afterPropertiesSet();
+      connectionFactory.start();
+
+      StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+      RedisSessionStore store = SessionConfig.createStore(node.getName(), redisTemplate,
+          springSessionDefaultRedisSerializer, properties, meterRegistry, redisProperties, expiryIndex.getIfAvailable());
+      shards.add(new SessionShards.Shard(node.getName(), connectionFactory, redisTemplate, store));
+    }
+    return shards;
+  }
+
+  @Bean
+  public ShardedSessionRepository shardedSessionRepository(SessionShards sessionShards,
+      SessionStoreProperties properties, MeterRegistry meterRegistry) {
+    SessionStoreProperties.Sharding sharding = properties.getSharding();
+    Map<String, RedisSessionStore> nodes = new LinkedHashMap<>();
+    sessionShards.all().forEach(shard -> nodes.put(shard.name(), shard.store()));
+
+    ConsistentHashRing<RedisSessionStore> previousRing = null;
+    if (!sharding.getPreviousNodes().isEmpty()) {
+      // Los nodos anteriores se buscan entre los actuales: al añadir shards los antiguos siguen en la lista
+      Map<String, RedisSessionStore> previousNodes = new LinkedHashMap<>();
+      sharding.getPreviousNodes().forEach(name -> previousNodes.put(name, sessionShards.get(name).store()));
+      previousRing = new ConsistentHashRing<>(previousNodes, sharding.getVirtualNodes());
+    }
+    return new ShardedSessionRepository(new ConsistentHashRing<>(nodes, sharding.getVirtualNodes()), previousRing,
+        meterRegistry);
+  }
+}
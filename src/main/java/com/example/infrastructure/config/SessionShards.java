@@ -0,0 +1,49 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connections and session stores of the Redis nodes used for session sharding
+ */
+public class SessionShards implements DisposableBean {
+
+  private final Map<String, Shard> shards = new LinkedHashMap<>();
+
+  void add(Shard shard) {
+    shards.put(shard.name(), shard);
+  }
+
+  public Shard get(String name) {
+    Shard shard = shards.get(name);
+    if (shard == null) {
+      throw new IllegalArgumentException("Unknown session shard '" + name + "'");
+    }
+    return shard;
+  }
+
+  public Collection<Shard> all() {
+    return Collections.unmodifiableCollection(shards.values());
+  }
+
+  @Override
+  public void destroy() {
+    // Primero se escriben los guardados pendientes de cada nodo, luego se cierran las conexiones
+    shards.values().forEach(shard -> shard.store().close());
+    shards.values().forEach(shard -> shard.connectionFactory().destroy());
+  }
+
+  /**
+   * One Redis node of the ring
+   */
+  public record Shard(String name, LettuceConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+      RedisSessionStore store) {
+  }
+}
@@ -0,0 +1,714 @@
+package com.example.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the Redis session store, bound from {@code app.session.*}
+ */
+@ConfigurationProperties(prefix = "app.session")
+public class SessionStoreProperties {
+
+  /**
+   * Prefix of every Redis key written by the session store
+   */
+  private String namespace = "spring:session";
+
+  /**
+   * Inactivity timeout of new sessions
+   */
+  private Duration maxInactiveInterval = Duration.ofMinutes(30);
+
+  private final NearCache nearCache = new NearCache();
+
+  private final Touch touch = new Touch();
+
+  private final WriteBehind writeBehind = new WriteBehind();
+
+  private final Resilience resilience = new Resilience();
+
+  private final Sweeper sweeper = new Sweeper();
+
+  private final Sharding sharding = new Sharding();
+
+  private final Compression compression = new Compression();
+
+  private final CreationGuard creationGuard = new CreationGuard();
+
+  private final Registry registry = new Registry();
+
+  private final Admin admin = new Admin();
+
+  private final Metrics metrics = new Metrics();
+
+  private final PrincipalToken principalToken = new PrincipalToken();
+
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public void setNamespace(String namespace) {
+    this.namespace = namespace;
+  }
+
+  public Duration getMaxInactiveInterval() {
+    return maxInactiveInterval;
+  }
+
+  public void setMaxInactiveInterval(Duration maxInactiveInterval) {
+    this.maxInactiveInterval = maxInactiveInterval;
+  }
+
+  public NearCache getNearCache() {
+    return nearCache;
+  }
+
+  public Touch getTouch() {
+    return touch;
+  }
+
+  public WriteBehind getWriteBehind() {
+    return writeBehind;
+  }
+
+  public Resilience getResilience() {
+    return resilience;
+  }
+
+  public Sweeper getSweeper() {
+    return sweeper;
+  }
+
+  public Sharding getSharding() {
+    return sharding;
+  }
+
+  public Compression getCompression() {
+    return compression;
+  }
+
+  public CreationGuard getCreationGuard() {
+    return creationGuard;
+  }
+
+  public Registry getRegistry() {
+    return registry;
+  }
+
+  public Admin getAdmin() {
+    return admin;
+  }
+
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  public PrincipalToken getPrincipalToken() {
+    return principalToken;
+  }
+
+  /**
+   * Granularity of persisted last access times: a request that only refreshes the last access is
+   * written once it moved at least the larger of both thresholds
+   */
+  public static class Touch {
+
+    private Duration minInterval = Duration.ZERO;
+
+    /**
+     * Fraction of the session's maxInactiveInterval, between 0 and 1
+     */
+    private double minFraction = 0;
+
+    public Duration getMinInterval() {
+      return minInterval;
+    }
+
+    public void setMinInterval(Duration minInterval) {
+      this.minInterval = minInterval;
+    }
+
+    public double getMinFraction() {
+      return minFraction;
+    }
+
+    public void setMinFraction(double minFraction) {
+      this.minFraction = minFraction;
+    }
+  }
+
+  /**
+   * Saves of existing sessions queued and written in the background instead of at the end of the
+   * request; new sessions, logins, id changes and deletes are still written synchronously
+   */
+  public static class WriteBehind {
+
+    private boolean enabled = false;
+
+    /**
+     * Sessions that may wait to be written, beyond that saves block
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Sessions written per Redis round trip
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long a save waits for room in a full queue before it fails
+     */
+    private Duration offerTimeout = Duration.ofSeconds(2);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public Duration getOfferTimeout() {
+      return offerTimeout;
+    }
+
+    public void setOfferTimeout(Duration offerTimeout) {
+      this.offerTimeout = offerTimeout;
+    }
+  }
+
+  /**
+   * Degraded mode: a circuit breaker in front of Redis and a per-node store for the sessions
+   * created or changed while it is open, written back once Redis answers again
+   */
+  public static class Resilience {
+
+    private boolean enabled = true;
+
+    /**
+     * Consecutive failed session operations that open the breaker
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long the breaker stays open before one operation probes Redis again
+     */
+    private Duration openDuration = Duration.ofSeconds(5);
+
+    /**
+     * How long a session read or save waits for Redis, shorter than the connection timeout
+     */
+    private Duration commandTimeout = Duration.ofMillis(500);
+
+    /**
+     * Sessions and deletes kept on the node during an outage, the least recently used are lost beyond it
+     */
+    private int maxLocalSessions = 10_000;
+
+    /**
+     * Local changes written back per Redis round trip
+     */
+    private int reconcileBatchSize = 100;
+
+    /**
+     * How often local changes left by isolated failures are looked for
+     */
+    private Duration reconcileInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getFailureThreshold() {
+      return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+      return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+    }
+
+    public Duration getCommandTimeout() {
+      return commandTimeout;
+    }
+
+    public void setCommandTimeout(Duration commandTimeout) {
+      this.commandTimeout = commandTimeout;
+    }
+
+    public int getMaxLocalSessions() {
+      return maxLocalSessions;
+    }
+
+    public void setMaxLocalSessions(int maxLocalSessions) {
+      this.maxLocalSessions = maxLocalSessions;
+    }
+
+    public int getReconcileBatchSize() {
+      return reconcileBatchSize;
+    }
+
+    public void setReconcileBatchSize(int reconcileBatchSize) {
+      this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    public Duration getReconcileInterval() {
+      return reconcileInterval;
+    }
+
+    public void setReconcileInterval(Duration reconcileInterval) {
+      this.reconcileInterval = reconcileInterval;
+    }
+  }
+
+  /**
+   * Per-node cache of loaded sessions, invalidated through Redis pub/sub
+   */
+  public static class NearCache {
+
+    private boolean enabled = false;
+
+    private int maxEntries = 10_000;
+
+    /**
+     * Upper bound on staleness if an invalidation message is lost
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+      return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+  }
+
+  /**
+   * Batched removal of expired sessions through the sharded expiry index
+   */
+  public static class Sweeper {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of index shards, must be the same on every node
+     */
+    private int shards = 16;
+
+    private Duration interval = Duration.ofSeconds(10);
+
+    /**
+     * Expired sessions removed per Redis round trip
+     */
+    private int batchSize = 100;
+
+    /**
+     * Upper bound of batches per shard and run, the rest is left for the next run
+     */
+    private int maxBatchesPerShard = 20;
+
+    /**
+     * How long a node keeps a shard to itself, defaults to the interval
+     */
+    private Duration leaseTime;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getShards() {
+      return shards;
+    }
+
+    public void setShards(int shards) {
+      this.shards = shards;
+    }
+
+    public Duration getInterval() {
+      return interval;
+    }
+
+    public void setInterval(Duration interval) {
+      this.interval = interval;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerShard() {
+      return maxBatchesPerShard;
+    }
+
+    public void setMaxBatchesPerShard(int maxBatchesPerShard) {
+      this.maxBatchesPerShard = maxBatchesPerShard;
+    }
+
+    public Duration getLeaseTime() {
+      return leaseTime != null ? leaseTime : interval;
+    }
+
+    public void setLeaseTime(Duration leaseTime) {
+      this.leaseTime = leaseTime;
+    }
+  }
+
+  /**
+   * Sessions spread over several Redis nodes by consistent hashing of the session id
+   */
+  public static class Sharding {
+
+    private boolean enabled = false;
+
+    /**
+     * Points per node on the hash ring
+     */
+    private int virtualNodes = 160;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Names of the nodes before the last shard change; sessions still on their old node are
+     * moved on first access. Empty once the migration is over
+     */
+    private List<String> previousNodes = new ArrayList<>();
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+      return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+      this.virtualNodes = virtualNodes;
+    }
+
+    public List<Node> getNodes() {
+      return nodes;
+    }
+
+    public void setNodes(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    public List<String> getPreviousNodes() {
+      return previousNodes;
+    }
+
+    public void setPreviousNodes(List<String> previousNodes) {
+      this.previousNodes = previousNodes;
+    }
+
+    /**
+     * One Redis node of the ring; the name fixes its position, so it must not change
+     */
+    public static class Node {
+
+      private String name;
+
+      private String host = "localhost";
+
+      private int port = 6379;
+
+      private String password;
+
+      public String getName() {
+        return name;
+      }
+
+      public void setName(String name) {
+        this.name = name;
+      }
+
+      public String getHost() {
+        return host;
+      }
+
+      public void setHost(String host) {
+        this.host = host;
+      }
+
+      public int getPort() {
+        return port;
+      }
+
+      public void setPort(int port) {
+        this.port = port;
+      }
+
+      public String getPassword() {
+        return password;
+      }
+
+      public void setPassword(String password) {
+        this.password = password;
+      }
+    }
+  }
+
+  /**
+   * Compression of large session values
+   */
+  public static class Compression {
+
+    private boolean enabled = false;
+
+    /**
+     * Serialized size from which a value is deflated
+     */
+    private DataSize threshold = DataSize.ofKilobytes(1);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public DataSize getThreshold() {
+      return threshold;
+    }
+
+    public void setThreshold(DataSize threshold) {
+      this.threshold = threshold;
+    }
+  }
+
+  /**
+   * Paths on which requests without a session may not create one
+   */
+  public static class CreationGuard {
+
+    private boolean enabled = true;
+
+    /**
+     * Path patterns of read-only and probe endpoints
+     */
+    private List<String> paths = new ArrayList<>(
+        List.of("/api/session/**", "/api/admin/**", "/api/currency/**", "/api/health/**", "/actuator/**"));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+      return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+      this.paths = paths;
+    }
+  }
+
+  /**
+   * Limit of concurrent sessions per user, enforced across every node
+   */
+  public static class Registry {
+
+    private boolean enabled = true;
+
+    /**
+     * Sessions a user may keep; a new login deletes the oldest beyond this number
+     */
+    private int maximumSessions = 1;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaximumSessions() {
+      return maximumSessions;
+    }
+
+    public void setMaximumSessions(int maximumSessions) {
+      this.maximumSessions = maximumSessions;
+    }
+  }
+
+  /**
+   * Bulk session administration endpoints
+   */
+  public static class Admin {
+
+    /**
+     * Keys requested per SCAN call and sessions read per pipelined round trip
+     */
+    private int pageSize = 200;
+
+    public int getPageSize() {
+      return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+      this.pageSize = pageSize;
+    }
+  }
+
+  /**
+   * Session store meters
+   */
+  public static class Metrics {
+
+    /**
+     * Whether Lettuce command latencies are published with histogram buckets
+     */
+    private boolean commandLatencyHistogram = true;
+
+    /**
+     * How long a count of active sessions is reused before Redis is asked again
+     */
+    private Duration activeRefreshInterval = Duration.ofSeconds(15);
+
+    public boolean isCommandLatencyHistogram() {
+      return commandLatencyHistogram;
+    }
+
+    public void setCommandLatencyHistogram(boolean commandLatencyHistogram) {
+      this.commandLatencyHistogram = commandLatencyHistogram;
+    }
+
+    public Duration getActiveRefreshInterval() {
+      return activeRefreshInterval;
+    }
+
+    public void setActiveRefreshInterval(Duration activeRefreshInterval) {
+      this.activeRefreshInterval = activeRefreshInterval;
+    }
+  }
+
+  /**
+   * Signed principal cookie letting read-only endpoints skip the session load
+   */
+  public static class PrincipalToken {
+
+    private boolean enabled = false;
+
+    /**
+     * Base64 HMAC key shared by every node; a random per-node key is used when empty
+     */
+    private String secret;
+
+    /**
+     * Lifetime of a token, after which the next request loads the session again
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    private String cookieName = "PRINCIPAL";
+
+    /**
+     * Path patterns authorized by the token alone
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/currency/convert", "/api/session/validate"));
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getSecret() {
+      return secret;
+    }
+
+    public void setSecret(String secret) {
+      this.secret = secret;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public String getCookieName() {
+      return cookieName;
+    }
+
+    public void setCookieName(String cookieName) {
+      this.cookieName = cookieName;
+    }
+
+    public List<String> getPaths() {
+      return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+      this.paths = paths;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.infrastructure.config;
+
+import com.example.infrastructure.adapter.out.session.SessionExpiryIndex;
+import com.example.infrastructure.adapter.out.session.SessionExpirySweeper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expiry index written by the session store and the sweeper that removes expired sessions from it
+ * Enabled by default, disabled with {@code app.session.sweeper.enabled=false}
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.session.sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SessionSweeperConfig implements SchedulingConfigurer {
+
+  private final SessionStoreProperties properties;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final ObjectProvider<SessionShards> sessionShards;
+
+  public SessionSweeperConfig(SessionStoreProperties properties, StringRedisTemplate stringRedisTemplate,
+      MeterRegistry meterRegistry, ObjectProvider<SessionShards> sessionShards) {
+    this.properties = properties;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.sessionShards = sessionShards;
+  }
+
+  @Bean
+  public SessionExpiryIndex sessionExpiryIndex() {
+    return new SessionExpiryIndex(properties.getNamespace(), properties.getSweeper().getShards());
+  }
+
+  @Bean
+  public SessionExpirySweeper sessionExpirySweeper(SessionExpiryIndex sessionExpiryIndex) {
+    return createSweeper(stringRedisTemplate, sessionExpiryIndex);
+  }
+
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+    SessionShards shards = sessionShards.getIfAvailable();
+    List<SessionExpirySweeper> sweepers = new ArrayList<>();
+    if (shards == null) {
+      sweepers.add(sessionExpirySweeper(sessionExpiryIndex()));
+    } else {
+      // Con sharding cada nodo Redis tiene su propio índice
+      shards.all().forEach(shard -> sweepers.add(createSweeper(shard.redisTemplate(), sessionExpiryIndex())));
+    }
+    Duration interval = properties.getSweeper().getInterval();
+    sweepers.forEach(sweeper -> taskRegistrar.addFixedDelayTask(sweeper::sweep, interval));
+  }
+
+  private SessionExpirySweeper createSweeper(StringRedisTemplate redisTemplate, SessionExpiryIndex expiryIndex) {
+    SessionStoreProperties.Sweeper sweeper = properties.getSweeper();
+    return new SessionExpirySweeper(redisTemplate, expiryIndex, properties.getNamespace(), sweeper.getBatchSize(),
+        sweeper.getMaxBatchesPerShard(), sweeper.getLeaseTime(), Clock.systemUTC(), meterRegistry);
+  }
+}
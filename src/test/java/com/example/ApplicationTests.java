@@ -1,12 +1,30 @@
 package com.example;
 
+import com.example.support.redis.InMemoryRedisServer;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class ApplicationTests {
 
+  // Redis en memoria: el contexto arranca sin un Redis en localhost:6379
+  private static final InMemoryRedisServer redis = InMemoryRedisServer.start();
+
+  @DynamicPropertySource
+  static void redisProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.data.redis.host", () -> "localhost");
+    registry.add("spring.data.redis.port", redis::getPort);
+  }
+
+  @AfterAll
+  static void stopRedis() {
+    redis.close();
+  }
+
   @Test
   void contextLoads() {
   }
-}
\ No newline at end of file
+}
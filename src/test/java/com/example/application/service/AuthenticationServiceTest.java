@@ -2,7 +2,9 @@ package com.example.application.service;
 
 import com.example.application.dto.LoginRequest;
 import com.example.application.dto.LoginResponse;
+import com.example.application.exception.AuthenticationOverloadedException;
 import com.example.application.port.out.UserRepository;
+import com.example.application.port.out.VerifiedCredentialCache;
 import com.example.domain.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,11 +32,15 @@ class AuthenticationServiceTest {
   @Mock
   private SessionService sessionService;
 
+  @Mock
+  private VerifiedCredentialCache credentialCache;
+
   private AuthenticationService authenticationService;
 
   @BeforeEach
   void setUp() {
-    authenticationService = new AuthenticationService(userRepository, passwordEncoder, sessionService);
+    authenticationService = new AuthenticationService(userRepository, passwordEncoder, sessionService,
+        credentialCache);
   }
 
   @Test
@@ -237,6 +244,113 @@ class AuthenticationServiceTest {
     verify(passwordEncoder, never()).matches(anyString(), anyString());
   }
 
+  @Test
+  void authenticate_RecentlyVerifiedCredentials_ShouldSkipPasswordHash() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(credentialCache.isVerified(user, "admin123")).thenReturn(true);
+
+    // When
+    LoginResponse response = authenticationService.authenticate(loginRequest);
+
+    // Then
+    assertTrue(response.isSuccess());
+    verify(passwordEncoder, never()).matches(anyString(), anyString());
+  }
+
+  @Test
+  void authenticate_ValidCredentialsNotCached_ShouldRememberThem() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("admin123", "encodedPassword")).thenReturn(true);
+
+    // When
+    authenticationService.authenticate(loginRequest);
+
+    // Then
+    verify(credentialCache).remember(user, "admin123");
+  }
+
+  @Test
+  void authenticate_InvalidPassword_ShouldNotRememberIt() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "wrongpassword");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("wrongpassword", "encodedPassword")).thenReturn(false);
+
+    // When
+    authenticationService.authenticate(loginRequest);
+
+    // Then
+    verify(credentialCache, never()).remember(any(User.class), any());
+  }
+
+  @Test
+  void authenticate_OutdatedHash_ShouldSaveRehashedPassword() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("admin123", "encodedPassword")).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+    when(passwordEncoder.encode("admin123")).thenReturn("rehashedPassword");
+
+    // When
+    LoginResponse response = authenticationService.authenticate(loginRequest);
+
+    // Then
+    assertTrue(response.isSuccess());
+    assertEquals("rehashedPassword", user.getPassword());
+    verify(userRepository).save(user);
+  }
+
+  @Test
+  void authenticate_CurrentHash_ShouldNotSaveUser() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("admin123", "encodedPassword")).thenReturn(true);
+
+    // When
+    authenticationService.authenticate(loginRequest);
+
+    // Then
+    verify(passwordEncoder, never()).encode(any());
+    verify(userRepository, never()).save(any());
+  }
+
+  @Test
+  void authenticate_OutdatedHashWhilePoolSaturated_ShouldSucceedWithoutRehash() {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+    User user = createTestUser();
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches("admin123", "encodedPassword")).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+    when(passwordEncoder.encode("admin123"))
+        .thenThrow(new AuthenticationOverloadedException("busy", Duration.ofSeconds(1)));
+
+    // When
+    LoginResponse response = authenticationService.authenticate(loginRequest);
+
+    // Then
+    assertTrue(response.isSuccess());
+    assertEquals("encodedPassword", user.getPassword());
+    verify(userRepository, never()).save(any());
+  }
+
   private User createTestUser() {
     User user = new User();
     user.setId(1L);
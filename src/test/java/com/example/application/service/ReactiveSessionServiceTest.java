@@ -0,0 +1,82 @@
+package com.example.application.service;
+
+import com.example.domain.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.ReactiveMapSessionRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveSessionServiceTest {
+
+  private ReactiveSessionService sessionService;
+  private User testUser;
+
+  @BeforeEach
+  void setUp() {
+    sessionService = new ReactiveSessionService(new ReactiveMapSessionRepository(new ConcurrentHashMap<>()));
+
+    // Crear usuario de prueba
+    testUser = new User();
+    testUser.setId(1L);
+    testUser.setUsername("testuser");
+    testUser.setEmail("test@example.com");
+    testUser.addRole("USER");
+    testUser.setEnabled(true);
+  }
+
+  @Test
+  void createSession_ShouldCreateAuthenticatedSession() {
+    // When
+    Map<String, Object> sessionInfo = sessionService.createSession(testUser, null).block();
+
+    // Then
+    assertNotNull(sessionInfo);
+    String sessionId = (String) sessionInfo.get("sessionId");
+    assertEquals(1800, sessionInfo.get("maxInactiveInterval"));
+    assertTrue(sessionService.isSessionValid(sessionId).block());
+    assertTrue(sessionService.isAuthenticated(sessionId).block());
+    assertEquals(testUser.getUsername(), sessionService.getCurrentUser(sessionId).block().getUsername());
+  }
+
+  @Test
+  void createSession_WithPreviousSession_ShouldDropIt() {
+    // Given
+    String previousId = (String) sessionService.createSession(testUser, null).block()
+        .get("sessionId");
+
+    // When
+    String newId = (String) sessionService.createSession(testUser, previousId).block()
+        .get("sessionId");
+
+    // Then
+    assertNotEquals(previousId, newId);
+    assertFalse(sessionService.isSessionValid(previousId).block());
+    assertTrue(sessionService.isSessionValid(newId).block());
+  }
+
+  @Test
+  void getSessionInfo_UnknownOrMissingId_ShouldBeEmpty() {
+    // When & Then
+    assertNull(sessionService.getSessionInfo("unknown").block());
+    assertNull(sessionService.getSessionInfo(null).block());
+    assertFalse(sessionService.isAuthenticated(null).block());
+  }
+
+  @Test
+  void invalidateSession_ShouldRemoveSession() {
+    // Given
+    String sessionId = (String) sessionService.createSession(testUser, null).block()
+        .get("sessionId");
+
+    // When
+    sessionService.invalidateSession(sessionId).block();
+
+    // Then
+    assertFalse(sessionService.isSessionValid(sessionId).block());
+    assertNull(sessionService.getCurrentUser(sessionId).block());
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.application.service;
+
+import com.example.application.dto.InvalidationProgress;
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+import com.example.application.port.out.SessionAdminRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionAdministrationServiceTest {
+
+  private PagedRepository repository;
+  private SessionAdministrationService sessionAdministrationService;
+
+  @BeforeEach
+  void setUp() {
+    repository = new PagedRepository(List.of(
+        List.of(session("s1", "admin", "ADMIN", "USER"), session("s2", "user", "USER")),
+        List.of(session("s3", null)),
+        List.of(session("s4", "admin", "ADMIN", "USER"), session("s5", "admin", "ADMIN", "USER"))));
+    sessionAdministrationService = new SessionAdministrationService(repository);
+  }
+
+  @Test
+  void streamSessions_ByRole_ShouldHandOverOnlyPagesWithMatches() {
+    // Given
+    List<List<SessionSummary>> pages = new ArrayList<>();
+
+    // When
+    sessionAdministrationService.streamSessions(new SessionQuery(null, "ADMIN"), pages::add);
+
+    // Then
+    assertEquals(2, pages.size());
+    assertEquals(List.of("s1"), pages.get(0).stream().map(SessionSummary::sessionId).toList());
+    assertEquals(List.of("s4", "s5"), pages.get(1).stream().map(SessionSummary::sessionId).toList());
+  }
+
+  @Test
+  void invalidateSessions_ByUsername_ShouldDeleteEachPageAndKeepCallerSession() {
+    // Given
+    List<InvalidationProgress> reported = new ArrayList<>();
+
+    // When
+    InvalidationProgress result = sessionAdministrationService.invalidateSessions(
+        new SessionQuery("admin", null), "s4", reported::add);
+
+    // Then
+    assertEquals(List.of(List.of("s1"), List.of("s5")), repository.deleted);
+    assertEquals(List.of(
+        new InvalidationProgress(2, 1, false),
+        new InvalidationProgress(3, 1, false),
+        new InvalidationProgress(5, 2, false),
+        new InvalidationProgress(5, 2, true)), reported);
+    assertEquals(new InvalidationProgress(5, 2, true), result);
+  }
+
+  @Test
+  void invalidateSessions_NoCriteria_ShouldRefuse() {
+    // When / Then
+    assertThrows(IllegalArgumentException.class, () -> sessionAdministrationService.invalidateSessions(
+        new SessionQuery(null, null), null, progress -> { }));
+    assertTrue(repository.deleted.isEmpty());
+  }
+
+  private static SessionSummary session(String sessionId, String username, String... roles) {
+    return new SessionSummary(sessionId, username, Set.of(roles), 0, 0, 1800);
+  }
+
+  /**
+   * Repository handing over fixed pages and recording the deletes
+   */
+  private static final class PagedRepository implements SessionAdminRepository {
+
+    private final List<List<SessionSummary>> pages;
+    private final List<List<String>> deleted = new ArrayList<>();
+
+    PagedRepository(List<List<SessionSummary>> pages) {
+      this.pages = pages;
+    }
+
+    @Override
+    public void scan(SessionQuery query, Consumer<List<SessionSummary>> pageConsumer) {
+      pages.forEach(pageConsumer);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> sessionIds) {
+      deleted.add(List.copyOf(sessionIds));
+    }
+  }
+}
@@ -1,19 +1,19 @@
 package com.example.application.service;
 
+import com.example.application.dto.SessionPrincipal;
 import com.example.domain.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.servlet.http.HttpSession;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
 class SessionServiceTest {
 
   private SessionService sessionService;
@@ -149,4 +149,129 @@ class SessionServiceTest {
     // Then
     assertNull(sessionInfo);
   }
-}
\ No newline at end of file
+
+  @Test
+  void getSnapshot_SeveralReadsInOneRequest_ShouldLoadSessionAndUserOnce() {
+    // Given
+    CountingSession session = new CountingSession();
+    session.setAttribute("currentUser", SessionPrincipal.of(testUser));
+    session.setAttribute("sessionCreatedTime", 1L);
+    CountingRequest request = new CountingRequest(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    // When: lo que hacen GET /api/session y GET /api/session/user
+    assertTrue(sessionService.isSessionValid());
+    Map<String, Object> sessionInfo = sessionService.getSessionInfo();
+    User currentUser = sessionService.getCurrentUser();
+    SessionSnapshot snapshot = sessionService.getSnapshot();
+
+    // Then
+    assertEquals(1, request.sessionLoads);
+    assertEquals(1, session.userReads);
+    assertEquals(testUser.getUsername(), sessionInfo.get("username"));
+    assertEquals(testUser.getUsername(), currentUser.getUsername());
+    assertEquals(testUser.getRoles(), currentUser.getRoles());
+    assertEquals(1L, snapshot.createdTime().longValue());
+  }
+
+  @Test
+  void getSnapshot_NextRequest_ShouldLoadAgain() {
+    // Given
+    CountingSession session = new CountingSession();
+    session.setAttribute("currentUser", SessionPrincipal.of(testUser));
+    CountingRequest first = new CountingRequest(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(first));
+    sessionService.getSnapshot();
+
+    // When
+    CountingRequest second = new CountingRequest(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(second));
+    sessionService.getSnapshot();
+    sessionService.getSnapshot();
+
+    // Then
+    assertEquals(1, second.sessionLoads);
+    assertEquals(2, session.userReads);
+  }
+
+  @Test
+  void createSession_ShouldStorePrincipalWithoutPassword() {
+    // Given
+    testUser.setPassword("$2a$10$hash");
+
+    // When
+    sessionService.createSession(testUser);
+
+    // Then
+    SessionPrincipal stored = (SessionPrincipal) mockSession.getAttribute("currentUser");
+    assertEquals(SessionPrincipal.of(testUser), stored);
+    assertNull(stored.toUser().getPassword());
+    assertNull(mockSession.getAttribute("SPRING_SECURITY_CONTEXT"));
+  }
+
+  @Test
+  void getSnapshot_LegacySession_ShouldMigrateToPrincipal() {
+    // Given: sesión escrita antes del principal compacto
+    mockSession.setAttribute("currentUser", testUser);
+    mockSession.setAttribute("SPRING_SECURITY_CONTEXT", new Object());
+
+    // When
+    User currentUser = sessionService.getCurrentUser();
+
+    // Then
+    assertEquals(testUser.getUsername(), currentUser.getUsername());
+    assertEquals(SessionPrincipal.of(testUser), mockSession.getAttribute("currentUser"));
+    assertNull(mockSession.getAttribute("SPRING_SECURITY_CONTEXT"));
+  }
+
+  @Test
+  void isSessionValid_RequestWithoutSession_ShouldNotCreateOne() {
+    // Given
+    MockHttpServletRequest anonymousRequest = new MockHttpServletRequest();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(anonymousRequest));
+
+    // When
+    boolean isValid = sessionService.isSessionValid();
+    var sessionInfo = sessionService.getSessionInfo();
+    sessionService.invalidateSession();
+
+    // Then
+    assertFalse(isValid);
+    assertNull(sessionInfo);
+    assertNull(anonymousRequest.getSession(false));
+  }
+
+  /**
+   * Session counting how often {@code currentUser} is read (one deserialization each with a Redis session)
+   */
+  private static final class CountingSession extends MockHttpSession {
+
+    private int userReads;
+
+    @Override
+    public Object getAttribute(String name) {
+      if ("currentUser".equals(name)) {
+        userReads++;
+      }
+      return super.getAttribute(name);
+    }
+  }
+
+  /**
+   * Request counting session lookups (one repository load each behind the session filter)
+   */
+  private static final class CountingRequest extends MockHttpServletRequest {
+
+    private int sessionLoads;
+
+    CountingRequest(HttpSession session) {
+      setSession(session);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+      sessionLoads++;
+      return super.getSession(create);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.benchmark;
+
+import com.example.application.dto.LoginRequest;
+import com.example.application.port.out.UserRepository;
+import com.example.application.port.out.VerifiedCredentialCache;
+import com.example.application.service.AuthenticationService;
+import com.example.domain.model.User;
+import com.example.infrastructure.adapter.out.security.HmacVerifiedCredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Logins per second on one core, with and without the verified-credential cache
+ * Every login repeats the same credentials, as a client that logs in again and again; the first
+ * login of the cached run pays the BCrypt hash, the rest hit the cache
+ * Run with: {@code java -cp <test-classpath> com.example.benchmark.CredentialCacheBenchmark [seconds]}
+ */
+public final class CredentialCacheBenchmark {
+
+  private CredentialCacheBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    User user = new User("user", passwordEncoder.encode("user123"), "user@example.com");
+    UserRepository userRepository = new UserRepository() {
+      @Override
+      public Optional<User> findByUsername(String username) {
+        return Optional.of(user);
+      }
+
+      @Override
+      public Optional<User> findByEmail(String email) {
+        return Optional.of(user);
+      }
+
+      @Override
+      public User save(User saved) {
+        return saved;
+      }
+    };
+
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    VerifiedCredentialCache cache = new HmacVerifiedCredentialCache(key, 10_000, Duration.ofMinutes(5),
+        Clock.systemUTC(), new SimpleMeterRegistry());
+
+    // authenticate no usa SessionService
+    run("bcrypt", new AuthenticationService(userRepository, passwordEncoder, null, VerifiedCredentialCache.NONE),
+        seconds);
+    run("cache ", new AuthenticationService(userRepository, passwordEncoder, null, cache), seconds);
+  }
+
+  private static void run(String label, AuthenticationService service, int seconds) {
+    LoginRequest request = new LoginRequest("user", "user123");
+    // Calentamiento del JIT
+    long warmupEnd = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+    while (System.nanoTime() < warmupEnd) {
+      service.authenticate(request);
+    }
+
+    long logins = 0;
+    long start = System.nanoTime();
+    long end = start + Duration.ofSeconds(seconds).toNanos();
+    while (System.nanoTime() < end) {
+      if (!service.authenticate(request).isSuccess()) {
+        throw new IllegalStateException("Login failed");
+      }
+      logins++;
+    }
+    double elapsed = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%s logins=%d throughput=%.0f logins/s per core, %.3f ms per login%n", label, logins,
+        logins / elapsed, elapsed * 1000 / logins);
+  }
+}
@@ -0,0 +1,153 @@
+package com.example.benchmark;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of {@code GET /api/currency/convert} alone and during a login storm
+ * A few clients log in once and call the conversion endpoint in a closed loop; halfway through,
+ * the storm clients start logging in as fast as they can, waiting {@code Retry-After} after a 503.
+ * Prints the conversion latency of both halves and the status of the storm logins
+ *
+ * Run the application with {@code --app.session.registry.maximum-sessions=1000000} so the storm does
+ * not expire the sessions of the conversion clients, then:
+ * {@code java -cp <test-classpath> com.example.benchmark.LoginStormLoadTest [baseUrl] [clients] [stormClients] [seconds]}
+ */
+public final class LoginStormLoadTest {
+
+  private static final String CREDENTIALS = "{\"username\":\"user\",\"password\":\"user123\"}";
+
+  private LoginStormLoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+    int stormClients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+    AtomicBoolean storming = new AtomicBoolean();
+    AtomicBoolean running = new AtomicBoolean(true);
+    List<long[]> calm = new ArrayList<>();
+    List<long[]> storm = new ArrayList<>();
+    AtomicLong loginsOk = new AtomicLong();
+    AtomicLong loginsRefused = new AtomicLong();
+    AtomicLong loginsFailed = new AtomicLong();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < clients; i++) {
+      long[] calmSamples = new long[200_000];
+      long[] stormSamples = new long[200_000];
+      calm.add(calmSamples);
+      storm.add(stormSamples);
+      HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager())
+          .connectTimeout(Duration.ofSeconds(5)).build();
+      login(client, baseUrl);
+      threads.add(start("convert-client-" + i, () -> {
+        int calmCount = 0;
+        int stormCount = 0;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/currency/convert?amount=100"))
+            .build();
+        while (running.get()) {
+          boolean during = storming.get();
+          long begin = System.nanoTime();
+          client.send(request, HttpResponse.BodyHandlers.discarding());
+          long took = System.nanoTime() - begin;
+          if (during && stormCount < stormSamples.length) {
+            stormSamples[stormCount++] = took;
+          } else if (!during && calmCount < calmSamples.length) {
+            calmSamples[calmCount++] = took;
+          }
+        }
+      }));
+    }
+
+    Thread.sleep(Duration.ofSeconds(seconds).toMillis() / 2);
+    storming.set(true);
+    for (int i = 0; i < stormClients; i++) {
+      // Sin cookies: cada login es una sesión nueva, como un pico de usuarios distintos
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+      threads.add(start("storm-client-" + i, () -> {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(CREDENTIALS))
+            .build();
+        while (running.get()) {
+          HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() == 200) {
+            loginsOk.incrementAndGet();
+          } else if (response.statusCode() == 503) {
+            loginsRefused.incrementAndGet();
+            // Como un cliente real: espera lo que indica Retry-After antes de reintentar
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(retryAfter).toMillis());
+          } else {
+            loginsFailed.incrementAndGet();
+          }
+        }
+      }));
+    }
+    Thread.sleep(Duration.ofSeconds(seconds).toMillis() / 2);
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    System.out.printf("%s clients=%d stormClients=%d duration=%ds%n", baseUrl, clients, stormClients, seconds);
+    print("convert without storm", calm);
+    print("convert during storm ", storm);
+    System.out.printf("storm logins ok=%d refused(503)=%d failed=%d throughput=%.0f logins/s%n", loginsOk.get(),
+        loginsRefused.get(), loginsFailed.get(), loginsOk.get() / (seconds / 2.0));
+  }
+
+  private interface Loop {
+    void run() throws Exception;
+  }
+
+  private static Thread start(String name, Loop loop) {
+    Thread thread = new Thread(() -> {
+      try {
+        loop.run();
+      } catch (Exception e) {
+        System.err.printf("%s stopped: %s%n", Thread.currentThread().getName(), e);
+      }
+    }, name);
+    thread.start();
+    return thread;
+  }
+
+  private static void print(String label, List<long[]> samples) {
+    long[] all = samples.stream().flatMapToLong(values -> Arrays.stream(values).filter(nanos -> nanos > 0))
+        .sorted().toArray();
+    if (all.length == 0) {
+      System.out.printf("%s: no samples%n", label);
+      return;
+    }
+    System.out.printf("%s: requests=%d latency ms p50=%.2f p99=%.2f max=%.2f%n", label, all.length,
+        percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+  }
+
+  private static void login(HttpClient client, String baseUrl) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(CREDENTIALS))
+        .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Login failed with status " + response.statusCode());
+    }
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))] / 1e6;
+  }
+}
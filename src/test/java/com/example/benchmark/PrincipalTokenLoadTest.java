@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the endpoints served by the principal token fast path, to compare
+ * {@code app.session.principal-token.enabled=true} with the session-backed path
+ * Every client logs in once and then alternates {@code GET /api/currency/convert} and
+ * {@code GET /api/session/validate}; the cookie manager keeps the principal cookie fresh, so with
+ * the fast path only one request per token lifetime and client loads the session
+ *
+ * Run the application twice against the same Redis, once with the fast path and once without,
+ * allowing one session per client ({@code --app.session.registry.maximum-sessions=1000}), then:
+ * {@code java -cp <test-classpath> com.example.benchmark.PrincipalTokenLoadTest [baseUrl] [clients] [seconds]}
+ * Redis latency makes the difference visible: the in-memory server takes a per-round-trip latency
+ * in milliseconds as its second argument
+ */
+public final class PrincipalTokenLoadTest {
+
+  private static final String[] PATHS = { "/api/currency/convert?amount=100", "/api/session/validate" };
+
+  private PrincipalTokenLoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+    AtomicLong ok = new AtomicLong();
+    AtomicLong errors = new AtomicLong();
+    List<long[]> latencies = new ArrayList<>();
+    CountDownLatch ready = new CountDownLatch(clients);
+    CountDownLatch start = new CountDownLatch(1);
+    long[] deadline = new long[1];
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < clients; i++) {
+      long[] samples = new long[500_000];
+      latencies.add(samples);
+      Thread thread = new Thread(() -> {
+        HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        try {
+          login(client, baseUrl);
+          ready.countDown();
+          start.await();
+
+          int count = 0;
+          while (System.nanoTime() < deadline[0] && count < samples.length) {
+            long begin = System.nanoTime();
+            HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + PATHS[count % PATHS.length])).build(),
+                HttpResponse.BodyHandlers.discarding());
+            samples[count++] = System.nanoTime() - begin;
+            if (response.statusCode() == 200) {
+              ok.incrementAndGet();
+            } else {
+              errors.incrementAndGet();
+            }
+          }
+        } catch (Exception e) {
+          errors.incrementAndGet();
+          ready.countDown();
+        }
+      }, "load-client-" + i);
+      threads.add(thread);
+      thread.start();
+    }
+
+    ready.await();
+    deadline[0] = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    long[] all = latencies.stream().flatMapToLong(samples -> Arrays.stream(samples).filter(nanos -> nanos > 0))
+        .sorted().toArray();
+    System.out.printf("%s clients=%d duration=%ds%n", baseUrl, clients, seconds);
+    System.out.printf("ok=%d errors=%d throughput=%.0f req/s%n", ok.get(), errors.get(), ok.get() / (double) seconds);
+    if (all.length > 0) {
+      System.out.printf("latency ms p50=%.2f p99=%.2f max=%.2f%n",
+          percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+    }
+  }
+
+  private static void login(HttpClient client, String baseUrl) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"user\",\"password\":\"user123\"}"))
+        .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Login failed with status " + response.statusCode());
+    }
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))] / 1e6;
+  }
+}
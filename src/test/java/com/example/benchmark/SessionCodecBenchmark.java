@@ -0,0 +1,146 @@
+package com.example.benchmark;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.domain.model.User;
+import com.example.infrastructure.adapter.out.session.codec.CompactSessionSerializer;
+import com.example.infrastructure.adapter.out.session.codec.SecurityContextTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.SessionPrincipalTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.UserTypeCodec;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytes-per-session and encode/decode cost of the session serializers
+ * Run with: {@code java -cp <test-classpath> com.example.benchmark.SessionCodecBenchmark}
+ */
+public final class SessionCodecBenchmark {
+
+  private static final int WARMUP = 200_000;
+  private static final int ITERATIONS = 1_000_000;
+
+  private SessionCodecBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    Map<String, Object> session = sampleSession();
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(objectMapper);
+
+    Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+    serializers.put("jackson-json", json);
+    serializers.put("jdk", new JdkSerializationRedisSerializer());
+    CompactSessionSerializer compact = new CompactSessionSerializer(
+        List.of(new UserTypeCodec(), new SecurityContextTypeCodec(), new SessionPrincipalTypeCodec()), json);
+    serializers.put("compact", compact);
+
+    System.out.printf("%-14s %12s %16s %16s%n", "serializer", "bytes/session", "encode ns/op", "decode ns/op");
+    for (Map.Entry<String, RedisSerializer<Object>> entry : serializers.entrySet()) {
+      run(entry.getKey(), entry.getValue(), session);
+    }
+
+    // Bytes del hash en Redis (nombres de campo incluidos) antes y después del principal compacto
+    int legacy = storedBytes(compact, session);
+    int principal = storedBytes(compact, principalSession());
+    System.out.printf("%nstored hash, compact serializer: user+context=%d bytes, principal=%d bytes, saved=%d%n",
+        legacy, principal, legacy - principal);
+  }
+
+  private static int storedBytes(RedisSerializer<Object> serializer, Map<String, Object> session) {
+    int bytes = 0;
+    for (Map.Entry<String, Object> entry : session.entrySet()) {
+      bytes += entry.getKey().getBytes(StandardCharsets.UTF_8).length + serializer.serialize(entry.getValue()).length;
+    }
+    return bytes;
+  }
+
+  private static void run(String name, RedisSerializer<Object> serializer, Map<String, Object> session) {
+    Object[] values = session.values().toArray();
+    byte[][] encoded = new byte[values.length][];
+    int bytes = 0;
+    for (int i = 0; i < values.length; i++) {
+      encoded[i] = serializer.serialize(values[i]);
+      bytes += encoded[i].length;
+    }
+
+    long encodeNs = measure(() -> {
+      for (Object value : values) {
+        serializer.serialize(value);
+      }
+    });
+
+    String decode;
+    try {
+      long decodeNs = measure(() -> {
+        for (byte[] raw : encoded) {
+          serializer.deserialize(raw);
+        }
+      });
+      decode = String.valueOf(decodeNs);
+    } catch (RuntimeException e) {
+      decode = "fails";
+    }
+
+    System.out.printf("%-14s %12d %16d %16s%n", name, bytes, encodeNs, decode);
+  }
+
+  private static long measure(Runnable operation) {
+    for (int i = 0; i < WARMUP; i++) {
+      operation.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      operation.run();
+    }
+    return (System.nanoTime() - start) / ITERATIONS;
+  }
+
+  /**
+   * Hash values of a session right after login as stored before the compact principal: metadata,
+   * current user and security context
+   */
+  static Map<String, Object> sampleSession() {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("admin");
+    user.setEmail("admin@example.com");
+    user.addRole("ADMIN");
+    user.addRole("USER");
+
+    long now = System.currentTimeMillis();
+    Map<String, Object> session = new LinkedHashMap<>();
+    session.put("creationTime", now);
+    session.put("lastAccessedTime", now);
+    session.put("maxInactiveInterval", 1800);
+    session.put("sessionAttr:currentUser", user);
+    session.put("sessionAttr:sessionCreatedTime", now);
+    session.put("sessionAttr:SPRING_SECURITY_CONTEXT", new SecurityContextImpl(
+        UsernamePasswordAuthenticationToken.authenticated("admin", null,
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER")))));
+    return session;
+  }
+
+  /**
+   * Hash values of the same session with the user stored once as a {@link SessionPrincipal}
+   */
+  static Map<String, Object> principalSession() {
+    Map<String, Object> session = sampleSession();
+    session.put("sessionAttr:currentUser", SessionPrincipal.of((User) session.get("sessionAttr:currentUser")));
+    session.remove("sessionAttr:SPRING_SECURITY_CONTEXT");
+    return session;
+  }
+}
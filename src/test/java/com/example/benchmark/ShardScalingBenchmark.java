@@ -0,0 +1,124 @@
+package com.example.benchmark;
+
+import com.example.infrastructure.adapter.out.session.ConsistentHashRing;
+import com.example.infrastructure.adapter.out.session.RedisSessionStore;
+import com.example.infrastructure.adapter.out.session.ShardedSessionRepository;
+import com.example.infrastructure.adapter.out.session.StoredSession;
+import com.example.support.redis.InMemoryRedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session throughput of the sharded repository with 1 to N Redis nodes
+ * Every client thread loads a session, changes an attribute and saves it again in a closed loop;
+ * each step adds the next node to the ring
+ *
+ * Run with one Redis (or stand-in) per node:
+ * {@code java -cp <test-classpath> com.example.benchmark.ShardScalingBenchmark host:port,host:port,... [clients] [seconds]}
+ * or with {@code embedded:<nodes>[:<latencyMs>]} to start in-memory stand-ins in the same JVM
+ */
+public final class ShardScalingBenchmark {
+
+  private static final int SESSIONS = 2000;
+
+  private ShardScalingBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    String target = args.length > 0 ? args[0] : "localhost:6379";
+    List<InMemoryRedisServer> embedded = target.startsWith("embedded:") ? startEmbedded(target) : List.of();
+    String[] addresses = embedded.isEmpty() ? target.split(",")
+        : embedded.stream().map(server -> "localhost:" + server.getPort()).toArray(String[]::new);
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+    List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    Map<String, RedisSessionStore> stores = new LinkedHashMap<>();
+    for (String address : addresses) {
+      String[] hostAndPort = address.split(":");
+      LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+          new RedisStandaloneConfiguration(hostAndPort[0], Integer.parseInt(hostAndPort[1])));
+      connectionFactory.afterPropertiesSet();
+      connectionFactory.start();
+      connectionFactories.add(connectionFactory);
+      stores.put(address, new RedisSessionStore(new StringRedisTemplate(connectionFactory),
+          new JdkSerializationRedisSerializer(), "benchmark:session", Duration.ofMinutes(30),
+          new SimpleMeterRegistry()));
+    }
+
+    System.out.printf("clients=%d duration=%ds sessions=%d%n", clients, seconds, SESSIONS);
+    System.out.printf("%-7s %14s %9s%n", "shards", "ops/s", "speedup");
+    double baseline = 0;
+    Map<String, RedisSessionStore> nodes = new LinkedHashMap<>();
+    for (Map.Entry<String, RedisSessionStore> store : stores.entrySet()) {
+      nodes.put(store.getKey(), store.getValue());
+      ShardedSessionRepository repository = new ShardedSessionRepository(
+          new ConsistentHashRing<>(nodes, 160), null, new SimpleMeterRegistry());
+      double throughput = run(repository, clients, seconds);
+      baseline = baseline == 0 ? throughput : baseline;
+      System.out.printf("%-7d %14.0f %8.2fx%n", nodes.size(), throughput, throughput / baseline);
+    }
+
+    connectionFactories.forEach(LettuceConnectionFactory::destroy);
+    embedded.forEach(InMemoryRedisServer::close);
+  }
+
+  private static List<InMemoryRedisServer> startEmbedded(String target) {
+    String[] parts = target.split(":");
+    Duration latency = Duration.ofMillis(parts.length > 2 ? Long.parseLong(parts[2]) : 0);
+    List<InMemoryRedisServer> servers = new ArrayList<>();
+    for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+      InMemoryRedisServer server = InMemoryRedisServer.start();
+      server.setLatency(latency);
+      servers.add(server);
+    }
+    return servers;
+  }
+
+  private static double run(ShardedSessionRepository repository, int clients, int seconds)
+      throws InterruptedException {
+    List<String> ids = new ArrayList<>(SESSIONS);
+    for (int i = 0; i < SESSIONS; i++) {
+      StoredSession session = repository.createSession();
+      session.setAttribute("counter", 0);
+      repository.save(session);
+      ids.add(session.getId());
+    }
+
+    AtomicLong operations = new AtomicLong();
+    CountDownLatch done = new CountDownLatch(clients);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    for (int client = 0; client < clients; client++) {
+      int offset = client;
+      Thread thread = new Thread(() -> {
+        int next = offset;
+        while (System.nanoTime() < deadline) {
+          StoredSession session = repository.findById(ids.get(next % ids.size()));
+          Integer counter = session.getAttribute("counter");
+          session.setAttribute("counter", counter + 1);
+          repository.save(session);
+          operations.incrementAndGet();
+          next += clients;
+        }
+        done.countDown();
+      }, "shard-client-" + client);
+      thread.start();
+    }
+    done.await();
+
+    ids.forEach(repository::deleteById);
+    return operations.get() / (double) seconds;
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import com.example.domain.model.User;
+import com.example.infrastructure.adapter.out.persistence.CompactUserStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Heap per user and concurrent {@code findByUsername} throughput of {@link CompactUserStore}
+ * against two {@code ConcurrentHashMap<String, User>}, the maps the repository used, made thread-safe
+ * Every user has a 68-character BCrypt hash with its {@code {bcrypt}} prefix, an email and one role.
+ * Heap is measured after a full GC, before and after loading
+ * Run with: {@code java -Xmx3g -cp <test-classpath> com.example.benchmark.UserStoreBenchmark [users] [threads] [seconds]}
+ */
+public final class UserStoreBenchmark {
+
+  private static final String HASH = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoO5rS0Ukkq8Y9F1xUj5HYdwW6jxOEfQXq";
+
+  private UserStoreBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    String[] usernames = new String[users];
+    for (int i = 0; i < users; i++) {
+      usernames[i] = "user-" + i;
+    }
+    System.out.printf("users=%d threads=%d duration=%ds%n", users, threads, seconds);
+
+    long before = usedHeap();
+    CompactUserStore store = new CompactUserStore(users);
+    for (String username : usernames) {
+      store.save(user(username));
+    }
+    print("compact store", users, usedHeap() - before, store.indexBytes());
+    run("compact store", usernames, store::findByUsername, threads, seconds);
+    store = null;
+
+    before = usedHeap();
+    Map<String, User> byUsername = new ConcurrentHashMap<>(users * 2);
+    Map<String, User> byEmail = new ConcurrentHashMap<>(users * 2);
+    for (String username : usernames) {
+      User user = user(username);
+      byUsername.put(user.getUsername(), user);
+      byEmail.put(user.getEmail(), user);
+    }
+    print("hash maps    ", users, usedHeap() - before, -1);
+    run("hash maps    ", usernames, username -> Optional.ofNullable(byUsername.get(username)), threads, seconds);
+  }
+
+  private static User user(String username) {
+    // Cadenas propias de cada usuario, como si vinieran de una base de datos
+    User user = new User(new String(username), new String(HASH), username + "@example.com");
+    user.setId((long) username.hashCode());
+    user.addRole("USER");
+    return user;
+  }
+
+  private static void run(String label, String[] usernames, Function<String, Optional<User>> find, int threads,
+      int seconds) throws InterruptedException {
+    // Calentamiento del JIT
+    lookups(usernames, find, System.nanoTime() + Duration.ofSeconds(1).toNanos());
+
+    AtomicLong total = new AtomicLong();
+    long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(() -> total.addAndGet(lookups(usernames, find, end)), "lookup-" + i);
+      worker.start();
+      workers.add(worker);
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    System.out.printf("%s findByUsername=%.0f lookups/s%n", label, total.get() / (double) seconds);
+  }
+
+  private static long lookups(String[] usernames, Function<String, Optional<User>> find, long end) {
+    long count = 0;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (System.nanoTime() < end) {
+      if (find.apply(usernames[random.nextInt(usernames.length)]).isEmpty()) {
+        throw new IllegalStateException("User not found");
+      }
+      count++;
+    }
+    return count;
+  }
+
+  private static void print(String label, int users, long bytes, long indexBytes) {
+    System.out.printf("%s heap=%d MB, %d bytes per user%s%n", label, bytes >> 20, bytes / users,
+        indexBytes < 0 ? "" : String.format(" (indexes %d MB)", indexBytes >> 20));
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -3,6 +3,7 @@ package com.example.infrastructure.adapter.in.web;
 import com.example.application.port.in.AuthenticationUseCase;
 import com.example.application.dto.LoginRequest;
 import com.example.application.dto.LoginResponse;
+import com.example.application.exception.AuthenticationOverloadedException;
 import com.example.infrastructure.config.TestSecurityConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -108,6 +110,24 @@ class AuthControllerTest {
         .andExpect(jsonPath("$.message").value("Password is required"));
   }
 
+  @Test
+  void login_PasswordVerificationSaturated_ShouldReturnServiceUnavailableWithRetryAfter() throws Exception {
+    // Given
+    LoginRequest loginRequest = new LoginRequest("admin", "admin123");
+
+    when(authenticationUseCase.authenticateAndCreateSession(any(LoginRequest.class)))
+        .thenThrow(new AuthenticationOverloadedException("Too many logins in progress, retry later",
+            Duration.ofMillis(1500)));
+
+    // When & Then
+    mockMvc.perform(post("/api/auth/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "2"))
+        .andExpect(jsonPath("$.success").value(false));
+  }
+
   @Test
   void health_ShouldReturnOk() throws Exception {
     // When & Then
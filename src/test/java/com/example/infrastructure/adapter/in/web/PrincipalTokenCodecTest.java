@@ -0,0 +1,64 @@
+package com.example.infrastructure.adapter.in.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalTokenCodecTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+  private final PrincipalTokenCodec codec = new PrincipalTokenCodec(key((byte) 1));
+
+  @Test
+  void decode_EncodedToken_ShouldReturnSamePrincipal() {
+    // Given
+    PrincipalToken token = new PrincipalToken("8c6d0a4e-1f2b-4c3d-9e8f-0a1b2c3d4e5f", "admin",
+        List.of("ROLE_ADMIN", "ROLE_USER"), NOW.plusSeconds(60));
+
+    // When
+    String value = codec.encode(token);
+    PrincipalToken decoded = codec.decode(value, NOW);
+
+    // Then
+    assertEquals(token, decoded);
+    assertTrue(value.length() < 160, "token too long: " + value.length());
+  }
+
+  @Test
+  void decode_ExpiredToken_ShouldReturnNull() {
+    // Given
+    String value = codec.encode(new PrincipalToken("s", "user", List.of("ROLE_USER"), NOW));
+
+    // When & Then
+    assertNull(codec.decode(value, NOW));
+    assertNotNull(codec.decode(value, NOW.minusSeconds(1)));
+  }
+
+  @Test
+  void decode_TamperedOrForeignToken_ShouldReturnNull() {
+    // Given
+    PrincipalToken token = new PrincipalToken("s", "user", List.of("ROLE_USER"), NOW.plusSeconds(60));
+    String value = codec.encode(token);
+    String forged = new PrincipalTokenCodec(key((byte) 2)).encode(
+        new PrincipalToken("s", "user", List.of("ROLE_ADMIN"), NOW.plusSeconds(60)));
+    char changed = value.charAt(2) == 'A' ? 'B' : 'A';
+    String tampered = value.substring(0, 2) + changed + value.substring(3);
+
+    // When & Then
+    assertNull(codec.decode(tampered, NOW));
+    assertNull(codec.decode(forged, NOW));
+    assertNull(codec.decode("not-a-token", NOW));
+    assertNull(codec.decode(null, NOW));
+  }
+
+  private static byte[] key(byte value) {
+    byte[] key = new byte[32];
+    Arrays.fill(key, value);
+    return key;
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.infrastructure.adapter.in.web;
 
+import com.example.application.dto.SessionPrincipal;
 import com.example.application.service.SessionService;
+import com.example.application.service.SessionSnapshot;
 import com.example.domain.model.User;
 import com.example.infrastructure.config.TestSecurityConfig;
 import org.junit.jupiter.api.Test;
@@ -10,8 +12,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 import static org.mockito.Mockito.*;
@@ -33,10 +35,8 @@ class SessionControllerTest {
   void getSessionInfo_ValidSession_ShouldReturnSessionInfo() throws Exception {
     // Given
     User testUser = createTestUser();
-    Map<String, Object> sessionInfo = createSessionInfo(testUser);
 
-    when(sessionService.isSessionValid()).thenReturn(true);
-    when(sessionService.getSessionInfo()).thenReturn(sessionInfo);
+    when(sessionService.getSnapshot()).thenReturn(createSnapshot(testUser));
 
     // When & Then
     mockMvc.perform(get("/api/session"))
@@ -49,7 +49,7 @@ class SessionControllerTest {
   @Test
   void getSessionInfo_InvalidSession_ShouldReturnUnauthorized() throws Exception {
     // Given
-    when(sessionService.isSessionValid()).thenReturn(false);
+    when(sessionService.getSnapshot()).thenReturn(SessionSnapshot.EMPTY);
 
     // When & Then
     mockMvc.perform(get("/api/session"))
@@ -59,7 +59,7 @@ class SessionControllerTest {
   @Test
   void validateSession_ValidSession_ShouldReturnOk() throws Exception {
     // Given
-    when(sessionService.isSessionValid()).thenReturn(true);
+    when(sessionService.getSnapshot()).thenReturn(createSnapshot(createTestUser()));
 
     // When & Then
     mockMvc.perform(get("/api/session/validate"))
@@ -70,7 +70,7 @@ class SessionControllerTest {
   @Test
   void validateSession_InvalidSession_ShouldReturnUnauthorized() throws Exception {
     // Given
-    when(sessionService.isSessionValid()).thenReturn(false);
+    when(sessionService.getSnapshot()).thenReturn(SessionSnapshot.EMPTY);
 
     // When & Then
     mockMvc.perform(get("/api/session/validate"))
@@ -78,6 +78,19 @@ class SessionControllerTest {
         .andExpect(content().string("Session is invalid or expired"));
   }
 
+  @Test
+  void validateSession_PrincipalToken_ShouldReturnOkWithoutLoadingSession() throws Exception {
+    // Given
+    PrincipalToken token = new PrincipalToken("session-1", "testuser", List.of("ROLE_USER"),
+        Instant.now().plusSeconds(60));
+
+    // When & Then
+    mockMvc.perform(get("/api/session/validate").requestAttr(PrincipalTokenFilter.TOKEN_ATTRIBUTE, token))
+        .andExpect(status().isOk())
+        .andExpect(content().string("Session is valid"));
+    verify(sessionService, never()).getSnapshot();
+  }
+
   @Test
   void logout_ShouldReturnSuccessMessage() throws Exception {
     // Given
@@ -97,8 +110,7 @@ class SessionControllerTest {
     // Given
     User testUser = createTestUser();
 
-    when(sessionService.isSessionValid()).thenReturn(true);
-    when(sessionService.getCurrentUser()).thenReturn(testUser);
+    when(sessionService.getSnapshot()).thenReturn(createSnapshot(testUser));
 
     // When & Then
     mockMvc.perform(get("/api/session/user"))
@@ -114,7 +126,7 @@ class SessionControllerTest {
   @Test
   void getCurrentUser_InvalidSession_ShouldReturnUnauthorized() throws Exception {
     // Given
-    when(sessionService.isSessionValid()).thenReturn(false);
+    when(sessionService.getSnapshot()).thenReturn(SessionSnapshot.EMPTY);
 
     // When & Then
     mockMvc.perform(get("/api/session/user"))
@@ -131,13 +143,8 @@ class SessionControllerTest {
     return user;
   }
 
-  private Map<String, Object> createSessionInfo(User user) {
-    Map<String, Object> sessionInfo = new HashMap<>();
-    sessionInfo.put("sessionId", "test-session-id");
-    sessionInfo.put("userId", user.getId());
-    sessionInfo.put("username", user.getUsername());
-    sessionInfo.put("createdTime", System.currentTimeMillis());
-    sessionInfo.put("maxInactiveInterval", 1800);
-    return sessionInfo;
+  private SessionSnapshot createSnapshot(User user) {
+    long now = System.currentTimeMillis();
+    return new SessionSnapshot("test-session-id", SessionPrincipal.of(user), now, now, 1800, false);
   }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.infrastructure.adapter.in.web;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCookieAuthorizationManagerTest {
+
+  private final SessionCookieAuthorizationManager manager =
+      new SessionCookieAuthorizationManager(new DefaultCookieSerializer());
+  private final Supplier<Authentication> anonymous = () -> new AnonymousAuthenticationToken("key", "anonymousUser",
+      AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void check_NoCookieNorToken_ShouldDeny() {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+
+    // When
+    boolean granted = manager.check(anonymous, new RequestAuthorizationContext(request)).isGranted();
+
+    // Then
+    assertFalse(granted);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void check_SessionCookie_ShouldGrant() {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+    request.setCookies(new Cookie("SESSION",
+        Base64.getEncoder().encodeToString("session-1".getBytes(StandardCharsets.UTF_8))));
+
+    // When
+    boolean granted = manager.check(anonymous, new RequestAuthorizationContext(request)).isGranted();
+
+    // Then
+    assertTrue(granted);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  void check_AcceptedPrincipalToken_ShouldGrant() {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session/validate");
+    request.setAttribute(PrincipalTokenFilter.TOKEN_ATTRIBUTE, new Object());
+
+    // When
+    boolean granted = manager.check(anonymous, new RequestAuthorizationContext(request)).isGranted();
+
+    // Then
+    assertTrue(granted);
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.infrastructure.adapter.in.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCreationGuardFilterTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private SessionCreationGuardFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    filter = new SessionCreationGuardFilter(List.of("/api/session/**", "/actuator/**"), meterRegistry);
+  }
+
+  @Test
+  void doFilter_AnonymousRequestOnGuardedPath_ShouldNotCreateSession() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session/validate");
+    AtomicReference<HttpSession> session = new AtomicReference<>();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), handler("/api/session/validate", session));
+
+    // Then
+    assertNull(session.get());
+    assertNull(request.getSession(false));
+    assertEquals(1.0, meterRegistry.get("session.creation.blocked").tag("endpoint", "/api/session/validate")
+        .counter().count());
+    assertNull(meterRegistry.find("session.created").counter());
+  }
+
+  @Test
+  void doFilter_AnonymousRequestOnOtherPath_ShouldCreateAndCountSession() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+    AtomicReference<HttpSession> session = new AtomicReference<>();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), handler("/api/auth/login", session));
+
+    // Then
+    assertNotNull(session.get());
+    assertEquals(1.0, meterRegistry.get("session.created").tag("endpoint", "/api/auth/login").counter().count());
+  }
+
+  @Test
+  void doFilter_RequestWithSession_ShouldUseExistingSession() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+    MockHttpSession existing = new MockHttpSession();
+    request.setSession(existing);
+    AtomicReference<HttpSession> session = new AtomicReference<>();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), handler("/api/session", session));
+
+    // Then
+    assertSame(existing, session.get());
+    assertTrue(meterRegistry.getMeters().isEmpty());
+  }
+
+  @Test
+  void doFilter_RejectedBeforeController_ShouldTagGuardedPattern() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> ((HttpServletRequest) req).getSession());
+
+    // Then
+    assertEquals(1.0, meterRegistry.get("session.creation.blocked").tag("endpoint", "/actuator/**")
+        .counter().count());
+  }
+
+  /**
+   * Chain standing in for a controller that asks for a session
+   */
+  private static FilterChain handler(String pattern, AtomicReference<HttpSession> session) {
+    return (request, response) -> {
+      request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+      session.set(((HttpServletRequest) request).getSession(true));
+    };
+  }
+}
@@ -0,0 +1,153 @@
+package com.example.infrastructure.adapter.out.persistence;
+
+import com.example.domain.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactUserStoreTest {
+
+  private final CompactUserStore store = new CompactUserStore(16);
+
+  @Test
+  void save_NewUser_ShouldAssignIdAndFindItByUsernameAndEmail() {
+    // Given
+    User user = user("alice", "alice@example.com");
+    user.addRole("ADMIN");
+    user.addRole("USER");
+
+    // When
+    store.save(user);
+
+    // Then
+    assertEquals(Long.valueOf(1), user.getId());
+    User found = store.findByUsername("alice").orElseThrow();
+    assertEquals(Long.valueOf(1), found.getId());
+    assertEquals("{bcrypt}hash-alice", found.getPassword());
+    assertEquals("alice@example.com", found.getEmail());
+    assertEquals(Set.of("ADMIN", "USER"), found.getRoles());
+    assertTrue(found.isEnabled());
+    assertEquals("alice", store.findByEmail("alice@example.com").orElseThrow().getUsername());
+    assertTrue(store.findByUsername("bob").isEmpty());
+    assertTrue(store.findByEmail(null).isEmpty());
+  }
+
+  @Test
+  void save_ExistingUsername_ShouldReplaceUserAndKeepItsId() {
+    // Given
+    store.save(user("alice", "alice@example.com"));
+    User update = user("alice", "alice@example.com");
+    update.setPassword("{bcrypt}rehash");
+    update.setEnabled(false);
+
+    // When
+    store.save(update);
+
+    // Then
+    User found = store.findByUsername("alice").orElseThrow();
+    assertEquals(Long.valueOf(1), found.getId());
+    assertEquals("{bcrypt}rehash", found.getPassword());
+    assertFalse(found.isEnabled());
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  void save_ChangedEmail_ShouldOnlyFindUserByNewEmail() {
+    // Given
+    User user = store.save(user("alice", "alice@example.com"));
+    user.setEmail("alice@example.org");
+
+    // When
+    store.save(user);
+
+    // Then
+    assertTrue(store.findByEmail("alice@example.com").isEmpty());
+    assertEquals("alice", store.findByEmail("alice@example.org").orElseThrow().getUsername());
+  }
+
+  @Test
+  void findByUsername_ModifiedCopy_ShouldNotChangeStoredUser() {
+    // Given
+    store.save(user("alice", "alice@example.com"));
+
+    // When
+    store.findByUsername("alice").orElseThrow().setPassword("changed");
+
+    // Then
+    assertEquals("{bcrypt}hash-alice", store.findByUsername("alice").orElseThrow().getPassword());
+  }
+
+  @Test
+  void save_ExplicitId_ShouldNotBeGeneratedAgain() {
+    // Given
+    User seeded = user("admin", "admin@example.com");
+    seeded.setId(7L);
+    store.save(seeded);
+
+    // When
+    User next = store.save(user("alice", "alice@example.com"));
+
+    // Then
+    assertEquals(Long.valueOf(8), next.getId());
+  }
+
+  @Test
+  void save_ManyUsers_ShouldGrowIndexesAndFindEveryUser() {
+    // When
+    for (int i = 0; i < 50_000; i++) {
+      store.save(user("user-" + i, "user-" + i + "@example.com"));
+    }
+
+    // Then
+    assertEquals(50_000, store.size());
+    for (int i = 0; i < 50_000; i++) {
+      assertEquals(Long.valueOf(i + 1), store.findByUsername("user-" + i).orElseThrow().getId());
+      assertEquals("user-" + i, store.findByEmail("user-" + i + "@example.com").orElseThrow().getUsername());
+    }
+  }
+
+  @Test
+  void save_ConcurrentWriters_ShouldAssignUniqueIds() throws Exception {
+    // Given
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> writers = new ArrayList<>();
+
+    // When
+    for (int t = 0; t < 4; t++) {
+      int writer = t;
+      writers.add(executor.submit(() -> {
+        for (int i = 0; i < 5_000; i++) {
+          store.save(user("user-" + writer + "-" + i, null));
+        }
+      }));
+    }
+    for (Future<?> future : writers) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // Then
+    Set<Long> ids = new HashSet<>();
+    for (int t = 0; t < 4; t++) {
+      for (int i = 0; i < 5_000; i++) {
+        ids.add(store.findByUsername("user-" + t + "-" + i).orElseThrow().getId());
+      }
+    }
+    assertEquals(20_000, ids.size());
+    assertEquals(20_000, store.size());
+  }
+
+  private static User user(String username, String email) {
+    User user = new User(username, "{bcrypt}hash-" + username, email);
+    user.addRole("USER");
+    return user;
+  }
+}
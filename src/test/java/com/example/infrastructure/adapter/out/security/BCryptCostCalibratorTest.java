@@ -0,0 +1,80 @@
+package com.example.infrastructure.adapter.out.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+  @Test
+  void calibrate_TargetBelowMinimumCost_ShouldKeepMinimumCost() {
+    // Given
+    BCryptCostCalibrator calibrator = new BCryptCostCalibrator(5, 8);
+
+    // When
+    BCryptCostCalibrator.Calibration calibration = calibrator.calibrate(Duration.ofNanos(1));
+
+    // Then
+    assertEquals(5, calibration.cost());
+    assertTrue(calibration.verificationTime().toNanos() > 0);
+  }
+
+  @Test
+  void calibrate_GenerousTarget_ShouldStopAtMaximumCost() {
+    // Given
+    BCryptCostCalibrator calibrator = new BCryptCostCalibrator(4, 6);
+
+    // When
+    BCryptCostCalibrator.Calibration calibration = calibrator.calibrate(Duration.ofMinutes(1));
+
+    // Then
+    assertEquals(6, calibration.cost());
+    assertTrue(calibration.verificationsPerSecondPerCore() > 0);
+  }
+
+  @Test
+  void calibrate_ChosenCostSlowerThanExtrapolated_ShouldStepDownToTheMeasuredCost() {
+    // Given
+    Map<Integer, Long> millisByCost = Map.of(4, 1L, 5, 2L, 6, 10L, 7, 20L);
+    List<Integer> measured = new ArrayList<>();
+    BCryptCostCalibrator calibrator = new BCryptCostCalibrator(4, 7, cost -> {
+      measured.add(cost);
+      return TimeUnit.MILLISECONDS.toNanos(millisByCost.get(cost));
+    });
+
+    // When
+    BCryptCostCalibrator.Calibration calibration = calibrator.calibrate(Duration.ofMillis(5));
+
+    // Then
+    assertEquals(5, calibration.cost());
+    assertEquals(Duration.ofMillis(2), calibration.verificationTime());
+    assertEquals(List.of(4, 6, 5), measured);
+  }
+
+  @Test
+  void calibrate_ExtrapolatedCostWithinTarget_ShouldKeepItWithItsMeasuredTime() {
+    // Given
+    BCryptCostCalibrator calibrator = new BCryptCostCalibrator(4, 7,
+        cost -> TimeUnit.MILLISECONDS.toNanos(cost == 4 ? 1 : 3));
+
+    // When
+    BCryptCostCalibrator.Calibration calibration = calibrator.calibrate(Duration.ofMillis(5));
+
+    // Then
+    assertEquals(6, calibration.cost());
+    assertEquals(Duration.ofMillis(3), calibration.verificationTime());
+  }
+
+  @Test
+  void constructor_InvalidRange_ShouldThrowException() {
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> new BCryptCostCalibrator(3, 10));
+    assertThrows(IllegalArgumentException.class, () -> new BCryptCostCalibrator(12, 10));
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.infrastructure.adapter.out.security;
+
+import com.example.application.exception.AuthenticationOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile long hashMillis;
+  private volatile boolean blockHashes;
+  private volatile String hashThread;
+  private BoundedPasswordEncoder encoder;
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    encoder.close();
+  }
+
+  @Test
+  void matches_FreeThread_ShouldVerifyOnThePool() {
+    // Given
+    encoder = encoder(1, 10, Duration.ofSeconds(1));
+
+    // When
+    boolean matched = encoder.matches("secret", "secret");
+
+    // Then
+    assertTrue(matched);
+    assertTrue(hashThread.startsWith("password-hash-"), hashThread);
+    assertEquals(1, meterRegistry.get("auth.password.hash").timer().count());
+  }
+
+  @Test
+  void matches_QueueFull_ShouldRefuseWithoutVerifying() {
+    // Given
+    encoder = encoder(1, 1, Duration.ofSeconds(5));
+    blockHashes = true;
+    startLogin();
+    awaitTrue(() -> meterRegistry.get("auth.password.queue.wait").timer().count() == 1);
+    startLogin();
+    awaitTrue(() -> meterRegistry.get("auth.password.queue.depth").gauge().value() == 1);
+
+    // When & Then
+    assertThrows(AuthenticationOverloadedException.class, () -> encoder.matches("secret", "secret"));
+    assertEquals(1.0, rejected("queue-full"));
+  }
+
+  @Test
+  void matches_ExpectedWaitOverBudget_ShouldRefuseWithRetryAfter() {
+    // Given
+    encoder = encoder(1, 10, Duration.ofMillis(100));
+    hashMillis = 200;
+    encoder.matches("secret", "secret");
+    blockHashes = true;
+    startLogin();
+    awaitTrue(() -> meterRegistry.get("auth.password.queue.wait").timer().count() == 2);
+
+    // When
+    long start = System.nanoTime();
+    AuthenticationOverloadedException e = assertThrows(AuthenticationOverloadedException.class,
+        () -> encoder.matches("secret", "secret"));
+    long refusedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertTrue(refusedMillis < 100, "refusal waited " + refusedMillis + " ms");
+    assertTrue(e.getRetryAfter().toMillis() >= 200);
+    assertEquals(1.0, rejected("wait-budget"));
+  }
+
+  private BoundedPasswordEncoder encoder(int threads, int queueCapacity, Duration maxQueueWait) {
+    PasswordEncoder delegate = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        return rawPassword.toString();
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        hashThread = Thread.currentThread().getName();
+        try {
+          Thread.sleep(hashMillis);
+          if (blockHashes) {
+            release.await(5, TimeUnit.SECONDS);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return rawPassword.toString().equals(encodedPassword);
+      }
+    };
+    return new BoundedPasswordEncoder(delegate, threads, queueCapacity, maxQueueWait, meterRegistry);
+  }
+
+  private double rejected(String reason) {
+    return meterRegistry.get("auth.password.rejected").tag("reason", reason).counter().count();
+  }
+
+  private void startLogin() {
+    Thread login = new Thread(() -> encoder.matches("secret", "secret"));
+    login.setDaemon(true);
+    login.start();
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "condition not met in time");
+      Thread.onSpinWait();
+    }
+  }
+}
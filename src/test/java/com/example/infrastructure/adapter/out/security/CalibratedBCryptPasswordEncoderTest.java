@@ -0,0 +1,40 @@
+package com.example.infrastructure.adapter.out.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+  private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+  @Test
+  void upgradeEncoding_SameCost_ShouldBeFalse() {
+    // Given
+    String hash = encoder.encode("secret");
+
+    // When & Then
+    assertFalse(encoder.upgradeEncoding(hash));
+    assertTrue(encoder.matches("secret", hash));
+  }
+
+  @Test
+  void upgradeEncoding_LowerOrHigherCost_ShouldBeTrue() {
+    // Given
+    String weaker = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+    String stronger = BCrypt.hashpw("secret", BCrypt.gensalt(6));
+
+    // When & Then
+    assertTrue(encoder.upgradeEncoding(weaker));
+    assertTrue(encoder.upgradeEncoding(stronger));
+    assertTrue(encoder.matches("secret", stronger));
+  }
+
+  @Test
+  void upgradeEncoding_NotBCrypt_ShouldBeFalse() {
+    // When & Then
+    assertFalse(encoder.upgradeEncoding(null));
+    assertFalse(encoder.upgradeEncoding("plain"));
+  }
+}
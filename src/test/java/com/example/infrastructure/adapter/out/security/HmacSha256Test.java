@@ -0,0 +1,43 @@
+package com.example.infrastructure.adapter.out.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacSha256Test {
+
+  @Test
+  void sign_Rfc4231TestCase1_ShouldMatchTheExpectedMac() {
+    // Given
+    byte[] key = new byte[20];
+    Arrays.fill(key, (byte) 0x0b);
+    HmacSha256 hmac = new HmacSha256(key);
+
+    // When
+    byte[] mac = hmac.sign("Hi There".getBytes(StandardCharsets.US_ASCII));
+
+    // Then
+    assertEquals("b0344c61d8db38535ca8afceaf0bf12b881dc200c9833da726e9376c2e32cff7", HexFormat.of().formatHex(mac));
+  }
+
+  @Test
+  void newMac_UpdatedByOneCaller_ShouldNotAffectTheNextOne() {
+    // Given
+    HmacSha256 hmac = new HmacSha256(new byte[32]);
+    byte[] expected = hmac.sign(new byte[] {1});
+
+    // When
+    Mac first = hmac.newMac();
+    first.update(new byte[] {9, 9, 9});
+    byte[] second = hmac.newMac().doFinal(new byte[] {1});
+
+    // Then
+    assertNotSame(first, hmac.newMac());
+    assertArrayEquals(expected, second);
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.infrastructure.adapter.out.security;
+
+import com.example.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacVerifiedCredentialCacheTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final HmacVerifiedCredentialCache cache = new HmacVerifiedCredentialCache(key(), 2,
+      Duration.ofMinutes(5), clock, meterRegistry);
+
+  @Test
+  void isVerified_SamePasswordWithinTtl_ShouldHit() {
+    // Given
+    User user = user("alice", "$2a$10$hash", true);
+    cache.remember(user, "secret");
+
+    // When & Then
+    assertTrue(cache.isVerified(user, "secret"));
+    assertFalse(cache.isVerified(user, "other"));
+    assertFalse(cache.isVerified(user("bob", "$2a$10$hash", true), "secret"));
+    assertEquals(1.0, meterRegistry.get("auth.credential.cache.gets").tag("result", "hit").counter().count());
+  }
+
+  @Test
+  void isVerified_AfterTtl_ShouldMiss() {
+    // Given
+    User user = user("alice", "$2a$10$hash", true);
+    cache.remember(user, "secret");
+
+    // When
+    clock.advance(Duration.ofMinutes(5));
+
+    // Then
+    assertFalse(cache.isVerified(user, "secret"));
+  }
+
+  @Test
+  void userSaved_PasswordHashChanged_ShouldForgetTheCredential() {
+    // Given
+    User user = user("alice", "$2a$10$hash", true);
+    cache.remember(user, "secret");
+
+    // When
+    cache.userSaved(user("alice", "$2a$12$rehash", true));
+
+    // Then
+    assertEquals(0, cache.size());
+    assertEquals(1.0, meterRegistry.get("auth.credential.cache.invalidations").counter().count());
+  }
+
+  @Test
+  void userSaved_Disabled_ShouldForgetTheCredential() {
+    // Given
+    User user = user("alice", "$2a$10$hash", true);
+    cache.remember(user, "secret");
+
+    // When
+    user.setEnabled(false);
+    cache.userSaved(user);
+
+    // Then
+    assertEquals(0, cache.size());
+    user.setEnabled(true);
+    assertFalse(cache.isVerified(user, "secret"));
+  }
+
+  @Test
+  void userSaved_Unchanged_ShouldKeepTheCredential() {
+    // Given
+    User user = user("alice", "$2a$10$hash", true);
+    cache.remember(user, "secret");
+
+    // When
+    cache.userSaved(user);
+
+    // Then
+    assertTrue(cache.isVerified(user, "secret"));
+  }
+
+  @Test
+  void remember_BeyondMaxEntries_ShouldEvictLeastRecentlyUsed() {
+    // Given
+    User alice = user("alice", "$2a$10$a", true);
+    User bob = user("bob", "$2a$10$b", true);
+    cache.remember(alice, "a");
+    cache.remember(bob, "b");
+    cache.isVerified(alice, "a");
+
+    // When
+    cache.remember(user("carol", "$2a$10$c", true), "c");
+
+    // Then
+    assertTrue(cache.isVerified(alice, "a"));
+    assertFalse(cache.isVerified(bob, "b"));
+  }
+
+  private static User user(String username, String encodedPassword, boolean enabled) {
+    User user = new User(username, encodedPassword, username + "@example.com");
+    user.setEnabled(enabled);
+    return user;
+  }
+
+  private static byte[] key() {
+    byte[] key = new byte[32];
+    Arrays.fill(key, (byte) 7);
+    return key;
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.session.FindByIndexNameSessionRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application instances, each with its own connection, store and registry, sharing one
+ * in-memory Redis
+ */
+class ConcurrentSessionControlIntegrationTest {
+
+  private static final String NAMESPACE = "test:session";
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension();
+
+  private ConcurrentSessionControlRepository instanceA;
+  private ConcurrentSessionControlRepository instanceB;
+  private RedisSessionRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    instanceA = instance();
+    instanceB = instance();
+    registry = new RedisSessionRegistry(template(), NAMESPACE, 1, Duration.ofMinutes(30));
+  }
+
+  @Test
+  void save_LoginOnOtherInstance_ShouldExpirePreviousSession() {
+    // Given
+    StoredSession first = login(instanceA, "alice");
+
+    // When
+    StoredSession second = login(instanceB, "alice");
+
+    // Then
+    assertNull(instanceB.findById(first.getId()));
+    assertNotNull(instanceA.findById(second.getId()));
+    assertEquals(List.of(second.getId()), registry.findSessionIds("alice"));
+  }
+
+  @Test
+  void save_Login_ShouldExpirePrincipalIndexWithTheSessions() {
+    // When
+    login(instanceA, "alice");
+
+    // Then
+    Long ttl = template().getExpire(NAMESPACE + ":index:principal:alice", TimeUnit.SECONDS);
+    assertNotNull(ttl);
+    assertTrue(ttl > 0 && ttl <= Duration.ofMinutes(30).toSeconds(), "ttl " + ttl);
+  }
+
+  @Test
+  void save_ReactiveLoginAfterServletLogin_ShouldExpirePreviousSession() {
+    // Given
+    StoredSession first = login(instanceA, "alice");
+    ReactiveRedisSessionStore reactiveStore = reactiveInstance(instanceB);
+
+    // When
+    StoredSession second = reactiveStore.createSession().block();
+    second.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+    reactiveStore.save(second).block();
+
+    // Then
+    assertNull(instanceA.findById(first.getId()));
+    assertNotNull(instanceA.findById(second.getId()));
+    assertEquals(List.of(second.getId()), registry.findSessionIds("alice"));
+  }
+
+  @Test
+  void save_OtherUser_ShouldKeepBothSessions() {
+    // When
+    StoredSession alice = login(instanceA, "alice");
+    StoredSession bob = login(instanceB, "bob");
+
+    // Then
+    assertNotNull(instanceA.findById(alice.getId()));
+    assertNotNull(instanceA.findById(bob.getId()));
+  }
+
+  @Test
+  void save_ConcurrentLoginsOnBothInstances_ShouldLeaveExactlyOneSession() throws InterruptedException {
+    // Given
+    int loginsPerInstance = 25;
+    ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (ConcurrentSessionControlRepository instance : List.of(instanceA, instanceB)) {
+      for (int worker = 0; worker < 2; worker++) {
+        Thread thread = new Thread(() -> {
+          try {
+            start.await();
+            for (int i = 0; i < loginsPerInstance; i++) {
+              created.add(login(instance, "alice").getId());
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+        thread.start();
+        threads.add(thread);
+      }
+    }
+
+    // When
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Then
+    List<String> alive = created.stream().filter(id -> instanceA.findById(id) != null).toList();
+    assertEquals(4 * loginsPerInstance, created.size());
+    assertEquals(1, alive.size(), "Sessions still alive: " + alive);
+    assertEquals(alive, registry.findSessionIds("alice"));
+  }
+
+  private static StoredSession login(ConcurrentSessionControlRepository repository, String username) {
+    StoredSession session = repository.createSession();
+    session.setAttribute("currentUser", username);
+    session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, username);
+    repository.save(session);
+    return session;
+  }
+
+  private static ConcurrentSessionControlRepository instance() {
+    StringRedisTemplate redisTemplate = template();
+    RedisSessionStore store = new RedisSessionStore(redisTemplate, new JdkSerializationRedisSerializer(), NAMESPACE,
+        Duration.ofMinutes(30), new SimpleMeterRegistry());
+    store.setExpiryIndex(new SessionExpiryIndex(NAMESPACE, 4));
+    return new ConcurrentSessionControlRepository(store,
+        new RedisSessionRegistry(redisTemplate, NAMESPACE, 1, Duration.ofMinutes(30)), new SimpleMeterRegistry());
+  }
+
+  /**
+   * Reactive store on its own connection whose expired sessions are deleted through the servlet repository
+   */
+  private static ReactiveRedisSessionStore reactiveInstance(StoredSessionRepository servletRepository) {
+    StringRedisTemplate redisTemplate = template();
+    RedisSessionStore store = new RedisSessionStore(redisTemplate, new JdkSerializationRedisSerializer(), NAMESPACE,
+        Duration.ofMinutes(30), new SimpleMeterRegistry());
+    store.setExpiryIndex(new SessionExpiryIndex(NAMESPACE, 4));
+    RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+        .<String, byte[]>newSerializationContext(RedisSerializer.string())
+        .value(RedisSerializer.byteArray())
+        .hashKey(RedisSerializer.string())
+        .hashValue(RedisSerializer.byteArray())
+        .build();
+    ReactiveRedisSessionStore reactiveStore = new ReactiveRedisSessionStore(
+        new ReactiveRedisTemplate<>((LettuceConnectionFactory) redisTemplate.getConnectionFactory(), context), store);
+    reactiveStore.setSessionControl(new ConcurrentSessionControlRepository(servletRepository,
+        new RedisSessionRegistry(redisTemplate, NAMESPACE, 1, Duration.ofMinutes(30)), new SimpleMeterRegistry()));
+    return reactiveStore;
+  }
+
+  private static StringRedisTemplate template() {
+    return new StringRedisTemplate(redis.newConnectionFactory());
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.infrastructure.adapter.out.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+  private static final int KEYS = 20_000;
+
+  @Test
+  void nodeFor_ManyKeys_ShouldSpreadEvenly() {
+    // Given
+    ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes(4), 160);
+
+    // When
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      counts.merge(ring.nodeFor(UUID.randomUUID().toString()), 1, Integer::sum);
+    }
+
+    // Then
+    assertEquals(4, counts.size());
+    counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 4) < KEYS / 4 * 0.25,
+        "Uneven spread: " + counts));
+  }
+
+  @Test
+  void nodeFor_AfterAddingNode_ShouldOnlyMoveKeysToNewNode() {
+    // Given
+    ConsistentHashRing<String> before = new ConsistentHashRing<>(nodes(3), 160);
+    ConsistentHashRing<String> after = new ConsistentHashRing<>(nodes(4), 160);
+
+    // When
+    int moved = 0;
+    for (int i = 0; i < KEYS; i++) {
+      String key = UUID.randomUUID().toString();
+      String previous = before.nodeFor(key);
+      String current = after.nodeFor(key);
+      if (!previous.equals(current)) {
+        assertEquals("node-3", current);
+        moved++;
+      }
+    }
+
+    // Then
+    double fraction = moved / (double) KEYS;
+    assertTrue(fraction > 0.15 && fraction < 0.35, "Moved fraction " + fraction);
+  }
+
+  @Test
+  void nodeFor_SameNodesInOtherOrder_ShouldRouteTheSame() {
+    // Given
+    Map<String, String> reversed = new LinkedHashMap<>();
+    reversed.put("node-2", "node-2");
+    reversed.put("node-1", "node-1");
+    reversed.put("node-0", "node-0");
+    ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes(3), 160);
+    ConsistentHashRing<String> reversedRing = new ConsistentHashRing<>(reversed, 160);
+
+    // When & Then
+    for (int i = 0; i < 1000; i++) {
+      String key = "session-" + i;
+      assertEquals(ring.nodeFor(key), reversedRing.nodeFor(key));
+    }
+  }
+
+  private static Map<String, String> nodes(int count) {
+    Map<String, String> nodes = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      nodes.put("node-" + i, "node-" + i);
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSessionStoreTest {
+
+  private final LocalSessionStore store = new LocalSessionStore(2, new SimpleMeterRegistry());
+
+  @Test
+  void oldest_AfterReads_ShouldKeepTheOrderOfTheChanges() {
+    // Given
+    store.put(hash("a"));
+    store.put(hash("b"));
+
+    // When
+    store.get("a");
+
+    // Then
+    assertEquals(List.of("a", "b"), ids(store.oldest(10)));
+  }
+
+  @Test
+  void put_ChangedAgain_ShouldMoveTheSessionLast() {
+    // Given
+    store.put(hash("a"));
+    store.put(hash("b"));
+
+    // When
+    store.markDeleted("a");
+
+    // Then
+    assertEquals(List.of("b", "a"), ids(store.oldest(10)));
+    assertTrue(store.get("a").isDelete());
+  }
+
+  @Test
+  void put_Full_ShouldEvictTheChangeMadeLongestAgo() {
+    // Given
+    store.put(hash("a"));
+    store.put(hash("b"));
+    store.get("a");
+
+    // When
+    store.put(hash("c"));
+
+    // Then
+    assertNull(store.get("a"));
+    assertEquals(List.of("b", "c"), ids(store.oldest(10)));
+  }
+
+  private static SessionHash hash(String id) {
+    return new SessionHash(id, Map.of());
+  }
+
+  private static List<String> ids(List<LocalSessionStore.Change> changes) {
+    return changes.stream().map(LocalSessionStore.Change::id).toList();
+  }
+}
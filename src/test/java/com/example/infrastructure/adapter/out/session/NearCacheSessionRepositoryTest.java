@@ -0,0 +1,183 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.UuidSessionIdGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheSessionRepositoryTest {
+
+  @Mock
+  private RedisSessionStore store;
+
+  @Mock
+  private SessionInvalidationChannel invalidationChannel;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SessionNearCache nearCache;
+  private NearCacheSessionRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    nearCache = new SessionNearCache(1000, Duration.ofSeconds(30), meterRegistry);
+    repository = new NearCacheSessionRepository(store, nearCache, invalidationChannel);
+  }
+
+  @Test
+  void findById_CacheMiss_ShouldLoadFromRedisAndCache() {
+    // Given
+    StoredSession session = persistedSession("session-1");
+    when(store.findById("session-1")).thenReturn(session);
+
+    // When
+    StoredSession loaded = repository.findById("session-1");
+
+    // Then
+    assertSame(session, loaded);
+    assertNotNull(nearCache.get("session-1"));
+    assertEquals(1.0, meterRegistry.get("session.nearcache.gets").tag("result", "miss").counter().count());
+  }
+
+  @Test
+  void findById_CacheHit_ShouldNotCallRedis() {
+    // Given
+    SessionHash hash = new SessionHash("session-1", Map.of());
+    nearCache.put(hash);
+    when(store.load(hash)).thenReturn(persistedSession("session-1"));
+
+    // When
+    StoredSession loaded = repository.findById("session-1");
+
+    // Then
+    assertNotNull(loaded);
+    verify(store, never()).findById(any());
+    assertEquals(1.0, meterRegistry.get("session.nearcache.gets").tag("result", "hit").counter().count());
+  }
+
+  @Test
+  void save_ChangedSession_ShouldRefreshCacheAndPublish() {
+    // Given
+    StoredSession session = persistedSession("session-1");
+    session.setAttribute("currentUser", "testuser");
+    doAnswer(invocation -> {
+      session.markSaved(Map.of(StoredSession.ATTRIBUTE_PREFIX + "currentUser", new byte[] {1}));
+      return null;
+    }).when(store).save(session);
+
+    // When
+    repository.save(session);
+
+    // Then
+    verify(store).save(session);
+    verify(invalidationChannel).publish("session-1");
+    assertNotNull(nearCache.get("session-1"));
+  }
+
+  @Test
+  void save_AccessTimeOnly_ShouldNotPublish() {
+    // Given
+    StoredSession session = persistedSession("session-1");
+    session.setLastAccessedTime(Instant.now());
+    doAnswer(invocation -> {
+      session.markSaved(Map.of(StoredSession.LAST_ACCESSED_TIME, new byte[] {1}));
+      return null;
+    }).when(store).save(session);
+
+    // When
+    repository.save(session);
+
+    // Then
+    verify(invalidationChannel, never()).publish(any());
+    assertNotNull(nearCache.get("session-1"));
+  }
+
+  @Test
+  void save_ChangedSessionId_ShouldInvalidatePreviousId() {
+    // Given
+    StoredSession session = persistedSession("session-1");
+    nearCache.put(new SessionHash("session-1", Map.of()));
+    String newId = session.changeSessionId();
+    doAnswer(invocation -> {
+      session.markSaved(Map.of());
+      return null;
+    }).when(store).save(session);
+
+    // When
+    repository.save(session);
+
+    // Then
+    verify(invalidationChannel).publish("session-1");
+    verify(invalidationChannel).publish(newId);
+    assertNull(nearCache.get("session-1"));
+    assertNotNull(nearCache.get(newId));
+  }
+
+  @Test
+  void save_InvalidatedSession_ShouldDropCachedCopy() {
+    // Given
+    StoredSession session = persistedSession("session-1");
+    nearCache.put(new SessionHash("session-1", Map.of()));
+    doThrow(new IllegalStateException("Session was invalidated")).when(store).save(session);
+
+    // When & Then
+    assertThrows(IllegalStateException.class, () -> repository.save(session));
+    assertNull(nearCache.get("session-1"));
+  }
+
+  @Test
+  void deleteById_ShouldInvalidateAndPublish() {
+    // Given
+    nearCache.put(new SessionHash("session-1", Map.of()));
+
+    // When
+    repository.deleteById("session-1");
+
+    // Then
+    verify(store).deleteById("session-1");
+    verify(invalidationChannel).publish("session-1");
+    assertNull(nearCache.get("session-1"));
+  }
+
+  @Test
+  void put_OverCapacity_ShouldEvictLeastRecentlyUsed() {
+    // Given
+    SessionNearCache smallCache = new SessionNearCache(16, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    // When
+    for (int i = 0; i < 200; i++) {
+      smallCache.put(new SessionHash("session-" + i, Map.of()));
+    }
+
+    // Then
+    assertTrue(smallCache.size() <= 16);
+  }
+
+  @Test
+  void get_ExpiredEntry_ShouldMiss() {
+    // Given
+    SessionNearCache shortLivedCache = new SessionNearCache(100, Duration.ZERO, new SimpleMeterRegistry());
+    shortLivedCache.put(new SessionHash("session-1", Map.of()));
+
+    // When & Then
+    assertNull(shortLivedCache.get("session-1"));
+  }
+
+  private StoredSession persistedSession(String id) {
+    return new StoredSession(UuidSessionIdGenerator.getInstance(), id, Instant.now(), Instant.now(),
+        Duration.ofMinutes(30), new HashMap<>(), raw -> null);
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revocations shared by two nodes through an in-memory Redis
+ */
+class PrincipalTokenRevocationsIntegrationTest {
+
+  private static final String NAMESPACE = "test:session";
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension();
+
+  private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+  @Test
+  void revoke_ShouldReachSubscribedNode() throws Exception {
+    // Given
+    PrincipalTokenRevocations nodeA = revocations(Duration.ofSeconds(60));
+    PrincipalTokenRevocations nodeB = revocations(Duration.ofSeconds(60));
+    subscribe(nodeB);
+
+    // When
+    nodeA.revoke(List.of("session-1", "session-2"));
+
+    // Then
+    assertTrue(nodeA.isRevoked("session-1"));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!nodeB.isRevoked("session-2") && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertTrue(nodeB.isRevoked("session-1"));
+    assertTrue(nodeB.isRevoked("session-2"));
+    assertFalse(nodeB.isRevoked("session-3"));
+    containers.forEach(RedisMessageListenerContainer::stop);
+  }
+
+  @Test
+  void load_NodeStartedAfterRevocation_ShouldKnowRevocationsInForce() {
+    // Given
+    revocations(Duration.ofSeconds(60)).revoke(List.of("session-1"));
+    PrincipalTokenRevocations starting = revocations(Duration.ofSeconds(60));
+
+    // When
+    starting.load();
+
+    // Then
+    assertTrue(starting.isRevoked("session-1"));
+  }
+
+  @Test
+  void isRevoked_AfterTokenTtl_ShouldForgetRevocation() throws InterruptedException {
+    // Given
+    PrincipalTokenRevocations revocations = revocations(Duration.ofMillis(100));
+    revocations.revoke(List.of("session-1"));
+
+    // When
+    Thread.sleep(150);
+    PrincipalTokenRevocations starting = revocations(Duration.ofMillis(100));
+    starting.load();
+
+    // Then
+    assertFalse(revocations.isRevoked("session-1"));
+    assertFalse(starting.isRevoked("session-1"));
+  }
+
+  private static PrincipalTokenRevocations revocations(Duration ttl) {
+    return new PrincipalTokenRevocations(redis.template(), NAMESPACE, ttl, new SimpleMeterRegistry());
+  }
+
+  private void subscribe(PrincipalTokenRevocations revocations) throws InterruptedException {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redis.connectionFactory());
+    container.addMessageListener(revocations, new ChannelTopic(revocations.getChannel()));
+    container.afterPropertiesSet();
+    container.start();
+    containers.add(container);
+    // Espera a que la suscripción esté activa antes de publicar
+    Thread.sleep(300);
+  }
+}
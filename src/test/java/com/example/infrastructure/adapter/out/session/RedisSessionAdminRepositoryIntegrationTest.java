@@ -0,0 +1,160 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.application.dto.InvalidationProgress;
+import com.example.application.dto.SessionQuery;
+import com.example.application.dto.SessionSummary;
+import com.example.application.service.SessionAdministrationService;
+import com.example.domain.model.User;
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Session administration over two in-memory Redis shards, with pages much smaller than the store
+ */
+class RedisSessionAdminRepositoryIntegrationTest {
+
+  private static final String NAMESPACE = "test:session";
+  private static final int PAGE_SIZE = 25;
+  private static final int USERS = 100;
+  private static final int ADMINS = 20;
+  private static final int ANONYMOUS = 5;
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension(2);
+
+  private static final Map<String, RedisSessionStore> stores = new LinkedHashMap<>();
+  private static StringRedisTemplate indexTemplate;
+
+  private ShardedSessionRepository sessionRepository;
+  private RedisSessionRegistry sessionRegistry;
+  private RedisSessionAdminRepository adminRepository;
+
+  @BeforeAll
+  static void createStores() {
+    for (int i = 0; i < redis.nodes(); i++) {
+      StringRedisTemplate redisTemplate = new StringRedisTemplate(redis.connectionFactory(i));
+      stores.put("node-" + i, new RedisSessionStore(redisTemplate, new JdkSerializationRedisSerializer(), NAMESPACE,
+          Duration.ofMinutes(30), new SimpleMeterRegistry()));
+      if (indexTemplate == null) {
+        indexTemplate = redisTemplate;
+      }
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    sessionRepository = new ShardedSessionRepository(new ConsistentHashRing<>(stores, 160), null,
+        new SimpleMeterRegistry());
+    sessionRegistry = new RedisSessionRegistry(indexTemplate, NAMESPACE, 1, Duration.ofMinutes(30));
+    adminRepository = new RedisSessionAdminRepository(sessionRepository, new JdkSerializationRedisSerializer(),
+        sessionRegistry, PAGE_SIZE);
+
+    for (int i = 0; i < USERS; i++) {
+      save(user("user-" + i, "USER"));
+    }
+    for (int i = 0; i < ADMINS; i++) {
+      save(user("admin-" + i, "ADMIN", "USER"));
+    }
+    for (int i = 0; i < ANONYMOUS; i++) {
+      save(null);
+    }
+  }
+
+  @Test
+  void scan_WholeStore_ShouldVisitEverySessionOnEveryNodeInBoundedPages() {
+    // Given
+    List<Integer> pageSizes = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    List<SessionSummary> anonymous = new ArrayList<>();
+
+    // When
+    adminRepository.scan(new SessionQuery(null, null), page -> {
+      pageSizes.add(page.size());
+      page.forEach(session -> {
+        seen.add(session.sessionId());
+        if (session.username() == null) {
+          anonymous.add(session);
+        }
+      });
+    });
+
+    // Then
+    assertEquals(USERS + ADMINS + ANONYMOUS, seen.size());
+    assertTrue(pageSizes.stream().allMatch(size -> size <= PAGE_SIZE), "Page sizes: " + pageSizes);
+    assertTrue(pageSizes.size() >= (USERS + ADMINS + ANONYMOUS) / PAGE_SIZE);
+    assertEquals(ANONYMOUS, anonymous.size());
+    assertTrue(anonymous.stream().allMatch(session -> session.roles().isEmpty()));
+  }
+
+  @Test
+  void scan_ByIndexedUsername_ShouldReadOnlyThatUsersSessions() {
+    // Given
+    String sessionId = save(user("alice", "USER"));
+    sessionRegistry.register("alice", sessionId);
+    List<List<SessionSummary>> pages = new ArrayList<>();
+
+    // When
+    adminRepository.scan(new SessionQuery("alice", null), pages::add);
+
+    // Then
+    assertEquals(1, pages.size());
+    SessionSummary session = pages.get(0).get(0);
+    assertEquals(sessionId, session.sessionId());
+    assertEquals("alice", session.username());
+    assertEquals(Set.of("USER"), session.roles());
+    assertEquals(1800, session.maxInactiveInterval());
+    assertTrue(session.creationTime() > 0);
+  }
+
+  @Test
+  void invalidateSessions_ByRole_ShouldDeleteOnlyMatchingSessionsOnEveryNode() {
+    // Given
+    SessionAdministrationService service = new SessionAdministrationService(adminRepository);
+    List<InvalidationProgress> reported = new ArrayList<>();
+
+    // When
+    InvalidationProgress result = service.invalidateSessions(new SessionQuery(null, "ADMIN"), null, reported::add);
+
+    // Then
+    assertEquals(new InvalidationProgress(USERS + ADMINS + ANONYMOUS, ADMINS, true), result);
+    assertTrue(reported.size() > 2);
+    List<SessionSummary> remaining = new ArrayList<>();
+    adminRepository.scan(new SessionQuery(null, null), remaining::addAll);
+    assertEquals(USERS + ANONYMOUS, remaining.size());
+    assertTrue(remaining.stream().noneMatch(session -> session.roles().contains("ADMIN")));
+  }
+
+  private String save(User user) {
+    StoredSession session = sessionRepository.createSession();
+    if (user != null) {
+      session.setAttribute(RedisSessionAdminRepository.USER_ATTRIBUTE, user);
+    }
+    sessionRepository.save(session);
+    return session.getId();
+  }
+
+  private static User user(String username, String... roles) {
+    User user = new User();
+    user.setUsername(username);
+    for (String role : roles) {
+      user.addRole(role);
+    }
+    return user;
+  }
+}
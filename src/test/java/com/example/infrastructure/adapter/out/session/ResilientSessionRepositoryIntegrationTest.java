@@ -0,0 +1,147 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Degraded mode of the session repository against an in-memory Redis that stops answering in time
+ */
+class ResilientSessionRepositoryIntegrationTest {
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension();
+
+  private SimpleMeterRegistry meterRegistry;
+  private SessionCircuitBreaker breaker;
+  private ResilientSessionRepository repository;
+  private RedisSessionStore reader;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    RedisSessionStore store = createStore(meterRegistry);
+    store.setCommandTimeout(Duration.ofMillis(100));
+    breaker = new SessionCircuitBreaker(1, Duration.ofMillis(300), Clock.systemUTC(), meterRegistry);
+    repository = new ResilientSessionRepository(store, breaker, new LocalSessionStore(100, meterRegistry),
+        new JdkSerializationRedisSerializer(), 10, Duration.ofSeconds(1), meterRegistry);
+    // Otro nodo sin modo degradado: solo ve lo que ya llegó a Redis
+    reader = createStore(new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    redis.server().setLatency(Duration.ZERO);
+    repository.close();
+  }
+
+  @Test
+  void save_RedisTooSlow_ShouldKeepTheSessionOnTheNodeAndWriteItBackOnRecovery() {
+    // Given
+    redis.server().setLatency(Duration.ofMillis(500));
+
+    // When
+    StoredSession session = repository.createSession();
+    session.setAttribute("theme", "dark");
+    repository.save(session);
+
+    // Then
+    assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+    assertEquals("dark", repository.findById(session.getId()).getAttribute("theme"));
+    assertEquals(1, repository.getPendingChanges());
+
+    redis.server().setLatency(Duration.ZERO);
+    awaitTrue(() -> {
+      // La primera petición tras el periodo abierto hace de sonda
+      repository.findById("unknown");
+      return repository.getPendingChanges() == 0;
+    });
+    assertTrue(breaker.isClosed());
+    assertEquals("dark", reader.findById(session.getId()).getAttribute("theme"));
+    assertEquals(1.0, meterRegistry.get("session.store.reconciled").tag("operation", "restore").counter().count());
+  }
+
+  @Test
+  void deleteById_WhileBreakerOpen_ShouldDeleteTheSessionFromRedisOnRecovery() {
+    // Given
+    StoredSession session = repository.createSession();
+    session.setAttribute("theme", "light");
+    repository.save(session);
+    redis.server().setLatency(Duration.ofMillis(500));
+    assertNull(repository.findById("unknown"));
+
+    // When
+    repository.deleteById(session.getId());
+
+    // Then
+    assertNull(repository.findById(session.getId()));
+    redis.server().setLatency(Duration.ZERO);
+    awaitTrue(() -> {
+      repository.findById("unknown");
+      return repository.getPendingChanges() == 0;
+    });
+    assertNull(reader.findById(session.getId()));
+  }
+
+  @Test
+  void findById_WhileBreakerOpen_ShouldServeTheNearCacheCopy() {
+    // Given
+    SimpleMeterRegistry cacheMeters = new SimpleMeterRegistry();
+    SessionNearCache nearCache = new SessionNearCache(100, Duration.ofMinutes(1), cacheMeters);
+    RedisSessionStore store = createStore(cacheMeters);
+    store.setCommandTimeout(Duration.ofMillis(100));
+    NearCacheSessionRepository cached = new NearCacheSessionRepository(store, nearCache,
+        new SessionInvalidationChannel(new StringRedisTemplate(redis.connectionFactory()), "test:invalidations", nearCache,
+            cacheMeters));
+    ResilientSessionRepository resilient = new ResilientSessionRepository(cached, breaker,
+        new LocalSessionStore(100, meterRegistry), new JdkSerializationRedisSerializer(), 10, Duration.ofSeconds(1),
+        meterRegistry);
+    StoredSession session = resilient.createSession();
+    session.setAttribute("theme", "dark");
+    resilient.save(session);
+    redis.server().setLatency(Duration.ofMillis(500));
+    assertNull(resilient.findById("unknown"));
+    assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+
+    try {
+      // When
+      StoredSession found = resilient.findById(session.getId());
+
+      // Then
+      assertNotNull(found);
+      assertEquals("dark", found.getAttribute("theme"));
+    } finally {
+      resilient.close();
+    }
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "condition not met in time");
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private static RedisSessionStore createStore(SimpleMeterRegistry meterRegistry) {
+    return new RedisSessionStore(new StringRedisTemplate(redis.connectionFactory()), new JdkSerializationRedisSerializer(),
+        "test:session", Duration.ofMinutes(30), meterRegistry);
+  }
+}
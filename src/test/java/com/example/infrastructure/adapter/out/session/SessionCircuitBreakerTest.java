@@ -0,0 +1,123 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCircuitBreakerTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SessionCircuitBreaker breaker = new SessionCircuitBreaker(3, Duration.ofSeconds(5), clock,
+      meterRegistry);
+
+  @Test
+  void recordFailure_ConsecutiveFailuresReachThreshold_ShouldOpenAndRefuseCalls() {
+    // Given
+    breaker.recordFailure(new RuntimeException("down"));
+    breaker.recordSuccess();
+    breaker.recordFailure(new RuntimeException("down"));
+    breaker.recordFailure(new RuntimeException("down"));
+    assertTrue(breaker.tryAcquire());
+
+    // When
+    breaker.recordFailure(new RuntimeException("down"));
+
+    // Then
+    assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquire());
+    assertEquals(1.0, meterRegistry.get("session.store.breaker.rejected").counter().count());
+    assertEquals(2.0, meterRegistry.get("session.store.breaker.state").gauge().value());
+  }
+
+  @Test
+  void tryAcquire_OpenPeriodOver_ShouldLetASingleProbeThrough() {
+    // Given
+    open();
+    clock.advance(Duration.ofSeconds(5));
+
+    // When
+    boolean probe = breaker.tryAcquire();
+    boolean concurrent = breaker.tryAcquire();
+
+    // Then
+    assertTrue(probe);
+    assertFalse(concurrent);
+    assertEquals(SessionCircuitBreaker.State.HALF_OPEN, breaker.getState());
+  }
+
+  @Test
+  void recordSuccess_ProbeSucceeds_ShouldCloseAndRunOnClose() {
+    // Given
+    AtomicInteger closes = new AtomicInteger();
+    breaker.setOnClose(closes::incrementAndGet);
+    open();
+    clock.advance(Duration.ofSeconds(5));
+    breaker.tryAcquire();
+
+    // When
+    breaker.recordSuccess();
+
+    // Then
+    assertTrue(breaker.isClosed());
+    assertEquals(1, closes.get());
+    assertEquals(1.0, meterRegistry.get("session.store.breaker.transitions").tag("state", "closed").counter()
+        .count());
+  }
+
+  @Test
+  void recordFailure_ProbeFails_ShouldReopenForAnotherPeriod() {
+    // Given
+    open();
+    clock.advance(Duration.ofSeconds(5));
+    breaker.tryAcquire();
+
+    // When
+    breaker.recordFailure(new RuntimeException("still down"));
+
+    // Then
+    assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+    clock.advance(Duration.ofSeconds(4));
+    assertFalse(breaker.tryAcquire());
+    clock.advance(Duration.ofSeconds(1));
+    assertTrue(breaker.tryAcquire());
+  }
+
+  private void open() {
+    for (int i = 0; i < 3; i++) {
+      breaker.recordFailure(new RuntimeException("down"));
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionExpirySweeperTest {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private ZSetOperations<String, String> zSetOperations;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SessionExpiryIndex expiryIndex;
+  private SessionExpirySweeper sweeper;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    expiryIndex = new SessionExpiryIndex("spring:session", 1);
+    sweeper = new SessionExpirySweeper(redisTemplate, expiryIndex, "spring:session", 2, 10,
+        Duration.ofSeconds(10), Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC), meterRegistry);
+  }
+
+  @Test
+  void sweep_LeaseHeldByAnotherNode_ShouldSkipShard() {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq("spring:session:expirations:{0}:lease"), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    // When
+    int removed = sweeper.sweep();
+
+    // Then
+    assertEquals(0, removed);
+    verify(redisTemplate, never()).opsForZSet();
+    assertEquals(1.0, meterRegistry.get("session.sweeper.shards").tag("result", "leased-elsewhere")
+        .counter().count());
+  }
+
+  @Test
+  void sweep_ExpiredEntries_ShouldRemoveSessionsInBatches() {
+    // Given
+    String shardKey = "spring:session:expirations:{0}";
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(eq(shardKey + ":lease"), anyString(), any(Duration.class))).thenReturn(true);
+    when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    when(zSetOperations.rangeByScoreWithScores(shardKey, Double.NEGATIVE_INFINITY, NOW, 0, 2))
+        .thenReturn(tuples("a", NOW - 5000, "b", NOW - 1000))
+        .thenReturn(tuples("c", NOW - 10));
+
+    // When
+    int removed = sweeper.sweep();
+
+    // Then
+    assertEquals(3, removed);
+    verify(redisTemplate).delete(List.of("spring:session:sessions:a", "spring:session:sessions:b"));
+    verify(redisTemplate).delete(List.of("spring:session:sessions:c"));
+    verify(zSetOperations).remove(shardKey, "a", "b");
+    verify(zSetOperations).remove(shardKey, "c");
+    assertEquals(3.0, meterRegistry.get("session.sweeper.reaped").counter().count());
+    assertEquals(2, meterRegistry.get("session.sweeper.batch.size").summary().count());
+    assertEquals(5000.0, meterRegistry.get("session.sweeper.lag").timer().max(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shardOf_ShouldBeStableAndWithinRange() {
+    // Given
+    SessionExpiryIndex index = new SessionExpiryIndex("spring:session", 16);
+
+    // When
+    int shard = index.shardOf("5f0c2a4e-7d1b-4c39-9a57-2f7f0e6b1d42");
+
+    // Then
+    assertTrue(shard >= 0 && shard < 16);
+    assertEquals(shard, index.shardOf("5f0c2a4e-7d1b-4c39-9a57-2f7f0e6b1d42"));
+    assertEquals("spring:session:expirations:{" + shard + "}",
+        index.shardKeyOf("5f0c2a4e-7d1b-4c39-9a57-2f7f0e6b1d42"));
+  }
+
+  private static LinkedHashSet<TypedTuple<String>> tuples(Object... idsAndScores) {
+    LinkedHashSet<TypedTuple<String>> tuples = new LinkedHashSet<>();
+    for (int i = 0; i < idsAndScores.length; i += 2) {
+      tuples.add(TypedTuple.of((String) idsAndScores[i], ((Long) idsAndScores[i + 1]).doubleValue()));
+    }
+    return tuples;
+  }
+}
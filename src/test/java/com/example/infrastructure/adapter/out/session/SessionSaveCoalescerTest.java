@@ -0,0 +1,141 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionSaveCoalescerTest {
+
+  @Test
+  void submit_ConcurrentSavesOfSameSession_ShouldMergeIntoOneBatch() throws Exception {
+    // Given
+    List<SessionWrite> flushed = new CopyOnWriteArrayList<>();
+    CountDownLatch firstFlushStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+    SessionSaveCoalescer coalescer = new SessionSaveCoalescer(write -> {
+      flushed.add(write);
+      if (flushed.size() == 1) {
+        firstFlushStarted.countDown();
+        await(releaseFirstFlush);
+      }
+    }, new SimpleMeterRegistry());
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?> first = executor.submit(() -> coalescer.submit(write("sessionAttr:a", "1")));
+      assertTrue(firstFlushStarted.await(5, TimeUnit.SECONDS));
+
+      // When
+      List<Future<?>> followers = new ArrayList<>();
+      followers.add(executor.submit(() -> coalescer.submit(write("sessionAttr:b", "2"))));
+      followers.add(executor.submit(() -> coalescer.submit(write("sessionAttr:b", "3"))));
+      followers.add(executor.submit(() -> coalescer.submit(write("sessionAttr:c", "4"))));
+      Thread.sleep(200);
+      releaseFirstFlush.countDown();
+      first.get(5, TimeUnit.SECONDS);
+      for (Future<?> follower : followers) {
+        follower.get(5, TimeUnit.SECONDS);
+      }
+
+      // Then
+      assertEquals(2, flushed.size());
+      Map<String, byte[]> merged = flushed.get(1).fields();
+      assertEquals(2, merged.size());
+      assertTrue(merged.containsKey("sessionAttr:b"));
+      assertTrue(merged.containsKey("sessionAttr:c"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void submit_FailedBatch_ShouldPropagateToCaller() {
+    // Given
+    SessionSaveCoalescer coalescer = new SessionSaveCoalescer(write -> {
+      throw new IllegalStateException("Session was invalidated");
+    }, new SimpleMeterRegistry());
+
+    // When & Then
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> coalescer.submit(write("sessionAttr:a", "1")));
+    assertEquals("Session was invalidated", exception.getMessage());
+  }
+
+  @Test
+  void submit_FlusherThrowsError_ShouldFailQueuedSavesAndFreeTheLane() throws Exception {
+    // Given
+    List<SessionWrite> flushed = new CopyOnWriteArrayList<>();
+    CountDownLatch firstFlushStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+    SessionSaveCoalescer coalescer = new SessionSaveCoalescer(write -> {
+      flushed.add(write);
+      if (flushed.size() == 1) {
+        firstFlushStarted.countDown();
+        await(releaseFirstFlush);
+        throw new AssertionError("Redis client crashed");
+      }
+    }, new SimpleMeterRegistry());
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> leader = executor.submit(() -> coalescer.submit(write("sessionAttr:a", "1")));
+      assertTrue(firstFlushStarted.await(5, TimeUnit.SECONDS));
+      Future<?> follower = executor.submit(() -> coalescer.submit(write("sessionAttr:b", "2")));
+      Thread.sleep(200);
+
+      // When
+      releaseFirstFlush.countDown();
+
+      // Then
+      ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+      assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+      ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+      assertInstanceOf(AssertionError.class, followerFailure.getCause());
+
+      executor.submit(() -> coalescer.submit(write("sessionAttr:c", "3"))).get(5, TimeUnit.SECONDS);
+      assertEquals(2, flushed.size());
+      assertTrue(flushed.get(1).fields().containsKey("sessionAttr:c"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void mergeWith_LaterWrite_ShouldWinAndKeepExistenceCheck() {
+    // Given
+    SessionWrite earlier = new SessionWrite("session-1", null, Map.of("sessionAttr:a", new byte[] {1}), 1000, true);
+    SessionWrite later = new SessionWrite("session-1", null, Map.of("sessionAttr:a", new byte[] {2}), 2000, false);
+
+    // When
+    SessionWrite merged = earlier.mergeWith(later);
+
+    // Then
+    assertEquals(2, merged.fields().get("sessionAttr:a")[0]);
+    assertEquals(2000, merged.expiresAt());
+    assertTrue(merged.mustExist());
+  }
+
+  private static SessionWrite write(String field, String value) {
+    return new SessionWrite("session-1", null, Map.of(field, value.getBytes()), 1000, true);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Session store meters against an in-memory Redis
+ */
+class SessionStoreMetricsIntegrationTest {
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension();
+
+  private SimpleMeterRegistry meterRegistry;
+  private RedisSessionStore store;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    store = new RedisSessionStore(new StringRedisTemplate(redis.connectionFactory()), new JdkSerializationRedisSerializer(),
+        "test:session", Duration.ofMinutes(30), meterRegistry);
+    store.setExpiryIndex(new SessionExpiryIndex("test:session", 4));
+  }
+
+  @Test
+  void save_NewSessionThenChange_ShouldRecordSizeAttributesAndOperations() {
+    // Given
+    StoredSession session = store.createSession();
+    session.setAttribute("currentUser", "alice");
+
+    // When
+    store.save(session);
+    session.setAttribute("theme", "dark");
+    store.save(session);
+
+    // Then
+    assertEquals(1.0, operations("create"));
+    assertEquals(2.0, operations("save"));
+    DistributionSummary attributes = meterRegistry.get("session.store.attributes").summary();
+    assertEquals(2, attributes.count());
+    assertEquals(2.0, attributes.max());
+    DistributionSummary size = meterRegistry.get("session.store.size").summary();
+    assertEquals(2, size.count());
+    assertTrue(size.max() > "sessionAttr:currentUser".length() + "sessionAttr:theme".length());
+  }
+
+  @Test
+  void deleteById_AndDeleteAll_ShouldCountEverySession() {
+    // Given
+    List<String> ids = List.of(saveSession(), saveSession(), saveSession());
+
+    // When
+    store.deleteById(ids.get(0));
+    store.deleteAll(ids.subList(1, 3));
+
+    // Then
+    assertEquals(3.0, operations("delete"));
+    assertNull(store.findById(ids.get(1)));
+  }
+
+  @Test
+  void count_WithinRefreshInterval_ShouldReuseLastCount() {
+    // Given
+    MutableClock clock = new MutableClock();
+    ActiveSessionCounter counter = new ActiveSessionCounter(List.of(store), Duration.ofSeconds(15), clock,
+        meterRegistry);
+    saveSession();
+    saveSession();
+    assertEquals(2.0, meterRegistry.get("session.store.active").gauge().value());
+
+    // When
+    saveSession();
+    double cached = counter.count();
+    clock.advance(Duration.ofSeconds(15));
+    double refreshed = counter.count();
+
+    // Then
+    assertEquals(2.0, cached);
+    assertEquals(3.0, refreshed);
+  }
+
+  private String saveSession() {
+    StoredSession session = store.createSession();
+    store.save(session);
+    return session.getId();
+  }
+
+  private double operations(String operation) {
+    return meterRegistry.get("session.store.operations").tag("operation", operation).counter().count();
+  }
+
+  /**
+   * Clock that only moves when told to, starting at the current time so index scores are valid
+   */
+  private static final class MutableClock extends Clock {
+
+    private Instant now = Instant.now();
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
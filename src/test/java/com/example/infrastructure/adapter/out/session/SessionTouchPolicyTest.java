@@ -0,0 +1,58 @@
+package com.example.infrastructure.adapter.out.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTouchPolicyTest {
+
+  private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+  @Test
+  void isDue_EveryTouchPolicy_ShouldAlwaysPersist() {
+    // Given
+    Instant persisted = Instant.parse("2025-01-01T10:00:00Z");
+
+    // When & Then
+    assertTrue(SessionTouchPolicy.EVERY_TOUCH.isDue(persisted, persisted.plusMillis(1), TIMEOUT));
+  }
+
+  @Test
+  void isDue_TouchWithinGranularity_ShouldBeSuppressed() {
+    // Given
+    SessionTouchPolicy policy = new SessionTouchPolicy(Duration.ofSeconds(60), 0.05);
+    Instant persisted = Instant.parse("2025-01-01T10:00:00Z");
+
+    // When & Then
+    assertFalse(policy.isDue(persisted, persisted.plusSeconds(89), TIMEOUT));
+    assertTrue(policy.isDue(persisted, persisted.plusSeconds(90), TIMEOUT));
+  }
+
+  @Test
+  void isDue_NeverPersisted_ShouldPersist() {
+    // Given
+    SessionTouchPolicy policy = new SessionTouchPolicy(Duration.ofSeconds(60), 0.05);
+
+    // When & Then
+    assertTrue(policy.isDue(null, Instant.now(), TIMEOUT));
+  }
+
+  @Test
+  void granularity_ShouldUseLargerThreshold() {
+    // Given
+    SessionTouchPolicy policy = new SessionTouchPolicy(Duration.ofSeconds(60), 0.05);
+
+    // When & Then
+    assertEquals(Duration.ofSeconds(90), policy.granularity(TIMEOUT));
+    assertEquals(Duration.ofSeconds(60), policy.granularity(Duration.ofMinutes(5)));
+    assertEquals(Duration.ofSeconds(60), policy.granularity(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  void constructor_InvalidFraction_ShouldThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new SessionTouchPolicy(Duration.ZERO, 1.0));
+  }
+}
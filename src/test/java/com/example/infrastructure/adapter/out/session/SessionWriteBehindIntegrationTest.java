@@ -0,0 +1,93 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.session.FindByIndexNameSessionRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Write-behind saves of the session store against an in-memory Redis with a slow round trip
+ */
+class SessionWriteBehindIntegrationTest {
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension();
+
+  private SimpleMeterRegistry meterRegistry;
+  private RedisSessionStore store;
+  private RedisSessionStore reader;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    store = createStore(meterRegistry);
+    store.enableWriteBehind("test", 100, 10, Duration.ofSeconds(5));
+    // Otro nodo sin cola: solo ve lo que ya llegó a Redis
+    reader = createStore(new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    redis.server().setLatency(Duration.ZERO);
+    store.close();
+  }
+
+  @Test
+  void save_LoginThenReadOnlyRequest_ShouldWriteLoginNowAndDeferTheRest() {
+    // Given
+    StoredSession session = store.createSession();
+    session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+    store.save(session);
+    assertNotNull(reader.findById(session.getId()));
+    redis.server().setLatency(Duration.ofMillis(200));
+
+    // When
+    StoredSession loaded = store.findById(session.getId());
+    loaded.setAttribute("theme", "dark");
+    long start = System.nanoTime();
+    store.save(loaded);
+    long saveMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertTrue(saveMillis < 100, "save waited for Redis: " + saveMillis + " ms");
+    assertEquals("dark", store.findById(session.getId()).getAttribute("theme"));
+    store.close();
+    redis.server().setLatency(Duration.ZERO);
+    assertEquals("dark", reader.findById(session.getId()).getAttribute("theme"));
+    assertEquals(1, meterRegistry.get("session.store.writebehind.batch.size").summary().count());
+  }
+
+  @Test
+  void deleteById_WithQueuedSave_ShouldNotRecreateTheSession() {
+    // Given
+    StoredSession session = store.createSession();
+    session.setAttribute("theme", "light");
+    store.save(session);
+    redis.server().setLatency(Duration.ofMillis(100));
+    StoredSession loaded = store.findById(session.getId());
+    loaded.setAttribute("theme", "dark");
+    store.save(loaded);
+
+    // When
+    store.deleteById(session.getId());
+    store.close();
+
+    // Then
+    redis.server().setLatency(Duration.ZERO);
+    assertNull(reader.findById(session.getId()));
+  }
+
+  private static RedisSessionStore createStore(SimpleMeterRegistry meterRegistry) {
+    return new RedisSessionStore(new StringRedisTemplate(redis.connectionFactory()), new JdkSerializationRedisSerializer(),
+        "test:session", Duration.ofMinutes(30), meterRegistry);
+  }
+}
@@ -0,0 +1,205 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionWriteBehindQueueTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<List<SessionWrite>> batches = new CopyOnWriteArrayList<>();
+  private final CountDownLatch releaseFlusher = new CountDownLatch(1);
+  private SessionWriteBehindQueue queue;
+
+  @AfterEach
+  void tearDown() {
+    releaseFlusher.countDown();
+    queue.close();
+  }
+
+  @Test
+  void submit_RepeatedSavesWhileFlusherBusy_ShouldCollapseIntoOneWritePerSession() {
+    // Given
+    queue = blockingQueue(10, 10);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+
+    // When
+    queue.submit(write("session-1", "sessionAttr:a", 1));
+    queue.submit(write("session-1", "sessionAttr:b", 2));
+    queue.submit(write("session-1", "sessionAttr:a", 3));
+    queue.submit(write("session-2", "sessionAttr:a", 4));
+    assertEquals(2, queue.depth());
+    releaseFlusher.countDown();
+    queue.awaitFlushed("session-1");
+    queue.awaitFlushed("session-2");
+
+    // Then
+    assertEquals(2, batches.size());
+    List<SessionWrite> second = batches.get(1);
+    assertEquals(2, second.size());
+    Map<String, byte[]> merged = second.get(0).fields();
+    assertEquals(3, merged.get("sessionAttr:a")[0]);
+    assertEquals(2, merged.get("sessionAttr:b")[0]);
+    assertEquals(2.0, meterRegistry.get("session.store.writebehind.coalesced").counter().count());
+    assertEquals(0, queue.depth());
+  }
+
+  @Test
+  void overlay_QueuedSave_ShouldApplyItsFieldsToTheStoredHash() {
+    // Given
+    queue = blockingQueue(10, 10);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+    queue.submit(new SessionWrite("session-1", null, fields("sessionAttr:theme", 7, "sessionAttr:cart", null),
+        2000, true));
+
+    // When
+    SessionHash hash = queue.overlay(new SessionHash("session-1",
+        Map.of("sessionAttr:theme", new byte[] {1}, "sessionAttr:cart", new byte[] {2})), List.of());
+
+    // Then
+    assertEquals(7, hash.fields().get("sessionAttr:theme")[0]);
+    assertFalse(hash.fields().containsKey("sessionAttr:cart"));
+  }
+
+  @Test
+  void overlay_SaveWrittenWhileReading_ShouldStillApplyIt() {
+    // Given
+    queue = blockingQueue(10, 10);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+    List<SessionWrite> queuedBeforeRead = queue.queued("session-0");
+
+    // When
+    releaseFlusher.countDown();
+    queue.awaitFlushed("session-0");
+    SessionHash hash = queue.overlay(new SessionHash("session-0", Map.of()), queuedBeforeRead);
+
+    // Then
+    assertEquals(0, hash.fields().get("sessionAttr:a")[0]);
+  }
+
+  @Test
+  void discard_QueuedSave_ShouldNeverBeWritten() {
+    // Given
+    queue = blockingQueue(10, 10);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+    queue.submit(write("session-1", "sessionAttr:a", 1));
+
+    // When
+    queue.discard("session-1");
+    releaseFlusher.countDown();
+    queue.awaitFlushed("session-0");
+    queue.close();
+
+    // Then
+    assertEquals(1, batches.size());
+    assertEquals("session-0", batches.get(0).get(0).sessionId());
+  }
+
+  @Test
+  void submit_FullQueue_ShouldBlockUntilTheFlusherMakesRoom() throws Exception {
+    // Given
+    queue = blockingQueue(1, 10);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+    queue.submit(write("session-1", "sessionAttr:a", 1));
+
+    // When
+    Thread producer = new Thread(() -> queue.submit(write("session-2", "sessionAttr:a", 2)));
+    producer.start();
+    Thread.sleep(200);
+    boolean blockedWhileFull = producer.isAlive();
+    releaseFlusher.countDown();
+    producer.join(5000);
+
+    // Then
+    assertTrue(blockedWhileFull);
+    assertFalse(producer.isAlive());
+    assertEquals(1.0, meterRegistry.get("session.store.writebehind.blocked").counter().count());
+  }
+
+  @Test
+  void submit_QueueFullForTheWholeTimeout_ShouldFail() {
+    // Given
+    queue = new SessionWriteBehindQueue(batch -> awaitRelease(), 1, 1, Duration.ofMillis(100), "test",
+        meterRegistry);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    queue.submit(write("session-1", "sessionAttr:a", 1));
+
+    // When & Then
+    assertThrows(IllegalStateException.class, () -> queue.submit(write("session-2", "sessionAttr:a", 2)));
+  }
+
+  @Test
+  void submit_FlusherThrowsError_ShouldFailTheBatchAndKeepFlushing() {
+    // Given
+    queue = new SessionWriteBehindQueue(batch -> {
+      batches.add(batch);
+      if (batches.size() == 1) {
+        throw new AssertionError("Redis client crashed");
+      }
+    }, 10, 1, Duration.ofSeconds(5), "test", meterRegistry);
+    queue.submit(write("session-0", "sessionAttr:a", 0));
+    awaitFlushStarted();
+
+    // When
+    queue.submit(write("session-1", "sessionAttr:a", 1));
+    queue.awaitFlushed("session-1");
+    queue.close();
+
+    // Then
+    assertEquals(2, batches.size());
+    assertEquals("session-1", batches.get(1).get(0).sessionId());
+    assertEquals(1.0, meterRegistry.get("session.store.writebehind.failed").counter().count());
+  }
+
+  private SessionWriteBehindQueue blockingQueue(int capacity, int batchSize) {
+    return new SessionWriteBehindQueue(batch -> {
+      batches.add(batch);
+      if (batches.size() == 1) {
+        awaitRelease();
+      }
+    }, capacity, batchSize, Duration.ofSeconds(5), "test", meterRegistry);
+  }
+
+  private void awaitFlushStarted() {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (batches.isEmpty() && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertFalse(batches.isEmpty());
+  }
+
+  private void awaitRelease() {
+    try {
+      releaseFlusher.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static SessionWrite write(String sessionId, String field, int value) {
+    return new SessionWrite(sessionId, null, fields(field, value), 1000, true);
+  }
+
+  private static Map<String, byte[]> fields(Object... pairs) {
+    Map<String, byte[]> fields = new HashMap<>();
+    for (int i = 0; i < pairs.length; i += 2) {
+      fields.put((String) pairs[i], pairs[i + 1] == null ? null : new byte[] {((Integer) pairs[i + 1]).byteValue()});
+    }
+    return fields;
+  }
+}
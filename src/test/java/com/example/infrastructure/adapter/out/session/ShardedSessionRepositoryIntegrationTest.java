@@ -0,0 +1,113 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.support.redis.InMemoryRedisExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharded repository over four in-memory Redis stand-ins, growing from three to four nodes
+ */
+class ShardedSessionRepositoryIntegrationTest {
+
+  private static final int NODES = 4;
+  private static final int SESSIONS = 300;
+
+  @RegisterExtension
+  static final InMemoryRedisExtension redis = new InMemoryRedisExtension(NODES);
+
+  private static final Map<String, RedisSessionStore> stores = new LinkedHashMap<>();
+
+  private SimpleMeterRegistry meterRegistry;
+  private ShardedSessionRepository threeNodes;
+  private ShardedSessionRepository fourNodes;
+
+  @BeforeAll
+  static void createStores() {
+    for (int i = 0; i < NODES; i++) {
+      RedisSessionStore store = new RedisSessionStore(new StringRedisTemplate(redis.connectionFactory(i)),
+          new JdkSerializationRedisSerializer(), "test:session", Duration.ofMinutes(30), new SimpleMeterRegistry());
+      store.setExpiryIndex(new SessionExpiryIndex("test:session", 4));
+      stores.put("node-" + i, store);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    Map<String, RedisSessionStore> previousNodes = new LinkedHashMap<>(stores);
+    previousNodes.remove("node-3");
+    ConsistentHashRing<RedisSessionStore> previousRing = new ConsistentHashRing<>(previousNodes, 160);
+    threeNodes = new ShardedSessionRepository(previousRing, null, meterRegistry);
+    fourNodes = new ShardedSessionRepository(new ConsistentHashRing<>(stores, 160), previousRing, meterRegistry);
+  }
+
+  @Test
+  void findById_AfterAddingNode_ShouldFindEverySessionAndMoveOnlyRemappedOnes() {
+    // Given
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < SESSIONS; i++) {
+      StoredSession session = threeNodes.createSession();
+      session.setAttribute("counter", i);
+      threeNodes.save(session);
+      ids.add(session.getId());
+    }
+
+    // When
+    int onNewNode = 0;
+    for (int i = 0; i < SESSIONS; i++) {
+      StoredSession session = fourNodes.findById(ids.get(i));
+      assertNotNull(session, "Lost session " + ids.get(i));
+      assertEquals(i, (int) session.getAttribute("counter"));
+      onNewNode += stores.get("node-3").findHash(ids.get(i)) != null ? 1 : 0;
+    }
+
+    // Then
+    double migrated = meterRegistry.get("session.shard.migrations").tag("cause", "remapped").counter().count();
+    assertEquals(onNewNode, (int) migrated);
+    assertTrue(migrated > SESSIONS * 0.1 && migrated < SESSIONS * 0.4, "Migrated " + migrated);
+    for (String id : ids) {
+      long copies = stores.values().stream().filter(store -> store.findHash(id) != null).count();
+      assertEquals(1L, copies);
+    }
+  }
+
+  @Test
+  void save_IdChangedAcrossNodes_ShouldKeepAttributesUnderNewId() {
+    // Given
+    StoredSession session = fourNodes.createSession();
+    session.setAttribute("user", "alice");
+    fourNodes.save(session);
+    String oldId = session.getId();
+    StoredSession loaded = fourNodes.findById(oldId);
+
+    // When
+    String newId;
+    do {
+      newId = loaded.changeSessionId();
+    } while (sameNode(oldId, newId));
+    fourNodes.save(loaded);
+
+    // Then
+    assertNull(fourNodes.findById(oldId));
+    assertEquals("alice", fourNodes.findById(newId).getAttribute("user"));
+    assertEquals(1.0, meterRegistry.get("session.shard.migrations").tag("cause", "id-change").counter().count());
+  }
+
+  private static boolean sameNode(String first, String second) {
+    ConsistentHashRing<RedisSessionStore> ring = new ConsistentHashRing<>(stores, 160);
+    return ring.nodeFor(first) == ring.nodeFor(second);
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.infrastructure.adapter.out.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.UuidSessionIdGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedSessionRepositoryTest {
+
+  @Mock
+  private RedisSessionStore nodeA;
+
+  @Mock
+  private RedisSessionStore nodeB;
+
+  @Mock
+  private RedisSessionStore nodeC;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ConsistentHashRing<RedisSessionStore> previousRing;
+  private ConsistentHashRing<RedisSessionStore> ring;
+  private ShardedSessionRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    Map<String, RedisSessionStore> previousNodes = new LinkedHashMap<>();
+    previousNodes.put("a", nodeA);
+    previousNodes.put("b", nodeB);
+    Map<String, RedisSessionStore> nodes = new LinkedHashMap<>(previousNodes);
+    nodes.put("c", nodeC);
+    previousRing = new ConsistentHashRing<>(previousNodes, 160);
+    ring = new ConsistentHashRing<>(nodes, 160);
+    repository = new ShardedSessionRepository(ring, previousRing, meterRegistry);
+  }
+
+  @Test
+  void findById_SessionStillOnPreviousNode_ShouldMoveItToNewNode() {
+    // Given
+    String id = remappedId();
+    RedisSessionStore previousOwner = previousRing.nodeFor(id);
+    StoredSession session = persistedSession(id);
+    when(nodeC.findById(id)).thenReturn(null);
+    when(previousOwner.findById(id)).thenReturn(session);
+
+    // When
+    StoredSession found = repository.findById(id);
+
+    // Then
+    assertSame(session, found);
+    verify(nodeC).saveFull(session);
+    verify(previousOwner).delete(id);
+    assertEquals(1.0, meterRegistry.get("session.shard.migrations").tag("cause", "remapped").counter().count());
+  }
+
+  @Test
+  void findById_SessionMovedByConcurrentRequest_ShouldFindItOnNewNode() {
+    // Given
+    String id = remappedId();
+    RedisSessionStore previousOwner = previousRing.nodeFor(id);
+    StoredSession session = persistedSession(id);
+    // La otra petición copia la sesión y la borra del nodo anterior entre nuestras dos lecturas
+    when(nodeC.findById(id)).thenReturn(null, session);
+    when(previousOwner.findById(id)).thenReturn(null);
+
+    // When
+    StoredSession found = repository.findById(id);
+
+    // Then
+    assertSame(session, found);
+    verify(nodeC, never()).saveFull(any());
+    verify(previousOwner, never()).delete(id);
+  }
+
+  @Test
+  void findById_SessionOnCurrentNode_ShouldNotLookElsewhere() {
+    // Given
+    String id = remappedId();
+    StoredSession session = persistedSession(id);
+    when(nodeC.findById(id)).thenReturn(session);
+
+    // When
+    StoredSession found = repository.findById(id);
+
+    // Then
+    assertSame(session, found);
+    verifyNoInteractions(nodeA, nodeB);
+  }
+
+  @Test
+  void save_IdChangedToAnotherNode_ShouldCopyAndDeleteOriginal() {
+    // Given
+    StoredSession session = persistedSession("session-0");
+    RedisSessionStore source = ring.nodeFor("session-0");
+    String newId;
+    do {
+      newId = session.changeSessionId();
+    } while (ring.nodeFor(newId) == source);
+    RedisSessionStore target = ring.nodeFor(newId);
+
+    // When
+    repository.save(session);
+
+    // Then
+    verify(target).saveFull(session);
+    verify(source).delete("session-0");
+    verify(source, never()).save(session);
+  }
+
+  /**
+   * Id that moved from one of the two original nodes to the added node
+   */
+  private String remappedId() {
+    for (int i = 0; ; i++) {
+      String id = "session-" + i;
+      if (ring.nodeFor(id) == nodeC) {
+        return id;
+      }
+    }
+  }
+
+  private static StoredSession persistedSession(String id) {
+    Instant now = Instant.now();
+    return new StoredSession(UuidSessionIdGenerator.getInstance(), id, now, now, Duration.ofMinutes(30),
+        new HashMap<>(), raw -> null);
+  }
+}
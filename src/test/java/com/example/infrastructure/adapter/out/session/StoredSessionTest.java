@@ -0,0 +1,184 @@
+package com.example.infrastructure.adapter.out.session;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.domain.model.User;
+import com.example.infrastructure.adapter.out.session.codec.CompactSessionSerializer;
+import com.example.infrastructure.adapter.out.session.codec.SessionPrincipalTypeCodec;
+import com.example.infrastructure.adapter.out.session.codec.UserTypeCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.UuidSessionIdGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoredSessionTest {
+
+  private RedisSerializer<Object> serializer;
+  private StoredSession session;
+  private int decoded;
+
+  @BeforeEach
+  void setUp() {
+    serializer = new CompactSessionSerializer(List.of(new UserTypeCodec()), new GenericJackson2JsonRedisSerializer());
+
+    User user = new User("testuser", "hash", "test@example.com");
+    user.setId(1L);
+    Map<String, byte[]> persisted = new HashMap<>();
+    persisted.put(StoredSession.ATTRIBUTE_PREFIX + "currentUser", serializer.serialize(user));
+    persisted.put(StoredSession.ATTRIBUTE_PREFIX + "sessionCreatedTime", serializer.serialize(1000L));
+
+    session = new StoredSession(UuidSessionIdGenerator.getInstance(), "session-1", Instant.now(), Instant.now(),
+        Duration.ofMinutes(30), persisted, raw -> {
+          decoded++;
+          return serializer.deserialize(raw);
+        });
+  }
+
+  @Test
+  void collectChanges_ReadOnlyRequest_ShouldWriteNoAttributes() {
+    // Given
+    User user = session.getAttribute("currentUser");
+    Long createdTime = session.getAttribute("sessionCreatedTime");
+    session.setMaxInactiveInterval(Duration.ofMinutes(30));
+
+    // When
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // Then
+    assertNotNull(user);
+    assertEquals(1000L, createdTime.longValue());
+    assertTrue(changes.isEmpty());
+  }
+
+  @Test
+  void getAttribute_LoadedSession_ShouldDecodeOnlyTheAttributeRead() {
+    // When
+    Long createdTime = session.getAttribute("sessionCreatedTime");
+    session.getAttribute("sessionCreatedTime");
+
+    // Then
+    assertEquals(1000L, createdTime.longValue());
+    assertEquals(1, decoded);
+    assertEquals(1, session.getUndecodedAttributeCount());
+    assertEquals(Set.of("currentUser", "sessionCreatedTime"), session.getAttributeNames());
+  }
+
+  @Test
+  void collectChanges_UndecodedAttribute_ShouldKeepItsRawValue() {
+    // Given
+    byte[] raw = session.getPersistedFields().get(StoredSession.ATTRIBUTE_PREFIX + "currentUser");
+    session.setAttribute("sessionCreatedTime", 2000L);
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // When
+    session.markSaved(changes);
+
+    // Then
+    assertEquals(Set.of(StoredSession.ATTRIBUTE_PREFIX + "sessionCreatedTime"), changes.keySet());
+    assertSame(raw, session.getPersistedFields().get(StoredSession.ATTRIBUTE_PREFIX + "currentUser"));
+    assertEquals(0, decoded);
+  }
+
+  @Test
+  void removeAttribute_UndecodedAttribute_ShouldDeleteWithoutDecoding() {
+    // Given
+    session.removeAttribute("currentUser");
+
+    // When
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // Then
+    assertNull(session.getAttribute("currentUser"));
+    assertTrue(changes.containsKey(StoredSession.ATTRIBUTE_PREFIX + "currentUser"));
+    assertNull(changes.get(StoredSession.ATTRIBUTE_PREFIX + "currentUser"));
+    assertEquals(0, decoded);
+  }
+
+  @Test
+  void getAttribute_SessionPrincipal_ShouldNotMarkItDirty() {
+    // Given
+    RedisSerializer<Object> principalSerializer = new CompactSessionSerializer(List.of(new SessionPrincipalTypeCodec()),
+        new GenericJackson2JsonRedisSerializer());
+    SessionPrincipal principal = new SessionPrincipal(1L, "testuser", "test@example.com", Set.of("USER", "ADMIN"),
+        true);
+    Map<String, byte[]> persisted = new HashMap<>();
+    persisted.put(StoredSession.ATTRIBUTE_PREFIX + "currentUser", principalSerializer.serialize(principal));
+    StoredSession principalSession = new StoredSession(UuidSessionIdGenerator.getInstance(), "session-2",
+        Instant.now(), Instant.now(), Duration.ofMinutes(30), persisted, principalSerializer::deserialize);
+
+    // When
+    SessionPrincipal read = principalSession.getAttribute("currentUser");
+
+    // Then
+    assertEquals(principal, read);
+    assertEquals(0, principalSession.getDirtyAttributeCount());
+    assertTrue(principalSession.collectChanges(principalSerializer).isEmpty());
+  }
+
+  @Test
+  void collectChanges_SameValueSetAgain_ShouldWriteNothing() {
+    // Given
+    User copy = new User("testuser", "hash", "test@example.com");
+    copy.setId(1L);
+    session.setAttribute("currentUser", copy);
+    session.setAttribute("sessionCreatedTime", 1000L);
+
+    // When & Then
+    assertTrue(session.collectChanges(serializer).isEmpty());
+    assertEquals(2, session.getDirtyAttributeCount());
+  }
+
+  @Test
+  void collectChanges_MutatedObject_ShouldWriteOnlyThatField() {
+    // Given
+    User user = session.getAttribute("currentUser");
+    user.setEmail("changed@example.com");
+
+    // When
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // Then
+    assertEquals(1, changes.size());
+    User written = (User) serializer.deserialize(changes.get(StoredSession.ATTRIBUTE_PREFIX + "currentUser"));
+    assertEquals("changed@example.com", written.getEmail());
+  }
+
+  @Test
+  void collectChanges_RemovedAttribute_ShouldDeleteOnlyPersistedFields() {
+    // Given
+    session.removeAttribute("sessionCreatedTime");
+    session.removeAttribute("neverStored");
+
+    // When
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // Then
+    assertEquals(1, changes.size());
+    assertTrue(changes.containsKey(StoredSession.ATTRIBUTE_PREFIX + "sessionCreatedTime"));
+    assertNull(changes.get(StoredSession.ATTRIBUTE_PREFIX + "sessionCreatedTime"));
+  }
+
+  @Test
+  void markSaved_AccessTimeOnly_ShouldNotReportContentChange() {
+    // Given
+    session.setLastAccessedTime(Instant.now());
+    Map<String, byte[]> changes = session.collectChanges(serializer);
+
+    // When
+    session.markSaved(changes);
+
+    // Then
+    assertEquals(1, changes.size());
+    assertFalse(session.isContentChangedOnLastSave());
+    assertFalse(session.hasPendingChanges());
+  }
+}
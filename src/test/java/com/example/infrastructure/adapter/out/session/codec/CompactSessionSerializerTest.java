@@ -0,0 +1,180 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import com.example.application.dto.SessionPrincipal;
+import com.example.domain.model.User;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSessionSerializerTest {
+
+  private GenericJackson2JsonRedisSerializer legacyJson;
+  private CompactSessionSerializer serializer;
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    legacyJson = new GenericJackson2JsonRedisSerializer(objectMapper);
+    serializer = new CompactSessionSerializer(List.of(new UserTypeCodec(), new SecurityContextTypeCodec(),
+        new SessionPrincipalTypeCodec()), legacyJson);
+  }
+
+  @Test
+  void serialize_Scalars_ShouldRoundTrip() {
+    assertEquals(1734567890123L, serializer.deserialize(serializer.serialize(1734567890123L)));
+    assertEquals(-5L, serializer.deserialize(serializer.serialize(-5L)));
+    assertEquals(1800, serializer.deserialize(serializer.serialize(1800)));
+    assertEquals(Boolean.TRUE, serializer.deserialize(serializer.serialize(true)));
+    assertEquals("héllo", serializer.deserialize(serializer.serialize("héllo")));
+    assertNull(serializer.deserialize(serializer.serialize(null)));
+  }
+
+  @Test
+  void serialize_User_ShouldRoundTripWithoutClassNames() {
+    // Given
+    User user = createTestUser();
+
+    // When
+    byte[] bytes = serializer.serialize(user);
+    User decoded = (User) serializer.deserialize(bytes);
+
+    // Then
+    assertTrue(CompactSessionSerializer.isCompact(bytes));
+    assertFalse(new String(bytes).contains("com.example"));
+    assertEquals(user.getId(), decoded.getId());
+    assertEquals(user.getUsername(), decoded.getUsername());
+    assertEquals(user.getEmail(), decoded.getEmail());
+    assertEquals(user.getRoles(), decoded.getRoles());
+    assertTrue(decoded.isEnabled());
+    assertNull(decoded.getPassword());
+  }
+
+  @Test
+  void serialize_SecurityContext_ShouldRoundTrip() {
+    // Given
+    SecurityContextImpl context = new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(
+        "testuser", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+    // When
+    SecurityContextImpl decoded = (SecurityContextImpl) serializer.deserialize(serializer.serialize(context));
+
+    // Then
+    Authentication authentication = decoded.getAuthentication();
+    assertEquals("testuser", authentication.getPrincipal());
+    assertTrue(authentication.isAuthenticated());
+    assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), new ArrayList<>(authentication.getAuthorities()));
+  }
+
+  @Test
+  void serialize_SessionPrincipal_ShouldRoundTripSmallerThanUserAndSecurityContext() {
+    // Given
+    User user = createTestUser();
+    user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoO5rS0Ukkq8Y9F1xUj5HYdwW6jxOEfQXq");
+    SessionPrincipal principal = SessionPrincipal.of(user);
+    SecurityContextImpl context = new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(
+        "testuser", null, List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+    // When
+    byte[] bytes = serializer.serialize(principal);
+    int legacyBytes = serializer.serialize(user).length + serializer.serialize(context).length;
+
+    // Then
+    assertEquals(principal, serializer.deserialize(bytes));
+    assertTrue(bytes.length * 2 < legacyBytes, bytes.length + " vs " + legacyBytes);
+  }
+
+  @Test
+  void serialize_SessionPrincipalWithRolesInAnyOrder_ShouldWriteTheSameBytes() {
+    // Given
+    SessionPrincipal first = new SessionPrincipal(1L, "testuser", "test@example.com",
+        new LinkedHashSet<>(List.of("USER", "ADMIN", "AUDITOR")), true);
+    SessionPrincipal second = new SessionPrincipal(1L, "testuser", "test@example.com",
+        new LinkedHashSet<>(List.of("AUDITOR", "ADMIN", "USER")), true);
+
+    // When
+    byte[] firstBytes = serializer.serialize(first);
+    byte[] secondBytes = serializer.serialize(second);
+
+    // Then
+    assertArrayEquals(firstBytes, secondBytes);
+    assertEquals(List.of("ADMIN", "AUDITOR", "USER"), List.copyOf(first.roles()));
+  }
+
+  @Test
+  void serialize_UnsupportedSecurityContext_ShouldFallBackToJdkSerialization() {
+    // Given
+    SecurityContextImpl context = new SecurityContextImpl(new TestingAuthenticationToken("testuser", "secret"));
+
+    // When
+    byte[] bytes = serializer.serialize(context);
+
+    // Then
+    assertFalse(CompactSessionSerializer.isCompact(bytes));
+    SecurityContextImpl decoded = (SecurityContextImpl) serializer.deserialize(bytes);
+    assertEquals("secret", decoded.getAuthentication().getCredentials());
+  }
+
+  @Test
+  void deserialize_LegacyJsonEntry_ShouldUseFallbackDecoder() {
+    // Given
+    byte[] legacy = legacyJson.serialize(createTestUser());
+
+    // When
+    User decoded = (User) serializer.deserialize(legacy);
+
+    // Then
+    assertEquals("testuser", decoded.getUsername());
+  }
+
+  @Test
+  void deserialize_LegacyJdkEntry_ShouldUseFallbackDecoder() {
+    // Given
+    byte[] legacy = new JdkSerializationRedisSerializer().serialize(1734567890123L);
+
+    // When & Then
+    assertEquals(1734567890123L, serializer.deserialize(legacy));
+  }
+
+  @Test
+  void deserialize_UnknownVersion_ShouldFail() {
+    byte[] bytes = serializer.serialize(1L);
+    bytes[1] = 99;
+
+    assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+  }
+
+  @Test
+  void constructor_DuplicateTypeId_ShouldFail() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CompactSessionSerializer(List.of(new UserTypeCodec(), new UserTypeCodec()), legacyJson));
+  }
+
+  private User createTestUser() {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("testuser");
+    user.setEmail("test@example.com");
+    user.addRole("USER");
+    user.addRole("ADMIN");
+    user.setEnabled(true);
+    return user;
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.infrastructure.adapter.out.session.codec;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingSessionSerializerTest {
+
+  private static final int THRESHOLD = 256;
+
+  private SimpleMeterRegistry meterRegistry;
+  private CompactSessionSerializer compact;
+  private CompressingSessionSerializer serializer;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    compact = new CompactSessionSerializer(List.of(), new JdkSerializationRedisSerializer());
+    serializer = new CompressingSessionSerializer(compact, THRESHOLD, meterRegistry);
+  }
+
+  @Test
+  void serialize_LargeValue_ShouldStoreCompressedAndRoundTrip() {
+    // Given
+    String cart = "item=SKU-0001;qty=1;price=19.99|".repeat(200);
+
+    // When
+    byte[] bytes = serializer.serialize(cart);
+
+    // Then
+    assertTrue(CompressingSessionSerializer.isCompressed(bytes));
+    assertTrue(bytes.length < compact.serialize(cart).length / 4);
+    assertEquals(cart, serializer.deserialize(bytes));
+    assertEquals(1L, meterRegistry.get("session.codec.compression.time").tag("operation", "compress")
+        .timer().count());
+    assertEquals(bytes.length, (long) meterRegistry.get("session.codec.value.size").tag("form", "stored")
+        .summary().totalAmount());
+  }
+
+  @Test
+  void serialize_SmallValue_ShouldKeepDelegateFormat() {
+    // When
+    byte[] bytes = serializer.serialize("user-42");
+
+    // Then
+    assertFalse(CompressingSessionSerializer.isCompressed(bytes));
+    assertArrayEquals(compact.serialize("user-42"), bytes);
+    assertEquals("user-42", serializer.deserialize(bytes));
+  }
+
+  @Test
+  void deserialize_ValueWrittenWithoutCompression_ShouldStillBeRead() {
+    // Given: valor grande escrito antes de activar la compresión
+    String legacy = "x".repeat(4 * THRESHOLD);
+    byte[] plain = compact.serialize(legacy);
+
+    // When & Then
+    assertEquals(legacy, serializer.deserialize(plain));
+  }
+
+  @Test
+  void serialize_IncompressibleValue_ShouldKeepPlainValue() {
+    // Given
+    byte[] noise = new byte[2 * THRESHOLD];
+    new Random(7).nextBytes(noise);
+
+    // When
+    byte[] bytes = serializer.serialize(noise);
+
+    // Then
+    assertFalse(CompressingSessionSerializer.isCompressed(bytes));
+    assertArrayEquals(noise, (byte[]) serializer.deserialize(bytes));
+    assertEquals(1.0, meterRegistry.get("session.codec.incompressible").counter().count());
+  }
+}
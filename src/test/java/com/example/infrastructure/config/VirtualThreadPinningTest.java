@@ -0,0 +1,101 @@
+package com.example.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A virtual thread that blocks inside a {@code synchronized} block pins its carrier thread, so the
+ * request path must use {@code java.util.concurrent.locks} instead
+ * Checked on the bytecode so the guard also runs on Java 17 builds
+ */
+class VirtualThreadPinningTest {
+
+  // Clases de terceros por las que pasa cada petición (filtro de sesión, Lettuce, BCrypt)
+  private static final List<String> THIRD_PARTY_HOT_PATH = List.of(
+      "org.springframework.session.web.http.SessionRepositoryFilter$SessionRepositoryRequestWrapper",
+      "org.springframework.session.web.http.CookieHttpSessionIdResolver",
+      "org.springframework.session.web.http.DefaultCookieSerializer",
+      "org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory$SharedConnection",
+      "org.springframework.data.redis.connection.lettuce.LettuceConnection",
+      "io.lettuce.core.protocol.DefaultEndpoint",
+      "io.lettuce.core.protocol.AsyncCommand",
+      "io.lettuce.core.LettuceFutures",
+      "org.springframework.security.crypto.bcrypt.BCrypt",
+      "org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder");
+
+  @Test
+  void applicationClasses_ShouldNotUseSynchronized() throws IOException {
+    // Given
+    Resource[] classes = new PathMatchingResourcePatternResolver()
+        .getResources("classpath*:com/example/{application,infrastructure}/**/*.class");
+    List<String> violations = new ArrayList<>();
+
+    // When
+    for (Resource resource : classes) {
+      if (resource.getURL().toString().contains("test-classes")) {
+        continue;
+      }
+      try (InputStream in = resource.getInputStream()) {
+        violations.addAll(synchronizedMethods(in));
+      }
+    }
+
+    // Then
+    assertTrue(classes.length > 0);
+    assertEquals(List.of(), violations);
+  }
+
+  @Test
+  void thirdPartyHotPath_ShouldNotUseSynchronized() throws IOException {
+    // Given
+    List<String> violations = new ArrayList<>();
+
+    // When
+    for (String className : THIRD_PARTY_HOT_PATH) {
+      String resource = className.replace('.', '/') + ".class";
+      try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+        assertNotNull(in, className);
+        violations.addAll(synchronizedMethods(in));
+      }
+    }
+
+    // Then
+    assertEquals(List.of(), violations);
+  }
+
+  private static List<String> synchronizedMethods(InputStream classFile) throws IOException {
+    ClassReader reader = new ClassReader(classFile);
+    List<String> found = new ArrayList<>();
+    reader.accept(new ClassVisitor(Opcodes.ASM9) {
+      @Override
+      public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+          String[] exceptions) {
+        String method = reader.getClassName() + "." + name;
+        if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+          found.add(method);
+        }
+        return new MethodVisitor(Opcodes.ASM9) {
+          @Override
+          public void visitInsn(int opcode) {
+            if (opcode == Opcodes.MONITORENTER) {
+              found.add(method);
+            }
+          }
+        };
+      }
+    }, ClassReader.SKIP_DEBUG);
+    return found;
+  }
+}
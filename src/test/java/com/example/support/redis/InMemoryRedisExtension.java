@@ -0,0 +1,110 @@
+package com.example.support.redis;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts {@link InMemoryRedisServer} nodes with a Lettuce connection factory each for a test class
+ * Register it on a static field with {@code @RegisterExtension}: the nodes are up before the
+ * class's {@code @BeforeAll}, flushed and without latency before every test, and closed with every
+ * connection factory the class opened
+ */
+public final class InMemoryRedisExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback {
+
+  private final int nodes;
+  private final List<InMemoryRedisServer> servers = new ArrayList<>();
+  private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+  private final List<LettuceConnectionFactory> extraConnectionFactories = new ArrayList<>();
+
+  public InMemoryRedisExtension() {
+    this(1);
+  }
+
+  /**
+   * @param nodes independent servers to start, as for a sharded setup
+   */
+  public InMemoryRedisExtension(int nodes) {
+    this.nodes = nodes;
+  }
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    for (int i = 0; i < nodes; i++) {
+      InMemoryRedisServer server = InMemoryRedisServer.start();
+      servers.add(server);
+      connectionFactories.add(connect(server));
+    }
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) {
+    extraConnectionFactories.forEach(LettuceConnectionFactory::destroy);
+    extraConnectionFactories.clear();
+    connectionFactories.forEach(LettuceConnectionFactory::destroy);
+    connectionFactories.clear();
+    servers.forEach(InMemoryRedisServer::close);
+    servers.clear();
+  }
+
+  @Override
+  public void beforeEach(ExtensionContext context) {
+    for (InMemoryRedisServer server : servers) {
+      server.setLatency(Duration.ZERO);
+      server.flushAll();
+    }
+  }
+
+  public int nodes() {
+    return nodes;
+  }
+
+  public InMemoryRedisServer server() {
+    return server(0);
+  }
+
+  public InMemoryRedisServer server(int node) {
+    return servers.get(node);
+  }
+
+  public LettuceConnectionFactory connectionFactory() {
+    return connectionFactory(0);
+  }
+
+  public LettuceConnectionFactory connectionFactory(int node) {
+    return connectionFactories.get(node);
+  }
+
+  /**
+   * @return a template on the shared connection factory of the first node
+   */
+  public StringRedisTemplate template() {
+    return new StringRedisTemplate(connectionFactory());
+  }
+
+  /**
+   * Opens another connection factory on the first node, like a second application node would
+   * It is closed with the others after the class
+   */
+  public LettuceConnectionFactory newConnectionFactory() {
+    LettuceConnectionFactory connectionFactory = connect(server());
+    extraConnectionFactories.add(connectionFactory);
+    return connectionFactory;
+  }
+
+  private static LettuceConnectionFactory connect(InMemoryRedisServer server) {
+    LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+        new RedisStandaloneConfiguration("localhost", server.getPort()));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    return connectionFactory;
+  }
+}
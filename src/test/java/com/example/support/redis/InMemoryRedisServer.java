@@ -0,0 +1,414 @@
+package com.example.support.redis;
+
+import com.example.support.redis.RespProtocol.Error;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process server speaking enough of RESP2 to back the Redis session store in tests and benchmarks
+ * Supports strings, hashes, sets, sorted sets, expiry, MULTI/EXEC, pipelining, pub/sub and keyspace
+ * notifications, plus an injected per-round-trip latency to emulate a remote Redis
+ *
+ * Standalone: {@code java -cp <test-classpath> com.example.support.redis.InMemoryRedisServer [port] [latencyMs]}
+ */
+public final class InMemoryRedisServer implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(InMemoryRedisServer.class);
+
+  private final RedisDataStore dataStore = new RedisDataStore();
+  private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+  private final AtomicLong commandCount = new AtomicLong();
+  private final AtomicLong roundTripCount = new AtomicLong();
+  private volatile long latencyNanos;
+  private volatile boolean running;
+  private ServerSocket serverSocket;
+  private Thread expiryThread;
+
+  /**
+   * Starts a server on a free local port
+   */
+  public static InMemoryRedisServer start() {
+    return start(0);
+  }
+
+  public static InMemoryRedisServer start(int port) {
+    InMemoryRedisServer server = new InMemoryRedisServer();
+    server.listen(port);
+    return server;
+  }
+
+  private void listen(int port) {
+    try {
+      serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot bind in-memory Redis to port " + port, e);
+    }
+    running = true;
+
+    Thread acceptor = new Thread(this::acceptLoop, "in-memory-redis-acceptor-" + getPort());
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    expiryThread = new Thread(this::expiryLoop, "in-memory-redis-expiry-" + getPort());
+    expiryThread.setDaemon(true);
+    expiryThread.start();
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Delays every reply by the given time, emulating a network hop: pipelined commands share the
+   * delay and commands keep being read while earlier replies are in flight
+   */
+  public void setLatency(Duration latency) {
+    this.latencyNanos = latency.toNanos();
+  }
+
+  /**
+   * @return commands executed since start
+   */
+  public long getCommandCount() {
+    return commandCount.get();
+  }
+
+  /**
+   * @return times the server flushed replies back to a client, one per client round trip
+   */
+  public long getRoundTripCount() {
+    return roundTripCount.get();
+  }
+
+  /**
+   * @return number of live keys
+   */
+  public int keyCount() {
+    return dataStore.size();
+  }
+
+  /**
+   * Runs a command directly against the keyspace, bypassing the network
+   */
+  public Object execute(String... args) {
+    List<byte[]> command = new ArrayList<>(args.length);
+    for (String arg : args) {
+      command.add(RedisDataStore.bytes(arg));
+    }
+    return dataStore.execute(command);
+  }
+
+  public void flushAll() {
+    execute("FLUSHALL");
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    try {
+      serverSocket.close();
+    } catch (IOException ignored) {
+      // Cerrando de todas formas
+    }
+    for (Socket client : clients) {
+      try {
+        client.close();
+      } catch (IOException ignored) {
+        // Cerrando de todas formas
+      }
+    }
+    expiryThread.interrupt();
+  }
+
+  private void acceptLoop() {
+    while (running) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        clients.add(socket);
+        Thread handler = new Thread(() -> serve(socket), "in-memory-redis-client-" + socket.getPort());
+        handler.setDaemon(true);
+        handler.start();
+      } catch (IOException e) {
+        if (running) {
+          logger.warn("In-memory Redis accept failed: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  private void expiryLoop() {
+    while (running) {
+      try {
+        TimeUnit.MILLISECONDS.sleep(50);
+        dataStore.expireKeys();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    Connection connection = null;
+    try (socket) {
+      InputStream in = new BufferedInputStream(socket.getInputStream());
+      connection = new Connection(new BufferedOutputStream(socket.getOutputStream()), socket.getPort());
+      List<byte[]> command;
+      while ((command = RespProtocol.readCommand(in)) != null) {
+        if (command.isEmpty()) {
+          continue;
+        }
+        commandCount.incrementAndGet();
+        boolean quit = connection.handle(command);
+        if (in.available() == 0 || quit) {
+          connection.endRoundTrip();
+        }
+        if (quit) {
+          return;
+        }
+      }
+    } catch (SocketException e) {
+      // Cliente desconectado
+    } catch (IOException e) {
+      if (running) {
+        logger.warn("In-memory Redis client error: {}", e.getMessage());
+      }
+    } finally {
+      clients.remove(socket);
+      if (connection != null) {
+        dataStore.removeSubscriber(connection);
+        connection.close();
+      }
+    }
+  }
+
+  /**
+   * State of one client connection: MULTI queue, pub/sub subscriptions and the replies of the
+   * current round trip. Replies are handed to a sender thread that delivers them after the injected
+   * latency, so a slow link delays replies without stopping the server from reading further commands
+   */
+  private final class Connection implements RedisDataStore.Subscriber {
+
+    private final OutputStream out;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteArrayOutputStream replies = new ByteArrayOutputStream();
+    private final LinkedBlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+    private final Thread sender;
+    private final Set<String> channels = ConcurrentHashMap.newKeySet();
+    private final Set<String> patterns = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Pattern> compiledPatterns = new ConcurrentHashMap<>();
+    private List<List<byte[]>> transaction;
+
+    Connection(OutputStream out, int clientPort) {
+      this.out = out;
+      this.sender = new Thread(this::sendLoop, "in-memory-redis-sender-" + clientPort);
+      sender.setDaemon(true);
+      sender.start();
+    }
+
+    /**
+     * @return true if the client asked to close the connection
+     */
+    boolean handle(List<byte[]> command) throws IOException {
+      String name = RedisDataStore.text(command.get(0)).toUpperCase(Locale.ROOT);
+      switch (name) {
+        case "HELLO" -> reply(new Error("ERR unknown command 'HELLO'"));
+        case "QUIT" -> {
+          reply(RespProtocol.OK);
+          return true;
+        }
+        case "MULTI" -> {
+          transaction = new ArrayList<>();
+          reply(RespProtocol.OK);
+        }
+        case "EXEC" -> {
+          if (transaction == null) {
+            reply(new Error("ERR EXEC without MULTI"));
+          } else {
+            List<List<byte[]>> queued = transaction;
+            transaction = null;
+            reply(dataStore.executeAll(queued));
+          }
+        }
+        case "DISCARD" -> {
+          transaction = null;
+          reply(RespProtocol.OK);
+        }
+        case "SUBSCRIBE" -> subscribe(command, channels, "subscribe");
+        case "PSUBSCRIBE" -> subscribe(command, patterns, "psubscribe");
+        case "UNSUBSCRIBE" -> unsubscribe(command, channels, "unsubscribe");
+        case "PUNSUBSCRIBE" -> unsubscribe(command, patterns, "punsubscribe");
+        default -> {
+          if (transaction != null) {
+            transaction.add(command);
+            reply(RespProtocol.QUEUED);
+          } else {
+            reply(dataStore.execute(command));
+          }
+        }
+      }
+      return false;
+    }
+
+    private void subscribe(List<byte[]> command, Set<String> target, String kind) throws IOException {
+      dataStore.addSubscriber(this);
+      for (int i = 1; i < command.size(); i++) {
+        String name = RedisDataStore.text(command.get(i));
+        target.add(name);
+        reply(List.of(RedisDataStore.bytes(kind), command.get(i), (long) (channels.size() + patterns.size())));
+      }
+    }
+
+    private void unsubscribe(List<byte[]> command, Set<String> target, String kind) throws IOException {
+      List<String> names = new ArrayList<>();
+      if (command.size() == 1) {
+        names.addAll(target);
+      } else {
+        for (int i = 1; i < command.size(); i++) {
+          names.add(RedisDataStore.text(command.get(i)));
+        }
+      }
+      if (names.isEmpty()) {
+        reply(List.of(RedisDataStore.bytes(kind), RespProtocol.NULL_ARRAY, 0L));
+        return;
+      }
+      for (String name : names) {
+        target.remove(name);
+        reply(List.of(RedisDataStore.bytes(kind), RedisDataStore.bytes(name),
+            (long) (channels.size() + patterns.size())));
+      }
+    }
+
+    private void reply(Object value) throws IOException {
+      writeLock.lock();
+      try {
+        RespProtocol.write(replies, value);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    /**
+     * Hands the replies buffered since the last round trip to the sender
+     */
+    void endRoundTrip() {
+      roundTripCount.incrementAndGet();
+      byte[] batch;
+      writeLock.lock();
+      try {
+        batch = replies.toByteArray();
+        replies.reset();
+      } finally {
+        writeLock.unlock();
+      }
+      if (batch.length > 0) {
+        deliveries.add(new Delivery(System.nanoTime() + latencyNanos, batch));
+      }
+    }
+
+    void close() {
+      sender.interrupt();
+    }
+
+    private void sendLoop() {
+      try {
+        while (true) {
+          Delivery delivery = deliveries.take();
+          long wait = delivery.dueAt() - System.nanoTime();
+          if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+          }
+          out.write(delivery.bytes());
+          if (deliveries.isEmpty()) {
+            out.flush();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException e) {
+        // Cliente desconectado
+      }
+    }
+
+    @Override
+    public boolean isSubscribed(String channel) {
+      return channels.contains(channel);
+    }
+
+    @Override
+    public String matchingPattern(String channel) {
+      for (String pattern : patterns) {
+        Pattern compiled = compiledPatterns.computeIfAbsent(pattern, InMemoryRedisServer::compileGlob);
+        if (compiled.matcher(channel).matches()) {
+          return pattern;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public void deliver(Object message) {
+      writeLock.lock();
+      try {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        RespProtocol.write(buffer, message);
+        deliveries.add(new Delivery(System.nanoTime() + latencyNanos, buffer.toByteArray()));
+      } catch (IOException e) {
+        // No ocurre al escribir en memoria
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  private record Delivery(long dueAt, byte[] bytes) {
+  }
+
+  private static Pattern compileGlob(String glob) {
+    StringBuilder regex = new StringBuilder();
+    for (char c : glob.toCharArray()) {
+      if (c == '*') {
+        regex.append(".*");
+      } else if (c == '?') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 6379;
+    InMemoryRedisServer server = start(port);
+    if (args.length > 1) {
+      server.setLatency(Duration.ofMillis(Long.parseLong(args[1])));
+    }
+    System.out.println("In-memory Redis listening on 127.0.0.1:" + server.getPort());
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    Thread.currentThread().join();
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.support.redis;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRedisServerTest {
+
+  private static InMemoryRedisServer server;
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redisTemplate;
+
+  @BeforeAll
+  static void startServer() {
+    server = InMemoryRedisServer.start();
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", server.getPort()));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void stopServer() {
+    connectionFactory.destroy();
+    server.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    server.setLatency(Duration.ZERO);
+    server.flushAll();
+  }
+
+  @Test
+  void hash_WithExpiry_ShouldBehaveLikeRedis() throws InterruptedException {
+    // Given
+    String key = "spring:session:sessions:abc";
+    redisTemplate.opsForHash().putAll(key, Map.of("creationTime", "1", "sessionAttr:user", "42"));
+
+    // When
+    redisTemplate.opsForHash().delete(key, "creationTime");
+    redisTemplate.expire(key, Duration.ofMillis(100));
+
+    // Then
+    assertEquals(Map.of("sessionAttr:user", "42"), redisTemplate.opsForHash().entries(key));
+    assertTrue(redisTemplate.getExpire(key, TimeUnit.MILLISECONDS) > 0);
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertFalse(redisTemplate.hasKey(key));
+  }
+
+  @Test
+  void keyspaceNotifications_ExpiredKey_ShouldPublishEvent() throws InterruptedException {
+    // Given
+    redisTemplate.execute((RedisCallback<Object>) connection -> {
+      connection.serverCommands().setConfig("notify-keyspace-events", "Egx");
+      return null;
+    });
+    BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    RedisClient client = RedisClient.create("redis://localhost:" + server.getPort());
+    try (StatefulRedisPubSubConnection<String, String> pubSub = client.connectPubSub()) {
+      pubSub.addListener(new RedisPubSubAdapter<>() {
+        @Override
+        public void message(String pattern, String channel, String message) {
+          events.add(channel + " " + message);
+        }
+      });
+      pubSub.sync().psubscribe("__keyevent@0__:*");
+
+      // When
+      redisTemplate.opsForValue().set("short-lived", "x", Duration.ofMillis(50));
+      redisTemplate.opsForValue().set("deleted", "x");
+      redisTemplate.delete("deleted");
+
+      // Then
+      List<String> received = List.of(events.poll(2, TimeUnit.SECONDS), events.poll(2, TimeUnit.SECONDS));
+      assertTrue(received.contains("__keyevent@0__:del deleted"), received.toString());
+      assertTrue(received.contains("__keyevent@0__:expired short-lived"), received.toString());
+    } finally {
+      client.shutdown();
+    }
+  }
+
+  @Test
+  void setLatency_PipelinedCommands_ShouldShareTheDelay() {
+    // Given
+    server.setLatency(Duration.ofMillis(50));
+
+    // When
+    long start = System.nanoTime();
+    List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      for (int i = 0; i < 20; i++) {
+        connection.stringCommands().set(("key-" + i).getBytes(), "v".getBytes());
+      }
+      return null;
+    });
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // Then
+    assertEquals(20, replies.size());
+    // Uno tras otro serían 20 x 50 ms
+    assertTrue(elapsedMillis >= 50 && elapsedMillis < 500, "Took " + elapsedMillis + " ms");
+    assertEquals(20, server.keyCount());
+  }
+}
@@ -0,0 +1,874 @@
+package com.example.support.redis;
+
+import com.example.support.redis.RespProtocol.Error;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Keyspace of the in-memory Redis stand-in
+ * Strings, hashes, sets and sorted sets with millisecond expiry, pub/sub and keyspace
+ * notifications. Every command runs under one lock, like Redis' single command thread
+ */
+final class RedisDataStore {
+
+  /** Receives pub/sub messages for one client connection */
+  interface Subscriber {
+
+    boolean isSubscribed(String channel);
+
+    String matchingPattern(String channel);
+
+    void deliver(Object message);
+  }
+
+  private static final String KEYEVENT_PREFIX = "__keyevent@0__:";
+  private static final String KEYSPACE_PREFIX = "__keyspace@0__:";
+
+  private final TreeMap<String, Entry> keys = new TreeMap<>();
+  private final Map<Long, String> scanCursors = new HashMap<>();
+  private long nextScanCursor = 1;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<List<String[]>> pendingNotifications = ThreadLocal.withInitial(ArrayList::new);
+  private volatile String notifyKeyspaceEvents = "";
+
+  private static final class Entry {
+
+    Object value;
+    long expiresAt;
+
+    Entry(Object value) {
+      this.value = value;
+    }
+  }
+
+  private static final class SortedSet {
+
+    final Map<String, Double> scores = new HashMap<>();
+    final TreeSet<String> ordered = new TreeSet<>(
+        Comparator.<String, Double>comparing(scores::get).thenComparing(Comparator.naturalOrder()));
+
+    boolean add(String member, double score) {
+      boolean added = !scores.containsKey(member);
+      if (!added) {
+        ordered.remove(member);
+      }
+      scores.put(member, score);
+      ordered.add(member);
+      return added;
+    }
+
+    boolean remove(String member) {
+      if (!scores.containsKey(member)) {
+        return false;
+      }
+      ordered.remove(member);
+      scores.remove(member);
+      return true;
+    }
+  }
+
+  void addSubscriber(Subscriber subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  void removeSubscriber(Subscriber subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  /**
+   * Runs a batch of commands atomically (a single command or a MULTI/EXEC block)
+   */
+  List<Object> executeAll(List<List<byte[]>> commands) {
+    List<Object> replies = new ArrayList<>(commands.size());
+    lock.lock();
+    try {
+      for (List<byte[]> command : commands) {
+        replies.add(executeLocked(command));
+      }
+    } finally {
+      lock.unlock();
+    }
+    flushNotifications();
+    return replies;
+  }
+
+  Object execute(List<byte[]> command) {
+    return executeAll(List.of(command)).get(0);
+  }
+
+  /**
+   * Removes every key whose expiry passed and emits {@code expired} events
+   *
+   * @return number of keys removed
+   */
+  int expireKeys() {
+    int removed = 0;
+    lock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      Iterator<Map.Entry<String, Entry>> iterator = keys.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, Entry> entry = iterator.next();
+        if (entry.getValue().expiresAt != 0 && entry.getValue().expiresAt <= now) {
+          iterator.remove();
+          notifyEvent('x', "expired", entry.getKey());
+          removed++;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    flushNotifications();
+    return removed;
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return keys.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Object executeLocked(List<byte[]> args) {
+    String name = text(args.get(0)).toUpperCase(Locale.ROOT);
+    try {
+      return switch (name) {
+        case "PING" -> args.size() > 1 ? args.get(1) : new RespProtocol.Status("PONG");
+        case "ECHO" -> args.get(1);
+        case "SELECT", "WATCH", "UNWATCH", "CLIENT", "READONLY" -> RespProtocol.OK;
+        case "INFO" -> "# Server\r\nredis_version:7.0.0\r\nredis_mode:standalone\r\n";
+        case "CONFIG" -> config(args);
+        case "FLUSHALL", "FLUSHDB" -> {
+          keys.clear();
+          scanCursors.clear();
+          yield RespProtocol.OK;
+        }
+        case "DBSIZE" -> (long) liveKeys().size();
+        case "GET" -> get(args);
+        case "SET" -> set(args);
+        case "INCR" -> incrBy(key(args), 1);
+        case "INCRBY" -> incrBy(key(args), Long.parseLong(text(args.get(2))));
+        case "DEL", "UNLINK" -> del(args);
+        case "EXISTS" -> exists(args);
+        case "TYPE" -> new RespProtocol.Status(type(key(args)));
+        case "KEYS" -> keysMatching(text(args.get(1)));
+        case "SCAN" -> scan(args);
+        case "RENAME" -> rename(args, false);
+        case "RENAMENX" -> rename(args, true);
+        case "EXPIRE" -> expireAt(key(args), System.currentTimeMillis() + Long.parseLong(text(args.get(2))) * 1000);
+        case "PEXPIRE" -> expireAt(key(args), System.currentTimeMillis() + Long.parseLong(text(args.get(2))));
+        case "EXPIREAT" -> expireAt(key(args), Long.parseLong(text(args.get(2))) * 1000);
+        case "PEXPIREAT" -> expireAt(key(args), Long.parseLong(text(args.get(2))));
+        case "PERSIST" -> persist(key(args));
+        case "TTL" -> ttl(key(args), 1000);
+        case "PTTL" -> ttl(key(args), 1);
+        case "HSET", "HMSET" -> hset(args, name.equals("HMSET"));
+        case "HSETNX" -> hsetnx(args);
+        case "HGET" -> hash(key(args), false) == null ? null : hash(key(args), false).get(text(args.get(2)));
+        case "HMGET" -> hmget(args);
+        case "HGETALL" -> hgetall(key(args));
+        case "HDEL" -> hdel(args);
+        case "HEXISTS" -> hash(key(args), false) != null && hash(key(args), false).containsKey(text(args.get(2)));
+        case "HLEN" -> hash(key(args), false) == null ? 0L : (long) hash(key(args), false).size();
+        case "HKEYS" -> hkeys(key(args));
+        case "HINCRBY" -> hincrby(args);
+        case "SADD" -> sadd(args);
+        case "SREM" -> srem(args);
+        case "SMEMBERS" -> smembers(key(args));
+        case "SISMEMBER" -> set(key(args), false) != null && set(key(args), false).contains(text(args.get(2)));
+        case "SCARD" -> set(key(args), false) == null ? 0L : (long) set(key(args), false).size();
+        case "ZADD" -> zadd(args);
+        case "ZREM" -> zrem(args);
+        case "ZSCORE" -> zscore(args);
+        case "ZCARD" -> zset(key(args), false) == null ? 0L : (long) zset(key(args), false).scores.size();
+        case "ZRANGEBYSCORE" -> zrangeByScore(args);
+        case "ZRANGE" -> zrange(args);
+        case "ZREMRANGEBYSCORE" -> zremRangeByScore(args);
+        case "ZCOUNT" -> zcount(args);
+        case "PUBLISH" -> (long) publish(text(args.get(1)), args.get(2));
+        default -> new Error("ERR unknown command '" + name + "'");
+      };
+    } catch (WrongTypeException e) {
+      return new Error("WRONGTYPE Operation against a key holding the wrong kind of value");
+    } catch (RuntimeException e) {
+      return new Error("ERR " + e.getMessage());
+    }
+  }
+
+  // Keyspace helpers
+
+  private Entry entry(String key) {
+    Entry entry = keys.get(key);
+    if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= System.currentTimeMillis()) {
+      keys.remove(key);
+      notifyEvent('x', "expired", key);
+      return null;
+    }
+    return entry;
+  }
+
+  private List<String> liveKeys() {
+    List<String> live = new ArrayList<>();
+    for (String key : new ArrayList<>(keys.keySet())) {
+      if (entry(key) != null) {
+        live.add(key);
+      }
+    }
+    return live;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T value(String key, Class<?> type, boolean create, java.util.function.Supplier<T> factory) {
+    Entry entry = entry(key);
+    if (entry == null) {
+      if (!create) {
+        return null;
+      }
+      entry = new Entry(factory.get());
+      keys.put(key, entry);
+    }
+    if (!type.isInstance(entry.value)) {
+      throw new WrongTypeException();
+    }
+    return (T) entry.value;
+  }
+
+  private Map<String, byte[]> hash(String key, boolean create) {
+    return value(key, HashMap.class, create, HashMap::new);
+  }
+
+  private Set<String> set(String key, boolean create) {
+    return value(key, LinkedHashSet.class, create, LinkedHashSet::new);
+  }
+
+  private SortedSet zset(String key, boolean create) {
+    return value(key, SortedSet.class, create, SortedSet::new);
+  }
+
+  private void dropIfEmpty(String key) {
+    Entry entry = keys.get(key);
+    if (entry == null) {
+      return;
+    }
+    boolean empty = entry.value instanceof Map<?, ?> map && map.isEmpty()
+        || entry.value instanceof Set<?> set && set.isEmpty()
+        || entry.value instanceof SortedSet zset && zset.scores.isEmpty();
+    if (empty) {
+      keys.remove(key);
+    }
+  }
+
+  // Server commands
+
+  private Object config(List<byte[]> args) {
+    String sub = text(args.get(1)).toUpperCase(Locale.ROOT);
+    if (sub.equals("SET") && text(args.get(2)).equalsIgnoreCase("notify-keyspace-events")) {
+      notifyKeyspaceEvents = text(args.get(3));
+      return RespProtocol.OK;
+    }
+    if (sub.equals("GET") && text(args.get(2)).equalsIgnoreCase("notify-keyspace-events")) {
+      return List.of("notify-keyspace-events".getBytes(StandardCharsets.UTF_8), bytes(notifyKeyspaceEvents));
+    }
+    if (sub.equals("GET")) {
+      return List.of();
+    }
+    return RespProtocol.OK;
+  }
+
+  // String commands
+
+  private Object get(List<byte[]> args) {
+    return value(key(args), byte[].class, false, () -> null);
+  }
+
+  private Object set(List<byte[]> args) {
+    String key = key(args);
+    boolean nx = false;
+    boolean xx = false;
+    long expiresAt = 0;
+    for (int i = 3; i < args.size(); i++) {
+      String option = text(args.get(i)).toUpperCase(Locale.ROOT);
+      switch (option) {
+        case "NX" -> nx = true;
+        case "XX" -> xx = true;
+        case "PX" -> expiresAt = System.currentTimeMillis() + Long.parseLong(text(args.get(++i)));
+        case "EX" -> expiresAt = System.currentTimeMillis() + Long.parseLong(text(args.get(++i))) * 1000;
+        default -> throw new IllegalArgumentException("syntax error");
+      }
+    }
+    boolean exists = entry(key) != null;
+    if (nx && exists || xx && !exists) {
+      return null;
+    }
+    Entry entry = new Entry(args.get(2));
+    entry.expiresAt = expiresAt;
+    keys.put(key, entry);
+    notifyEvent('$', "set", key);
+    return RespProtocol.OK;
+  }
+
+  private Object incrBy(String key, long increment) {
+    byte[] current = value(key, byte[].class, false, () -> null);
+    long next = (current == null ? 0 : Long.parseLong(text(current))) + increment;
+    Entry entry = keys.get(key);
+    if (entry == null) {
+      keys.put(key, new Entry(bytes(Long.toString(next))));
+    } else {
+      entry.value = bytes(Long.toString(next));
+    }
+    return next;
+  }
+
+  // Generic key commands
+
+  private Object del(List<byte[]> args) {
+    long removed = 0;
+    for (int i = 1; i < args.size(); i++) {
+      String key = text(args.get(i));
+      if (entry(key) != null) {
+        keys.remove(key);
+        notifyEvent('g', "del", key);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  private Object exists(List<byte[]> args) {
+    long count = 0;
+    for (int i = 1; i < args.size(); i++) {
+      if (entry(text(args.get(i))) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private String type(String key) {
+    Entry entry = entry(key);
+    if (entry == null) {
+      return "none";
+    }
+    if (entry.value instanceof byte[]) {
+      return "string";
+    }
+    if (entry.value instanceof Map) {
+      return "hash";
+    }
+    if (entry.value instanceof Set) {
+      return "set";
+    }
+    return "zset";
+  }
+
+  private Object keysMatching(String glob) {
+    Pattern pattern = globToRegex(glob);
+    List<Object> matches = new ArrayList<>();
+    for (String key : liveKeys()) {
+      if (pattern.matcher(key).matches()) {
+        matches.add(bytes(key));
+      }
+    }
+    return matches;
+  }
+
+  private Object scan(List<byte[]> args) {
+    long cursor = Long.parseLong(text(args.get(1)));
+    Pattern pattern = null;
+    int count = 10;
+    String type = null;
+    for (int i = 2; i < args.size(); i += 2) {
+      String option = text(args.get(i)).toUpperCase(Locale.ROOT);
+      switch (option) {
+        case "MATCH" -> pattern = globToRegex(text(args.get(i + 1)));
+        case "COUNT" -> count = Integer.parseInt(text(args.get(i + 1)));
+        case "TYPE" -> type = text(args.get(i + 1));
+        default -> throw new IllegalArgumentException("syntax error");
+      }
+    }
+
+    // Como Redis: el cursor recuerda la última clave devuelta, así borrar durante el SCAN no salta claves
+    String after = cursor == 0 ? null : scanCursors.remove(cursor);
+    // Copia: entry() descarta las claves expiradas mientras se recorre
+    Iterator<String> remaining = new ArrayList<>(after == null ? keys.keySet() : keys.tailMap(after, false).keySet())
+        .iterator();
+    List<Object> page = new ArrayList<>();
+    String last = null;
+    for (int visited = 0; visited < count && remaining.hasNext(); ) {
+      String key = remaining.next();
+      if (entry(key) == null) {
+        continue;
+      }
+      visited++;
+      last = key;
+      if ((pattern == null || pattern.matcher(key).matches()) && (type == null || type.equals(type(key)))) {
+        page.add(bytes(key));
+      }
+    }
+    long next = 0;
+    if (last != null && keys.higherKey(last) != null) {
+      next = nextScanCursor++;
+      scanCursors.put(next, last);
+    }
+    return List.of(bytes(Long.toString(next)), page);
+  }
+
+  private Object rename(List<byte[]> args, boolean onlyIfAbsent) {
+    String source = key(args);
+    String target = text(args.get(2));
+    Entry entry = entry(source);
+    if (entry == null) {
+      return new Error("ERR no such key");
+    }
+    if (onlyIfAbsent && entry(target) != null) {
+      return 0L;
+    }
+    keys.remove(source);
+    keys.put(target, entry);
+    notifyEvent('g', "rename_from", source);
+    notifyEvent('g', "rename_to", target);
+    return onlyIfAbsent ? (Object) 1L : RespProtocol.OK;
+  }
+
+  private Object expireAt(String key, long expiresAt) {
+    Entry entry = entry(key);
+    if (entry == null) {
+      return 0L;
+    }
+    entry.expiresAt = expiresAt;
+    notifyEvent('g', "expire", key);
+    return 1L;
+  }
+
+  private Object persist(String key) {
+    Entry entry = entry(key);
+    if (entry == null || entry.expiresAt == 0) {
+      return 0L;
+    }
+    entry.expiresAt = 0;
+    return 1L;
+  }
+
+  private Object ttl(String key, long unit) {
+    Entry entry = entry(key);
+    if (entry == null) {
+      return -2L;
+    }
+    if (entry.expiresAt == 0) {
+      return -1L;
+    }
+    return Math.max(0, entry.expiresAt - System.currentTimeMillis()) / unit;
+  }
+
+  // Hash commands
+
+  private Object hset(List<byte[]> args, boolean legacyReply) {
+    String key = key(args);
+    Map<String, byte[]> hash = hash(key, true);
+    long added = 0;
+    for (int i = 2; i + 1 < args.size(); i += 2) {
+      if (hash.put(text(args.get(i)), args.get(i + 1)) == null) {
+        added++;
+      }
+    }
+    notifyEvent('h', "hset", key);
+    return legacyReply ? RespProtocol.OK : (Object) added;
+  }
+
+  private Object hsetnx(List<byte[]> args) {
+    Map<String, byte[]> hash = hash(key(args), true);
+    if (hash.containsKey(text(args.get(2)))) {
+      return 0L;
+    }
+    hash.put(text(args.get(2)), args.get(3));
+    notifyEvent('h', "hset", key(args));
+    return 1L;
+  }
+
+  private Object hmget(List<byte[]> args) {
+    Map<String, byte[]> hash = hash(key(args), false);
+    List<Object> values = new ArrayList<>();
+    for (int i = 2; i < args.size(); i++) {
+      values.add(hash == null ? null : hash.get(text(args.get(i))));
+    }
+    return values;
+  }
+
+  private Object hgetall(String key) {
+    Map<String, byte[]> hash = hash(key, false);
+    List<Object> flat = new ArrayList<>();
+    if (hash != null) {
+      hash.forEach((field, value) -> {
+        flat.add(bytes(field));
+        flat.add(value);
+      });
+    }
+    return flat;
+  }
+
+  private Object hdel(List<byte[]> args) {
+    String key = key(args);
+    Map<String, byte[]> hash = hash(key, false);
+    if (hash == null) {
+      return 0L;
+    }
+    long removed = 0;
+    for (int i = 2; i < args.size(); i++) {
+      if (hash.remove(text(args.get(i))) != null) {
+        removed++;
+      }
+    }
+    dropIfEmpty(key);
+    if (removed > 0) {
+      notifyEvent('h', "hdel", key);
+    }
+    return removed;
+  }
+
+  private Object hkeys(String key) {
+    Map<String, byte[]> hash = hash(key, false);
+    List<Object> fields = new ArrayList<>();
+    if (hash != null) {
+      hash.keySet().forEach(field -> fields.add(bytes(field)));
+    }
+    return fields;
+  }
+
+  private Object hincrby(List<byte[]> args) {
+    Map<String, byte[]> hash = hash(key(args), true);
+    byte[] current = hash.get(text(args.get(2)));
+    long next = (current == null ? 0 : Long.parseLong(text(current))) + Long.parseLong(text(args.get(3)));
+    hash.put(text(args.get(2)), bytes(Long.toString(next)));
+    return next;
+  }
+
+  // Set commands
+
+  private Object sadd(List<byte[]> args) {
+    Set<String> set = set(key(args), true);
+    long added = 0;
+    for (int i = 2; i < args.size(); i++) {
+      if (set.add(text(args.get(i)))) {
+        added++;
+      }
+    }
+    notifyEvent('s', "sadd", key(args));
+    return added;
+  }
+
+  private Object srem(List<byte[]> args) {
+    String key = key(args);
+    Set<String> set = set(key, false);
+    if (set == null) {
+      return 0L;
+    }
+    long removed = 0;
+    for (int i = 2; i < args.size(); i++) {
+      if (set.remove(text(args.get(i)))) {
+        removed++;
+      }
+    }
+    dropIfEmpty(key);
+    return removed;
+  }
+
+  private Object smembers(String key) {
+    Set<String> set = set(key, false);
+    List<Object> members = new ArrayList<>();
+    if (set != null) {
+      set.forEach(member -> members.add(bytes(member)));
+    }
+    return members;
+  }
+
+  // Sorted set commands
+
+  private Object zadd(List<byte[]> args) {
+    String key = key(args);
+    int i = 2;
+    boolean nx = false;
+    boolean xx = false;
+    boolean gt = false;
+    boolean lt = false;
+    boolean ch = false;
+    for (; i < args.size(); i++) {
+      String option = text(args.get(i)).toUpperCase(Locale.ROOT);
+      if (option.equals("NX")) {
+        nx = true;
+      } else if (option.equals("XX")) {
+        xx = true;
+      } else if (option.equals("GT")) {
+        gt = true;
+      } else if (option.equals("LT")) {
+        lt = true;
+      } else if (option.equals("CH")) {
+        ch = true;
+      } else {
+        break;
+      }
+    }
+    SortedSet zset = zset(key, true);
+    long changed = 0;
+    for (; i + 1 < args.size(); i += 2) {
+      double score = parseScore(text(args.get(i)));
+      String member = text(args.get(i + 1));
+      Double current = zset.scores.get(member);
+      if (current == null && xx || current != null && nx) {
+        continue;
+      }
+      if (current != null && (gt && score <= current || lt && score >= current)) {
+        continue;
+      }
+      boolean added = zset.add(member, score);
+      if (added || ch && current != score) {
+        changed++;
+      }
+    }
+    dropIfEmpty(key);
+    notifyEvent('z', "zadd", key);
+    return changed;
+  }
+
+  private Object zrem(List<byte[]> args) {
+    String key = key(args);
+    SortedSet zset = zset(key, false);
+    if (zset == null) {
+      return 0L;
+    }
+    long removed = 0;
+    for (int i = 2; i < args.size(); i++) {
+      if (zset.remove(text(args.get(i)))) {
+        removed++;
+      }
+    }
+    dropIfEmpty(key);
+    return removed;
+  }
+
+  private Object zscore(List<byte[]> args) {
+    SortedSet zset = zset(key(args), false);
+    Double score = zset == null ? null : zset.scores.get(text(args.get(2)));
+    return score == null ? null : bytes(formatScore(score));
+  }
+
+  private Object zrangeByScore(List<byte[]> args) {
+    SortedSet zset = zset(key(args), false);
+    double min = parseBound(text(args.get(2)));
+    double max = parseBound(text(args.get(3)));
+    boolean minExclusive = text(args.get(2)).startsWith("(");
+    boolean maxExclusive = text(args.get(3)).startsWith("(");
+    boolean withScores = false;
+    int offset = 0;
+    int limit = -1;
+    for (int i = 4; i < args.size(); i++) {
+      String option = text(args.get(i)).toUpperCase(Locale.ROOT);
+      if (option.equals("WITHSCORES")) {
+        withScores = true;
+      } else if (option.equals("LIMIT")) {
+        offset = Integer.parseInt(text(args.get(++i)));
+        limit = Integer.parseInt(text(args.get(++i)));
+      }
+    }
+    List<Object> result = new ArrayList<>();
+    if (zset == null) {
+      return result;
+    }
+    int skipped = 0;
+    int taken = 0;
+    for (String member : zset.ordered) {
+      double score = zset.scores.get(member);
+      if (score < min || minExclusive && score == min) {
+        continue;
+      }
+      if (score > max || maxExclusive && score == max) {
+        break;
+      }
+      if (skipped++ < offset) {
+        continue;
+      }
+      if (limit >= 0 && taken >= limit) {
+        break;
+      }
+      taken++;
+      result.add(bytes(member));
+      if (withScores) {
+        result.add(bytes(formatScore(score)));
+      }
+    }
+    return result;
+  }
+
+  private Object zrange(List<byte[]> args) {
+    SortedSet zset = zset(key(args), false);
+    List<Object> result = new ArrayList<>();
+    if (zset == null) {
+      return result;
+    }
+    List<String> members = new ArrayList<>(zset.ordered);
+    int start = normalizeIndex(Integer.parseInt(text(args.get(2))), members.size());
+    int stop = normalizeIndex(Integer.parseInt(text(args.get(3))), members.size());
+    boolean withScores = args.size() > 4 && text(args.get(4)).equalsIgnoreCase("WITHSCORES");
+    for (int i = Math.max(0, start); i <= Math.min(stop, members.size() - 1); i++) {
+      result.add(bytes(members.get(i)));
+      if (withScores) {
+        result.add(bytes(formatScore(zset.scores.get(members.get(i)))));
+      }
+    }
+    return result;
+  }
+
+  private Object zremRangeByScore(List<byte[]> args) {
+    String key = key(args);
+    SortedSet zset = zset(key, false);
+    if (zset == null) {
+      return 0L;
+    }
+    double min = parseBound(text(args.get(2)));
+    double max = parseBound(text(args.get(3)));
+    List<String> doomed = new ArrayList<>();
+    for (String member : zset.ordered) {
+      double score = zset.scores.get(member);
+      if (score >= min && score <= max) {
+        doomed.add(member);
+      }
+    }
+    doomed.forEach(zset::remove);
+    dropIfEmpty(key);
+    return (long) doomed.size();
+  }
+
+  private Object zcount(List<byte[]> args) {
+    SortedSet zset = zset(key(args), false);
+    if (zset == null) {
+      return 0L;
+    }
+    double min = parseBound(text(args.get(2)));
+    double max = parseBound(text(args.get(3)));
+    return zset.scores.values().stream().filter(score -> score >= min && score <= max).count();
+  }
+
+  // Pub/sub
+
+  private int publish(String channel, byte[] message) {
+    int receivers = 0;
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.isSubscribed(channel)) {
+        subscriber.deliver(List.of(bytes("message"), bytes(channel), message));
+        receivers++;
+      }
+      String pattern = subscriber.matchingPattern(channel);
+      if (pattern != null) {
+        subscriber.deliver(List.of(bytes("pmessage"), bytes(pattern), bytes(channel), message));
+        receivers++;
+      }
+    }
+    return receivers;
+  }
+
+  private void notifyEvent(char type, String event, String key) {
+    String flags = notifyKeyspaceEvents;
+    if (flags.isEmpty()) {
+      return;
+    }
+    if (flags.indexOf(type) < 0 && flags.indexOf('A') < 0) {
+      return;
+    }
+    if (flags.indexOf('E') >= 0) {
+      pendingNotifications.get().add(new String[] {KEYEVENT_PREFIX + event, key});
+    }
+    if (flags.indexOf('K') >= 0) {
+      pendingNotifications.get().add(new String[] {KEYSPACE_PREFIX + key, event});
+    }
+  }
+
+  private void flushNotifications() {
+    List<String[]> pending = pendingNotifications.get();
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<String[]> messages = new ArrayList<>(pending);
+    pending.clear();
+    for (String[] message : messages) {
+      publish(message[0], bytes(message[1]));
+    }
+  }
+
+  // Parsing helpers
+
+  private static Pattern globToRegex(String glob) {
+    StringBuilder regex = new StringBuilder();
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      switch (c) {
+        case '*' -> regex.append(".*");
+        case '?' -> regex.append('.');
+        case '[' -> {
+          int close = glob.indexOf(']', i);
+          regex.append(glob, i, close + 1);
+          i = close;
+        }
+        case '\\' -> regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+        default -> regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  private static double parseScore(String text) {
+    return switch (text) {
+      case "+inf", "inf" -> Double.POSITIVE_INFINITY;
+      case "-inf" -> Double.NEGATIVE_INFINITY;
+      default -> Double.parseDouble(text);
+    };
+  }
+
+  private static double parseBound(String text) {
+    String value = text.startsWith("(") ? text.substring(1) : text;
+    return parseScore(value);
+  }
+
+  private static String formatScore(double score) {
+    if (score == Math.rint(score) && !Double.isInfinite(score) && Math.abs(score) < 1e15) {
+      return Long.toString((long) score);
+    }
+    return Double.toString(score);
+  }
+
+  private static int normalizeIndex(int index, int size) {
+    return index < 0 ? size + index : index;
+  }
+
+  private static String key(List<byte[]> args) {
+    return text(args.get(1));
+  }
+
+  /** Keys and members are kept as ISO-8859-1 strings, a lossless view of arbitrary bytes */
+  static String text(byte[] bytes) {
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  private static final class WrongTypeException extends RuntimeException {
+  }
+}
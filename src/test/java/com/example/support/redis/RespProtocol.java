@@ -0,0 +1,126 @@
+package com.example.support.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RESP2 codec: reads client commands and writes replies
+ */
+final class RespProtocol {
+
+  /** Simple string reply such as {@code +OK} */
+  record Status(String text) {
+  }
+
+  /** Error reply such as {@code -ERR unknown command} */
+  record Error(String message) {
+  }
+
+  static final Status OK = new Status("OK");
+  static final Status QUEUED = new Status("QUEUED");
+  static final Object NULL_ARRAY = new Object();
+
+  private RespProtocol() {
+  }
+
+  /**
+   * Reads one command, either a RESP array of bulk strings or an inline command
+   *
+   * @return command arguments, or null at end of stream
+   */
+  static List<byte[]> readCommand(InputStream in) throws IOException {
+    int first = in.read();
+    if (first == -1) {
+      return null;
+    }
+    if (first != '*') {
+      String line = (char) first + readLine(in);
+      List<byte[]> args = new ArrayList<>();
+      for (String part : line.trim().split("\\s+")) {
+        if (!part.isEmpty()) {
+          args.add(part.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return args;
+    }
+
+    int count = Integer.parseInt(readLine(in));
+    List<byte[]> args = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int marker = in.read();
+      if (marker != '$') {
+        throw new IOException("Expected bulk string, got " + (char) marker);
+      }
+      int length = Integer.parseInt(readLine(in));
+      byte[] value = in.readNBytes(length);
+      if (value.length != length) {
+        throw new EOFException();
+      }
+      in.read();
+      in.read();
+      args.add(value);
+    }
+    return args;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int c;
+    while ((c = in.read()) != -1) {
+      if (c == '\r') {
+        in.read();
+        return line.toString();
+      }
+      if (c == '\n') {
+        return line.toString();
+      }
+      line.append((char) c);
+    }
+    throw new EOFException();
+  }
+
+  static void write(OutputStream out, Object reply) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    encode(buffer, reply);
+    buffer.writeTo(out);
+  }
+
+  private static void encode(ByteArrayOutputStream out, Object reply) {
+    if (reply == null) {
+      writeAscii(out, "$-1\r\n");
+    } else if (reply == NULL_ARRAY) {
+      writeAscii(out, "*-1\r\n");
+    } else if (reply instanceof Status status) {
+      writeAscii(out, "+" + status.text() + "\r\n");
+    } else if (reply instanceof Error error) {
+      writeAscii(out, "-" + error.message() + "\r\n");
+    } else if (reply instanceof Long || reply instanceof Integer) {
+      writeAscii(out, ":" + reply + "\r\n");
+    } else if (reply instanceof Boolean b) {
+      writeAscii(out, ":" + (b ? 1 : 0) + "\r\n");
+    } else if (reply instanceof byte[] bytes) {
+      writeAscii(out, "$" + bytes.length + "\r\n");
+      out.writeBytes(bytes);
+      writeAscii(out, "\r\n");
+    } else if (reply instanceof String text) {
+      encode(out, text.getBytes(StandardCharsets.UTF_8));
+    } else if (reply instanceof List<?> list) {
+      writeAscii(out, "*" + list.size() + "\r\n");
+      for (Object element : list) {
+        encode(out, element);
+      }
+    } else {
+      throw new IllegalArgumentException("Unsupported reply type " + reply.getClass());
+    }
+  }
+
+  private static void writeAscii(ByteArrayOutputStream out, String text) {
+    out.writeBytes(text.getBytes(StandardCharsets.US_ASCII));
+  }
+}